@@ -21,16 +21,17 @@ import java.util.function.Function;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
+import org.eclipse.jdt.ls.core.internal.RequestScheduler.Lane;
 import org.eclipse.lsp4j.Registration;
 import org.eclipse.lsp4j.RegistrationParams;
 import org.eclipse.lsp4j.Unregistration;
 import org.eclipse.lsp4j.UnregistrationParams;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
-import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
 
 public class BaseJDTLanguageServer {
 	protected JavaClientConnection client;
 	private Set<String> registeredCapabilities = new HashSet<>(3);
+	private final RequestScheduler scheduler = new RequestScheduler();
 
 	public void connectClient(JavaLanguageClient client) {
 		this.client = new JavaClientConnection(client);
@@ -70,8 +71,24 @@ public class BaseJDTLanguageServer {
 		}
 	}
 
+	public RequestScheduler getRequestScheduler() {
+		return scheduler;
+	}
+
 	protected <R> CompletableFuture<R> computeAsync(Function<IProgressMonitor, R> code) {
-		return CompletableFutures.computeAsync(cc -> code.apply(toMonitor(cc)));
+		return computeAsync(Lane.INTERACTIVE, code);
+	}
+
+	protected <R> CompletableFuture<R> computeAsync(Lane lane, Function<IProgressMonitor, R> code) {
+		return computeAsync(lane, null, code);
+	}
+
+	/**
+	 * Runs the code on the given lane, cancelling the pending request with the
+	 * same supersede key if any.
+	 */
+	protected <R> CompletableFuture<R> computeAsync(Lane lane, String supersedeKey, Function<IProgressMonitor, R> code) {
+		return scheduler.submit(lane, supersedeKey, cc -> code.apply(toMonitor(cc)));
 	}
 
 	protected IProgressMonitor toMonitor(CancelChecker checker) {
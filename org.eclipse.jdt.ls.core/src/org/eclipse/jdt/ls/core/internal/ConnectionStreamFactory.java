@@ -15,18 +15,37 @@ package org.eclipse.jdt.ls.core.internal;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.Platform;
 
 /**
  * A factory for creating the streams for supported transmission methods.
  *
+ * The streams of sockets and pipes are buffered with direct byte buffers of
+ * <code>java.transport.bufferSize</code> bytes (64 KB by default), so that a
+ * message is read in a few reads and written in a single write.
+ *
  * @author Gorkem Ercan
  *
  */
 public class ConnectionStreamFactory {
 
+	private static final int BUFFER_SIZE = Integer.getInteger("java.transport.bufferSize", 64 * 1024);
+
 	interface StreamProvider {
 		InputStream getInputStream() throws IOException;
 
@@ -45,9 +64,11 @@ public class ConnectionStreamFactory {
 		}
 
 		private void initializeConnection() throws IOException {
-			Socket socket = new Socket(host, port);
-			fInputStream = socket.getInputStream();
-			fOutputStream = socket.getOutputStream();
+			SocketChannel channel = SocketChannel.open(new InetSocketAddress(host == null ? JDTEnvironmentUtils.DEFAULT_CLIENT_HOST : host, port));
+			// the messages are written at once by the buffered stream
+			channel.socket().setTcpNoDelay(true);
+			fInputStream = new ChannelInputStream(channel, BUFFER_SIZE);
+			fOutputStream = new ChannelOutputStream(channel, BUFFER_SIZE);
 		}
 
 		@Override
@@ -67,6 +88,228 @@ public class ConnectionStreamFactory {
 		}
 	}
 
+	/**
+	 * Connects to a Unix domain socket, or to a named pipe on Windows.
+	 */
+	protected final class PipeStreamProvider implements StreamProvider {
+		private final String pipe;
+		private InputStream fInputStream;
+		private OutputStream fOutputStream;
+
+		public PipeStreamProvider(String pipe) {
+			this.pipe = pipe;
+		}
+
+		private void initializeConnection() throws IOException {
+			ByteChannel channel = isWindows() ? openNamedPipe(pipe) : openUnixDomainSocket(pipe);
+			fInputStream = new ChannelInputStream(channel, BUFFER_SIZE);
+			fOutputStream = new ChannelOutputStream(channel, BUFFER_SIZE);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			if (fInputStream == null) {
+				initializeConnection();
+			}
+			return fInputStream;
+		}
+
+		@Override
+		public OutputStream getOutputStream() throws IOException {
+			if (fOutputStream == null) {
+				initializeConnection();
+			}
+			return fOutputStream;
+		}
+	}
+
+	/**
+	 * Opens a Unix domain socket with the API of Java 16, which isn't available
+	 * to the Java version this bundle is compiled for.
+	 */
+	private static ByteChannel openUnixDomainSocket(String path) throws IOException {
+		SocketAddress address;
+		SocketChannel channel;
+		try {
+			address = (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", String.class).invoke(null, path);
+			ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+			channel = (SocketChannel) SocketChannel.class.getMethod("open", ProtocolFamily.class).invoke(null, unix);
+		} catch (ReflectiveOperationException | IllegalArgumentException e) {
+			throw new IOException("Unix domain sockets require Java 16 or later", e);
+		}
+		try {
+			channel.connect(address);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		return channel;
+	}
+
+	/**
+	 * Opens a named pipe with an asynchronous channel, since a synchronous one
+	 * can't write while a read is pending on Windows.
+	 */
+	private static ByteChannel openNamedPipe(String name) throws IOException {
+		AsynchronousFileChannel channel = AsynchronousFileChannel.open(Paths.get(name), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		return new ByteChannel() {
+
+			@Override
+			public int read(ByteBuffer dst) throws IOException {
+				// pipes have no position
+				return get(channel.read(dst, 0));
+			}
+
+			@Override
+			public int write(ByteBuffer src) throws IOException {
+				return get(channel.write(src, 0));
+			}
+
+			private int get(Future<Integer> result) throws IOException {
+				try {
+					return result.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(e);
+				} catch (ExecutionException e) {
+					throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+				}
+			}
+
+			@Override
+			public boolean isOpen() {
+				return channel.isOpen();
+			}
+
+			@Override
+			public void close() throws IOException {
+				channel.close();
+			}
+		};
+	}
+
+	/**
+	 * Reads a channel through a direct buffer.
+	 */
+	static final class ChannelInputStream extends InputStream {
+		private final ReadableByteChannel channel;
+		private final ByteBuffer buffer;
+
+		ChannelInputStream(ReadableByteChannel channel, int size) {
+			this.channel = channel;
+			this.buffer = ByteBuffer.allocateDirect(size);
+			this.buffer.flip();
+		}
+
+		@Override
+		public int read() throws IOException {
+			return fill() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			int read = Math.min(len, buffer.remaining());
+			buffer.get(b, off, read);
+			return read;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+
+		/**
+		 * @return whether there are bytes to read, <code>false</code> at the
+		 *         end of the stream
+		 */
+		private boolean fill() throws IOException {
+			if (buffer.hasRemaining()) {
+				return true;
+			}
+			buffer.clear();
+			int read;
+			do {
+				read = channel.read(buffer);
+			} while (read == 0);
+			buffer.flip();
+			return read > 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes to a channel through a direct buffer, which is only written when
+	 * full or flushed. Writes larger than the buffer are written directly.
+	 */
+	static final class ChannelOutputStream extends OutputStream {
+		private final WritableByteChannel channel;
+		private final ByteBuffer buffer;
+
+		ChannelOutputStream(WritableByteChannel channel, int size) {
+			this.channel = channel;
+			this.buffer = ByteBuffer.allocateDirect(size);
+		}
+
+		@Override
+		public synchronized void write(int b) throws IOException {
+			if (!buffer.hasRemaining()) {
+				flushBuffer();
+			}
+			buffer.put((byte) b);
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) throws IOException {
+			if (len > buffer.remaining()) {
+				flushBuffer();
+				if (len > buffer.capacity()) {
+					writeFully(ByteBuffer.wrap(b, off, len));
+					return;
+				}
+			}
+			buffer.put(b, off, len);
+		}
+
+		@Override
+		public synchronized void flush() throws IOException {
+			flushBuffer();
+		}
+
+		private void flushBuffer() throws IOException {
+			buffer.flip();
+			try {
+				writeFully(buffer);
+			} finally {
+				buffer.clear();
+			}
+		}
+
+		private void writeFully(ByteBuffer source) throws IOException {
+			while (source.hasRemaining()) {
+				channel.write(source);
+			}
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			try {
+				flushBuffer();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
 	protected final class StdIOStreamProvider implements StreamProvider {
 
 		/* (non-Javadoc)
@@ -101,6 +344,10 @@ public class ConnectionStreamFactory {
 	}
 
 	private StreamProvider createProvider() {
+		String pipe = JDTEnvironmentUtils.getClientPipe();
+		if (pipe != null) {
+			return new PipeStreamProvider(pipe);
+		}
 		Integer port = JDTEnvironmentUtils.getClientPort();
 		if (port != null) {
 			return new SocketStreamProvider(JDTEnvironmentUtils.getClientHost(), port);
@@ -12,8 +12,6 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal;
 
-import java.io.IOException;
-import java.io.Reader;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -28,16 +26,25 @@ import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IImportDeclaration;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.ILocalVariable;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeParameter;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.SourceRange;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
 import org.eclipse.jdt.core.search.SearchEngine;
@@ -47,8 +54,10 @@ import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.core.search.SearchRequestor;
 import org.eclipse.jdt.internal.core.BinaryMember;
 import org.eclipse.jdt.ls.core.internal.handlers.CompletionResolveHandler;
+import org.eclipse.jdt.ls.core.internal.handlers.JsonRpcHelpers;
 import org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels;
-import org.eclipse.jdt.ls.core.internal.javadoc.JavadocContentAccess2;
+import org.eclipse.jdt.ls.core.internal.hover.TypeExistenceIndex;
+import org.eclipse.jdt.ls.core.internal.javadoc.JavadocCache;
 import org.eclipse.jdt.ls.core.internal.managers.IBuildSupport;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.jface.text.IRegion;
@@ -56,8 +65,6 @@ import org.eclipse.jface.text.Region;
 import org.eclipse.lsp4j.MarkedString;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
-import com.google.common.io.CharStreams;
-
 public class HoverInfoProvider {
 
 	private static final long LABEL_FLAGS=
@@ -121,7 +128,7 @@ public class HoverInfoProvider {
 			if (monitor.isCanceled()) {
 				return cancelled(res);
 			}
-			if (JDTEnvironmentUtils.isSyntaxServer() || isResolved(curr, monitor)) {
+			if (JDTEnvironmentUtils.isSyntaxServer() || isResolved(curr, line, column, monitor)) {
 				IBuffer buffer = curr.getOpenable().getBuffer();
 				if (buffer == null && curr instanceof BinaryMember) {
 					IClassFile classFile = ((BinaryMember) curr).getClassFile();
@@ -162,7 +169,14 @@ public class HoverInfoProvider {
 		return res;
 	}
 
-	private boolean isResolved(IJavaElement element, IProgressMonitor monitor) throws CoreException {
+	/**
+	 * Checks that the type selected at the position is the one the compiler
+	 * resolves, since code select also guesses unresolved types by name. Uses
+	 * the bindings of the reconciled AST when it is available, otherwise the
+	 * imports of the unit and the types found on the classpath, and searches
+	 * the occurrences of the type in the unit when they aren't conclusive.
+	 */
+	private boolean isResolved(IJavaElement element, int line, int column, IProgressMonitor monitor) throws CoreException {
 		if (!(unit instanceof ICompilationUnit)) {
 			return true;
 		}
@@ -172,7 +186,71 @@ public class HoverInfoProvider {
 		if (element.getElementType() != IJavaElement.TYPE) {
 			return true;
 		}
-		SearchPattern pattern = SearchPattern.createPattern(element, IJavaSearchConstants.ALL_OCCURRENCES);
+		IType type = (IType) element;
+		int offset = JsonRpcHelpers.toOffset(unit.getBuffer(), line, column);
+		CompilationUnit ast = offset < 0 ? null : CoreASTProvider.getInstance().getAST(unit, CoreASTProvider.WAIT_ACTIVE_ONLY, monitor);
+		if (ast != null) {
+			ASTNode node = NodeFinder.perform(ast, offset, 0);
+			// the AST may not be up to date with the buffer yet
+			if (node instanceof SimpleName && type.getElementName().equals(((SimpleName) node).getIdentifier())) {
+				IBinding binding = ((SimpleName) node).resolveBinding();
+				if (binding instanceof ITypeBinding) {
+					ITypeBinding typeBinding = (ITypeBinding) binding;
+					IJavaElement resolved = typeBinding.isRecovered() ? null : typeBinding.getTypeDeclaration().getJavaElement();
+					return resolved != null && type.getPrimaryElement().equals(resolved.getPrimaryElement());
+				}
+			}
+		}
+		Boolean visible = isVisible(type, offset);
+		return visible != null ? visible : hasOccurrences(type, monitor);
+	}
+
+	/**
+	 * @return whether the type is visible by its simple name at the offset, or
+	 *         <code>null</code> if it's unknown, e.g. for the member types
+	 *         inherited from super types
+	 */
+	private Boolean isVisible(IType type, int offset) throws JavaModelException {
+		ICompilationUnit cu = (ICompilationUnit) unit;
+		ICompilationUnit declaringUnit = type.getCompilationUnit();
+		if (declaringUnit != null && declaringUnit.getPrimary().equals(cu.getPrimary())) {
+			return true;
+		}
+		String fullyQualifiedName = type.getFullyQualifiedName('.');
+		if (!TypeExistenceIndex.getInstance().exists(cu.getJavaProject(), fullyQualifiedName)) {
+			return false;
+		}
+		// a qualified name, whose qualifier code select resolved
+		IBuffer buffer = cu.getBuffer();
+		int start = offset;
+		while (start > 0 && Character.isJavaIdentifierPart(buffer.getChar(start - 1))) {
+			start--;
+		}
+		while (start > 0 && Character.isWhitespace(buffer.getChar(start - 1))) {
+			start--;
+		}
+		if (start > 0 && buffer.getChar(start - 1) == '.') {
+			return true;
+		}
+		IType declaringType = type.getDeclaringType();
+		String containerName = declaringType == null ? type.getPackageFragment().getElementName() : declaringType.getFullyQualifiedName('.');
+		if (declaringType == null && (containerName.equals(cu.getParent().getElementName()) || "java.lang".equals(containerName))) {
+			return true;
+		}
+		for (IImportDeclaration importDeclaration : cu.getImports()) {
+			String name = importDeclaration.getElementName();
+			if (importDeclaration.isOnDemand() ? name.equals(containerName + ".*") : name.equals(fullyQualifiedName)) {
+				return true;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return whether the type is accurately referenced in the unit
+	 */
+	private boolean hasOccurrences(IType type, IProgressMonitor monitor) throws CoreException {
+		SearchPattern pattern = SearchPattern.createPattern(type, IJavaSearchConstants.ALL_OCCURRENCES);
 		final boolean[] res = new boolean[1];
 		res[0] = false;
 		SearchEngine engine = new SearchEngine();
@@ -264,16 +342,10 @@ public class HoverInfoProvider {
 		} else if (element instanceof IMember) {
 			member= (IMember) element;
 		} else if (element instanceof IPackageFragment) {
-			Reader r = JavadocContentAccess2.getMarkdownContentReader(element);
-			if (r != null) {
-				result = getString(r);
-			}
+			result = JavadocCache.getInstance().getMarkdownContent(element);
 		}
 		if (member != null) {
-			Reader r = JavadocContentAccess2.getMarkdownContentReader(member);
-			if (r != null) {
-				result = getString(r);
-			}
+			result = JavadocCache.getInstance().getMarkdownContent(member);
 			if (member instanceof IMethod) {
 				String defaultValue = getDefaultValue((IMethod) member);
 				if (defaultValue != null) {
@@ -288,21 +360,6 @@ public class HoverInfoProvider {
 		return result != null ? new MarkedString(LANGUAGE_ID, result) : null;
 	}
 
-	/**
-	 * Gets the reader content as a String
-	 *
-	 * @param reader the reader
-	 * @return the reader content as string
-	 */
-	private static String getString(Reader reader) {
-		try {
-			return CharStreams.toString(reader);
-		} catch (IOException ignored) {
-			//meh
-		}
-		return null;
-	}
-
 	private class HoverException extends CoreException {
 
 		private static final long serialVersionUID = 1L;
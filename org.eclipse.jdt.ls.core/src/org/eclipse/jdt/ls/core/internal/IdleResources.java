@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+import org.eclipse.jdt.ls.core.internal.handlers.TypeNameIndex;
+import org.eclipse.jdt.ls.core.internal.hover.TypeExistenceIndex;
+import org.eclipse.jdt.ls.core.internal.javadoc.JavadocCache;
+import org.eclipse.jdt.ls.core.internal.managers.ContentProviderManager;
+
+/**
+ * Releases the memory held by the shared AST and the caches while the server
+ * is idle, and prepares the server again once it receives a message.
+ */
+final class IdleResources {
+
+	// the element whose AST was released when the server became idle
+	private volatile ITypeRoot idleJavaElement;
+	// whether the type name index was built when the server became idle
+	private volatile boolean typeNameIndexBuilt;
+
+	/**
+	 * Releases the shared AST, flushes the caches and trims the type
+	 * hierarchy cache, then suggests a garbage collection.
+	 */
+	void release() {
+		long before = getResidentMemory();
+		CoreASTProvider astProvider = CoreASTProvider.getInstance();
+		idleJavaElement = astProvider.getActiveJavaElement();
+		astProvider.disposeAST();
+		JavadocCache.getInstance().reset();
+		TypeExistenceIndex.getInstance().reset();
+		TypeNameIndex typeNameIndex = TypeNameIndex.getInstance();
+		typeNameIndexBuilt = typeNameIndex.isBuilt();
+		typeNameIndex.reset();
+		ContentProviderManager contentProviderManager = JavaLanguageServerPlugin.getInstance() == null ? null : JavaLanguageServerPlugin.getContentProviderManager();
+		if (contentProviderManager != null) {
+			contentProviderManager.getCache().clearMemory();
+		}
+		TypeHierarchyCacheTrimmer.trim();
+		System.gc();
+		JavaLanguageServerPlugin.logInfo("Released the resources of the idle server, resident memory: " + toMegabytes(before) + " before, " + toMegabytes(getResidentMemory()) + " after");
+	}
+
+	/**
+	 * Creates the AST of the element which was active when the server became
+	 * idle again, unless another element has been made active meanwhile, and
+	 * rebuilds the type name index if it was built, so that the first
+	 * requests don't have to.
+	 */
+	void warmUp(IProgressMonitor monitor) {
+		ITypeRoot element = idleJavaElement;
+		idleJavaElement = null;
+		CoreASTProvider astProvider = CoreASTProvider.getInstance();
+		// disposing the AST leaves the active element as it was
+		if (element != null && element.exists() && element.equals(astProvider.getActiveJavaElement())) {
+			astProvider.getAST(element, CoreASTProvider.WAIT_YES, monitor);
+		}
+		if (typeNameIndexBuilt) {
+			typeNameIndexBuilt = false;
+			try {
+				TypeNameIndex.getInstance().prepare(monitor);
+			} catch (JavaModelException e) {
+				JavaLanguageServerPlugin.logException("Unable to index the type names", e);
+			}
+		}
+	}
+
+	/**
+	 * @return the resident set size of the server on Linux, the heap in use
+	 *         otherwise
+	 */
+	private static long getResidentMemory() {
+		Path status = Paths.get("/proc/self/status");
+		if (Files.isReadable(status)) {
+			try {
+				for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+					if (line.startsWith("VmRSS:")) {
+						// in kB
+						return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim()) * 1024;
+					}
+				}
+			} catch (IOException | NumberFormatException e) {
+				// fall back to the heap
+			}
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static String toMegabytes(long bytes) {
+		return (bytes / (1024 * 1024)) + " MB";
+	}
+}
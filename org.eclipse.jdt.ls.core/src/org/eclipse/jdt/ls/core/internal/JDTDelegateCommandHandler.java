@@ -24,6 +24,7 @@ import org.eclipse.jdt.ls.core.internal.commands.ProjectCommand;
 import org.eclipse.jdt.ls.core.internal.commands.SemanticTokensCommand;
 import org.eclipse.jdt.ls.core.internal.commands.SourceAttachmentCommand;
 import org.eclipse.jdt.ls.core.internal.commands.ProjectCommand.ClasspathOptions;
+import org.eclipse.jdt.ls.core.internal.handlers.CodeActionHandler;
 import org.eclipse.lsp4j.WorkspaceEdit;
 
 public class JDTDelegateCommandHandler implements IDelegateCommandHandler {
@@ -38,17 +39,13 @@ public class JDTDelegateCommandHandler implements IDelegateCommandHandler {
 				case "java.edit.organizeImports":
 					final OrganizeImportsCommand c = new OrganizeImportsCommand();
 					final Object result = c.organizeImports(arguments);
-					final boolean applyNow = JavaLanguageServerPlugin.getPreferencesManager().getClientPreferences().isWorkspaceApplyEditSupported();
-					if (applyNow) {
-						JavaLanguageServerPlugin.getInstance().getClientConnection().applyWorkspaceEdit((WorkspaceEdit) result);
-						// return an empty object to avoid errors on client
-						return new Object();
-					} else {
-						// we are returning a workspace edit here in order to accomodate the clients that
-						// did not implement workspace/applyEdit from LSP. This still allows them to implement applying
-						// workspaceEdit on the custom command.
-						return result;
+					return applyWorkspaceEdit((WorkspaceEdit) result);
+				case CodeActionHandler.COMMAND_ID_APPLY_CODE_ACTION:
+					WorkspaceEdit edit = CodeActionHandler.resolveWorkspaceEdit((String) arguments.get(0), monitor);
+					if (edit == null) {
+						throw new IllegalStateException("The code action has no change, or is outdated because the document was modified since it was computed.");
 					}
+					return applyWorkspaceEdit(edit);
 				case "java.project.resolveSourceAttachment":
 					return SourceAttachmentCommand.resolveSourceAttachment(arguments, monitor);
 				case "java.project.updateSourceAttachment":
@@ -73,6 +70,8 @@ public class JDTDelegateCommandHandler implements IDelegateCommandHandler {
 					return DiagnosticsCommand.refreshDiagnostics((String) arguments.get(0), (String) arguments.get(1), (boolean) arguments.get(2));
 				case "java.project.provideSemanticTokens":
 					return SemanticTokensCommand.provide((String) arguments.get(0));
+				case "java.project.provideSemanticTokensEdits":
+					return SemanticTokensCommand.provideEdits((String) arguments.get(0), (String) arguments.get(1)).get();
 				case "java.project.getSemanticTokensLegend":
 					return SemanticTokensCommand.getLegend();
 				case "java.project.import":
@@ -85,4 +84,18 @@ public class JDTDelegateCommandHandler implements IDelegateCommandHandler {
 		throw new UnsupportedOperationException(String.format("Java language server doesn't support the command '%s'.", commandId));
 	}
 
+	private static Object applyWorkspaceEdit(WorkspaceEdit edit) {
+		final boolean applyNow = JavaLanguageServerPlugin.getPreferencesManager().getClientPreferences().isWorkspaceApplyEditSupported();
+		if (applyNow) {
+			JavaLanguageServerPlugin.getInstance().getClientConnection().applyWorkspaceEdit(edit);
+			// return an empty object to avoid errors on client
+			return new Object();
+		} else {
+			// we are returning a workspace edit here in order to accomodate the clients that
+			// did not implement workspace/applyEdit from LSP. This still allows them to implement applying
+			// workspaceEdit on the custom command.
+			return edit;
+		}
+	}
+
 }
@@ -20,6 +20,7 @@ public class JDTEnvironmentUtils {
 
 	public static final String CLIENT_PORT = "CLIENT_PORT";
 	public static final String CLIENT_HOST = "CLIENT_HOST";
+	public static final String CLIENT_PIPE = "CLIENT_PIPE";
 	public static final String DEFAULT_CLIENT_HOST = "localhost";
 	public static final String SYNTAX_SERVER_ID = "syntaxserver";
 
@@ -49,6 +50,19 @@ public class JDTEnvironmentUtils {
 		return null;
 	}
 
+	/**
+	 * Returns with the client pipe if set. Otherwise, returns with {@code null}.
+	 *
+	 * When the client pipe environment variable is set, then the language client
+	 * and the server communicate through the Unix domain socket at this path, or
+	 * through the named pipe with this name on Windows (e.g.
+	 * {@code \\.\pipe\jdtls}), instead of the standard IO stream or
+	 * plain socket ones.
+	 */
+	public static String getClientPipe() {
+		return Environment.get(CLIENT_PIPE);
+	}
+
 	/**
 	 * Returns with the client host. Defaults to {@code localhost} if not set. Has
 	 * absolutely no effect, if this is set but the {@code CLIENT_PORT} is not.
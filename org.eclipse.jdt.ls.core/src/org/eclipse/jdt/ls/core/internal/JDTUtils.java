@@ -117,6 +117,7 @@ import org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels;
 import org.eclipse.jdt.ls.core.internal.javadoc.JavaElementLinks;
 import org.eclipse.jdt.ls.core.internal.managers.ContentProviderManager;
 import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
+import org.eclipse.jdt.ls.core.internal.managers.SymbolRanges;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
@@ -506,7 +507,7 @@ public final class JDTUtils {
 		return nameRange;
 	}
 
-	private static ISourceRange getSourceRange(IJavaElement element) throws JavaModelException {
+	public static ISourceRange getSourceRange(IJavaElement element) throws JavaModelException {
 		ISourceRange sourceRange = null;
 		if (element instanceof IMember) {
 			IMember member = (IMember) element;
@@ -546,6 +547,32 @@ public final class JDTUtils {
 		return toLocation(classFile, 0, 0);
 	}
 
+	/**
+	 * Creates a location for a member of a class file without attached source,
+	 * in the text content provided for the class file, e.g. decompiled. Falls
+	 * back to the default location of the class file if the member isn't found
+	 * in the content.
+	 *
+	 * @param member
+	 * @param type the range type. The {@link LocationType#NAME_RANGE name} or {@link LocationType#FULL_RANGE full} range.
+	 * @param monitor
+	 * @return location or null
+	 * @throws JavaModelException
+	 */
+	public static Location toContentLocation(IMember member, LocationType type, IProgressMonitor monitor) throws JavaModelException {
+		IClassFile classFile = member.getClassFile();
+		Location location = classFile == null ? null : toLocation(classFile);
+		ContentProviderManager contentProvider = JavaLanguageServerPlugin.getContentProviderManager();
+		if (location != null && contentProvider != null) {
+			SymbolRanges ranges = contentProvider.getSymbolRanges(classFile, monitor);
+			Range range = ranges == null ? null : ranges.getRange(member, type == LocationType.NAME_RANGE);
+			if (range != null) {
+				location.setRange(range);
+			}
+		}
+		return location;
+	}
+
 	/**
 	 * Creates a default location for the uri.
 	 *
@@ -632,8 +659,9 @@ public final class JDTUtils {
 			int[] endLoc = null;
 			IBuffer buffer = openable.getBuffer();
 			if (buffer != null) {
-				loc = JsonRpcHelpers.toLine(buffer, offset);
-				endLoc = JsonRpcHelpers.toLine(buffer, offset + length);
+				int[][] locs = JsonRpcHelpers.toLines(buffer, offset, offset + length);
+				loc = locs[0];
+				endLoc = locs[1];
 			}
 			if (loc == null) {
 				loc = new int[2];
@@ -13,7 +13,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal;
 
+import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
 
@@ -22,16 +25,39 @@ import com.google.gson.JsonElement;
 
 /**
  * JSONUtility
+ *
+ * The Gson instances are shared, since they are thread-safe and creating them
+ * builds all their type adapters again.
  */
 public class JSONUtility {
 
+	private static final Gson GSON = new Gson();
+
+	/**
+	 * Holds the Gson with the TypeAdapters from lsp4j, created on first use.
+	 */
+	private static final class Lsp4jGson {
+		private static final Gson INSTANCE = new MessageJsonHandler(new HashMap<>()).getGson();
+	}
+
 	/**
 	 * Converts given JSON objects to given Model objects.
 	 *
 	 * @throws IllegalArgumentException if clazz is null
 	 */
 	public static <T> T toModel(Object object, Class<T> clazz){
-		return toModel(new Gson(), object, clazz);
+		return toModel(GSON, object, clazz);
+	}
+
+	/**
+	 * Converts given JSON objects to given generic Model objects, e.g.
+	 * <code>List&lt;String&gt;</code>.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if type is null
+	 */
+	public static <T> T toModel(Object object, Type type) {
+		return toModel(GSON, object, type);
 	}
 
 	/**
@@ -42,24 +68,30 @@ public class JSONUtility {
 	 *             if clazz is null
 	 */
 	public static <T> T toLsp4jModel(Object object, Class<T> clazz) {
-		return toModel(new MessageJsonHandler(new HashMap<>()).getGson(), object, clazz);
+		return toModel(Lsp4jGson.INSTANCE, object, clazz);
 	}
 
-	private static <T> T toModel(Gson gson, Object object, Class<T> clazz) {
+	@SuppressWarnings("unchecked")
+	private static <T> T toModel(Gson gson, Object object, Type type) {
 		if(object == null){
 			return null;
 		}
-		if(clazz == null ){
+		if(type == null ){
 			throw new IllegalArgumentException("Class can not be null");
 		}
 		if(object instanceof JsonElement){
-			return gson.fromJson((JsonElement) object, clazz);
+			return gson.fromJson((JsonElement) object, type);
 		}
-		if (clazz.isInstance(object)) {
-			return clazz.cast(object);
+		if (type instanceof Class && ((Class<?>) type).isInstance(object)) {
+			return (T) object;
 		}
 		if (object instanceof String) {
-			return gson.fromJson((String) object, clazz);
+			return gson.fromJson((String) object, type);
+		}
+		if (object instanceof Map || object instanceof Collection) {
+			// values deserialized without type, like the results of client commands,
+			// are converted without writing them to a string
+			return gson.fromJson(gson.toJsonTree(object), type);
 		}
 		return null;
 	}
@@ -15,6 +15,8 @@ package org.eclipse.jdt.ls.core.internal;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -24,6 +26,7 @@ import org.eclipse.jdt.ls.core.internal.lsp.ExecuteCommandProposedClient;
 import org.eclipse.lsp4j.ApplyWorkspaceEditParams;
 import org.eclipse.lsp4j.ApplyWorkspaceEditResponse;
 import org.eclipse.lsp4j.Command;
+import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.ExecuteCommandParams;
 import org.eclipse.lsp4j.MessageActionItem;
 import org.eclipse.lsp4j.MessageParams;
@@ -77,6 +80,8 @@ public class JavaClientConnection {
 
 	private final LogHandler logHandler;
 	private final JavaLanguageClient client;
+	// the non empty diagnostics last published, by URI
+	private final Map<String, List<Diagnostic>> publishedDiagnostics = new ConcurrentHashMap<>();
 
 	public JavaClientConnection(JavaLanguageClient client) {
 		this.client = client;
@@ -183,9 +188,24 @@ public class JavaClientConnection {
 	}
 
 	public void publishDiagnostics(PublishDiagnosticsParams diagnostics){
+		if (diagnostics.getDiagnostics() == null || diagnostics.getDiagnostics().isEmpty()) {
+			publishedDiagnostics.remove(diagnostics.getUri());
+		} else {
+			publishedDiagnostics.put(diagnostics.getUri(), diagnostics.getDiagnostics());
+		}
 		client.publishDiagnostics(diagnostics);
 	}
 
+	/**
+	 * @return whether the given diagnostics are the ones last published for
+	 *         the URI, no diagnostics having been published being the same as
+	 *         empty ones
+	 */
+	public boolean isPublished(String uri, List<Diagnostic> diagnostics) {
+		List<Diagnostic> published = publishedDiagnostics.get(uri);
+		return published == null ? diagnostics.isEmpty() : published.equals(diagnostics);
+	}
+
 
 	/**
 	 * Sends a message to client to apply the given workspace edit.
@@ -62,6 +62,7 @@ import org.eclipse.jdt.ls.core.internal.contentassist.TypeFilter;
 import org.eclipse.jdt.ls.core.internal.corext.template.java.JavaContextType;
 import org.eclipse.jdt.ls.core.internal.corext.template.java.JavaLanguageServerTemplateStore;
 import org.eclipse.jdt.ls.core.internal.handlers.JDTLanguageServer;
+import org.eclipse.jdt.ls.core.internal.javadoc.JavadocCache;
 import org.eclipse.jdt.ls.core.internal.managers.StandardProjectsManager;
 import org.eclipse.jdt.ls.core.internal.managers.ContentProviderManager;
 import org.eclipse.jdt.ls.core.internal.managers.DigestStore;
@@ -180,7 +181,7 @@ public class JavaLanguageServerPlugin extends Plugin {
 		} catch (CoreException e) {
 			logException(e.getMessage(), e);
 		}
-		contentProviderManager = new ContentProviderManager(preferenceManager);
+		contentProviderManager = new ContentProviderManager(preferenceManager, getStateLocation().append("content-cache").toFile());
 		nonProjectDiagnosticsState = new DiagnosticsState();
 		logInfo(getClass() + " is started");
 		configureProxy();
@@ -374,6 +375,7 @@ public class JavaLanguageServerPlugin extends Plugin {
 		JavaLanguageServerPlugin.pluginInstance = null;
 		JavaLanguageServerPlugin.context = null;
 		ResourcesPlugin.getWorkspace().removeSaveParticipant(IConstants.PLUGIN_ID);
+		JavadocCache.getInstance().reset();
 		projectsManager = null;
 		contentProviderManager = null;
 		languageServer = null;
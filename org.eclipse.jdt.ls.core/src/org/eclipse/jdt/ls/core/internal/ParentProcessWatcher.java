@@ -13,12 +13,15 @@
 package org.eclipse.jdt.ls.core.internal;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
 
@@ -26,20 +29,33 @@ import com.google.common.io.Closeables;
 
 /**
  * Watches the parent process PID and invokes exit if it is no longer available.
- * This implementation waits for periods of inactivity to start querying the PIDs.
+ * On Java 9 and later, the exit of the parent process is notified by its
+ * process handle. Otherwise this implementation waits for periods of
+ * inactivity to start querying the PIDs.
+ *
+ * Once no message has been received for <code>java.idleTimeout</code>
+ * milliseconds (10 minutes by default, 0 to never), the memory held by the
+ * shared AST and the caches is released. They are filled again on demand, and
+ * the AST of the active element is created again on the next message.
  */
 public final class ParentProcessWatcher implements Runnable, Function<MessageConsumer, MessageConsumer>{
 
 	private static final long INACTIVITY_DELAY_SECS = 30 *1000;
 	private static final boolean isJava1x = System.getProperty("java.version").startsWith("1.");
 	private static final int POLL_DELAY_SECS = 10;
+	private static final long IDLE_TIMEOUT = Long.getLong("java.idleTimeout", 10 * 60 * 1000L);
 	private volatile long lastActivityTime;
 	private final LanguageServer server;
 	private ScheduledFuture<?> task;
 	private ScheduledExecutorService service;
+	// the exit of the parent process, once it is watched through its process handle
+	private volatile CompletableFuture<?> parentExit;
+	private volatile boolean idle;
+	private final IdleResources idleResources = new IdleResources();
 
 	public ParentProcessWatcher(LanguageServer server ) {
 		this.server = server;
+		this.lastActivityTime = System.currentTimeMillis();
 		service = Executors.newScheduledThreadPool(1);
 		task =  service.scheduleWithFixedDelay(this, POLL_DELAY_SECS, POLL_DELAY_SECS, TimeUnit.SECONDS);
 	}
@@ -47,12 +63,25 @@ public final class ParentProcessWatcher implements Runnable, Function<MessageCon
 	@Override
 	public void run() {
 		if (!parentProcessStillRunning()) {
-			JavaLanguageServerPlugin.logInfo("Parent process stopped running, forcing server exit");
-			task.cancel(true);
-			server.exit();
+			exit();
+			return;
+		}
+		if (IDLE_TIMEOUT > 0 && !idle && lastActivityTime < System.currentTimeMillis() - IDLE_TIMEOUT) {
+			idle = true;
+			try {
+				idleResources.release();
+			} catch (RuntimeException e) {
+				JavaLanguageServerPlugin.logException("Unable to release the resources of the idle server", e);
+			}
 		}
 	}
 
+	private void exit() {
+		JavaLanguageServerPlugin.logInfo("Parent process stopped running, forcing server exit");
+		task.cancel(true);
+		server.exit();
+	}
+
 	/**
 	 * Checks whether the parent process is still running.
 	 * If not, then we assume it has crashed, and we have to terminate the Java Language Server.
@@ -62,7 +91,10 @@ public final class ParentProcessWatcher implements Runnable, Function<MessageCon
 	private boolean parentProcessStillRunning() {
 		// Wait until parent process id is available
 		final long pid = server.getParentProcessId();
-		if (pid == 0 || lastActivityTime > (System.currentTimeMillis() - INACTIVITY_DELAY_SECS)) {
+		if (pid == 0 || parentExit != null || watchParentExit(pid)) {
+			return true;
+		}
+		if (lastActivityTime > (System.currentTimeMillis() - INACTIVITY_DELAY_SECS)) {
 			return true;
 		}
 		String command;
@@ -115,11 +147,49 @@ public final class ParentProcessWatcher implements Runnable, Function<MessageCon
 		}
 	}
 
+	/**
+	 * Gets notified of the exit of the parent process through its process
+	 * handle, which is only available from Java 9, so it is accessed by
+	 * reflection.
+	 *
+	 * @return true if the exit of the parent process is notified
+	 */
+	private boolean watchParentExit(long pid) {
+		if (isJava1x) {
+			return false;
+		}
+		try {
+			Class<?> processHandle = Class.forName("java.lang.ProcessHandle");
+			Optional<?> handle = (Optional<?>) processHandle.getMethod("of", long.class).invoke(null, pid);
+			if (handle.isPresent()) {
+				parentExit = (CompletableFuture<?>) processHandle.getMethod("onExit").invoke(handle.get());
+			} else {
+				parentExit = CompletableFuture.completedFuture(null);
+			}
+			parentExit.thenRun(this::exit);
+			return true;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			JavaLanguageServerPlugin.logException("Unable to watch the parent process " + pid, e);
+			return false;
+		}
+	}
+
 	@Override
 	public MessageConsumer apply(final MessageConsumer consumer) {
 		//inject our own consumer to refresh the timestamp
 		return message -> {
 			lastActivityTime=System.currentTimeMillis();
+			if (idle) {
+				idle = false;
+				service.execute(() -> {
+					JavaLanguageServerPlugin.logInfo("The idle server received a message, warming up");
+					try {
+						idleResources.warmUp(new NullProgressMonitor());
+					} catch (RuntimeException e) {
+						JavaLanguageServerPlugin.logException("Unable to warm up the idle server", e);
+					}
+				});
+			}
 			consumer.consume(message);
 		};
 	}
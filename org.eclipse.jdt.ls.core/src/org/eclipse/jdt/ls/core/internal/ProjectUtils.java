@@ -22,6 +22,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -343,6 +344,18 @@ public final class ProjectUtils {
 	}
 
 	public static Set<Path> collectBinaries(IPath projectDir, Set<String> include, Set<String> exclude, IProgressMonitor monitor) throws CoreException {
+		return collectBinaries(projectDir, include, exclude, new HashMap<>(), monitor);
+	}
+
+	/**
+	 * Collects the binaries matching the given globs, reusing the scans of the
+	 * directories already scanned with the same globs.
+	 *
+	 * @param scans
+	 *            the binaries found by the previous scans, updated with the
+	 *            new ones. It must be thread-safe if shared by several threads.
+	 */
+	public static Set<Path> collectBinaries(IPath projectDir, Set<String> include, Set<String> exclude, Map<String, List<Path>> scans, IProgressMonitor monitor) throws CoreException {
 		Set<Path> binaries = new LinkedHashSet<>();
 		Map<IPath, Set<String>> includeByPrefix = groupGlobsByPrefix(projectDir, include);
 		Set<IPath> excludeResolved = exclude.stream().map(glob -> resolveGlobPath(projectDir, glob)).collect(Collectors.toSet());
@@ -361,22 +374,34 @@ public final class ProjectUtils {
 				continue; // base does not exist
 			}
 			Set<String> subInclude = includeByPrefix.get(baseDir);
-			Set<String> subExclude = excludeResolved.stream().map(glob -> glob.makeRelativeTo(baseDir).toOSString()).collect(Collectors.toSet());
-			DirectoryScanner scanner = new DirectoryScanner();
-			try {
-				scanner.setIncludes(subInclude.toArray(new String[subInclude.size()]));
-				scanner.setExcludes(subExclude.toArray(new String[subExclude.size()]));
-				scanner.addDefaultExcludes();
-				scanner.setBasedir(base.toFile());
-				scanner.scan();
-			} catch (IllegalStateException e) {
-				throw new CoreException(StatusFactory.newErrorStatus("Unable to collect binaries", e));
+			Set<String> subExclude = excludeResolved.stream().map(glob -> glob.makeRelativeTo(baseDir).toOSString()).collect(Collectors.toCollection(TreeSet::new));
+			String key = base + "|" + new TreeSet<>(subInclude) + "|" + subExclude;
+			List<Path> scanned = scans.get(key);
+			if (scanned == null) {
+				scanned = scanBinaries(base, subInclude, subExclude);
+				scans.put(key, scanned);
 			}
-			for (String result: scanner.getIncludedFiles()) {
-				Path file = base.resolve(result);
-				if (isBinary(file))	{
-					binaries.add(file);
-				}
+			binaries.addAll(scanned);
+		}
+		return binaries;
+	}
+
+	private static List<Path> scanBinaries(Path base, Set<String> include, Set<String> exclude) throws CoreException {
+		DirectoryScanner scanner = new DirectoryScanner();
+		try {
+			scanner.setIncludes(include.toArray(new String[include.size()]));
+			scanner.setExcludes(exclude.toArray(new String[exclude.size()]));
+			scanner.addDefaultExcludes();
+			scanner.setBasedir(base.toFile());
+			scanner.scan();
+		} catch (IllegalStateException e) {
+			throw new CoreException(StatusFactory.newErrorStatus("Unable to collect binaries", e));
+		}
+		List<Path> binaries = new ArrayList<>();
+		for (String result: scanner.getIncludedFiles()) {
+			Path file = base.resolve(result);
+			if (isBinary(file))	{
+				binaries.add(file);
 			}
 		}
 		return binaries;
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseError;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
+
+/**
+ * Runs the language server requests on bounded thread pools, one per
+ * {@link Lane}, so that long searches can't starve the requests the user is
+ * waiting on.
+ *
+ * The size of each lane can be set with the
+ * <code>java.lsp.requests.&lt;lane&gt;.threads</code> and
+ * <code>java.lsp.requests.&lt;lane&gt;.queueSize</code> system properties.
+ */
+public class RequestScheduler {
+
+	public enum Lane {
+		/**
+		 * Requests the user is waiting on while typing, like completion or
+		 * hover.
+		 */
+		INTERACTIVE(Math.max(2, Runtime.getRuntime().availableProcessors() / 2), 64),
+		/**
+		 * Searches and other requests that may take a while, like references
+		 * or code lenses.
+		 */
+		BACKGROUND(Math.max(2, Runtime.getRuntime().availableProcessors() / 4), 128),
+		/**
+		 * Workspace wide operations, like builds and imports.
+		 */
+		BULK(1, 16);
+
+		private final int defaultThreads;
+		private final int defaultQueueSize;
+
+		Lane(int defaultThreads, int defaultQueueSize) {
+			this.defaultThreads = defaultThreads;
+			this.defaultQueueSize = defaultQueueSize;
+		}
+
+		private String key() {
+			return name().toLowerCase();
+		}
+	}
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private final Map<Lane, LaneExecutor> lanes = new EnumMap<>(Lane.class);
+	// the latest request of each supersede key
+	private final Map<String, CompletableFuture<?>> latest = new ConcurrentHashMap<>();
+
+	public RequestScheduler() {
+		for (Lane lane : Lane.values()) {
+			int threads = Integer.getInteger("java.lsp.requests." + lane.key() + ".threads", lane.defaultThreads);
+			int queueSize = Integer.getInteger("java.lsp.requests." + lane.key() + ".queueSize", lane.defaultQueueSize);
+			lanes.put(lane, new LaneExecutor(lane, Math.max(1, threads), Math.max(1, queueSize)));
+		}
+	}
+
+	/**
+	 * Schedules the code on the given lane.
+	 *
+	 * @param lane
+	 *            the lane to run the code on
+	 * @param supersedeKey
+	 *            if not <code>null</code>, a pending or running request
+	 *            submitted with the same key is cancelled
+	 * @param code
+	 *            the code to run
+	 * @return the future result, cancelling it cancels the request
+	 */
+	public <R> CompletableFuture<R> submit(Lane lane, String supersedeKey, Function<CancelChecker, R> code) {
+		LaneExecutor executor = lanes.get(lane);
+		CompletableFuture<R> result = new CompletableFuture<>();
+		if (supersedeKey != null) {
+			CompletableFuture<?> previous = latest.put(supersedeKey, result);
+			if (previous != null && previous.cancel(true)) {
+				executor.superseded.incrementAndGet();
+			}
+			result.whenComplete((r, e) -> latest.remove(supersedeKey, result));
+		}
+		long queued = System.nanoTime();
+		try {
+			executor.execute(() -> {
+				if (result.isDone()) {
+					// cancelled while queued
+					return;
+				}
+				long started = System.nanoTime();
+				executor.waitTime.addAndGet(started - queued);
+				R value;
+				try {
+					value = code.apply(() -> {
+						if (result.isCancelled()) {
+							throw new CancellationException();
+						}
+					});
+				} catch (Throwable e) {
+					executor.ran(started);
+					result.completeExceptionally(e);
+					return;
+				}
+				executor.ran(started);
+				result.complete(value);
+			});
+		} catch (RejectedExecutionException e) {
+			executor.rejected.incrementAndGet();
+			result.completeExceptionally(new ResponseErrorException(new ResponseError(ResponseErrorCode.RequestCancelled, "Too many pending " + lane.key() + " requests", null)));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the number of requests waiting to run on the lane
+	 */
+	public int getQueueDepth(Lane lane) {
+		return lanes.get(lane).getQueue().size();
+	}
+
+	/**
+	 * @return the number of requests which ran on the lane
+	 */
+	public long getCompletedCount(Lane lane) {
+		return lanes.get(lane).completed.get();
+	}
+
+	/**
+	 * @return the number of requests of the lane rejected because its queue was
+	 *         full
+	 */
+	public long getRejectedCount(Lane lane) {
+		return lanes.get(lane).rejected.get();
+	}
+
+	/**
+	 * @return the number of requests of the lane cancelled by a newer request
+	 */
+	public long getSupersededCount(Lane lane) {
+		return lanes.get(lane).superseded.get();
+	}
+
+	/**
+	 * @return the average time, in milliseconds, requests of the lane waited
+	 *         in its queue
+	 */
+	public double getAverageWaitTime(Lane lane) {
+		LaneExecutor executor = lanes.get(lane);
+		long completed = executor.completed.get();
+		return completed == 0 ? 0 : executor.waitTime.get() / 1e6 / completed;
+	}
+
+	/**
+	 * @return the average time, in milliseconds, requests of the lane ran
+	 */
+	public double getAverageRunTime(Lane lane) {
+		LaneExecutor executor = lanes.get(lane);
+		long completed = executor.completed.get();
+		return completed == 0 ? 0 : executor.runTime.get() / 1e6 / completed;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (Lane lane : Lane.values()) {
+			if (builder.length() > 0) {
+				builder.append(", ");
+			}
+			builder.append(String.format("%s: %d completed, %d queued, %d rejected, %d superseded, %.1f ms wait, %.1f ms run", lane.key(), getCompletedCount(lane), getQueueDepth(lane), getRejectedCount(lane), getSupersededCount(lane), getAverageWaitTime(lane), getAverageRunTime(lane)));
+		}
+		return builder.toString();
+	}
+
+	private static class LaneExecutor extends ThreadPoolExecutor {
+		private final AtomicLong completed = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+		private final AtomicLong superseded = new AtomicLong();
+		private final AtomicLong waitTime = new AtomicLong();
+		private final AtomicLong runTime = new AtomicLong();
+
+		LaneExecutor(Lane lane, int threads, int queueSize) {
+			super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), new LaneThreadFactory(lane));
+			allowCoreThreadTimeOut(true);
+		}
+
+		private void ran(long started) {
+			runTime.addAndGet(System.nanoTime() - started);
+			completed.incrementAndGet();
+		}
+	}
+
+	private static class LaneThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		LaneThreadFactory(Lane lane) {
+			this.prefix = "JDT LS " + lane.key() + " request ";
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
+
+/**
+ * Empties {@link SuperTypeHierarchyCache}, which has no API to do so.
+ *
+ * The private members of the cache are looked up once. If they can't be
+ * found, e.g. because a later version of the cache changed them, trimming is
+ * disabled and the cache keeps evicting its entries on its own.
+ */
+@SuppressWarnings("restriction")
+final class TypeHierarchyCacheTrimmer {
+
+	private static final List<?> CACHE;
+	private static final Method REMOVE;
+
+	static {
+		List<?> cache = null;
+		Method remove = null;
+		try {
+			Field field = SuperTypeHierarchyCache.class.getDeclaredField("fgHierarchyCache");
+			field.setAccessible(true);
+			Class<?> entryClass = Class.forName(SuperTypeHierarchyCache.class.getName() + "$HierarchyCacheEntry", false, SuperTypeHierarchyCache.class.getClassLoader());
+			remove = SuperTypeHierarchyCache.class.getDeclaredMethod("removeHierarchyEntryFromCache", entryClass);
+			remove.setAccessible(true);
+			cache = (List<?>) field.get(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			JavaLanguageServerPlugin.logException("The type hierarchy cache can't be trimmed", e);
+			remove = null;
+		}
+		CACHE = cache;
+		REMOVE = remove;
+	}
+
+	private TypeHierarchyCacheTrimmer() {
+		// no instances
+	}
+
+	/**
+	 * Removes the cached hierarchies the way the cache evicts them, so that
+	 * they stop listening to the changes of the Java model.
+	 *
+	 * @return whether the cache was trimmed
+	 */
+	static boolean trim() {
+		if (CACHE == null || REMOVE == null) {
+			return false;
+		}
+		try {
+			synchronized (CACHE) {
+				for (Object entry : new ArrayList<>(CACHE)) {
+					REMOVE.invoke(null, entry);
+				}
+			}
+			return true;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			JavaLanguageServerPlugin.logException("Unable to trim the type hierarchy cache", e);
+			return false;
+		}
+	}
+}
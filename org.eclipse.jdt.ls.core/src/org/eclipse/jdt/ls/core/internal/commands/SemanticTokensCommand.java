@@ -13,7 +13,10 @@
 
 package org.eclipse.jdt.ls.core.internal.commands;
 
-import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -25,16 +28,60 @@ import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
 import org.eclipse.jdt.ls.core.internal.handlers.DocumentLifeCycleHandler;
 import org.eclipse.jdt.ls.core.internal.handlers.JsonRpcHelpers;
+import org.eclipse.jdt.ls.core.internal.handlers.LargeFilePolicy;
 import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokenManager;
 import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokens;
+import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokensEdit;
+import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokensEdits;
 import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokensLegend;
 import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokensVisitor;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
 public class SemanticTokensCommand {
+    private static final int MAX_CACHED_DOCUMENTS = Integer.getInteger("semanticTokens.cache.maxDocuments", 32);
+    private static final AtomicLong RESULT_IDS = new AtomicLong();
+
+    // the last tokens sent for each document, by uri
+    private static final Map<String, SemanticTokens> PREVIOUS_TOKENS = new LinkedHashMap<String, SemanticTokens>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SemanticTokens> eldest) {
+            return size() > MAX_CACHED_DOCUMENTS;
+        }
+    };
+
     public static SemanticTokens provide(String uri) {
         JobHelpers.waitForJobs(DocumentLifeCycleHandler.DOCUMENT_LIFE_CYCLE_JOBS, null);
-        return doProvide(uri);
+        return remember(uri, doProvide(uri));
+    }
+
+    /**
+     * Provides the edits from the tokens sent with the given result id to the
+     * current tokens of the document, or the full tokens if the previous
+     * result is no longer known.
+     */
+    public static Either<SemanticTokens, SemanticTokensEdits> provideEdits(String uri, String previousResultId) {
+        JobHelpers.waitForJobs(DocumentLifeCycleHandler.DOCUMENT_LIFE_CYCLE_JOBS, null);
+        SemanticTokens previous;
+        synchronized (PREVIOUS_TOKENS) {
+            previous = PREVIOUS_TOKENS.get(uri);
+        }
+        SemanticTokens tokens = remember(uri, doProvide(uri));
+        if (previous == null || previous.getResultId() == null || !previous.getResultId().equals(previousResultId)) {
+            return Either.forLeft(tokens);
+        }
+        List<SemanticTokensEdit> edits = SemanticTokensEdits.computeEdits(previous.getEncodedData(), tokens.getEncodedData());
+        return Either.forRight(new SemanticTokensEdits(edits, tokens.getResultId()));
+    }
+
+    private static SemanticTokens remember(String uri, SemanticTokens tokens) {
+        SemanticTokens result = new SemanticTokens(tokens.getEncodedData(), String.valueOf(RESULT_IDS.incrementAndGet()));
+        synchronized (PREVIOUS_TOKENS) {
+            PREVIOUS_TOKENS.put(uri, result);
+        }
+        return result;
     }
 
     private static SemanticTokens doProvide(String uri) {
@@ -48,8 +95,8 @@ public class SemanticTokensCommand {
                 JavaLanguageServerPlugin.logException("Failed to provide semantic tokens for " + uri, e);
             }
         }
-        if (document == null) {
-            return new SemanticTokens(Collections.emptyList());
+        if (document == null || LargeFilePolicy.isLargeFile(cu)) {
+            return new SemanticTokens(new int[0]);
         }
 
         SemanticTokensVisitor collector = new SemanticTokensVisitor(document, SemanticTokenManager.getInstance());
@@ -26,16 +26,17 @@ import org.eclipse.jdt.core.CompletionContext;
 import org.eclipse.jdt.core.CompletionProposal;
 import org.eclipse.jdt.core.CompletionRequestor;
 import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IField;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.ISourceReference;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.Signature;
 import org.eclipse.jdt.core.SourceRange;
@@ -62,6 +63,7 @@ public final class CompletionProposalRequestor extends CompletionRequestor {
 	private boolean isComplete = true;
 	private PreferenceManager preferenceManager;
 	private CompletionProposalReplacementProvider proposalProvider;
+	private String uri;
 
 	static class ProposalComparator implements Comparator<CompletionProposal> {
 
@@ -138,8 +140,10 @@ public final class CompletionProposalRequestor extends CompletionRequestor {
 	public CompletionProposalRequestor(ICompilationUnit aUnit, int offset, PreferenceManager preferenceManager) {
 		this.unit = aUnit;
 		this.preferenceManager = preferenceManager;
+		this.uri = JDTUtils.toURI(unit);
 		response = new CompletionResponse();
 		response.setOffset(offset);
+		response.setUri(uri);
 		fIsTestCodeExcluded = !isTestSource(unit.getJavaProject(), unit);
 		setRequireExtendedContext(true);
 	}
@@ -197,6 +201,17 @@ public final class CompletionProposalRequestor extends CompletionRequestor {
 		} else {
 			response.setProposals(proposals);
 		}
+		response.setComplete(isComplete);
+		if (context != null && context.getTokenKind() == CompletionContext.TOKEN_KIND_NAME) {
+			try {
+				IBuffer buffer = unit.getBuffer();
+				if (buffer != null) {
+					response.setDocumentState(buffer.getContents(), context.getTokenStart());
+				}
+			} catch (JavaModelException e) {
+				JavaLanguageServerPlugin.log(e);
+			}
+		}
 		CompletionResponses.store(response);
 
 		//Let's compute replacement texts for the most relevant results only
@@ -212,66 +227,131 @@ public final class CompletionProposalRequestor extends CompletionRequestor {
 		return completionItems;
 	}
 
+	/**
+	 * Accepts the proposals of a previous response which still match the
+	 * identifier typed so far, instead of running the completion engine again.
+	 *
+	 * @param previous
+	 *            a response returned by
+	 *            {@link CompletionResponses#findRefinable(String, String, int)}
+	 * @param token
+	 *            the identifier prefix typed so far
+	 */
+	public void refine(CompletionResponse previous, char[] token) {
+		int delta = response.getOffset() - previous.getOffset();
+		acceptContext(previous.getContext());
+		for (CompletionProposal proposal : previous.getProposals()) {
+			if (CompletionResponses.matches(token, proposal)) {
+				// a copy, the items of the previous response can still be resolved
+				proposals.add(new RefinedCompletionProposal(proposal, previous.getOffset(), delta));
+			}
+		}
+	}
+
 	public CompletionItem toCompletionItem(CompletionProposal proposal, int index) {
 		final CompletionItem $ = new CompletionItem();
 		$.setKind(mapKind(proposal));
 		Map<String, String> data = new HashMap<>();
 		// append data field so that resolve request can use it.
-		data.put(CompletionResolveHandler.DATA_FIELD_URI, JDTUtils.toURI(unit));
+		data.put(CompletionResolveHandler.DATA_FIELD_URI, uri);
 		data.put(CompletionResolveHandler.DATA_FIELD_REQUEST_ID, String.valueOf(response.getId()));
 		data.put(CompletionResolveHandler.DATA_FIELD_PROPOSAL_ID, String.valueOf(index));
 		$.setData(data);
 		this.descriptionProvider.updateDescription(proposal, $);
 		$.setSortText(SortTextHelper.computeSortText(proposal));
+		if (isLazyResolve()) {
+			// constant values, default values and text edits are computed by completionItem/resolve
+			$.setInsertText(getLazyInsertText(proposal));
+			return $;
+		}
+		String constantValue = getConstantValue(proposal, unit.getJavaProject());
+		if (constantValue != null) {
+			$.setLabel($.getLabel() + " = " + constantValue);
+			data.put(CompletionResolveHandler.DATA_FIELD_CONSTANT_VALUE, constantValue);
+		}
+		String defaultValue = getDefaultValue(proposal, unit.getJavaProject());
+		if (defaultValue != null) {
+			$.setLabel($.getLabel() + " (Default: " + defaultValue + ")");
+			data.put(CompletionResolveHandler.DATA_METHOD_DEFAULT_VALUE, defaultValue);
+		}
+		proposalProvider.updateReplacement(proposal, $, '\0');
+		// Make sure `filterText` matches `textEdit`
+		// See https://github.com/eclipse/eclipse.jdt.ls/issues/1348
+		if (proposal.getKind() == CompletionProposal.TYPE_REF && $.getTextEdit() != null && $.getTextEdit().getRange() != null && $.getTextEdit().getNewText() != null) {
+			$.setFilterText($.getTextEdit().getNewText());
+		}
+		return $;
+	}
+
+	/**
+	 * Returns the text of a lazily resolved item, which must be correct when
+	 * the client inserts the item without resolving it: the simple name of
+	 * the proposed element, without import or arguments.
+	 */
+	private String getLazyInsertText(CompletionProposal proposal) {
+		switch (proposal.getKind()) {
+			case CompletionProposal.TYPE_REF:
+				String completion = String.valueOf(proposal.getCompletion());
+				// keep the qualification when a qualified name is being typed
+				if (context != null && proposal.getReplaceStart() < context.getTokenStart()) {
+					return completion;
+				}
+				return completion.substring(completion.lastIndexOf('.') + 1);
+			case CompletionProposal.METHOD_REF:
+			case CompletionProposal.METHOD_REF_WITH_CASTED_RECEIVER:
+			case CompletionProposal.METHOD_NAME_REFERENCE:
+				return String.valueOf(proposal.getName());
+			default:
+				return String.valueOf(proposal.getCompletion());
+		}
+	}
+
+	private boolean isLazyResolve() {
+		return preferenceManager.getClientPreferences() != null && preferenceManager.getClientPreferences().isCompletionLazyResolveSupport();
+	}
+
+	/**
+	 * Returns the constant value of the field referenced by the given
+	 * proposal, or <code>null</code> if it isn't a constant field reference.
+	 */
+	public static String getConstantValue(CompletionProposal proposal, IJavaProject project) {
 		if (proposal.getKind() == CompletionProposal.FIELD_REF) {
 			try {
-				IField field = JDTUtils.resolveField(proposal, unit.getJavaProject());
-				Region nameRegion = null;
+				IField field = JDTUtils.resolveField(proposal, project);
 				if (field != null) {
-					ITypeRoot typeRoot = field.getTypeRoot();
-					ISourceRange nameRange = ((ISourceReference) field).getNameRange();
-					if (SourceRange.isAvailable(nameRange)) {
-						nameRegion = new Region(nameRange.getOffset(), nameRange.getLength());
-					}
-					String constantValue = JDTUtils.getConstantValue(field, typeRoot, nameRegion);
-					if (constantValue != null) {
-						String label = $.getLabel();
-						$.setLabel(label + " = " + constantValue);
-						data.put(CompletionResolveHandler.DATA_FIELD_CONSTANT_VALUE, constantValue);
-					}
+					return JDTUtils.getConstantValue(field, field.getTypeRoot(), getNameRegion(field));
 				}
 			} catch (JavaModelException e) {
 				JavaLanguageServerPlugin.log(e);
 			}
 		}
+		return null;
+	}
+
+	/**
+	 * Returns the default value of the annotation member referenced by the
+	 * given proposal, or <code>null</code> if there is none.
+	 */
+	public static String getDefaultValue(CompletionProposal proposal, IJavaProject project) {
 		if (proposal.getKind() == CompletionProposal.METHOD_REF || proposal.getKind() == CompletionProposal.ANNOTATION_ATTRIBUTE_REF) {
 			try {
-				IMethod method = JDTUtils.resolveMethod(proposal, unit.getJavaProject());
-				Region nameRegion = null;
+				IMethod method = JDTUtils.resolveMethod(proposal, project);
 				if (method != null) {
-					ITypeRoot typeRoot = method.getTypeRoot();
-					ISourceRange nameRange = ((ISourceReference) method).getNameRange();
-					if (SourceRange.isAvailable(nameRange)) {
-						nameRegion = new Region(nameRange.getOffset(), nameRange.getLength());
-					}
-					String defaultValue = JDTUtils.getAnnotationMemberDefaultValue(method, typeRoot, nameRegion);
-					if (defaultValue != null) {
-						String label = $.getLabel();
-						$.setLabel(label + " (Default: " + defaultValue + ")");
-						data.put(CompletionResolveHandler.DATA_METHOD_DEFAULT_VALUE, defaultValue);
-					}
+					return JDTUtils.getAnnotationMemberDefaultValue(method, method.getTypeRoot(), getNameRegion(method));
 				}
 			} catch (JavaModelException e) {
 				JavaLanguageServerPlugin.log(e);
 			}
 		}
-		proposalProvider.updateReplacement(proposal, $, '\0');
-		// Make sure `filterText` matches `textEdit`
-		// See https://github.com/eclipse/eclipse.jdt.ls/issues/1348
-		if (proposal.getKind() == CompletionProposal.TYPE_REF && $.getTextEdit() != null && $.getTextEdit().getRange() != null && $.getTextEdit().getNewText() != null) {
-			$.setFilterText($.getTextEdit().getNewText());
+		return null;
+	}
+
+	private static Region getNameRegion(IMember member) throws JavaModelException {
+		ISourceRange nameRange = ((ISourceReference) member).getNameRange();
+		if (SourceRange.isAvailable(nameRange)) {
+			return new Region(nameRange.getOffset(), nameRange.getLength());
 		}
-		return $;
+		return null;
 	}
 
 	@Override
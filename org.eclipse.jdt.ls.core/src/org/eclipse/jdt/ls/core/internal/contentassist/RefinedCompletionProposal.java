@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.contentassist;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.CompletionContext;
+import org.eclipse.jdt.core.CompletionProposal;
+import org.eclipse.jdt.internal.codeassist.InternalCompletionProposal;
+
+/**
+ * A copy of a proposal of a previous completion response, whose identifier
+ * range is extended by the characters typed since.
+ *
+ * The values only known to the completion engine are still read from the
+ * original proposal, which is left untouched so that the items of the
+ * previous response can still be resolved.
+ */
+final class RefinedCompletionProposal extends InternalCompletionProposal {
+
+	private final CompletionProposal original;
+
+	/**
+	 * @param original
+	 *            the proposal of the previous response
+	 * @param previousOffset
+	 *            the offset the previous response was computed at
+	 * @param delta
+	 *            the number of characters typed at the previous offset since
+	 */
+	RefinedCompletionProposal(CompletionProposal original, int previousOffset, int delta) {
+		super(original.getKind(), original.getCompletionLocation());
+		this.original = original;
+		int tokenEnd = original.getTokenEnd();
+		setTokenRange(original.getTokenStart(), tokenEnd >= previousOffset ? tokenEnd + delta : tokenEnd);
+		int replaceEnd = original.getReplaceEnd();
+		setReplaceRange(original.getReplaceStart(), replaceEnd >= previousOffset ? replaceEnd + delta : replaceEnd);
+		setCompletion(original.getCompletion());
+		setRelevance(original.getRelevance());
+		setDeclarationSignature(original.getDeclarationSignature());
+		setDeclarationKey(original.getDeclarationKey());
+		setName(original.getName());
+		setSignature(original.getSignature());
+		setKey(original.getKey());
+		setFlags(original.getFlags());
+		setAdditionalFlags(original.getAdditionalFlags());
+		setRequiredProposals(original.getRequiredProposals());
+		setReceiverSignature(original.getReceiverSignature());
+		setReceiverRange(original.getReceiverStart(), original.getReceiverEnd());
+		if (original instanceof InternalCompletionProposal) {
+			setBinding(((InternalCompletionProposal) original).getBinding());
+		}
+	}
+
+	@Override
+	public char[][] findParameterNames(IProgressMonitor monitor) {
+		return original.findParameterNames(monitor);
+	}
+
+	@Override
+	public int getAccessibility() {
+		return original.getAccessibility();
+	}
+
+	@Override
+	public boolean isConstructor() {
+		return original.isConstructor();
+	}
+
+	@Override
+	public boolean canUseDiamond(CompletionContext coreContext) {
+		return original.canUseDiamond(coreContext);
+	}
+}
@@ -45,7 +45,7 @@ import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.handlers.CompletionResponse;
 import org.eclipse.jdt.ls.core.internal.handlers.CompletionResponses;
-import org.eclipse.jdt.ls.core.internal.javadoc.JavadocContentAccess;
+import org.eclipse.jdt.ls.core.internal.javadoc.JavadocCache;
 import org.eclipse.lsp4j.ParameterInformation;
 import org.eclipse.lsp4j.SignatureHelp;
 import org.eclipse.lsp4j.SignatureInformation;
@@ -204,10 +204,7 @@ public final class SignatureHelpRequestor extends CompletionRequestor {
 							}
 							String javadoc = null;
 							try {
-								javadoc = SimpleTimeLimiter.create(Executors.newCachedThreadPool()).callWithTimeout(() -> {
-									Reader reader = JavadocContentAccess.getPlainTextContentReader(method);
-									return reader == null ? null : CharStreams.toString(reader);
-								}, 500, TimeUnit.MILLISECONDS);
+								javadoc = SimpleTimeLimiter.create(Executors.newCachedThreadPool()).callWithTimeout(() -> JavadocCache.getInstance().getPlainTextContent(method), 500, TimeUnit.MILLISECONDS);
 							} catch (UncheckedTimeoutException tooSlow) {
 							} catch (Exception e) {
 								JavaLanguageServerPlugin.logException("Unable to read documentation", e);
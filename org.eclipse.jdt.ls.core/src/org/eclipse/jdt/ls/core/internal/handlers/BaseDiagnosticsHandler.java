@@ -46,6 +46,7 @@ public abstract class BaseDiagnosticsHandler implements IProblemRequestor {
 
 	public static final int NON_PROJECT_JAVA_FILE = 0x10;
 	public static final int NOT_ON_CLASSPATH = 0x20;
+	public static final int LARGE_FILE = 0x40;
 
 	public BaseDiagnosticsHandler(JavaClientConnection conn, ICompilationUnit cu) {
 		problems = new ArrayList<>();
@@ -15,9 +15,11 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
@@ -36,18 +38,24 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IProblemRequestor;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+import org.eclipse.jdt.internal.core.JavaElementDeltaBuilder;
 import org.eclipse.jdt.internal.core.OpenableElementInfo;
 import org.eclipse.jdt.internal.core.PackageFragment;
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 import org.eclipse.jdt.ls.core.internal.DocumentAdapter;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
@@ -76,6 +84,23 @@ public abstract class BaseDocumentLifeCycleHandler {
 	private WorkspaceJob validationTimer;
 	private WorkspaceJob publishDiagnosticsJob;
 	private Set<ICompilationUnit> toReconcile = new HashSet<>();
+	/**
+	 * Units whose diagnostics must be (re)published: the reconciled units
+	 * plus the open units which can see a non-local change of one of them.
+	 */
+	private Set<ICompilationUnit> toPublish = new HashSet<>();
+	/**
+	 * Units validated at least once since they were opened. A unit becoming a
+	 * working copy shadows its saved content, so its first validation is
+	 * handled like a non-local change.
+	 */
+	private Set<ICompilationUnit> validated = new HashSet<>();
+	/**
+	 * Units whose non-local changes haven't been propagated to their
+	 * dependents yet, e.g. because the validation was cancelled after they
+	 * were reconciled. Guarded by toReconcile.
+	 */
+	private Set<ICompilationUnit> pendingChangedUnits = new HashSet<>();
 
 	public BaseDocumentLifeCycleHandler(boolean delayValidation) {
 		this.sharedASTProvider = CoreASTProvider.getInstance();
@@ -129,6 +154,10 @@ public abstract class BaseDocumentLifeCycleHandler {
 			}
 			sharedASTProvider.setActiveJavaElement(cu);
 		}
+		scheduleValidation(delay);
+	}
+
+	private void scheduleValidation(long delay) throws JavaModelException {
 		if (validationTimer != null) {
 			validationTimer.cancel();
 			ISchedulingRule rule = getRule(toReconcile);
@@ -155,31 +184,48 @@ public abstract class BaseDocumentLifeCycleHandler {
 		return result;
 	}
 
-	private IStatus performValidation(IProgressMonitor monitor) throws JavaModelException {
+	IStatus performValidation(IProgressMonitor monitor) throws JavaModelException {
 		long start = System.currentTimeMillis();
 
 		List<ICompilationUnit> cusToReconcile;
+		Set<ICompilationUnit> changedUnits;
 		synchronized (toReconcile) {
-			if (toReconcile.isEmpty()) {
+			if (toReconcile.isEmpty() && pendingChangedUnits.isEmpty()) {
 				return Status.OK_STATUS;
 			}
 			cusToReconcile = new ArrayList<>(toReconcile.size());
 			cusToReconcile.addAll(toReconcile);
 			toReconcile.clear();
-		}
-		if (monitor.isCanceled()) {
-			return Status.CANCEL_STATUS;
+			changedUnits = pendingChangedUnits;
+			pendingChangedUnits = new HashSet<>();
 		}
 		// first reconcile all units with content changes
 		SubMonitor progress = SubMonitor.convert(monitor, cusToReconcile.size() + 1);
-		for (ICompilationUnit cu : cusToReconcile) {
+		for (int i = 0; i < cusToReconcile.size(); i++) {
+			ICompilationUnit cu = cusToReconcile.get(i);
 			if (monitor.isCanceled()) {
+				// the reconciled units are consistent now, keep what they changed for the next validation
+				requeueValidation(cusToReconcile.subList(i, cusToReconcile.size()), cusToReconcile.subList(0, i), changedUnits);
 				return Status.CANCEL_STATUS;
 			}
+			boolean firstValidation;
+			synchronized (toReconcile) {
+				firstValidation = validated.add(cu);
+			}
+			JavaElementDeltaBuilder deltaBuilder = new JavaElementDeltaBuilder(cu);
 			cu.makeConsistent(progress);
 			//cu.reconcile(ICompilationUnit.NO_AST, false, null, progress.newChild(1));
+			deltaBuilder.buildDeltas();
+			if (firstValidation || isNonLocalChange(deltaBuilder.delta)) {
+				changedUnits.add(cu);
+			}
+		}
+		Set<ICompilationUnit> dependents = findDependents(changedUnits);
+		synchronized (toPublish) {
+			toPublish.addAll(cusToReconcile);
+			toPublish.addAll(dependents);
 		}
-		JavaLanguageServerPlugin.logInfo("Reconciled " + toReconcile.size() + ". Took " + (System.currentTimeMillis() - start) + " ms");
+		JavaLanguageServerPlugin.logInfo("Reconciled " + cusToReconcile.size() + ", " + dependents.size() + " dependent(s) to revalidate. Took " + (System.currentTimeMillis() - start) + " ms");
 		if (monitor.isCanceled()) {
 			return Status.CANCEL_STATUS;
 		}
@@ -200,26 +246,140 @@ public abstract class BaseDocumentLifeCycleHandler {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * A change is non-local when it can alter how other units resolve: it
+	 * adds, removes or alters a type or a member which isn't private, or the
+	 * package declaration. Since the resolved dependencies of a unit can reach
+	 * a changed member without naming it, e.g. through a chained call, an
+	 * inherited member or a static import, such a change may affect any unit
+	 * which can see it. Edits confined to method bodies, initializers, imports
+	 * and private members only affect the unit itself.
+	 */
+	private static boolean isNonLocalChange(IJavaElementDelta delta) {
+		if (delta == null) {
+			return false;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (!isLocalChange(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isLocalChange(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.IMPORT_CONTAINER:
+			case IJavaElement.IMPORT_DECLARATION:
+			case IJavaElement.INITIALIZER:
+				return true;
+			case IJavaElement.TYPE:
+			case IJavaElement.METHOD:
+			case IJavaElement.FIELD:
+				break;
+			default:
+				return false;
+		}
+		IMember member = (IMember) element;
+		try {
+			if (isEnclosedByPrivateOrLocal(member)) {
+				return true;
+			}
+			// the modifiers a removed or changed member had aren't known
+			if (delta.getKind() != IJavaElementDelta.REMOVED && (delta.getFlags() & IJavaElementDelta.F_MODIFIERS) == 0 && Flags.isPrivate(member.getFlags())) {
+				return true;
+			}
+		} catch (JavaModelException e) {
+			return false;
+		}
+		if (delta.getKind() == IJavaElementDelta.CHANGED && (delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) == 0) {
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				if (!isLocalChange(child)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether the member is only visible in its unit because of an
+	 *         enclosing private type, or of an enclosing method, field or
+	 *         initializer declaring a local or anonymous type
+	 */
+	private static boolean isEnclosedByPrivateOrLocal(IMember member) throws JavaModelException {
+		IJavaElement parent = member.getParent();
+		while (parent instanceof IMember) {
+			if (parent.getElementType() != IJavaElement.TYPE || Flags.isPrivate(((IMember) parent).getFlags())) {
+				return true;
+			}
+			parent = parent.getParent();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the open working copies, other than the changed ones, which can
+	 * see one of the changed units on their classpath.
+	 */
+	private Set<ICompilationUnit> findDependents(Set<ICompilationUnit> changedUnits) throws JavaModelException {
+		Set<ICompilationUnit> dependents = new HashSet<>();
+		if (changedUnits.isEmpty()) {
+			return dependents;
+		}
+		for (ICompilationUnit workingCopy : JavaCore.getWorkingCopies(null)) {
+			if (changedUnits.contains(workingCopy) || workingCopy.getJavaProject() == null) {
+				continue;
+			}
+			for (ICompilationUnit changed : changedUnits) {
+				if (workingCopy.getJavaProject().equals(changed.getJavaProject()) || workingCopy.getJavaProject().isOnClasspath(changed)) {
+					dependents.add(workingCopy);
+					break;
+				}
+			}
+		}
+		return dependents;
+	}
+
 	private IStatus publishDiagnostics(IProgressMonitor monitor) throws JavaModelException {
 		long start = System.currentTimeMillis();
 		if (monitor.isCanceled()) {
 			return Status.CANCEL_STATUS;
 		}
 		this.sharedASTProvider.disposeAST();
-		List<ICompilationUnit> toValidate = Arrays.asList(JavaCore.getWorkingCopies(null));
+		List<ICompilationUnit> toValidate = new ArrayList<>();
+		synchronized (toPublish) {
+			// keep the working copies order
+			for (ICompilationUnit workingCopy : JavaCore.getWorkingCopies(null)) {
+				if (toPublish.remove(workingCopy)) {
+					toValidate.add(workingCopy);
+				}
+			}
+			// the remaining units have been closed in the meantime
+			toPublish.clear();
+		}
 		if (toValidate.isEmpty()) {
 			return Status.OK_STATUS;
 		}
 		SubMonitor progress = SubMonitor.convert(monitor, toValidate.size() + 1);
-		if (monitor.isCanceled()) {
-			return Status.CANCEL_STATUS;
-		}
-		for (ICompilationUnit rootToValidate : toValidate) {
+		Map<String, Long> timings = new LinkedHashMap<>();
+		for (int i = 0; i < toValidate.size(); i++) {
+			ICompilationUnit rootToValidate = toValidate.get(i);
 			if (monitor.isCanceled()) {
+				requeue(toValidate.subList(i, toValidate.size()));
 				return Status.CANCEL_STATUS;
 			}
+			long unitStart = System.currentTimeMillis();
+			if (LargeFilePolicy.isLargeFile(rootToValidate)) {
+				publishDiagnostics(rootToValidate, progress.newChild(1));
+				timings.put(rootToValidate.getElementName(), System.currentTimeMillis() - unitStart);
+				continue;
+			}
 			CompilationUnit astRoot = this.sharedASTProvider.getAST(rootToValidate, CoreASTProvider.WAIT_YES, monitor);
 			if (monitor.isCanceled()) {
+				requeue(toValidate.subList(i, toValidate.size()));
 				return Status.CANCEL_STATUS;
 			}
 			if (astRoot != null) {
@@ -227,13 +387,48 @@ public abstract class BaseDocumentLifeCycleHandler {
 				ICompilationUnit unit = (ICompilationUnit) astRoot.getTypeRoot();
 				publishDiagnostics(unit, progress.newChild(1));
 			}
+			timings.put(rootToValidate.getElementName(), System.currentTimeMillis() - unitStart);
 		}
-		JavaLanguageServerPlugin.logInfo("Validated " + toValidate.size() + ". Took " + (System.currentTimeMillis() - start) + " ms");
+		JavaLanguageServerPlugin.logInfo("Validated " + toValidate.size() + ". Took " + (System.currentTimeMillis() - start) + " ms" + toString(timings));
 		return Status.OK_STATUS;
 	}
 
+	private void requeue(List<ICompilationUnit> units) {
+		synchronized (toPublish) {
+			toPublish.addAll(units);
+		}
+	}
+
+	/**
+	 * Queues the units a cancelled validation didn't reconcile for the next
+	 * validation. The reconciled ones only have to be published, but their
+	 * non-local changes must still reach their dependents.
+	 */
+	private void requeueValidation(List<ICompilationUnit> unreconciled, List<ICompilationUnit> reconciled, Set<ICompilationUnit> changedUnits) {
+		synchronized (toReconcile) {
+			toReconcile.addAll(unreconciled);
+			pendingChangedUnits.addAll(changedUnits);
+		}
+		requeue(reconciled);
+	}
+
+	private static String toString(Map<String, Long> timings) {
+		StringBuilder builder = new StringBuilder(" (");
+		for (Entry<String, Long> entry : timings.entrySet()) {
+			if (builder.length() > 2) {
+				builder.append(", ");
+			}
+			builder.append(entry.getKey()).append(": ").append(entry.getValue()).append(" ms");
+		}
+		return builder.append(")").toString();
+	}
+
 	private void publishDiagnostics(ICompilationUnit unit, IProgressMonitor monitor) throws JavaModelException {
 		final BaseDiagnosticsHandler handler = createDiagnosticsHandler(unit);
+		if (LargeFilePolicy.isLargeFile(unit)) {
+			publishSyntaxDiagnostics(unit, handler, monitor);
+			return;
+		}
 		WorkingCopyOwner wcOwner = new WorkingCopyOwner() {
 
 			/* (non-Javadoc)
@@ -264,6 +459,26 @@ public abstract class BaseDocumentLifeCycleHandler {
 		unit.reconcile(ICompilationUnit.NO_AST, flags, wcOwner, monitor);
 	}
 
+	/**
+	 * Reports the syntax errors of a large unit, found by parsing it without
+	 * resolving its bindings.
+	 */
+	private void publishSyntaxDiagnostics(ICompilationUnit unit, BaseDiagnosticsHandler handler, IProgressMonitor monitor) {
+		ASTParser parser = ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+		parser.setSource(unit);
+		parser.setResolveBindings(false);
+		parser.setStatementsRecovery(true);
+		CompilationUnit astRoot = (CompilationUnit) parser.createAST(monitor);
+		if (monitor.isCanceled()) {
+			return;
+		}
+		handler.beginReporting();
+		for (IProblem problem : astRoot.getProblems()) {
+			handler.acceptProblem(problem);
+		}
+		handler.endReporting();
+	}
+
 	public void didClose(DidCloseTextDocumentParams params) {
 		ISchedulingRule rule = JDTUtils.getRule(params.getTextDocument().getUri());
 		try {
@@ -371,6 +586,7 @@ public abstract class BaseDocumentLifeCycleHandler {
 			return unit;
 		}
 
+		CodeActionProposals.evict(uri);
 		try {
 			if (unit.equals(sharedASTProvider.getActiveJavaElement())) {
 				sharedASTProvider.disposeAST();
@@ -414,6 +630,7 @@ public abstract class BaseDocumentLifeCycleHandler {
 
 	public ICompilationUnit handleClosed(DidCloseTextDocumentParams params) {
 		String uri = params.getTextDocument().getUri();
+		CodeActionProposals.evict(uri);
 		ICompilationUnit unit = JDTUtils.resolveCompilationUnit(uri);
 		if (unit == null) {
 			return unit;
@@ -421,10 +638,17 @@ public abstract class BaseDocumentLifeCycleHandler {
 		try {
 			synchronized (toReconcile) {
 				toReconcile.remove(unit);
+				validated.remove(unit);
+			}
+			synchronized (toPublish) {
+				toPublish.remove(unit);
 			}
+			boolean reverted = false;
 			if (isSyntaxMode(unit) || unit.getResource().isDerived()) {
 				createDiagnosticsHandler(unit).clearDiagnostics();
 			} else if (hasUnsavedChanges(unit)) {
+				// the dependents were validated against the edited types, and now see the saved ones
+				reverted = true;
 				unit.discardWorkingCopy();
 				unit.becomeWorkingCopy(new NullProgressMonitor());
 				publishDiagnostics(unit, new NullProgressMonitor());
@@ -433,6 +657,12 @@ public abstract class BaseDocumentLifeCycleHandler {
 				sharedASTProvider.disposeAST();
 			}
 			unit.discardWorkingCopy();
+			if (reverted) {
+				synchronized (toReconcile) {
+					pendingChangedUnits.add(unit);
+				}
+				scheduleValidation(400);
+			}
 			if (JDTUtils.isDefaultProject(unit)) {
 				File f = new File(unit.getUnderlyingResource().getLocationURI());
 				if (!f.exists()) {
@@ -16,8 +16,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.runtime.CoreException;
@@ -31,6 +33,7 @@ import org.eclipse.jdt.internal.ui.text.correction.IProblemLocationCore;
 import org.eclipse.jdt.internal.ui.text.correction.ProblemLocationCore;
 import org.eclipse.jdt.ls.core.internal.ChangeUtil;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JSONUtility;
 import org.eclipse.jdt.ls.core.internal.JavaCodeActionKind;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.corrections.DiagnosticsHelper;
@@ -45,6 +48,7 @@ import org.eclipse.jdt.ls.core.internal.text.correction.NonProjectFixProcessor;
 import org.eclipse.jdt.ls.core.internal.text.correction.QuickAssistProcessor;
 import org.eclipse.jdt.ls.core.internal.text.correction.RefactoringCorrectionCommandProposal;
 import org.eclipse.jdt.ls.core.internal.text.correction.SourceAssistProcessor;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.lsp4j.CodeAction;
 import org.eclipse.lsp4j.CodeActionContext;
 import org.eclipse.lsp4j.CodeActionKind;
@@ -59,6 +63,12 @@ public class CodeActionHandler {
 
 	public static final String COMMAND_ID_APPLY_EDIT = "java.apply.workspaceEdit";
 
+	/**
+	 * Server side command applying the change of a lazily resolved code action,
+	 * whose argument is the identifier of its proposal.
+	 */
+	public static final String COMMAND_ID_APPLY_CODE_ACTION = "java.edit.applyCodeAction";
+
 	private QuickFixProcessor quickFixProcessor;
 	private RefactorProcessor refactorProcessor;
 	private QuickAssistProcessor quickAssistProcessor;
@@ -148,9 +158,25 @@ public class CodeActionHandler {
 			return Collections.emptyList();
 		}
 		try {
+			String uri = params.getTextDocument().getUri();
+			long version = IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+			if (preferenceManager.getClientPreferences().isCodeActionLazyResolveSupport()) {
+				version = CodeActionProposals.getVersion(unit);
+				CodeActionProposals.retain(uri, version);
+			}
+			// deduplicated by title and kind, before the change of a proposal is computed
+			Set<String> keys = new HashSet<>();
+			for (Either<Command, CodeAction> codeAction : codeActions) {
+				keys.add(codeAction.isLeft() ? getKey(codeAction.getLeft().getTitle(), null) : getKey(codeAction.getRight().getTitle(), codeAction.getRight().getKind()));
+			}
 			for (ChangeCorrectionProposal proposal : proposals) {
-				Optional<Either<Command, CodeAction>> codeActionFromProposal = getCodeActionFromProposal(proposal, params.getContext());
-				if (codeActionFromProposal.isPresent() && !codeActions.contains(codeActionFromProposal.get())) {
+				String key = getKey(proposal.getName(), proposal.getKind());
+				if (keys.contains(key)) {
+					continue;
+				}
+				Optional<Either<Command, CodeAction>> codeActionFromProposal = getCodeActionFromProposal(proposal, params.getContext(), uri, unit, version);
+				if (codeActionFromProposal.isPresent()) {
+					keys.add(key);
 					codeActions.add(codeActionFromProposal.get());
 				}
 			}
@@ -169,7 +195,17 @@ public class CodeActionHandler {
 		return codeActions;
 	}
 
-	private Optional<Either<Command, CodeAction>> getCodeActionFromProposal(ChangeCorrectionProposal proposal, CodeActionContext context) throws CoreException {
+	private static String getKey(String title, String kind) {
+		return title + '\0' + (kind == null ? "" : kind);
+	}
+
+	/**
+	 * @param version
+	 *            the version of the document, or
+	 *            {@link IDocumentExtension4#UNKNOWN_MODIFICATION_STAMP} to
+	 *            compute the change of the proposal now rather than on resolve
+	 */
+	private Optional<Either<Command, CodeAction>> getCodeActionFromProposal(ChangeCorrectionProposal proposal, CodeActionContext context, String uri, ICompilationUnit unit, long version) throws CoreException {
 		String name = proposal.getName();
 
 		Command command;
@@ -182,6 +218,9 @@ public class CodeActionHandler {
 		} else if (proposal instanceof AssignToVariableAssistCommandProposal) {
 			AssignToVariableAssistCommandProposal commandProposal = (AssignToVariableAssistCommandProposal) proposal;
 			command = new Command(name, commandProposal.getCommand(), commandProposal.getCommandArguments());
+		} else if (version != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			String id = CodeActionProposals.store(uri, unit, version, proposal);
+			command = new Command(name, COMMAND_ID_APPLY_CODE_ACTION, Collections.singletonList(id));
 		} else {
 			WorkspaceEdit edit = ChangeUtil.convertToWorkspaceEdit(proposal.getChange());
 			if (!ChangeUtil.hasChanges(edit)) {
@@ -202,6 +241,40 @@ public class CodeActionHandler {
 		}
 	}
 
+	/**
+	 * Sets the workspace edit of a lazily resolved code action, in place of its
+	 * command. Other code actions are returned as is.
+	 */
+	public static CodeAction resolveCodeAction(CodeAction codeAction, IProgressMonitor monitor) {
+		Command command = codeAction.getCommand();
+		if (command == null || !COMMAND_ID_APPLY_CODE_ACTION.equals(command.getCommand()) || command.getArguments() == null || command.getArguments().isEmpty()) {
+			return codeAction;
+		}
+		WorkspaceEdit edit = resolveWorkspaceEdit(JSONUtility.toModel(command.getArguments().get(0), String.class), monitor);
+		if (edit != null) {
+			codeAction.setEdit(edit);
+			codeAction.setCommand(null);
+		}
+		return codeAction;
+	}
+
+	/**
+	 * @return the workspace edit of the proposal with the given identifier, or
+	 *         <code>null</code> if it is unknown, has no change, or the
+	 *         document was modified since the code action was listed
+	 */
+	public static WorkspaceEdit resolveWorkspaceEdit(String id, IProgressMonitor monitor) {
+		if (id == null || monitor.isCanceled()) {
+			return null;
+		}
+		try {
+			return CodeActionProposals.resolve(id);
+		} catch (CoreException e) {
+			JavaLanguageServerPlugin.logException("Problem resolving the code action " + id, e);
+			return null;
+		}
+	}
+
 	public static IProblemLocationCore[] getProblemLocationCores(ICompilationUnit unit, List<Diagnostic> diagnostics) {
 		IProblemLocationCore[] locations = new IProblemLocationCore[diagnostics.size()];
 		for (int i = 0; i < diagnostics.size(); i++) {
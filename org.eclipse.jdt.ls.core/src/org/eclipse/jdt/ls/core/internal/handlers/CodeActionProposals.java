@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.ChangeUtil;
+import org.eclipse.jdt.ls.core.internal.DocumentAdapter;
+import org.eclipse.jdt.ls.core.internal.corrections.proposals.ChangeCorrectionProposal;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.lsp4j.WorkspaceEdit;
+
+/**
+ * Cache of the proposals of lazily resolved code actions, per document.
+ *
+ * A code action only carries the identifier of its proposal, the change of
+ * the proposal is computed when the action is resolved and kept until the
+ * document is modified. The proposals of a document, and the ASTs they hold,
+ * are dropped when the document is changed or closed, or when code actions
+ * are requested for a newer version of it. The least recently used proposals
+ * of a document are evicted once it has more than
+ * <code>java.codeActions.cache.maxSize</code> of them.
+ */
+public final class CodeActionProposals {
+
+	private CodeActionProposals() {
+		//Don't instantiate
+	}
+
+	static final int MAX_SIZE = Integer.getInteger("java.codeActions.cache.maxSize", 64);
+
+	private static final AtomicLong ID_SEED = new AtomicLong();
+
+	// guarded by DOCUMENTS
+	private static final Map<String, DocumentProposals> DOCUMENTS = new HashMap<>();
+
+	private static final class DocumentProposals {
+		private final ICompilationUnit unit;
+		private final long version;
+		// access ordered
+		private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		DocumentProposals(ICompilationUnit unit, long version) {
+			this.unit = unit;
+			this.version = version;
+		}
+	}
+
+	private static final class Entry {
+		private final ChangeCorrectionProposal proposal;
+		// guarded by this
+		private boolean resolved;
+		private WorkspaceEdit edit;
+
+		Entry(ChangeCorrectionProposal proposal) {
+			this.proposal = proposal;
+		}
+	}
+
+	/**
+	 * Drops the proposals of the given document if they belong to another
+	 * version of it.
+	 */
+	public static void retain(String uri, long version) {
+		synchronized (DOCUMENTS) {
+			DocumentProposals document = DOCUMENTS.get(uri);
+			if (document != null && document.version != version) {
+				DOCUMENTS.remove(uri);
+			}
+		}
+	}
+
+	/**
+	 * Drops the proposals of the given document.
+	 */
+	public static void evict(String uri) {
+		synchronized (DOCUMENTS) {
+			DOCUMENTS.remove(uri);
+		}
+	}
+
+	/**
+	 * @return the identifier of the stored proposal
+	 */
+	public static String store(String uri, ICompilationUnit unit, long version, ChangeCorrectionProposal proposal) {
+		String id = Long.toString(ID_SEED.incrementAndGet());
+		synchronized (DOCUMENTS) {
+			DocumentProposals document = DOCUMENTS.get(uri);
+			if (document == null || document.version != version) {
+				document = new DocumentProposals(unit, version);
+				DOCUMENTS.put(uri, document);
+			}
+			document.entries.put(id, new Entry(proposal));
+			Iterator<Entry> iterator = document.entries.values().iterator();
+			while (document.entries.size() > MAX_SIZE && iterator.hasNext()) {
+				iterator.next();
+				iterator.remove();
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the workspace edit of the proposal with the given identifier,
+	 * computing it on first use.
+	 *
+	 * @return the workspace edit, or <code>null</code> if the proposal is
+	 *         unknown, has no change, or the document was modified since it
+	 *         was stored
+	 */
+	public static WorkspaceEdit resolve(String id) throws CoreException {
+		String uri = null;
+		DocumentProposals document = null;
+		Entry entry = null;
+		synchronized (DOCUMENTS) {
+			for (Map.Entry<String, DocumentProposals> candidate : DOCUMENTS.entrySet()) {
+				entry = candidate.getValue().entries.get(id);
+				if (entry != null) {
+					uri = candidate.getKey();
+					document = candidate.getValue();
+					break;
+				}
+			}
+		}
+		if (entry == null) {
+			return null;
+		}
+		if (getVersion(document.unit) != document.version) {
+			synchronized (DOCUMENTS) {
+				if (DOCUMENTS.get(uri) == document) {
+					DOCUMENTS.remove(uri);
+				}
+			}
+			return null;
+		}
+		synchronized (entry) {
+			if (!entry.resolved) {
+				WorkspaceEdit edit = ChangeUtil.convertToWorkspaceEdit(entry.proposal.getChange());
+				entry.edit = ChangeUtil.hasChanges(edit) ? edit : null;
+				entry.resolved = true;
+			}
+			return entry.edit;
+		}
+	}
+
+	public static void clear() {
+		synchronized (DOCUMENTS) {
+			DOCUMENTS.clear();
+		}
+	}
+
+	/**
+	 * @return the number of proposals stored for the given document
+	 */
+	public static int size(String uri) {
+		synchronized (DOCUMENTS) {
+			DocumentProposals document = DOCUMENTS.get(uri);
+			return document == null ? 0 : document.entries.size();
+		}
+	}
+
+	/**
+	 * @return the modification stamp of the document of the unit, or
+	 *         {@link IDocumentExtension4#UNKNOWN_MODIFICATION_STAMP} if its
+	 *         buffer has no document
+	 */
+	public static long getVersion(ICompilationUnit unit) throws JavaModelException {
+		IBuffer buffer = unit.getBuffer();
+		if (buffer instanceof DocumentAdapter) {
+			IDocument document = ((DocumentAdapter) buffer).getDocument();
+			if (document instanceof IDocumentExtension4) {
+				return ((IDocumentExtension4) document).getModificationStamp();
+			}
+		}
+		return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+}
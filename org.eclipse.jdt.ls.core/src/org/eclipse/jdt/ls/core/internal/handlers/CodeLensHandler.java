@@ -178,7 +178,7 @@ public class CodeLensHandler {
 				return Collections.emptyList();
 			}
 		} else {
-			if (!unit.getResource().exists() || monitor.isCanceled()) {
+			if (!unit.getResource().exists() || monitor.isCanceled() || LargeFilePolicy.isLargeFile(unit)) {
 				return Collections.emptyList();
 			}
 		}
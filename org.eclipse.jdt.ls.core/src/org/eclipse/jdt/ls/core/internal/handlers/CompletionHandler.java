@@ -96,13 +96,12 @@ public class CompletionHandler{
 			$.setIsIncomplete(true);
 			JavaLanguageServerPlugin.logInfo("Completion request cancelled");
 		} else {
-			JavaLanguageServerPlugin.logInfo("Completion request completed");
+			JavaLanguageServerPlugin.logInfo("Completion request completed (cache hits: " + CompletionResponses.getHitCount() + ", misses: " + CompletionResponses.getMissCount() + ")");
 		}
 		return Either.forRight($);
 	}
 
 	private CompletionList computeContentAssist(ICompilationUnit unit, int line, int column, IProgressMonitor monitor) throws JavaModelException {
-		CompletionResponses.clear();
 		if (unit == null) {
 			return null;
 		}
@@ -146,7 +145,11 @@ public class CompletionHandler{
 
 				};
 				try {
-					if (isIndexEngineEnabled()) {
+					CompletionResponse previous = CompletionResponses.findRefinable(JDTUtils.toURI(unit), buffer.getContents(), offset);
+					if (previous != null) {
+						// more characters of the same identifier were typed, filter the previous proposals
+						collector.refine(previous, buffer.getText(previous.getTokenStart(), offset - previous.getTokenStart()).toCharArray());
+					} else if (isIndexEngineEnabled()) {
 						unit.codeComplete(offset, collector, subMonitor);
 					} else {
 						ModelBasedCompletionEngine.codeComplete(unit, offset, collector, DefaultWorkingCopyOwner.PRIMARY, subMonitor);
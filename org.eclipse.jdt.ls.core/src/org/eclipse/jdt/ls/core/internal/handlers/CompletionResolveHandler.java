@@ -16,7 +16,6 @@ import static org.eclipse.jdt.internal.corext.template.java.SignatureUtil.fix836
 import static org.eclipse.jdt.internal.corext.template.java.SignatureUtil.getLowerBound;
 import static org.eclipse.jdt.internal.corext.template.java.SignatureUtil.stripSignatureToFQN;
 
-import java.io.Reader;
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -40,15 +39,13 @@ import org.eclipse.jdt.ls.core.internal.JSONUtility;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.contentassist.CompletionProposalReplacementProvider;
 import org.eclipse.jdt.ls.core.internal.contentassist.CompletionProposalRequestor;
-import org.eclipse.jdt.ls.core.internal.javadoc.JavadocContentAccess;
-import org.eclipse.jdt.ls.core.internal.javadoc.JavadocContentAccess2;
+import org.eclipse.jdt.ls.core.internal.javadoc.JavadocCache;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.lsp4j.CompletionItem;
 import org.eclipse.lsp4j.MarkupContent;
 import org.eclipse.lsp4j.MarkupKind;
 import org.eclipse.osgi.util.NLS;
 
-import com.google.common.io.CharStreams;
 import com.google.common.util.concurrent.SimpleTimeLimiter;
 import com.google.common.util.concurrent.UncheckedTimeoutException;
 /**
@@ -104,10 +101,22 @@ public class CompletionResolveHandler {
 			param.setData(null);
 			return param;
 		}
-		if (manager.getClientPreferences().isResolveAdditionalTextEditsSupport()) {
+		boolean lazyResolve = manager.getClientPreferences().isCompletionLazyResolveSupport();
+		if (manager.getClientPreferences().isResolveAdditionalTextEditsSupport() || lazyResolve) {
 			CompletionProposalReplacementProvider proposalProvider = new CompletionProposalReplacementProvider(unit, completionResponse.getContext(), completionResponse.getOffset(), manager.getPreferences(), manager.getClientPreferences());
 			proposalProvider.updateAdditionalTextEdits(completionResponse.getProposals().get(proposalId), param, '\0');
 		}
+		if (lazyResolve) {
+			CompletionProposal proposal = completionResponse.getProposals().get(proposalId);
+			String constantValue = CompletionProposalRequestor.getConstantValue(proposal, unit.getJavaProject());
+			if (constantValue != null) {
+				data.put(DATA_FIELD_CONSTANT_VALUE, constantValue);
+			}
+			String defaultValue = CompletionProposalRequestor.getDefaultValue(proposal, unit.getJavaProject());
+			if (defaultValue != null) {
+				data.put(DATA_METHOD_DEFAULT_VALUE, defaultValue);
+			}
+		}
 		if (data.containsKey(DATA_FIELD_DECLARATION_SIGNATURE)) {
 			String typeName = stripSignatureToFQN(String.valueOf(data.get(DATA_FIELD_DECLARATION_SIGNATURE)));
 			try {
@@ -159,18 +168,16 @@ public class CompletionResolveHandler {
 					String javadoc = null;
 					try {
 						final IMember curMember = member;
+						// Javadoc read after the timeout is still cached for the next resolve
 						javadoc = SimpleTimeLimiter.create(Executors.newCachedThreadPool()).callWithTimeout(() -> {
-							Reader reader;
 							if (manager.getClientPreferences().isSupportsCompletionDocumentationMarkdown()) {
-								reader = JavadocContentAccess2.getMarkdownContentReader(curMember);
+								return JavadocCache.getInstance().getMarkdownContent(curMember);
 							} else {
-								reader = JavadocContentAccess.getPlainTextContentReader(curMember);
+								return JavadocCache.getInstance().getPlainTextContent(curMember);
 							}
-							return reader == null? null:CharStreams.toString(reader);
 						}, 500, TimeUnit.MILLISECONDS);
 					} catch (UncheckedTimeoutException tooSlow) {
 						//Ignore error for now as it's spamming clients on content assist.
-						//TODO cache javadoc resolution results?
 						//JavaLanguageServerPlugin.logError("Unable to get documentation under 500ms");
 						monitor.setCanceled(true);
 					} catch (Exception e) {
@@ -30,6 +30,11 @@ public class CompletionResponse {
 	private int offset;
 	private CompletionContext context;
 	private List<CompletionProposal> proposals;
+	private String uri;
+	private boolean complete;
+	private int tokenStart = -1;
+	private String contents;
+	private long size = -1;
 
 	public CompletionResponse() {
 		id = idSeed.getAndIncrement();
@@ -65,6 +70,7 @@ public class CompletionResponse {
 	 */
 	public void setProposals(List<CompletionProposal> proposals) {
 		this.proposals = proposals;
+		this.size = -1;
 	}
 	/**
 	 * @return the offset
@@ -78,4 +84,112 @@ public class CompletionResponse {
 	public void setOffset(int offset) {
 		this.offset = offset;
 	}
+
+	/**
+	 * @return the uri of the document the proposals were computed for
+	 */
+	public String getUri() {
+		return uri;
+	}
+
+	/**
+	 * @param uri the uri to set
+	 */
+	public void setUri(String uri) {
+		this.uri = uri;
+	}
+
+	/**
+	 * @return <code>true</code> if the proposals were not truncated
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * @param complete the complete flag to set
+	 */
+	public void setComplete(boolean complete) {
+		this.complete = complete;
+	}
+
+	/**
+	 * @return the start offset of the completed identifier, or -1 if the
+	 *         completion isn't made on an identifier
+	 */
+	public int getTokenStart() {
+		return tokenStart;
+	}
+
+	/**
+	 * Records the state of the document the proposals were computed from, to
+	 * tell whether a later completion request only typed more characters of
+	 * the completed identifier.
+	 *
+	 * @param contents
+	 *            the document contents
+	 * @param tokenStart
+	 *            the start offset of the completed identifier
+	 */
+	public void setDocumentState(String contents, int tokenStart) {
+		this.tokenStart = tokenStart;
+		this.contents = contents;
+		this.size = -1;
+	}
+
+	/**
+	 * Forgets the recorded document state, once this response can't be
+	 * refined anymore.
+	 */
+	public void clearDocumentState() {
+		this.tokenStart = -1;
+		this.contents = null;
+		this.size = -1;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given contents only differ from the
+	 * recorded document state by identifier characters typed at the recorded
+	 * completion offset, until <code>newOffset</code>.
+	 */
+	public boolean isExtendedBy(String contents, int newOffset) {
+		String previous = this.contents;
+		if (previous == null || tokenStart < 0 || tokenStart > offset || newOffset <= offset) {
+			return false;
+		}
+		int typed = newOffset - offset;
+		if (contents.length() != previous.length() + typed) {
+			return false;
+		}
+		for (int i = offset; i < newOffset; i++) {
+			if (!Character.isJavaIdentifierPart(contents.charAt(i))) {
+				return false;
+			}
+		}
+		// everything before the typed characters, and everything after them
+		return contents.regionMatches(0, previous, 0, offset) && contents.regionMatches(newOffset, previous, offset, previous.length() - offset);
+	}
+
+	/**
+	 * @return an estimate of the memory retained by this response, in bytes
+	 */
+	public long getSize() {
+		if (size < 0) {
+			long result = 64;
+			if (contents != null) {
+				result += 40 + 2L * contents.length();
+			}
+			if (proposals != null) {
+				for (CompletionProposal proposal : proposals) {
+					result += 128 + length(proposal.getCompletion()) + length(proposal.getName()) + length(proposal.getSignature()) + length(proposal.getDeclarationSignature());
+				}
+			}
+			size = result;
+		}
+		return size;
+	}
+
+	private static long length(char[] chars) {
+		return chars == null ? 0 : 16 + 2L * chars.length;
+	}
 }
@@ -12,11 +12,24 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.handlers;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.core.CompletionProposal;
+import org.eclipse.jdt.core.Signature;
+import org.eclipse.jdt.core.compiler.CharOperation;
 
 /**
- * Cache of {@link CompletionResponse}s.
+ * Bounded cache of {@link CompletionResponse}s.
+ *
+ * Responses are kept in least recently used order and evicted once their
+ * estimated memory footprint exceeds <code>completion.cache.maxSize</code>
+ * bytes, so items of previous completion lists can still be resolved. The
+ * latest response of each document can be refined when a new completion is
+ * requested further in the same identifier.
  *
  * @author Fred Bricon
  */
@@ -26,25 +39,161 @@ public final class CompletionResponses {
 		//Don't instantiate
 	}
 
-	private static final Map<Long, CompletionResponse> COMPLETIONS = new ConcurrentHashMap<>();
+	private static final long MAX_SIZE = Long.getLong("completion.cache.maxSize", 16 * 1024 * 1024);
+
+	// access ordered, guarded by COMPLETIONS
+	private static final Map<Long, CompletionResponse> COMPLETIONS = new LinkedHashMap<>(16, 0.75f, true);
+	private static final Map<String, Long> LATEST = new HashMap<>();
+	private static long size;
+
+	private static final AtomicLong HITS = new AtomicLong();
+	private static final AtomicLong MISSES = new AtomicLong();
+	private static final AtomicLong EVICTIONS = new AtomicLong();
 
 	public static CompletionResponse get(Long id) {
-		return COMPLETIONS.get(id);
+		synchronized (COMPLETIONS) {
+			return COMPLETIONS.get(id);
+		}
 	}
 
 	public static void store(CompletionResponse response) {
 		if (response != null) {
-			COMPLETIONS.put(response.getId(), response);
+			synchronized (COMPLETIONS) {
+				CompletionResponse previous = COMPLETIONS.put(response.getId(), response);
+				if (previous != null) {
+					size -= previous.getSize();
+				}
+				size += response.getSize();
+				if (response.getUri() != null) {
+					Long superseded = LATEST.put(response.getUri(), response.getId());
+					CompletionResponse latest = superseded == null ? null : COMPLETIONS.get(superseded);
+					if (latest != null && latest != response) {
+						// only the latest response of a document can be refined
+						size -= latest.getSize();
+						latest.clearDocumentState();
+						size += latest.getSize();
+					}
+				}
+				evict();
+			}
+		}
+	}
+
+	private static void evict() {
+		Iterator<CompletionResponse> iterator = COMPLETIONS.values().iterator();
+		// always keep the most recent response
+		while (size > MAX_SIZE && COMPLETIONS.size() > 1 && iterator.hasNext()) {
+			CompletionResponse eldest = iterator.next();
+			iterator.remove();
+			size -= eldest.getSize();
+			if (eldest.getUri() != null) {
+				LATEST.remove(eldest.getUri(), eldest.getId());
+			}
+			EVICTIONS.incrementAndGet();
 		}
 	}
 
 	public static void delete(CompletionResponse response) {
 		if (response != null) {
-			COMPLETIONS.remove(response.getId());
+			synchronized (COMPLETIONS) {
+				if (COMPLETIONS.remove(response.getId()) != null) {
+					size -= response.getSize();
+				}
+				if (response.getUri() != null) {
+					LATEST.remove(response.getUri(), response.getId());
+				}
+			}
 		}
 	}
 
 	public static void clear() {
-		COMPLETIONS.clear();
+		synchronized (COMPLETIONS) {
+			COMPLETIONS.clear();
+			LATEST.clear();
+			size = 0;
+		}
+	}
+
+	/**
+	 * Returns the latest complete response computed for the given document if
+	 * the document has only been modified since by typing more characters of
+	 * the completed identifier, <code>null</code> otherwise.
+	 *
+	 * @param uri
+	 *            the document uri
+	 * @param contents
+	 *            the current document contents
+	 * @param offset
+	 *            the new completion offset
+	 */
+	public static CompletionResponse findRefinable(String uri, String contents, int offset) {
+		CompletionResponse response;
+		synchronized (COMPLETIONS) {
+			Long id = LATEST.get(uri);
+			response = id == null ? null : COMPLETIONS.get(id);
+		}
+		if (response != null && response.isComplete() && response.getContext() != null && response.isExtendedBy(contents, offset) && isRefinable(response)) {
+			HITS.incrementAndGet();
+			return response;
+		}
+		MISSES.incrementAndGet();
+		return null;
+	}
+
+	private static boolean isRefinable(CompletionResponse response) {
+		for (CompletionProposal proposal : response.getProposals()) {
+			if (getMatchName(proposal) == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the proposal of a refinable response still
+	 * matches the given identifier prefix. The match is at least as lenient as
+	 * the completion engine's one, clients filter the result anyway.
+	 */
+	public static boolean matches(char[] token, CompletionProposal proposal) {
+		char[] name = getMatchName(proposal);
+		if (name == null) {
+			return false;
+		}
+		return token.length == 0 || CharOperation.prefixEquals(token, name, false) || CharOperation.camelCaseMatch(token, name) || CharOperation.substringMatch(token, name);
+	}
+
+	private static char[] getMatchName(CompletionProposal proposal) {
+		switch (proposal.getKind()) {
+			case CompletionProposal.FIELD_REF:
+			case CompletionProposal.METHOD_REF:
+			case CompletionProposal.LOCAL_VARIABLE_REF:
+			case CompletionProposal.KEYWORD:
+				return proposal.getName();
+			case CompletionProposal.TYPE_REF:
+				return proposal.getSignature() == null ? null : Signature.getSignatureSimpleName(proposal.getSignature());
+			default:
+				return null;
+		}
+	}
+
+	public static long getHitCount() {
+		return HITS.get();
+	}
+
+	public static long getMissCount() {
+		return MISSES.get();
+	}
+
+	public static long getEvictionCount() {
+		return EVICTIONS.get();
+	}
+
+	/**
+	 * @return the estimated memory footprint of the cached responses, in bytes
+	 */
+	public static long getSize() {
+		synchronized (COMPLETIONS) {
+			return size;
+		}
 	}
 }
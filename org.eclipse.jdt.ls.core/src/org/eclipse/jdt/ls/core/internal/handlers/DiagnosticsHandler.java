@@ -46,6 +46,15 @@ public class DiagnosticsHandler extends BaseDiagnosticsHandler {
 		if (nonProjectFile) {
 			problems.add(createNonProjectProblem());
 		}
+		if (LargeFilePolicy.isLargeFile(cu)) {
+			problems.add(createLargeFileProblem());
+		}
+	}
+
+	private IProblem createLargeFileProblem() {
+		String fileName = cu.getElementName();
+		String message = fileName + " is a large file, only syntax errors are reported";
+		return new DefaultProblem(fileName.toCharArray(), message, LARGE_FILE, null, ProblemSeverities.Warning, 0, 0, 1, 1);
 	}
 
 
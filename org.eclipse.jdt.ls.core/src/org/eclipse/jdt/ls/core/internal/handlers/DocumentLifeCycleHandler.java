@@ -115,7 +115,9 @@ public class DocumentLifeCycleHandler extends BaseDocumentLifeCycleHandler {
 		}
 
 		try {
-			installSemanticHighlightings(unit);
+			if (!LargeFilePolicy.isLargeFile(unit)) {
+				installSemanticHighlightings(unit);
+			}
 		} catch (JavaModelException | BadPositionCategoryException e) {
 			JavaLanguageServerPlugin.logException("Error while opening document. URI: " + params.getTextDocument().getUri(), e);
 		}
@@ -132,12 +134,15 @@ public class DocumentLifeCycleHandler extends BaseDocumentLifeCycleHandler {
 			return unit;
 		}
 
+		CodeActionProposals.evict(uri);
 		try {
 			if (unit.equals(sharedASTProvider.getActiveJavaElement())) {
 				sharedASTProvider.disposeAST();
 			}
 			List<TextDocumentContentChangeEvent> contentChanges = params.getContentChanges();
 			List<HighlightedPositionDiffContext> diffContexts = newArrayList();
+			// the highlightings of a large file aren't installed
+			boolean highlight = semanticHighlightingService.isEnabled() && !LargeFilePolicy.isLargeFile(unit);
 			for (TextDocumentContentChangeEvent changeEvent : contentChanges) {
 
 				Range range = changeEvent.getRange();
@@ -164,7 +169,7 @@ public class DocumentLifeCycleHandler extends BaseDocumentLifeCycleHandler {
 				}
 
 				// Avoid any computation if the `SemanticHighlightingService#isEnabled` is `false`.
-				if (semanticHighlightingService.isEnabled()) {
+				if (highlight) {
 					IDocument oldState = new Document(unit.getBuffer().getContents());
 					IDocument newState = JsonRpcHelpers.toDocument(unit.getBuffer());
 					//@formatter:off
@@ -19,35 +19,47 @@ import static org.eclipse.jdt.core.IJavaElement.FIELD;
 import static org.eclipse.jdt.core.IJavaElement.METHOD;
 import static org.eclipse.jdt.core.IJavaElement.PACKAGE_DECLARATION;
 import static org.eclipse.jdt.core.IJavaElement.TYPE;
-import static org.eclipse.jdt.ls.core.internal.JDTUtils.LocationType.FULL_RANGE;
 import static org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin.logInfo;
 import static org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels.ALL_DEFAULT;
 import static org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels.M_APP_RETURNTYPE;
-import static org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels.ROOT_VARIABLE;
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IField;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.SourceRange;
+import org.eclipse.jdt.ls.core.internal.DocumentAdapter;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels;
+import org.eclipse.jdt.ls.core.internal.managers.ContentProviderManager;
+import org.eclipse.jdt.ls.core.internal.managers.SymbolRanges;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.lsp4j.DocumentSymbol;
 import org.eclipse.lsp4j.DocumentSymbolParams;
 import org.eclipse.lsp4j.Location;
@@ -56,12 +68,36 @@ import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.SymbolKind;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
-import org.eclipse.xtext.xbase.lib.Exceptions;
 
 public class DocumentSymbolHandler {
 	private static Range DEFAULT_RANGE = new Range(new Position(0, 0), new Position(0, 0));
 
+	private static final int CACHE_SIZE = Integer.getInteger("java.documentSymbols.cache.maxSize", 16);
+
+	// the symbols of the working copies by uri, access ordered, guarded by CACHE
+	private static final Map<String, CachedSymbols> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * The symbols of a version of the document of a working copy.
+	 */
+	private static final class CachedSymbols {
+		private final Reference<IDocument> document;
+		private final long modificationStamp;
+		private final boolean hierarchical;
+		private final List<Either<SymbolInformation, DocumentSymbol>> symbols;
+
+		CachedSymbols(IDocument document, long modificationStamp, boolean hierarchical, List<Either<SymbolInformation, DocumentSymbol>> symbols) {
+			this.document = new WeakReference<>(document);
+			this.modificationStamp = modificationStamp;
+			this.hierarchical = hierarchical;
+			this.symbols = symbols;
+		}
+	}
+
 	private boolean hierarchicalDocumentSymbolSupported;
+	// the ranges in the content of a class file without attached source
+	private SymbolRanges contentRanges;
+	private String contentUri;
 
 	public DocumentSymbolHandler(boolean hierarchicalDocumentSymbolSupported) {
 		this.hierarchicalDocumentSymbolSupported = hierarchicalDocumentSymbolSupported;
@@ -73,134 +109,328 @@ public class DocumentSymbolHandler {
 		if (unit == null) {
 			return Collections.emptyList();
 		}
+		String uri = params.getTextDocument().getUri();
+		IDocument document = getWorkingCopyDocument(unit);
+		long modificationStamp = document instanceof IDocumentExtension4 ? ((IDocumentExtension4) document).getModificationStamp() : IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+		if (modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			List<Either<SymbolInformation, DocumentSymbol>> cached = getCachedSymbols(uri, document, modificationStamp, hierarchicalDocumentSymbolSupported);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		if (unit instanceof IClassFile) {
+			contentRanges = getContentRanges((IClassFile) unit, monitor);
+			contentUri = uri;
+		}
 
+		List<Either<SymbolInformation, DocumentSymbol>> result;
 		if (hierarchicalDocumentSymbolSupported) {
 			List<DocumentSymbol> symbols = this.getHierarchicalOutline(unit, monitor);
-			return symbols.stream().map(Either::<SymbolInformation, DocumentSymbol>forRight).collect(toList());
+			if (symbols == null) {
+				return emptyList();
+			}
+			result = symbols.stream().map(Either::<SymbolInformation, DocumentSymbol>forRight).collect(toList());
 		} else {
 			SymbolInformation[] elements = this.getOutline(unit, monitor);
-			return Arrays.asList(elements).stream().map(Either::<SymbolInformation, DocumentSymbol>forLeft).collect(toList());
+			if (elements == null) {
+				return emptyList();
+			}
+			result = Arrays.asList(elements).stream().map(Either::<SymbolInformation, DocumentSymbol>forLeft).collect(toList());
+		}
+		if (modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			cacheSymbols(uri, new CachedSymbols(document, modificationStamp, hierarchicalDocumentSymbolSupported, new ArrayList<>(result)));
 		}
+		return result;
 	}
 
-	private SymbolInformation[] getOutline(ITypeRoot unit, IProgressMonitor monitor) {
+	/**
+	 * @return the document of the unit if it's a working copy, i.e. opened by
+	 *         the client, <code>null</code> otherwise
+	 */
+	private static IDocument getWorkingCopyDocument(ITypeRoot unit) {
+		if (!(unit instanceof ICompilationUnit) || !((ICompilationUnit) unit).isWorkingCopy()) {
+			return null;
+		}
 		try {
-			IJavaElement[] elements = unit.getChildren();
-			ArrayList<SymbolInformation> symbols = new ArrayList<>(elements.length);
-			collectChildren(unit, elements, symbols, monitor);
-			return symbols.toArray(new SymbolInformation[symbols.size()]);
+			IBuffer buffer = unit.getBuffer();
+			if (buffer instanceof DocumentAdapter) {
+				return ((DocumentAdapter) buffer).getDocument();
+			}
 		} catch (JavaModelException e) {
-			JavaLanguageServerPlugin.logException("Problem getting outline for" + unit.getElementName(), e);
+			// not cached
 		}
-		return new SymbolInformation[0];
+		return null;
 	}
 
-	private void collectChildren(ITypeRoot unit, IJavaElement[] elements, ArrayList<SymbolInformation> symbols,
-			IProgressMonitor monitor)
-			throws JavaModelException {
-		for (IJavaElement element : elements) {
-			if (monitor.isCanceled()) {
-				throw new OperationCanceledException();
-			}
-			if (element instanceof IParent) {
-				collectChildren(unit, filter(((IParent) element).getChildren()), symbols, monitor);
-			}
-			int type = element.getElementType();
-			if (type != IJavaElement.TYPE && type != IJavaElement.FIELD && type != IJavaElement.METHOD) {
-				continue;
+	private static List<Either<SymbolInformation, DocumentSymbol>> getCachedSymbols(String uri, IDocument document, long modificationStamp, boolean hierarchical) {
+		synchronized (CACHE) {
+			CachedSymbols cached = CACHE.get(uri);
+			// a document reopened by the client is a new document, whose modification stamps start over
+			if (cached != null && cached.document.get() == document && cached.modificationStamp == modificationStamp && cached.hierarchical == hierarchical) {
+				return new ArrayList<>(cached.symbols);
 			}
+		}
+		return null;
+	}
 
-			Location location = JDTUtils.toLocation(element);
-			if (location != null) {
-				SymbolInformation si = new SymbolInformation();
-				String name = JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT);
-				si.setName(name == null ? element.getElementName() : name);
-				si.setKind(mapKind(element));
-				if (element.getParent() != null) {
-					si.setContainerName(element.getParent().getElementName());
-				}
-				location.setUri(ResourceUtils.toClientUri(location.getUri()));
-				si.setLocation(location);
-				if (!symbols.contains(si)) {
-					symbols.add(si);
-				}
+	private static void cacheSymbols(String uri, CachedSymbols symbols) {
+		synchronized (CACHE) {
+			CACHE.put(uri, symbols);
+			Iterator<CachedSymbols> iterator = CACHE.values().iterator();
+			while (CACHE.size() > CACHE_SIZE && iterator.hasNext()) {
+				iterator.next();
+				iterator.remove();
 			}
 		}
 	}
 
+	/**
+	 * @return the symbols, or <code>null</code> if they couldn't be computed
+	 */
+	private SymbolInformation[] getOutline(ITypeRoot unit, IProgressMonitor monitor) {
+		try {
+			List<SymbolInformation> symbols = new SymbolBuilder(unit, monitor).getOutline();
+			return symbols.toArray(new SymbolInformation[symbols.size()]);
+		} catch (JavaModelException e) {
+			JavaLanguageServerPlugin.logException("Problem getting outline for" + unit.getElementName(), e);
+		}
+		return null;
+	}
+
+	/**
+	 * @return the symbols, or <code>null</code> if they couldn't be computed
+	 */
 	private List<DocumentSymbol> getHierarchicalOutline(ITypeRoot unit, IProgressMonitor monitor) {
 		try {
-			return Stream.of(filter(unit.getChildren())).map(child -> toDocumentSymbol(child, monitor)).filter(Objects::nonNull).collect(Collectors.toList());
+			return new SymbolBuilder(unit, monitor).getHierarchicalOutline();
 		} catch (OperationCanceledException e) {
 			logInfo("User abort while collecting the document symbols.");
 		} catch (JavaModelException e) {
 			JavaLanguageServerPlugin.logException("Problem getting outline for" + unit.getElementName(), e);
 		}
-		return emptyList();
+		return null;
 	}
 
-	private DocumentSymbol toDocumentSymbol(IJavaElement unit, IProgressMonitor monitor) {
-		int type = unit.getElementType();
-		if (type != TYPE && type != FIELD && type != METHOD && type != PACKAGE_DECLARATION && type != COMPILATION_UNIT) {
+	/**
+	 * Builds the symbols of a type root in a single walk over its elements.
+	 * The source ranges of the symbols are gathered during the walk, then
+	 * converted to lines and columns in one sweep over the lines of the buffer.
+	 */
+	private final class SymbolBuilder {
+		private final ITypeRoot unit;
+		private final IProgressMonitor monitor;
+		// the uri of the source ranges of the unit, null if the client can't open it
+		private final String uri;
+		private int[] offsets = new int[256];
+		private Position[] positions = new Position[256];
+		private int count;
+
+		SymbolBuilder(ITypeRoot unit, IProgressMonitor monitor) {
+			this.unit = unit;
+			this.monitor = monitor;
+			this.uri = ResourceUtils.toClientUri(JDTUtils.toUri(unit));
+		}
+
+		List<SymbolInformation> getOutline() throws JavaModelException {
+			List<SymbolInformation> symbols = new ArrayList<>();
+			collectChildren(unit.getChildren(), symbols);
+			resolvePositions();
+			// the duplicates are only known once the locations are resolved
+			return new ArrayList<>(new LinkedHashSet<>(symbols));
+		}
+
+		private void collectChildren(IJavaElement[] elements, List<SymbolInformation> symbols) throws JavaModelException {
+			for (IJavaElement element : elements) {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				if (element instanceof IParent) {
+					collectChildren(filter(((IParent) element).getChildren()), symbols);
+				}
+				int type = element.getElementType();
+				if (type != IJavaElement.TYPE && type != IJavaElement.FIELD && type != IJavaElement.METHOD) {
+					continue;
+				}
+
+				Location location = getLocation(element);
+				if (location != null) {
+					SymbolInformation si = new SymbolInformation();
+					String name = JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT);
+					si.setName(name == null ? element.getElementName() : name);
+					si.setKind(mapKind(element));
+					if (element.getParent() != null) {
+						si.setContainerName(element.getParent().getElementName());
+					}
+					si.setLocation(location);
+					symbols.add(si);
+				}
+			}
+		}
+
+		List<DocumentSymbol> getHierarchicalOutline() throws JavaModelException {
+			List<DocumentSymbol> symbols = toDocumentSymbols(filter(unit.getChildren()));
+			resolvePositions();
+			return symbols;
+		}
+
+		private List<DocumentSymbol> toDocumentSymbols(IJavaElement[] elements) throws JavaModelException {
+			List<DocumentSymbol> symbols = new ArrayList<>(elements.length);
+			for (IJavaElement element : elements) {
+				DocumentSymbol symbol = toDocumentSymbol(element);
+				if (symbol != null) {
+					symbols.add(symbol);
+				}
+			}
+			return symbols;
+		}
+
+		private DocumentSymbol toDocumentSymbol(IJavaElement element) throws JavaModelException {
+			int type = element.getElementType();
+			if (type != TYPE && type != FIELD && type != METHOD && type != PACKAGE_DECLARATION && type != COMPILATION_UNIT) {
+				return null;
+			}
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException("User abort");
+			}
+			DocumentSymbol symbol = new DocumentSymbol();
+			setNameAndDetail(symbol, element);
+			Range range = getRange(element, false);
+			symbol.setRange(range == null ? DEFAULT_RANGE : range);
+			Range selectionRange = getRange(element, true);
+			symbol.setSelectionRange(selectionRange == null ? DEFAULT_RANGE : selectionRange);
+			symbol.setKind(mapKind(element));
+			symbol.setDeprecated(isDeprecated(element));
+			if (element instanceof IParent) {
+				symbol.setChildren(toDocumentSymbols(filter(((IParent) element).getChildren())));
+			}
+			return symbol;
+		}
+
+		/**
+		 * @return the location of the name of the element, or <code>null</code>
+		 *         if it has none
+		 */
+		private Location getLocation(IJavaElement element) throws JavaModelException {
+			ISourceRange sourceRange = uri == null ? null : JDTUtils.getNameRange(element);
+			if (SourceRange.isAvailable(sourceRange)) {
+				return new Location(uri, newRange(sourceRange));
+			}
+			if (contentRanges != null && element instanceof IMember) {
+				Range range = contentRanges.getRange((IMember) element, true);
+				if (range != null) {
+					return new Location(ResourceUtils.toClientUri(contentUri), range);
+				}
+			}
 			return null;
 		}
-		if (monitor.isCanceled()) {
-			throw new OperationCanceledException("User abort");
+
+		/**
+		 * @return the full or name range of the element, or <code>null</code>
+		 *         if it has none
+		 */
+		private Range getRange(IJavaElement element, boolean nameRange) throws JavaModelException {
+			if (uri != null) {
+				ISourceRange sourceRange = nameRange ? JDTUtils.getNameRange(element) : JDTUtils.getSourceRange(element);
+				if (SourceRange.isAvailable(sourceRange)) {
+					return newRange(sourceRange);
+				}
+			}
+			if (contentRanges != null && element instanceof IMember) {
+				return contentRanges.getRange((IMember) element, nameRange);
+			}
+			return null;
 		}
-		DocumentSymbol symbol = new DocumentSymbol();
-		try {
-			String name = getName(unit);
-			symbol.setName(name);
-			symbol.setRange(getRange(unit));
-			symbol.setSelectionRange(getSelectionRange(unit));
-			symbol.setKind(mapKind(unit));
-			symbol.setDeprecated(isDeprecated(unit));
-			symbol.setDetail(getDetail(unit, name));
-			if (unit instanceof IParent) {
-				//@formatter:off
-				IJavaElement[] children = filter(((IParent) unit).getChildren());
-				symbol.setChildren(Stream.of(children)
-						.map(child -> toDocumentSymbol(child, monitor))
-						.filter(Objects::nonNull)
-						.collect(Collectors.toList()));
-				//@formatter:off
+
+		/**
+		 * @return a range whose positions are set by {@link #resolvePositions()}
+		 */
+		private Range newRange(ISourceRange sourceRange) {
+			Range range = new Range(new Position(), new Position());
+			addPosition(range.getStart(), sourceRange.getOffset());
+			addPosition(range.getEnd(), sourceRange.getOffset() + sourceRange.getLength());
+			return range;
+		}
+
+		private void addPosition(Position position, int offset) {
+			if (count == offsets.length) {
+				offsets = Arrays.copyOf(offsets, count * 2);
+				positions = Arrays.copyOf(positions, count * 2);
 			}
-		} catch (JavaModelException e) {
-			Exceptions.sneakyThrow(e);
+			offsets[count] = offset;
+			positions[count] = position;
+			count++;
 		}
-		return symbol;
-	}
 
-	private String getName(IJavaElement element) {
-		String name = JavaElementLabels.getElementLabel(element, ALL_DEFAULT);
-		return name == null ? element.getElementName() : name;
+		/**
+		 * Converts the offsets of the gathered ranges to lines and columns. The
+		 * positions of invalid offsets are left at the start of the document.
+		 */
+		private void resolvePositions() throws JavaModelException {
+			if (count == 0) {
+				return;
+			}
+			IBuffer buffer = unit.getBuffer();
+			LineIndex index = buffer == null ? null : LineIndex.of(buffer);
+			if (index == null) {
+				return;
+			}
+			int[][] lines = index.toLines(Arrays.copyOf(offsets, count));
+			for (int i = 0; i < count; i++) {
+				if (lines[i] != null) {
+					positions[i].setLine(lines[i][0]);
+					positions[i].setCharacter(lines[i][1]);
+				}
+			}
+		}
 	}
 
-	private Range getRange(IJavaElement element) throws JavaModelException {
-		Location location = JDTUtils.toLocation(element, FULL_RANGE);
-		return location == null ? DEFAULT_RANGE : location.getRange();
+	/**
+	 * Sets the name of the symbol and, for a method, its return type as its
+	 * detail, from a single label of the element.
+	 */
+	private void setNameAndDetail(DocumentSymbol symbol, IJavaElement element) {
+		boolean isMethod = element.getElementType() == METHOD;
+		String label = JavaElementLabels.getElementLabel(element, isMethod ? ALL_DEFAULT | M_APP_RETURNTYPE : ALL_DEFAULT);
+		if (label == null) {
+			symbol.setName(element.getElementName());
+			symbol.setDetail("");
+			return;
+		}
+		// the return type is appended last, constructors have none
+		int index = isMethod ? label.lastIndexOf(JavaElementLabels.DECL_STRING) : -1;
+		if (index < 0) {
+			symbol.setName(label);
+			symbol.setDetail("");
+		} else {
+			symbol.setName(label.substring(0, index));
+			symbol.setDetail(label.substring(index));
+		}
 	}
 
-	private Range getSelectionRange(IJavaElement element) throws JavaModelException {
-		Location location = JDTUtils.toLocation(element);
-		return location == null ? DEFAULT_RANGE : location.getRange();
+	/**
+	 * @return the ranges in the content provided for the class file, e.g.
+	 *         decompiled, or <code>null</code> if the class file has attached
+	 *         source
+	 */
+	private SymbolRanges getContentRanges(IClassFile classFile, IProgressMonitor monitor) {
+		ContentProviderManager contentProvider = JavaLanguageServerPlugin.getContentProviderManager();
+		try {
+			if (contentProvider == null || classFile.getSourceRange() != null || JDTUtils.toUri(classFile) == null) {
+				return null;
+			}
+		} catch (JavaModelException e) {
+			return null;
+		}
+		return contentProvider.getSymbolRanges(classFile, monitor);
 	}
 
 	private boolean isDeprecated(IJavaElement element) throws JavaModelException {
-		if (element instanceof ITypeRoot) {
-			return Flags.isDeprecated(((ITypeRoot) element).findPrimaryType().getFlags());
+		if (element instanceof IMember) {
+			return Flags.isDeprecated(((IMember) element).getFlags());
 		}
 		return false;
 	}
 
-	private String getDetail(IJavaElement element, String name) {
-		String nameWithDetails = JavaElementLabels.getElementLabel(element, ALL_DEFAULT | M_APP_RETURNTYPE | ROOT_VARIABLE);
-		if (nameWithDetails != null && nameWithDetails.startsWith(name)) {
-			return nameWithDetails.substring(name.length());
-		}
-		return "";
-	}
-
 	private IJavaElement[] filter(IJavaElement[] elements) {
 		return Stream.of(elements)
 				.filter(e -> (!isInitializer(e) && !isSyntheticElement(e)))
@@ -13,23 +13,20 @@
 
 package org.eclipse.jdt.ls.core.internal.handlers;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jdt.core.IImportContainer;
-import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.IMethod;
-import org.eclipse.jdt.core.ISourceRange;
-import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.ITypeRoot;
-import org.eclipse.jdt.core.SourceRange;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.core.compiler.IScanner;
 import org.eclipse.jdt.core.compiler.ITerminalSymbols;
@@ -40,19 +37,20 @@ import org.eclipse.lsp4j.FoldingRange;
 import org.eclipse.lsp4j.FoldingRangeKind;
 import org.eclipse.lsp4j.FoldingRangeRequestParams;
 
+/**
+ * Computes the folding ranges of a document in a single pass of the scanner
+ * over its source, without building the Java model structure or an AST.
+ *
+ * Every request uses its own scanner, so that concurrent requests don't share
+ * any state.
+ */
 public class FoldingRangeHandler {
 
 	private static final Pattern REGION_START_PATTERN = Pattern.compile("^//\\s*#?region|^//\\s+<editor-fold.*>");
 	private static final Pattern REGION_END_PATTERN = Pattern.compile("^//\\s*#?endregion|^//\\s+</editor-fold>");
 
-	private static IScanner fScanner;
-
-	private static IScanner getScanner() {
-		if (fScanner == null) {
-			fScanner = ToolFactory.createScanner(true, false, false, true);
-		}
-		return fScanner;
-	}
+	@SuppressWarnings("deprecation")
+	private static final int InternalTokenNameIdentifier = ITerminalSymbols.TokenNameIdentifier;
 
 	public List<FoldingRange> foldingRange(FoldingRangeRequestParams params, IProgressMonitor monitor) {
 		List<FoldingRange> $ = new ArrayList<>();
@@ -66,163 +64,346 @@ public class FoldingRangeHandler {
 
 	private void computeFoldingRanges(List<FoldingRange> foldingRanges, ITypeRoot unit, IProgressMonitor monitor) {
 		try {
-			ISourceRange range = unit.getSourceRange();
-			if (!SourceRange.isAvailable(range)) {
-				return;
-			}
-
 			String contents = unit.getSource();
 			if (StringUtils.isBlank(contents)) {
 				return;
 			}
-
-			final int shift = range.getOffset();
-			IScanner scanner = getScanner();
+			IScanner scanner = createScanner(unit.getJavaProject());
 			scanner.setSource(contents.toCharArray());
-			scanner.resetTo(shift, shift + range.getLength());
+			new FoldingRangeScanner(scanner, foldingRanges).scan(monitor);
+		} catch (CoreException e) {
+			JavaLanguageServerPlugin.logException("Problem with folding range for " + unit.getPath().toPortableString(), e);
+			monitor.setCanceled(true);
+		}
+	}
 
-			int start = shift;
-			int token = 0;
-			Stack<Integer> regionStarts = new Stack<>();
+	private static IScanner createScanner(IJavaProject project) {
+		String sourceLevel;
+		String complianceLevel;
+		if (project != null) {
+			sourceLevel = project.getOption(JavaCore.COMPILER_SOURCE, true);
+			complianceLevel = project.getOption(JavaCore.COMPILER_COMPLIANCE, true);
+		} else {
+			sourceLevel = JavaCore.getOption(JavaCore.COMPILER_SOURCE);
+			complianceLevel = JavaCore.getOption(JavaCore.COMPILER_COMPLIANCE);
+		}
+		// the line separators are recorded for the line numbers of the ranges
+		return ToolFactory.createScanner(true, false, true, sourceLevel, complianceLevel);
+	}
+
+	/**
+	 * The state of a single pass over the tokens of a source.
+	 *
+	 * The braces are tracked in a stack of frames: the body of a type, whose
+	 * members are recognized from their tokens, the body of a method, whose
+	 * nested blocks and switch cases are folded, and any other braces (e.g.
+	 * initializers, array initializers, annotation values or enum constant
+	 * bodies), whose content is skipped.
+	 */
+	private static final class FoldingRangeScanner {
+
+		private static final int TYPE = 0;
+		private static final int METHOD = 1;
+		private static final int OTHER = 2;
+
+		private static final class Frame {
+			private final int kind;
+			private final int startLine;
+			private boolean inEnumConstants;
+			// the start lines of the open blocks of a method body
+			private Deque<Integer> blocks;
+			// the candidate ranges of a method body, by end line
+			private Map<Integer, Integer> candidates;
+			private int prevCaseLine = -1;
+
+			Frame(int kind, int startLine, boolean isEnum) {
+				this.kind = kind;
+				this.startLine = startLine;
+				this.inEnumConstants = isEnum;
+				if (kind == METHOD) {
+					blocks = new ArrayDeque<>();
+					candidates = new HashMap<>();
+				}
+			}
+		}
+
+		private final IScanner scanner;
+		private final List<FoldingRange> foldingRanges;
+		private final Deque<Frame> frames = new ArrayDeque<>();
+		private final Deque<Integer> regionStarts = new ArrayDeque<>();
+
+		private int importStartLine = -1;
+		private int importEndLine = -1;
+		private boolean inImport;
+
+		// the declaration being read at the top level or in a type body
+		private boolean expectTypeName;
+		private boolean pendingEnum;
+		private int pendingTypeLine = -1;
+		private int pendingMethodLine = -1;
+		private boolean inExpression;
+		private int parenDepth;
+
+		private int prevToken;
+		private int prevPrevToken;
+		private int prevTokenStart;
+
+		FoldingRangeScanner(IScanner scanner, List<FoldingRange> foldingRanges) {
+			this.scanner = scanner;
+			this.foldingRanges = foldingRanges;
+		}
+
+		void scan(IProgressMonitor monitor) {
+			int token = getNextToken();
 			while (token != ITerminalSymbols.TokenNameEOF) {
-				start = scanner.getCurrentTokenStartPosition();
+				if (monitor.isCanceled()) {
+					return;
+				}
 				switch (token) {
 					case ITerminalSymbols.TokenNameCOMMENT_JAVADOC:
 					case ITerminalSymbols.TokenNameCOMMENT_BLOCK:
-						int end = scanner.getCurrentTokenEndPosition();
-						FoldingRange commentFoldingRange = new FoldingRange(scanner.getLineNumber(start) - 1, scanner.getLineNumber(end) - 1);
-						commentFoldingRange.setKind(FoldingRangeKind.Comment);
-						foldingRanges.add(commentFoldingRange);
+						addFoldingRange(getLine(scanner.getCurrentTokenStartPosition()), getLine(scanner.getCurrentTokenEndPosition()), FoldingRangeKind.Comment);
 						break;
 					case ITerminalSymbols.TokenNameCOMMENT_LINE:
-						String currentSource = String.valueOf(scanner.getCurrentTokenSource());
-						if (REGION_START_PATTERN.matcher(currentSource).lookingAt()) {
-							regionStarts.push(start);
-						} else if (REGION_END_PATTERN.matcher(currentSource).lookingAt()) {
-							if (regionStarts.size() > 0) {
-								FoldingRange regionFolding = new FoldingRange(scanner.getLineNumber(regionStarts.pop()) - 1, scanner.getLineNumber(start) - 1);
-								regionFolding.setKind(FoldingRangeKind.Region);
-								foldingRanges.add(regionFolding);
-							}
-						}
+						handleLineComment();
 						break;
 					default:
+						Frame frame = frames.peek();
+						if (frame == null || frame.kind == TYPE) {
+							handleDeclarationToken(token, frame);
+						} else if (frame.kind == METHOD) {
+							handleMethodToken(token, frame);
+						} else if (token == ITerminalSymbols.TokenNameLBRACE) {
+							frames.push(new Frame(OTHER, -1, false));
+						} else if (token == ITerminalSymbols.TokenNameRBRACE) {
+							closeFrame();
+						}
+						prevPrevToken = prevToken;
+						prevToken = token;
+						prevTokenStart = scanner.getCurrentTokenStartPosition();
 						break;
 				}
-				token = getNextToken(scanner);
+				token = getNextToken();
+			}
+			closeUnterminatedFrames();
+			if (importStartLine != -1 && importEndLine >= importStartLine) {
+				addFoldingRange(importStartLine, importEndLine, FoldingRangeKind.Imports);
 			}
-			computeTypeRootRanges(foldingRanges, unit, scanner);
-		} catch (CoreException e) {
-			JavaLanguageServerPlugin.logException("Problem with folding range for " + unit.getPath().toPortableString(), e);
-			monitor.setCanceled(true);
 		}
-	}
 
-	private int getNextToken(IScanner scanner) {
-		int token = 0;
-		while (token == 0) {
-			try {
-				token = scanner.getNextToken();
-			} catch (InvalidInputException e) {
-				// ignore
-				// JavaLanguageServerPlugin.logException("Problem with folding range", e);
+		private int getNextToken() {
+			int token = 0;
+			while (token == 0) {
+				try {
+					token = scanner.getNextToken();
+				} catch (InvalidInputException e) {
+					// ignore
+				}
 			}
+			return token;
 		}
-		return token;
-	}
 
-	private void computeTypeRootRanges(List<FoldingRange> foldingRanges, ITypeRoot unit, IScanner scanner) throws CoreException {
-		if (unit.hasChildren()) {
-			for (IJavaElement child : unit.getChildren()) {
-				if (child instanceof IImportContainer) {
-					ISourceRange importRange = ((IImportContainer) child).getSourceRange();
-					FoldingRange importFoldingRange = new FoldingRange(scanner.getLineNumber(importRange.getOffset()) - 1, scanner.getLineNumber(importRange.getOffset() + importRange.getLength()) - 1);
-					importFoldingRange.setKind(FoldingRangeKind.Imports);
-					foldingRanges.add(importFoldingRange);
-				} else if (child instanceof IType) {
-					computeTypeRanges(foldingRanges, (IType) child, scanner);
+		private void handleLineComment() {
+			int start = scanner.getCurrentTokenStartPosition();
+			String currentSource = String.valueOf(scanner.getCurrentTokenSource());
+			if (REGION_START_PATTERN.matcher(currentSource).lookingAt()) {
+				regionStarts.push(start);
+			} else if (REGION_END_PATTERN.matcher(currentSource).lookingAt()) {
+				if (!regionStarts.isEmpty()) {
+					addFoldingRange(getLine(regionStarts.pop()), getLine(start), FoldingRangeKind.Region);
 				}
 			}
 		}
-	}
 
-	private void computeTypeRanges(List<FoldingRange> foldingRanges, IType unit, IScanner scanner) throws CoreException {
-		ISourceRange typeRange = unit.getSourceRange();
-		foldingRanges.add(new FoldingRange(scanner.getLineNumber(unit.getNameRange().getOffset()) - 1, scanner.getLineNumber(typeRange.getOffset() + typeRange.getLength()) - 1));
-		IJavaElement[] children = unit.getChildren();
-		for (IJavaElement c : children) {
-			if (c instanceof IMethod) {
-				computeMethodRanges(foldingRanges, (IMethod) c, scanner);
-			} else if (c instanceof IType) {
-				computeTypeRanges(foldingRanges, (IType) c, scanner);
+		/**
+		 * Reads the declarations of the top level or of a type body: imports,
+		 * types, methods and their bodies.
+		 */
+		private void handleDeclarationToken(int token, Frame frame) {
+			switch (token) {
+				case ITerminalSymbols.TokenNameimport:
+					if (frame == null) {
+						inImport = true;
+						if (importStartLine == -1) {
+							importStartLine = getLine(scanner.getCurrentTokenStartPosition());
+						}
+					}
+					break;
+				case ITerminalSymbols.TokenNameclass:
+				case ITerminalSymbols.TokenNameinterface:
+				case ITerminalSymbols.TokenNameenum:
+					// not a class literal, e.g. in an annotation
+					if (prevToken != ITerminalSymbols.TokenNameDOT && !inExpression && parenDepth == 0) {
+						expectTypeName = true;
+						pendingEnum = token == ITerminalSymbols.TokenNameenum;
+					}
+					break;
+				case InternalTokenNameIdentifier:
+					if (expectTypeName) {
+						expectTypeName = false;
+						pendingTypeLine = getLine(scanner.getCurrentTokenStartPosition());
+					}
+					break;
+				case ITerminalSymbols.TokenNameEQUAL:
+					if (parenDepth == 0) {
+						inExpression = true;
+					}
+					break;
+				case ITerminalSymbols.TokenNamedefault:
+					// the default value of an annotation member
+					if (pendingMethodLine != -1 && parenDepth == 0) {
+						inExpression = true;
+					}
+					break;
+				case ITerminalSymbols.TokenNameLPAREN:
+					if (parenDepth == 0 && !inExpression && pendingTypeLine == -1 && pendingMethodLine == -1 && prevToken == InternalTokenNameIdentifier
+							&& prevPrevToken != ITerminalSymbols.TokenNameAT && prevPrevToken != ITerminalSymbols.TokenNameDOT && (frame == null || !frame.inEnumConstants)) {
+						pendingMethodLine = getLine(prevTokenStart);
+					}
+					parenDepth++;
+					break;
+				case ITerminalSymbols.TokenNameRPAREN:
+					if (parenDepth > 0) {
+						parenDepth--;
+					}
+					break;
+				case ITerminalSymbols.TokenNameSEMICOLON:
+					if (parenDepth > 0) {
+						break;
+					}
+					if (inImport) {
+						importEndLine = getLine(scanner.getCurrentTokenEndPosition());
+						inImport = false;
+					}
+					if (pendingMethodLine != -1) {
+						// abstract or native method, or annotation member
+						addFoldingRange(pendingMethodLine, getLine(scanner.getCurrentTokenEndPosition()), null);
+					}
+					if (frame != null) {
+						frame.inEnumConstants = false;
+					}
+					resetDeclaration();
+					break;
+				case ITerminalSymbols.TokenNameLBRACE:
+					if (parenDepth == 0 && !inExpression && pendingTypeLine != -1) {
+						frames.push(new Frame(TYPE, pendingTypeLine, pendingEnum));
+						resetDeclaration();
+					} else if (parenDepth == 0 && !inExpression && pendingMethodLine != -1) {
+						frames.push(new Frame(METHOD, pendingMethodLine, false));
+						resetDeclaration();
+					} else {
+						// initializer, array initializer, annotation value or enum constant body
+						frames.push(new Frame(OTHER, -1, false));
+					}
+					break;
+				case ITerminalSymbols.TokenNameRBRACE:
+					if (frame != null) {
+						closeFrame();
+						resetDeclaration();
+					}
+					break;
+				default:
+					break;
 			}
 		}
-	}
 
-	private void computeMethodRanges(List<FoldingRange> foldingRanges, IMethod method, IScanner scanner) throws CoreException {
-		ISourceRange sourceRange = method.getSourceRange();
-		final int shift = sourceRange.getOffset();
-		scanner.resetTo(shift, shift + sourceRange.getLength());
-
-		foldingRanges.add(new FoldingRange(scanner.getLineNumber(method.getNameRange().getOffset()) - 1, scanner.getLineNumber(shift + sourceRange.getLength()) - 1));
-
-		int start = shift;
-		int token = 0;
-		Stack<Integer> leftParens = null;
-		int prevCaseLine = -1;
-		Map<Integer, Integer> candidates = new HashMap<>();
-		while (token != ITerminalSymbols.TokenNameEOF) {
-			start = scanner.getCurrentTokenStartPosition();
+		/**
+		 * Folds the blocks and the switch cases of a method body.
+		 */
+		private void handleMethodToken(int token, Frame method) {
+			int start = scanner.getCurrentTokenStartPosition();
 			switch (token) {
 				case ITerminalSymbols.TokenNameLBRACE:
-					if (leftParens == null) {
-						// Start of method body
-						leftParens = new Stack<>();
-					} else {
-						int startLine = scanner.getLineNumber(start) - 1;
-						// Start & end overlap, adjust the previous one for visibility:
-						if (candidates.containsKey(startLine)) {
-							int originalStartLine = candidates.remove(startLine);
-							if (originalStartLine < startLine - 1) {
-								candidates.put(startLine - 1, originalStartLine);
-							}
-						}
-						leftParens.push(startLine);
+					int startLine = getLine(start);
+					// Start & end overlap, adjust the previous one for visibility:
+					Integer originalStartLine = method.candidates.remove(startLine);
+					if (originalStartLine != null && originalStartLine < startLine - 1) {
+						method.candidates.put(startLine - 1, originalStartLine);
 					}
+					method.blocks.push(startLine);
 					break;
 				case ITerminalSymbols.TokenNameRBRACE:
-					int endPos = scanner.getCurrentTokenEndPosition();
-					if (leftParens != null && leftParens.size() > 0) {
-						int endLine = scanner.getLineNumber(endPos) - 1;
-						int startLine = leftParens.pop();
-						if (startLine < endLine) {
-							candidates.put(endLine, startLine);
-						}
-						// Assume the last switch case:
-						if (startLine < prevCaseLine) {
-							if (endLine - 1 > prevCaseLine) {
-								candidates.put(endLine - 1, prevCaseLine);
-							}
-							prevCaseLine = -1;
+					if (method.blocks.isEmpty()) {
+						closeFrame();
+						resetDeclaration();
+						break;
+					}
+					int endLine = getLine(scanner.getCurrentTokenEndPosition());
+					int blockStartLine = method.blocks.pop();
+					if (blockStartLine < endLine) {
+						method.candidates.put(endLine, blockStartLine);
+					}
+					// Assume the last switch case:
+					if (blockStartLine < method.prevCaseLine) {
+						if (endLine - 1 > method.prevCaseLine) {
+							method.candidates.put(endLine - 1, method.prevCaseLine);
 						}
+						method.prevCaseLine = -1;
 					}
 					break;
 				case ITerminalSymbols.TokenNamecase:
 				case ITerminalSymbols.TokenNamedefault:
-					int currentLine = scanner.getLineNumber(start) - 1;
-					if (prevCaseLine != -1 && currentLine - 1 >= prevCaseLine) {
-						candidates.put(scanner.getLineNumber(start) - 2, prevCaseLine);
+					int currentLine = getLine(start);
+					if (method.prevCaseLine != -1 && currentLine - 1 >= method.prevCaseLine) {
+						method.candidates.put(currentLine - 1, method.prevCaseLine);
 					}
-					prevCaseLine = currentLine;
+					method.prevCaseLine = currentLine;
 					break;
 				default:
 					break;
 			}
-			token = getNextToken(scanner);
 		}
 
-		for (Map.Entry<Integer, Integer> entry : candidates.entrySet()) {
-			foldingRanges.add(new FoldingRange(entry.getValue(), entry.getKey()));
+		private void closeFrame() {
+			Frame frame = frames.pop();
+			if (frame.kind != OTHER) {
+				closeFrame(frame, getLine(scanner.getCurrentTokenEndPosition()));
+			}
+		}
+
+		private void closeFrame(Frame frame, int endLine) {
+			addFoldingRange(frame.startLine, endLine, null);
+			if (frame.kind == METHOD) {
+				for (Map.Entry<Integer, Integer> entry : frame.candidates.entrySet()) {
+					addFoldingRange(entry.getValue(), entry.getKey(), null);
+				}
+			}
+		}
+
+		/**
+		 * Folds the types and methods left open by a syntax error up to the end
+		 * of the source.
+		 */
+		private void closeUnterminatedFrames() {
+			if (frames.isEmpty()) {
+				return;
+			}
+			int endLine = getLine(scanner.getSource().length - 1);
+			while (!frames.isEmpty()) {
+				Frame frame = frames.pop();
+				if (frame.kind != OTHER && frame.startLine < endLine) {
+					closeFrame(frame, endLine);
+				}
+			}
+		}
+
+		private void resetDeclaration() {
+			expectTypeName = false;
+			pendingEnum = false;
+			pendingTypeLine = -1;
+			pendingMethodLine = -1;
+			inExpression = false;
+			parenDepth = 0;
+		}
+
+		private int getLine(int position) {
+			return scanner.getLineNumber(position) - 1;
+		}
+
+		private void addFoldingRange(int startLine, int endLine, String kind) {
+			FoldingRange foldingRange = new FoldingRange(startLine, endLine);
+			foldingRange.setKind(kind);
+			foldingRanges.add(foldingRange);
 		}
 	}
 }
@@ -16,6 +16,8 @@ import static java.util.stream.Collectors.toMap;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -26,12 +28,18 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
 import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.internal.compiler.env.IModule;
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 import org.eclipse.jdt.internal.corext.refactoring.util.TextEditUtil;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
@@ -60,6 +68,11 @@ public class FormatterHandler {
 	private static final char CLOSING_BRACE = '}';
 	private static final char NEW_LINE = '\n';
 
+	private static final int FORMATTERS_SIZE = Integer.getInteger("java.format.cache.maxSize", 4);
+
+	// the idle formatters by their options, access ordered, guarded by FORMATTERS
+	private static final Map<Map<String, String>, CodeFormatter> FORMATTERS = new LinkedHashMap<>(16, 0.75f, true);
+
 	private PreferenceManager preferenceManager;
 
 	public FormatterHandler(PreferenceManager preferenceManager) {
@@ -104,12 +117,22 @@ public class FormatterHandler {
 			return Collections.emptyList();
 		}
 
-		CodeFormatter formatter = ToolFactory.createCodeFormatter(getOptions(options, cu));
-
-		String lineDelimiter = TextUtilities.getDefaultLineDelimiter(document);
-		String sourceToFormat = document.get();
-		int kind = getFormattingKind(cu, includeComments);
-		TextEdit format = formatter.format(kind, sourceToFormat, region.getOffset(), region.getLength(), 0, lineDelimiter);
+		Map<String, String> formatterOptions = getOptions(options, cu);
+		CodeFormatter formatter = acquireFormatter(formatterOptions);
+		TextEdit format = null;
+		try {
+			String lineDelimiter = TextUtilities.getDefaultLineDelimiter(document);
+			String sourceToFormat = document.get();
+			int kind = getFormattingKind(cu, includeComments);
+			if ((kind & CodeFormatter.K_COMPILATION_UNIT) != 0 && region.getLength() < document.getLength()) {
+				format = formatEnclosingNodes(formatter, getAST(cu, sourceToFormat, region, formatterOptions), document, region, kind, lineDelimiter);
+			}
+			if (format == null) {
+				format = formatter.format(kind, sourceToFormat, region.getOffset(), region.getLength(), 0, lineDelimiter);
+			}
+		} finally {
+			releaseFormatter(formatterOptions, formatter);
+		}
 		if (format == null || format.getChildren().length == 0 || monitor.isCanceled()) {
 			// nothing to return
 			return Collections.<org.eclipse.lsp4j.TextEdit>emptyList();
@@ -118,6 +141,116 @@ public class FormatterHandler {
 		return convertEdits(flatEdit.getChildren(), document);
 	}
 
+	/**
+	 * @return an idle formatter configured with the given options
+	 */
+	private static CodeFormatter acquireFormatter(Map<String, String> options) {
+		synchronized (FORMATTERS) {
+			// formatters aren't thread safe, a formatter is only cached while idle
+			CodeFormatter formatter = FORMATTERS.remove(options);
+			if (formatter != null) {
+				return formatter;
+			}
+		}
+		return ToolFactory.createCodeFormatter(options);
+	}
+
+	private static void releaseFormatter(Map<String, String> options, CodeFormatter formatter) {
+		synchronized (FORMATTERS) {
+			FORMATTERS.put(options, formatter);
+			Iterator<CodeFormatter> iterator = FORMATTERS.values().iterator();
+			while (FORMATTERS.size() > FORMATTERS_SIZE && iterator.hasNext()) {
+				iterator.next();
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return the shared AST of the unit if it is the AST of the source,
+	 *         otherwise an AST of the source where only the bodies of the
+	 *         methods around the region are parsed
+	 */
+	private static CompilationUnit getAST(ICompilationUnit cu, String source, IRegion region, Map<String, String> options) {
+		try {
+			if (cu.isConsistent()) {
+				CompilationUnit astRoot = CoreASTProvider.getInstance().getAST(cu, CoreASTProvider.WAIT_NO, null);
+				if (astRoot != null && astRoot.getLength() == source.length()) {
+					return astRoot;
+				}
+			}
+		} catch (JavaModelException e) {
+			// parse the document
+		}
+		ASTParser parser = ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+		parser.setCompilerOptions(options);
+		parser.setSource(source.toCharArray());
+		parser.setFocalPosition(region.getOffset());
+		return (CompilationUnit) parser.createAST(null);
+	}
+
+	/**
+	 * Formats the region within the smallest sequence of statements of a block,
+	 * or of body declarations of a type, that encloses it, instead of within
+	 * the whole unit, so that the cost doesn't grow with the size of the unit.
+	 *
+	 * The sequence starts before the line of the region and is formatted
+	 * without indentation: like when formatting the whole unit, the formatter
+	 * then indents the region relative to the line preceding it.
+	 *
+	 * @return the edits, or <code>null</code> if there is no such sequence or
+	 *         it can't be formatted on its own
+	 */
+	private static TextEdit formatEnclosingNodes(CodeFormatter formatter, CompilationUnit astRoot, IDocument document, IRegion region, int kind, String lineDelimiter) {
+		try {
+			int regionLineOffset = document.getLineInformationOfOffset(region.getOffset()).getOffset();
+			int regionEnd = region.getOffset() + region.getLength();
+			for (ASTNode node = NodeFinder.perform(astRoot, region.getOffset(), region.getLength()); node != null; node = node.getParent()) {
+				List<?> nodes;
+				int nodesKind;
+				if (node instanceof Block) {
+					nodes = ((Block) node).statements();
+					nodesKind = CodeFormatter.K_STATEMENTS;
+				} else if (node instanceof TypeDeclaration || node instanceof EnumDeclaration) {
+					nodes = ((AbstractTypeDeclaration) node).bodyDeclarations();
+					nodesKind = CodeFormatter.K_CLASS_BODY_DECLARATIONS;
+				} else {
+					continue;
+				}
+				// from the last node before the line of the region to the node the region ends in
+				ASTNode first = null;
+				ASTNode last = null;
+				for (Object child : nodes) {
+					int childEnd = astRoot.getExtendedStartPosition((ASTNode) child) + astRoot.getExtendedLength((ASTNode) child);
+					if (childEnd <= regionLineOffset) {
+						first = (ASTNode) child;
+					} else if (childEnd >= regionEnd) {
+						last = (ASTNode) child;
+						break;
+					}
+				}
+				if (first == null || last == null) {
+					continue;
+				}
+				int firstStart = astRoot.getExtendedStartPosition(first);
+				int start = document.getLineInformationOfOffset(firstStart).getOffset();
+				if (!document.get(start, firstStart - start).trim().isEmpty()) {
+					continue;
+				}
+				int end = astRoot.getExtendedStartPosition(last) + astRoot.getExtendedLength(last);
+				String source = document.get(start, end - start);
+				TextEdit edit = formatter.format(nodesKind | (kind & CodeFormatter.F_INCLUDE_COMMENTS), source, region.getOffset() - start, region.getLength(), 0, lineDelimiter);
+				if (edit != null) {
+					edit.moveTree(start);
+				}
+				return edit;
+			}
+		} catch (BadLocationException e) {
+			JavaLanguageServerPlugin.logException(e.getMessage(), e);
+		}
+		return null;
+	}
+
 	private int getFormattingKind(ICompilationUnit cu, boolean includeComments) {
 		int kind = includeComments ? CodeFormatter.F_INCLUDE_COMMENTS : 0;
 		if (cu.getResource() != null && cu.getResource().getName().equals(IModule.MODULE_INFO_JAVA)) {
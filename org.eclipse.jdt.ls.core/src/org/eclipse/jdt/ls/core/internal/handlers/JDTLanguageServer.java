@@ -45,6 +45,7 @@ import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
 import org.eclipse.jdt.ls.core.internal.LanguageServerWorkingCopyOwner;
+import org.eclipse.jdt.ls.core.internal.RequestScheduler.Lane;
 import org.eclipse.jdt.ls.core.internal.ServiceStatus;
 import org.eclipse.jdt.ls.core.internal.codemanipulation.GenerateGetterSetterOperation.AccessorField;
 import org.eclipse.jdt.ls.core.internal.handlers.FileEventHandler.FileRenameParams;
@@ -64,6 +65,8 @@ import org.eclipse.jdt.ls.core.internal.handlers.MoveHandler.MoveDestinationsRes
 import org.eclipse.jdt.ls.core.internal.handlers.MoveHandler.MoveParams;
 import org.eclipse.jdt.ls.core.internal.handlers.OverrideMethodsHandler.AddOverridableMethodParams;
 import org.eclipse.jdt.ls.core.internal.handlers.OverrideMethodsHandler.OverridableMethodsResponse;
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceDiagnosticsHandler.WorkspaceDiagnosticsParams;
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceDiagnosticsHandler.WorkspaceDiagnosticsReport;
 import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceSymbolHandler.SearchSymbolParams;
 import org.eclipse.jdt.ls.core.internal.lsp.JavaProtocolExtensions;
 import org.eclipse.jdt.ls.core.internal.managers.ContentProviderManager;
@@ -132,7 +135,6 @@ import org.eclipse.lsp4j.TypeDefinitionParams;
 import org.eclipse.lsp4j.WillSaveTextDocumentParams;
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
-import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.jsonrpc.services.JsonDelegate;
 import org.eclipse.lsp4j.services.LanguageServer;
@@ -146,6 +148,7 @@ import org.eclipse.lsp4j.services.WorkspaceService;
 public class JDTLanguageServer extends BaseJDTLanguageServer implements LanguageServer, TextDocumentService, WorkspaceService, JavaProtocolExtensions {
 
 	public static final String JAVA_LSP_JOIN_ON_COMPLETION = "java.lsp.joinOnCompletion";
+	private static final String IMPORT_PROJECT_COMMAND = "java.project.import";
 	/**
 	 * Exit code returned when JDTLanguageServer is forced to exit.
 	 */
@@ -269,7 +272,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 					JobHelpers.waitForBuildJobs(60 * 60 * 1000); // 1 hour
 					logInfo(">> build jobs finished");
 					client.sendStatus(ServiceStatus.ServiceReady, "ServiceReady");
-					workspaceDiagnosticsHandler = new WorkspaceDiagnosticsHandler(JDTLanguageServer.this.client, pm, preferenceManager.getClientPreferences());
+					workspaceDiagnosticsHandler = new WorkspaceDiagnosticsHandler(JDTLanguageServer.this.client, pm, preferenceManager.getClientPreferences(), true);
 					workspaceDiagnosticsHandler.publishDiagnostics(monitor);
 					workspaceDiagnosticsHandler.addResourceChangeListener();
 					classpathUpdateHandler = new ClasspathUpdateHandler(JDTLanguageServer.this.client);
@@ -347,6 +350,8 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<Object> shutdown() {
 		logInfo(">> shutdown");
+		logInfo("Requests " + getRequestScheduler());
+		logInfo("Class file contents cache: " + JavaLanguageServerPlugin.getContentProviderManager().getCache());
 		return computeAsync((monitor) -> {
 			try {
 				JavaRuntime.removeVMInstallChangedListener(jvmConfigurator);
@@ -406,7 +411,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<List<? extends SymbolInformation>> symbol(WorkspaceSymbolParams params) {
 		logInfo(">> workspace/symbol");
-		return computeAsync((monitor) -> {
+		return computeAsync(Lane.BACKGROUND, (monitor) -> {
 			return WorkspaceSymbolHandler.search(params.getQuery(), monitor);
 		});
 	}
@@ -472,7 +477,8 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<Object> executeCommand(ExecuteCommandParams params) {
 		logInfo(">> workspace/executeCommand " + (params == null ? null : params.getCommand()));
-		return computeAsync((monitor) -> {
+		Lane lane = params != null && IMPORT_PROJECT_COMMAND.equals(params.getCommand()) ? Lane.BULK : Lane.BACKGROUND;
+		return computeAsync(lane, (monitor) -> {
 			return commandHandler.executeCommand(params, monitor);
 		});
 	}
@@ -528,7 +534,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<Hover> hover(HoverParams position) {
 		logInfo(">> document/hover");
 		HoverHandler handler = new HoverHandler(this.preferenceManager);
-		return computeAsync((monitor) -> handler.hover(position, monitor));
+		return computeAsync(Lane.INTERACTIVE, supersedeKey("hover", position.getTextDocument()), (monitor) -> handler.hover(position, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -538,7 +544,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<SignatureHelp> signatureHelp(SignatureHelpParams position) {
 		logInfo(">> document/signatureHelp");
 		SignatureHelpHandler handler = new SignatureHelpHandler(preferenceManager);
-		return computeAsync((monitor) -> handler.signatureHelp(position, monitor));
+		return computeAsync(Lane.INTERACTIVE, supersedeKey("signatureHelp", position.getTextDocument()), (monitor) -> handler.signatureHelp(position, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -574,13 +580,13 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<List<? extends Location>> references(ReferenceParams params) {
 		logInfo(">> document/references");
 		ReferencesHandler handler = new ReferencesHandler(this.preferenceManager);
-		return computeAsync((monitor) -> handler.findReferences(params, monitor));
+		return computeAsync(Lane.BACKGROUND, (monitor) -> handler.findReferences(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<? extends Location>> findLinks(FindLinksParams params) {
 		logInfo(">> java/findLinks");
-		return computeAsync((monitor) -> FindLinksHandler.findLinks(params.type, params.position, monitor));
+		return computeAsync(Lane.BACKGROUND, (monitor) -> FindLinksHandler.findLinks(params.type, params.position, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -590,7 +596,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<List<? extends DocumentHighlight>> documentHighlight(DocumentHighlightParams position) {
 		logInfo(">> document/documentHighlight");
 		DocumentHighlightHandler handler = new DocumentHighlightHandler();
-		return computeAsync((monitor) -> handler.documentHighlight(position, monitor));
+		return computeAsync(Lane.INTERACTIVE, supersedeKey("documentHighlight", position.getTextDocument()), (monitor) -> handler.documentHighlight(position, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -627,7 +633,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<List<? extends CodeLens>> codeLens(CodeLensParams params) {
 		logInfo(">> document/codeLens");
 		CodeLensHandler handler = new CodeLensHandler(preferenceManager);
-		return computeAsync((monitor) -> {
+		return computeAsync(Lane.BACKGROUND, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return handler.getCodeLensSymbols(params.getTextDocument().getUri(), monitor);
 		});
@@ -640,7 +646,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<CodeLens> resolveCodeLens(CodeLens unresolved) {
 		logInfo(">> codeLens/resolve");
 		CodeLensHandler handler = new CodeLensHandler(preferenceManager);
-		return computeAsync((monitor) -> {
+		return computeAsync(Lane.BACKGROUND, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return handler.resolve(unresolved, monitor);
 		});
@@ -696,7 +702,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<WorkspaceEdit> rename(RenameParams params) {
 		logInfo(">> document/rename");
 		RenameHandler handler = new RenameHandler(preferenceManager);
-		return computeAsync((monitor) -> {
+		return computeAsync(Lane.BACKGROUND, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return handler.rename(params, monitor);
 		});
@@ -751,7 +757,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<WorkspaceEdit> didRenameFiles(FileRenameParams params) {
 		logInfo(">> document/didRenameFiles");
-		return computeAsyncWithClientProgress((monitor) -> {
+		return computeAsyncWithClientProgress(Lane.BACKGROUND, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return FileEventHandler.handleRenameFiles(params, monitor);
 		});
@@ -760,11 +766,36 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<WorkspaceEdit> willRenameFiles(FileRenameParams params) {
 		logInfo(">> document/willRenameFiles");
-		return computeAsyncWithClientProgress((monitor) -> {
+		return computeAsyncWithClientProgress(Lane.BACKGROUND, (monitor) -> {
 			return FileEventHandler.handleWillRenameFiles(params, monitor);
 		});
 	}
 
+	@Override
+	public CompletableFuture<CodeAction> resolveCodeAction(CodeAction unresolved) {
+		logInfo(">> java/resolveCodeAction");
+		return computeAsync((monitor) -> {
+			waitForLifecycleJobs(monitor);
+			return CodeActionHandler.resolveCodeAction(unresolved, monitor);
+		});
+	}
+
+	@Override
+	public CompletableFuture<WorkspaceDiagnosticsReport> workspaceDiagnostics(WorkspaceDiagnosticsParams params) {
+		logInfo(">> java/workspaceDiagnostics");
+		return computeAsync(Lane.BACKGROUND, (monitor) -> {
+			WorkspaceDiagnosticsHandler handler = workspaceDiagnosticsHandler;
+			if (handler != null) {
+				try {
+					return handler.getWorkspaceDiagnostics(params, monitor);
+				} catch (CoreException e) {
+					logException(e.getMessage(), e);
+				}
+			}
+			return new WorkspaceDiagnosticsReport();
+		});
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.jdt.ls.core.internal.JavaProtocolExtensions#ClassFileContents(org.eclipse.lsp4j.TextDocumentIdentifier)
 	 */
@@ -793,7 +824,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<BuildWorkspaceStatus> buildWorkspace(boolean forceReBuild) {
 		logInfo(">> java/buildWorkspace (" + (forceReBuild ? "full)" : "incremental)"));
 		BuildWorkspaceHandler handler = new BuildWorkspaceHandler(pm);
-		return computeAsyncWithClientProgress((monitor) -> handler.buildWorkspace(forceReBuild, monitor));
+		return computeAsyncWithClientProgress(Lane.BULK, (monitor) -> handler.buildWorkspace(forceReBuild, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -809,7 +840,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> implementation(ImplementationParams position) {
 		logInfo(">> document/implementation");
-		return computeAsyncWithClientProgress((monitor) -> {
+		return computeAsyncWithClientProgress(Lane.BACKGROUND, (monitor) -> {
 			ImplementationsHandler handler = new ImplementationsHandler(preferenceManager);
 			return Either.forLeft(handler.findImplementations(position, monitor));
 		});
@@ -929,40 +960,48 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<RefactorWorkspaceEdit> move(MoveParams params) {
 		logInfo(">> java/move");
-		return computeAsyncWithClientProgress((monitor) -> MoveHandler.move(params, monitor));
+		return computeAsyncWithClientProgress(Lane.BACKGROUND, (monitor) -> MoveHandler.move(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<SymbolInformation>> searchSymbols(SearchSymbolParams params) {
 		logInfo(">> java/searchSymbols");
-		return computeAsyncWithClientProgress((monitor) -> WorkspaceSymbolHandler.search(params.getQuery(), params.maxResults, params.projectName, params.sourceOnly, monitor));
+		return computeAsyncWithClientProgress(Lane.BACKGROUND, (monitor) -> WorkspaceSymbolHandler.search(params.getQuery(), params.maxResults, params.projectName, params.sourceOnly, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<CallHierarchyItem>> prepareCallHierarchy(CallHierarchyPrepareParams params) {
 		logInfo(">> textDocumentt/prepareCallHierarchy");
-		return computeAsyncWithClientProgress((monitor) -> new CallHierarchyHandler().prepareCallHierarchy(params, monitor));
+		return computeAsyncWithClientProgress(Lane.BACKGROUND, (monitor) -> new CallHierarchyHandler().prepareCallHierarchy(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<CallHierarchyIncomingCall>> callHierarchyIncomingCalls(CallHierarchyIncomingCallsParams params) {
 		logInfo(">> callHierarchy/incomingCalls");
-		return computeAsyncWithClientProgress((monitor) -> new CallHierarchyHandler().callHierarchyIncomingCalls(params, monitor));
+		return computeAsyncWithClientProgress(Lane.BACKGROUND, (monitor) -> new CallHierarchyHandler().callHierarchyIncomingCalls(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<CallHierarchyOutgoingCall>> callHierarchyOutgoingCalls(CallHierarchyOutgoingCallsParams params) {
 		logInfo(">> callHierarchy/outgoingCalls");
-		return computeAsyncWithClientProgress((monitor) -> new CallHierarchyHandler().callHierarchyOutgoingCalls(params, monitor));
+		return computeAsyncWithClientProgress(Lane.BACKGROUND, (monitor) -> new CallHierarchyHandler().callHierarchyOutgoingCalls(params, monitor));
 	}
 
 	private <R> CompletableFuture<R> computeAsyncWithClientProgress(Function<IProgressMonitor, R> code) {
-		return CompletableFutures.computeAsync((cc) -> {
+		return computeAsyncWithClientProgress(Lane.INTERACTIVE, code);
+	}
+
+	private <R> CompletableFuture<R> computeAsyncWithClientProgress(Lane lane, Function<IProgressMonitor, R> code) {
+		return getRequestScheduler().submit(lane, null, (cc) -> {
 			IProgressMonitor monitor = progressReporterManager.getProgressReporter(cc);
 			return code.apply(monitor);
 		});
 	}
 
+	private static String supersedeKey(String method, TextDocumentIdentifier document) {
+		return document == null ? null : method + ":" + document.getUri();
+	}
+
 	private void waitForLifecycleJobs(IProgressMonitor monitor) {
 		JobHelpers.waitForJobs(DocumentLifeCycleHandler.DOCUMENT_LIFE_CYCLE_JOBS, monitor);
 	}
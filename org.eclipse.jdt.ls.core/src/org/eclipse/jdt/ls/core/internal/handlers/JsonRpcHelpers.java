@@ -47,7 +47,7 @@ final public class JsonRpcHelpers {
 	public static int toOffset(IOpenable openable, int line, int column) {
 		if (openable != null) {
 			try {
-				return convert(openable, (IDocument document) -> toOffset(document, line, column));
+				return convert(openable, (IBuffer buffer) -> toOffset(buffer, line, column));
 			} catch (JavaModelException e) {
 				JavaLanguageServerPlugin.log(e);
 			}
@@ -66,7 +66,16 @@ final public class JsonRpcHelpers {
 	 */
 	public static int toOffset(IBuffer buffer, int line, int column){
 		if (buffer != null) {
-			return toOffset(toDocument(buffer), line, column);
+			IDocument document = getDocument(buffer);
+			if (document != null) {
+				return toOffset(document, line, column);
+			}
+			LineIndex index = LineIndex.of(buffer);
+			int lineOffset = index == null ? -1 : index.getLineOffset(line);
+			if (lineOffset >= 0) {
+				return lineOffset + column;
+			}
+			JavaLanguageServerPlugin.logError("Invalid line " + line);
 		}
 		return -1;
 	}
@@ -98,7 +107,69 @@ final public class JsonRpcHelpers {
 	 * @return
 	 */
 	public static int[] toLine(IBuffer buffer, int offset){
-		return toLine(toDocument(buffer), offset);
+		if (buffer == null) {
+			return null;
+		}
+		IDocument document = getDocument(buffer);
+		if (document != null) {
+			return toLine(document, offset);
+		}
+		return toLine(LineIndex.of(buffer), offset);
+	}
+
+	private static int[] toLine(LineIndex index, int offset) {
+		int line = index == null ? -1 : index.getLineOfOffset(offset);
+		if (line < 0) {
+			JavaLanguageServerPlugin.logError("Invalid offset " + offset);
+			return null;
+		}
+		return new int[] { line, offset - index.getLineOffset(line) };
+	}
+
+	/**
+	 * Converts offsets to line numbers and columns, reading the buffer's lines
+	 * only once.
+	 *
+	 * @param buffer
+	 * @param offsets
+	 * @return the line and column of each offset, <code>null</code> for an
+	 *         invalid offset
+	 */
+	public static int[][] toLines(IBuffer buffer, int... offsets) {
+		int[][] result = new int[offsets.length][];
+		if (buffer == null) {
+			return result;
+		}
+		IDocument document = getDocument(buffer);
+		if (document != null) {
+			for (int i = 0; i < offsets.length; i++) {
+				result[i] = toLine(document, offsets[i]);
+			}
+		} else {
+			LineIndex index = LineIndex.of(buffer);
+			if (index != null) {
+				return index.toLines(offsets);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Converts offsets to line numbers and columns in an openable, opening it
+	 * at most once. See {@link #toLine(IOpenable, int)}.
+	 *
+	 * @param openable
+	 * @param offsets
+	 * @return the line and column of each offset, <code>null</code> for an
+	 *         invalid offset
+	 */
+	public static int[][] toLines(IOpenable openable, int... offsets) {
+		try {
+			return convert(openable, (IBuffer buffer) -> toLines(buffer, offsets));
+		} catch (JavaModelException e) {
+			JavaLanguageServerPlugin.log(e);
+		}
+		return new int[offsets.length][];
 	}
 
 	/**
@@ -114,7 +185,7 @@ final public class JsonRpcHelpers {
 	 */
 	public static int[] toLine(IOpenable openable, int offset) {
 		try {
-			return convert(openable, (IDocument document) -> toLine(document, offset));
+			return convert(openable, (IBuffer buffer) -> toLine(buffer, offset));
 		} catch (JavaModelException e) {
 			JavaLanguageServerPlugin.log(e);
 		}
@@ -122,7 +193,7 @@ final public class JsonRpcHelpers {
 		return null;
 	}
 
-	private static <T> T convert(IOpenable openable, Function<IDocument, T> consumer) throws JavaModelException {
+	private static <T> T convert(IOpenable openable, Function<IBuffer, T> consumer) throws JavaModelException {
 		Assert.isNotNull(openable, "openable");
 		boolean mustClose = false;
 		try {
@@ -130,8 +201,7 @@ final public class JsonRpcHelpers {
 				openable.open(new NullProgressMonitor());
 				mustClose = openable.isOpen();
 			}
-			IBuffer buffer = openable.getBuffer();
-			return consumer.apply(toDocument(buffer));
+			return consumer.apply(openable.getBuffer());
 		} finally {
 			if (mustClose) {
 				try {
@@ -175,15 +245,24 @@ final public class JsonRpcHelpers {
 		if (buffer == null) {
 			return null;
 		}
+		IDocument document = getDocument(buffer);
+		if (document != null) {
+			return document;
+		}
+		return new org.eclipse.jdt.internal.core.DocumentAdapter(buffer);
+	}
+
+	/**
+	 * @return the document backing the buffer, or <code>null</code> if the
+	 *         buffer isn't backed by a document
+	 */
+	private static IDocument getDocument(IBuffer buffer) {
 		if (buffer instanceof IDocument) {
 			return (IDocument) buffer;
 		} else if (buffer instanceof org.eclipse.jdt.ls.core.internal.DocumentAdapter) {
-			IDocument document = ((org.eclipse.jdt.ls.core.internal.DocumentAdapter) buffer).getDocument();
-			if (document != null) {
-				return document;
-			}
+			return ((org.eclipse.jdt.ls.core.internal.DocumentAdapter) buffer).getDocument();
 		}
-		return new org.eclipse.jdt.internal.core.DocumentAdapter(buffer);
+		return null;
 	}
 
 
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.DocumentAdapter;
+
+/**
+ * Decides which documents are too large to be fully analyzed, e.g. generated
+ * sources, by their number of characters or lines. The thresholds can be set
+ * with the <code>java.largeFile.maxCharacters</code> and
+ * <code>java.largeFile.maxLines</code> system properties.
+ *
+ * Only the syntax errors of a large file are reported, and the features
+ * resolving the bindings of the whole file (semantic highlighting, semantic
+ * tokens and code lenses) are skipped. Folding ranges are still computed from
+ * the scanner, and document symbols from the Java model.
+ */
+public final class LargeFilePolicy {
+
+	private static final int MAX_CHARACTERS = Integer.getInteger("java.largeFile.maxCharacters", 1024 * 1024);
+	private static final int MAX_LINES = Integer.getInteger("java.largeFile.maxLines", 20000);
+
+	private LargeFilePolicy() {
+	}
+
+	/**
+	 * @return whether the content of the unit exceeds the thresholds
+	 */
+	public static boolean isLargeFile(ITypeRoot unit) {
+		if (unit == null) {
+			return false;
+		}
+		try {
+			IBuffer buffer = unit.getBuffer();
+			if (buffer == null) {
+				return false;
+			}
+			if (buffer.getLength() > MAX_CHARACTERS) {
+				return true;
+			}
+			if (buffer instanceof DocumentAdapter) {
+				return ((DocumentAdapter) buffer).getDocument().getNumberOfLines() > MAX_LINES;
+			}
+			return getNumberOfLines(buffer.getCharacters()) > MAX_LINES;
+		} catch (JavaModelException e) {
+			return false;
+		}
+	}
+
+	private static int getNumberOfLines(char[] characters) {
+		if (characters == null) {
+			return 0;
+		}
+		int lines = 1;
+		for (int i = 0; i < characters.length; i++) {
+			if (characters[i] == '\n' || (characters[i] == '\r' && (i + 1 == characters.length || characters[i + 1] != '\n'))) {
+				lines++;
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * @return the number of lines above which a file is large
+	 */
+	public static int getMaxLines() {
+		return MAX_LINES;
+	}
+}
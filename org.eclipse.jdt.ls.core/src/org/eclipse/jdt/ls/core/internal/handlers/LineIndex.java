@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.jdt.core.BufferChangedEvent;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.IBufferChangedListener;
+
+/**
+ * Line start offsets of a buffer's contents, using the same line delimiters
+ * as {@link org.eclipse.jface.text.Document} ("\n", "\r" and "\r\n").
+ *
+ * Indexes are cached per buffer until the buffer changes or is closed, so
+ * that converting many offsets of a buffer which isn't backed by a document
+ * doesn't scan its contents each time.
+ */
+final class LineIndex {
+
+	private static final Map<IBuffer, CachedIndex> INDEXES = new WeakHashMap<>();
+
+	/**
+	 * The index of a buffer, dropped when the buffer changes.
+	 */
+	private static final class CachedIndex implements IBufferChangedListener {
+		private LineIndex index;
+		private int changes;
+
+		@Override
+		public synchronized void bufferChanged(BufferChangedEvent event) {
+			index = null;
+			changes++;
+		}
+	}
+
+	private final int[] lineOffsets;
+	private final int lineCount;
+	private final int length;
+
+	private LineIndex(char[] contents) {
+		int[] offsets = new int[Math.max(16, contents.length / 32)];
+		int count = 1;
+		for (int i = 0; i < contents.length; i++) {
+			char c = contents[i];
+			if (c == '\r' && i + 1 < contents.length && contents[i + 1] == '\n') {
+				i++;
+			} else if (c != '\n' && c != '\r') {
+				continue;
+			}
+			if (count == offsets.length) {
+				offsets = Arrays.copyOf(offsets, count * 2);
+			}
+			offsets[count++] = i + 1;
+		}
+		this.lineOffsets = offsets;
+		this.lineCount = count;
+		this.length = contents.length;
+	}
+
+	/**
+	 * @return the line index of the buffer, or <code>null</code> if the buffer
+	 *         is closed
+	 */
+	static LineIndex of(IBuffer buffer) {
+		CachedIndex cached;
+		synchronized (INDEXES) {
+			cached = INDEXES.get(buffer);
+			if (cached == null) {
+				cached = new CachedIndex();
+				INDEXES.put(buffer, cached);
+				buffer.addBufferChangedListener(cached);
+			}
+		}
+		int changes;
+		synchronized (cached) {
+			if (cached.index != null) {
+				return cached.index;
+			}
+			changes = cached.changes;
+		}
+		char[] contents = buffer.getCharacters();
+		if (contents == null || buffer.isClosed()) {
+			return null;
+		}
+		LineIndex index = new LineIndex(contents);
+		synchronized (cached) {
+			// don't keep the index if the buffer changed while it was computed
+			if (cached.changes == changes) {
+				cached.index = index;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * @return the line of the offset, or -1 if the offset is outside of the
+	 *         contents
+	 */
+	int getLineOfOffset(int offset) {
+		if (offset < 0 || offset > length) {
+			return -1;
+		}
+		int line = Arrays.binarySearch(lineOffsets, 0, lineCount, offset);
+		return line >= 0 ? line : -line - 2;
+	}
+
+	/**
+	 * Converts offsets to lines and columns in a single sweep over the lines,
+	 * in the order of the offsets.
+	 *
+	 * @return the line and column of each offset, <code>null</code> for an
+	 *         offset outside of the contents
+	 */
+	int[][] toLines(int[] offsets) {
+		int[][] result = new int[offsets.length][];
+		// the offsets in the high bits, so that sorting keeps their index
+		long[] sorted = new long[offsets.length];
+		for (int i = 0; i < offsets.length; i++) {
+			sorted[i] = ((long) offsets[i] << 32) | i;
+		}
+		Arrays.sort(sorted);
+		int line = 0;
+		for (long entry : sorted) {
+			int offset = (int) (entry >> 32);
+			if (offset < 0 || offset > length) {
+				continue;
+			}
+			while (line + 1 < lineCount && lineOffsets[line + 1] <= offset) {
+				line++;
+			}
+			result[(int) entry] = new int[] { line, offset - lineOffsets[line] };
+		}
+		return result;
+	}
+
+	/**
+	 * @return the offset the line starts at, or -1 if there is no such line
+	 */
+	int getLineOffset(int line) {
+		if (line < 0 || line >= lineCount) {
+			return -1;
+		}
+		return lineOffsets[line];
+	}
+}
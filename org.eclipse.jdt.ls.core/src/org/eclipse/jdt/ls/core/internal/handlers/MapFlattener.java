@@ -18,9 +18,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.eclipse.jdt.ls.core.internal.JSONUtility;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 
@@ -39,6 +39,9 @@ import com.google.gson.reflect.TypeToken;
 @SuppressWarnings("unchecked")
 public final class MapFlattener {
 
+	private static final Type STRING_LIST = new TypeToken<List<String>>() {
+	}.getType();
+
 	private MapFlattener() {
 		//No need for public instanciation
 	}
@@ -72,10 +75,7 @@ public final class MapFlattener {
 				}
 			}
 			try {
-				Gson gson = new Gson();
-				Type type = new TypeToken<List<String>>() {
-				}.getType();
-				List<String> list = gson.fromJson(str, type);
+				List<String> list = JSONUtility.toModel(str, STRING_LIST);
 				return list;
 			} catch (JsonSyntaxException e) {
 				JavaLanguageServerPlugin.logException(e.getMessage(), e);
@@ -26,8 +26,6 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import com.google.gson.Gson;
-
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IProject;
@@ -268,8 +266,7 @@ public class MoveHandler {
 				if (moveParams.destination instanceof String) {
 					targetUri = (String) moveParams.destination;
 				} else {
-					String json = (moveParams.destination == null ? null : new Gson().toJson(moveParams.destination));
-					PackageNode packageNode = JSONUtility.toLsp4jModel(json, PackageNode.class);
+					PackageNode packageNode = JSONUtility.toLsp4jModel(moveParams.destination, PackageNode.class);
 					if (packageNode == null) {
 						return new RefactorWorkspaceEdit("Invalid destination object: " + moveParams.destination);
 					}
@@ -279,8 +276,7 @@ public class MoveHandler {
 
 				return moveCU(moveParams.sourceUris, targetUri, moveParams.updateReferences, monitor);
 			} else if ("moveInstanceMethod".equalsIgnoreCase(moveParams.moveKind)) {
-				String json = (moveParams.destination == null ? null : new Gson().toJson(moveParams.destination));
-				LspVariableBinding variableBinding = JSONUtility.toLsp4jModel(json, LspVariableBinding.class);
+				LspVariableBinding variableBinding = JSONUtility.toLsp4jModel(moveParams.destination, LspVariableBinding.class);
 				if (variableBinding == null) {
 					return new RefactorWorkspaceEdit("Invalid destination object: " + moveParams.destination);
 				}
@@ -307,8 +303,7 @@ public class MoveHandler {
 			return (String) destinationObj;
 		}
 
-		String json = (destinationObj== null ? null : new Gson().toJson(destinationObj));
-		SymbolInformation destination = JSONUtility.toLsp4jModel(json, SymbolInformation.class);
+		SymbolInformation destination = JSONUtility.toLsp4jModel(destinationObj, SymbolInformation.class);
 		if (destination == null) {
 			throw new IllegalArgumentException("Invalid destination object: " + destinationObj);
 		}
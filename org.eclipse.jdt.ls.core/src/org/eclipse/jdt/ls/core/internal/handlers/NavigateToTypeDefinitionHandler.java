@@ -33,6 +33,7 @@ import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JDTUtils.LocationType;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.TextDocumentPositionParams;
@@ -77,7 +78,7 @@ public class NavigateToTypeDefinitionHandler {
 							return JDTUtils.toLocation(element);
 						}
 						if (element instanceof IMember && ((IMember) element).getClassFile() != null) {
-							return JDTUtils.toLocation(((IMember) element).getClassFile());
+							return JDTUtils.toContentLocation((IMember) element, LocationType.NAME_RANGE, monitor);
 						}
 					}
 				}
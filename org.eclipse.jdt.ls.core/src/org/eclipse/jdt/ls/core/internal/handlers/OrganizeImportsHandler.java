@@ -59,8 +59,6 @@ import org.eclipse.text.edits.InsertEdit;
 import org.eclipse.text.edits.MalformedTreeException;
 import org.eclipse.text.edits.TextEdit;
 
-import com.google.gson.Gson;
-
 public final class OrganizeImportsHandler {
 	public static final String CLIENT_COMMAND_ID_CHOOSEIMPORTS = "java.action.organizeImports.chooseImports";
 
@@ -199,8 +197,7 @@ public final class OrganizeImportsHandler {
 
 		TextEdit edit = organizeImports(unit, (selections) -> {
 			Object commandResult = connection.executeClientCommand(CLIENT_COMMAND_ID_CHOOSEIMPORTS, uri, selections);
-			String json = commandResult == null ? null : new Gson().toJson(commandResult);
-			return JSONUtility.toModel(json, ImportCandidate[].class);
+			return JSONUtility.toModel(commandResult, ImportCandidate[].class);
 		});
 		return SourceAssistProcessor.convertToWorkspaceEdit(unit, edit);
 	}
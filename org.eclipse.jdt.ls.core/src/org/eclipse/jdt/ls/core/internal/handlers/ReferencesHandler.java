@@ -13,7 +13,9 @@
 package org.eclipse.jdt.ls.core.internal.handlers;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -22,6 +24,7 @@ import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IOpenable;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
@@ -33,8 +36,11 @@ import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.core.search.SearchRequestor;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.ReferenceParams;
 
 public final class ReferencesHandler {
@@ -68,6 +74,8 @@ public final class ReferencesHandler {
 			SearchEngine engine = new SearchEngine();
 			SearchPattern pattern = SearchPattern.createPattern(elementToSearch, IJavaSearchConstants.REFERENCES);
 
+			// the matches of each unit, converted to locations together once the search is done
+			final Map<IOpenable, List<SearchMatch>> matches = new LinkedHashMap<>();
 			engine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, createSearchScope(), new SearchRequestor() {
 
 				@Override
@@ -75,22 +83,19 @@ public final class ReferencesHandler {
 					Object o = match.getElement();
 					if (o instanceof IJavaElement) {
 						IJavaElement element = (IJavaElement) o;
-						ICompilationUnit compilationUnit = (ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT);
-						Location location = null;
-						if (compilationUnit != null) {
-							location = JDTUtils.toLocation(compilationUnit, match.getOffset(), match.getLength());
-						} else if (includeClassFiles) {
-							IClassFile cf = (IClassFile) element.getAncestor(IJavaElement.CLASS_FILE);
-							if (cf != null && cf.getSourceRange() != null) {
-								location = JDTUtils.toLocation(cf, match.getOffset(), match.getLength());
-							}
+						IOpenable openable = (ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT);
+						if (openable == null && includeClassFiles) {
+							openable = (IClassFile) element.getAncestor(IJavaElement.CLASS_FILE);
 						}
-						if (location != null) {
-							locations.add(location);
+						if (openable != null) {
+							matches.computeIfAbsent(openable, key -> new ArrayList<>()).add(match);
 						}
 					}
 				}
 			}, monitor);
+			for (Map.Entry<IOpenable, List<SearchMatch>> entry : matches.entrySet()) {
+				addLocations(entry.getKey(), entry.getValue(), locations);
+			}
 
 		} catch (CoreException e) {
 			JavaLanguageServerPlugin.logException("Find references failure ", e);
@@ -98,4 +103,39 @@ public final class ReferencesHandler {
 		return locations;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Adds the locations of the matches of an openable, converting all their
+	 * offsets with a single pass over the openable's lines.
+	 */
+	private static void addLocations(IOpenable openable, List<SearchMatch> matches, List<Location> locations) throws JavaModelException {
+		String uri;
+		if (openable instanceof ICompilationUnit) {
+			uri = ResourceUtils.toClientUri(JDTUtils.toURI((ICompilationUnit) openable));
+		} else {
+			IClassFile classFile = (IClassFile) openable;
+			uri = classFile.getSourceRange() == null ? null : JDTUtils.toUri(classFile);
+		}
+		if (uri == null) {
+			return;
+		}
+		int[] offsets = new int[matches.size() * 2];
+		for (int i = 0; i < matches.size(); i++) {
+			SearchMatch match = matches.get(i);
+			offsets[2 * i] = match.getOffset();
+			offsets[2 * i + 1] = match.getOffset() + match.getLength();
+		}
+		int[][] lines = JsonRpcHelpers.toLines(openable, offsets);
+		for (int i = 0; i < matches.size(); i++) {
+			Range range = JDTUtils.newRange();
+			// same as JDTUtils.toRange
+			if (offsets[2 * i] > 0 || offsets[2 * i + 1] > 0) {
+				range = new Range(toPosition(lines[2 * i]), toPosition(lines[2 * i + 1]));
+			}
+			locations.add(new Location(uri, range));
+		}
+	}
+
+	private static Position toPosition(int[] line) {
+		return line == null ? new Position() : new Position(line[0], line[1]);
+	}
+}
@@ -0,0 +1,502 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameRequestor;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * In-memory index of the type names visible from the workspace projects,
+ * used to rank workspace symbol queries without searching the Java index on
+ * each keystroke.
+ *
+ * The index is built on first use from
+ * {@link SearchEngine#searchAllTypeNames}, then kept up to date from Java
+ * element deltas: the types of changed compilation units are replaced by
+ * the ones read from the Java model, changed package fragment roots are
+ * searched again, and classpath changes rebuild the whole index on next
+ * query. Searches running during an update may miss the updated types.
+ */
+public final class TypeNameIndex implements IElementChangedListener {
+
+	private static final TypeNameIndex INSTANCE = new TypeNameIndex();
+
+	private static final char[][] NO_ENCLOSING_TYPES = CharOperation.NO_CHAR_CHAR;
+
+	/**
+	 * A type of the index.
+	 */
+	public static final class Entry {
+		private final String simpleName;
+		private final String lowerCaseName;
+		private final String packageName;
+		private final char[][] enclosingTypeNames;
+		private final int modifiers;
+		private final String path;
+
+		Entry(String simpleName, String packageName, char[][] enclosingTypeNames, int modifiers, String path) {
+			this.simpleName = simpleName;
+			this.lowerCaseName = simpleName.toLowerCase();
+			this.packageName = packageName;
+			this.enclosingTypeNames = enclosingTypeNames;
+			this.modifiers = modifiers;
+			this.path = path;
+		}
+
+		public String getSimpleName() {
+			return simpleName;
+		}
+
+		public String getPackageName() {
+			return packageName;
+		}
+
+		public int getModifiers() {
+			return modifiers;
+		}
+
+		/**
+		 * @return the resource path of the type, in the
+		 *         {@link IJavaSearchScope#encloses(String)} format
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		public boolean isBinary() {
+			return !path.endsWith(".java");
+		}
+
+		/**
+		 * @return the package and enclosing type names, as in
+		 *         {@link org.eclipse.jdt.core.search.TypeNameMatch#getTypeContainerName()}
+		 */
+		public String getContainerName() {
+			StringBuilder builder = new StringBuilder(packageName);
+			for (char[] enclosing : enclosingTypeNames) {
+				if (builder.length() > 0) {
+					builder.append('.');
+				}
+				builder.append(enclosing);
+			}
+			return builder.toString();
+		}
+
+		/**
+		 * @return the fully qualified name, using '.' as enclosing type
+		 *         separator
+		 */
+		public String getFullyQualifiedName() {
+			String container = getContainerName();
+			return container.isEmpty() ? simpleName : container + '.' + simpleName;
+		}
+
+		/**
+		 * @return the names of the enclosing types, outermost first
+		 */
+		public char[][] getEnclosingTypeNames() {
+			return enclosingTypeNames;
+		}
+	}
+
+	// distinct types of a same unit only compare equal when they have the same name and container
+	private static final Comparator<Entry> NAME_ORDER = Comparator.comparing((Entry e) -> e.lowerCaseName).thenComparing(e -> e.path).thenComparing(e -> e.simpleName).thenComparing(Entry::getContainerName);
+
+	// serializes index builds, which can take a while
+	private final Object buildLock = new Object();
+	// guards the fields below, never held while searching
+	private final Object lock = new Object();
+	// sorted by NAME_ORDER, updated in place by the index builds
+	private NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(NAME_ORDER);
+	// the entries of each compilation unit, by path, only read by the index builds
+	private Map<String, List<Entry>> unitEntries = new HashMap<>();
+	private boolean listening;
+	private boolean stale = true;
+	private final Set<IPath> staleRoots = new HashSet<>();
+	private final Set<IPath> staleUnits = new HashSet<>();
+
+	private TypeNameIndex() {
+		// singleton
+	}
+
+	public static TypeNameIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the best ranked types matching the query in the given scope.
+	 *
+	 * @param query
+	 *            a type name, camel case or pattern ('*' and '?') query
+	 * @param maxResults
+	 *            the maximum number of results, 0 for no limit
+	 * @param scope
+	 *            the search scope
+	 * @param monitor
+	 *            the progress monitor
+	 * @return the matching types, best match first
+	 */
+	public List<Entry> search(String query, int maxResults, IJavaSearchScope scope, IProgressMonitor monitor) throws JavaModelException {
+		NavigableSet<Entry> snapshot = getEntries(monitor);
+		char[] pattern = query.toCharArray();
+		int matchRule = SearchPattern.R_CAMELCASE_MATCH;
+		if (query.indexOf('*') >= 0 || query.indexOf('?') >= 0) {
+			matchRule |= SearchPattern.R_PATTERN_MATCH;
+		}
+		matchRule = SearchPattern.validateMatchRule(query, matchRule);
+		Set<Entry> candidates = snapshot;
+		if ((matchRule & SearchPattern.R_PATTERN_MATCH) == 0 && pattern.length > 0) {
+			// camel case and prefix matches share the first character
+			char first = Character.toLowerCase(pattern[0]);
+			candidates = snapshot.subSet(lowerBound(first), true, lowerBound((char) (first + 1)), false);
+		}
+		Comparator<Entry> ranking = rankingOrder(query);
+		PriorityQueue<Entry> best = new PriorityQueue<>(maxResults > 0 ? maxResults + 1 : 11, ranking.reversed());
+		for (Entry entry : candidates) {
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			if (matches(pattern, matchRule, entry.simpleName) && scope.encloses(entry.path)) {
+				best.add(entry);
+				if (maxResults > 0 && best.size() > maxResults) {
+					best.poll();
+				}
+			}
+		}
+		Entry[] result = best.toArray(new Entry[best.size()]);
+		Arrays.sort(result, ranking);
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * @return an entry sorted before all the entries whose lower case name
+	 *         starts with the given character, and after the other ones
+	 */
+	private static Entry lowerBound(char first) {
+		return new Entry(String.valueOf(first), "", NO_ENCLOSING_TYPES, 0, "");
+	}
+
+	/**
+	 * Same matching as {@link SearchEngine#searchAllTypeNames} for a validated
+	 * match rule.
+	 */
+	static boolean matches(char[] pattern, int matchRule, String name) {
+		char[] typeName = name.toCharArray();
+		boolean isCaseSensitive = (matchRule & SearchPattern.R_CASE_SENSITIVE) != 0;
+		if ((matchRule & SearchPattern.R_PATTERN_MATCH) != 0) {
+			return CharOperation.match(pattern, typeName, isCaseSensitive);
+		}
+		if (pattern.length == 0) {
+			return true;
+		}
+		boolean matchFirstChar = !isCaseSensitive || pattern[0] == typeName[0];
+		if ((matchRule & SearchPattern.R_CAMELCASE_MATCH) != 0) {
+			if (matchFirstChar && CharOperation.camelCaseMatch(pattern, typeName, false)) {
+				return true;
+			}
+			return !isCaseSensitive && matchFirstChar && CharOperation.prefixEquals(pattern, typeName, false);
+		}
+		if ((matchRule & SearchPattern.R_EXACT_MATCH) == SearchPattern.R_EXACT_MATCH && (matchRule & SearchPattern.R_PREFIX_MATCH) == 0) {
+			return matchFirstChar && CharOperation.equals(pattern, typeName, isCaseSensitive);
+		}
+		return matchFirstChar && CharOperation.prefixEquals(pattern, typeName, isCaseSensitive);
+	}
+
+	/**
+	 * Exact matches first, then case sensitive prefixes, case insensitive
+	 * prefixes and other (camel case or pattern) matches. Sources come before
+	 * binaries, then shorter names first.
+	 */
+	private static Comparator<Entry> rankingOrder(String query) {
+		return Comparator.comparingInt((Entry e) -> rank(query, e.simpleName)).thenComparing(Entry::isBinary).thenComparingInt(e -> e.simpleName.length()).thenComparing(NAME_ORDER);
+	}
+
+	private static int rank(String query, String name) {
+		if (name.equals(query)) {
+			return 0;
+		}
+		if (name.equalsIgnoreCase(query)) {
+			return 1;
+		}
+		if (name.startsWith(query)) {
+			return 2;
+		}
+		if (name.regionMatches(true, 0, query, 0, query.length())) {
+			return 3;
+		}
+		return 4;
+	}
+
+	private NavigableSet<Entry> getEntries(IProgressMonitor monitor) throws JavaModelException {
+		synchronized (buildLock) {
+			boolean rebuild;
+			Set<IPath> roots;
+			Set<IPath> units;
+			NavigableSet<Entry> current;
+			Map<String, List<Entry>> currentUnits;
+			synchronized (lock) {
+				if (!listening) {
+					JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
+					listening = true;
+				}
+				rebuild = stale;
+				stale = false;
+				roots = new HashSet<>(staleRoots);
+				units = new HashSet<>(staleUnits);
+				staleRoots.clear();
+				staleUnits.clear();
+				current = entries;
+				currentUnits = unitEntries;
+			}
+			if (!rebuild && roots.isEmpty() && units.isEmpty()) {
+				return current;
+			}
+			try {
+				if (rebuild) {
+					long start = System.currentTimeMillis();
+					List<Entry> collected = new ArrayList<>();
+					collect(SearchEngine.createWorkspaceScope(), collected, monitor);
+					NavigableSet<Entry> rebuilt = new ConcurrentSkipListSet<>(NAME_ORDER);
+					Map<String, List<Entry>> rebuiltUnits = new HashMap<>();
+					add(collected, rebuilt, rebuiltUnits);
+					JavaLanguageServerPlugin.logInfo("Indexed " + rebuilt.size() + " type names. Took " + (System.currentTimeMillis() - start) + " ms");
+					synchronized (lock) {
+						entries = rebuilt;
+						unitEntries = rebuiltUnits;
+					}
+					return rebuilt;
+				}
+				update(current, currentUnits, roots, units, monitor);
+			} catch (JavaModelException | RuntimeException e) {
+				synchronized (lock) {
+					if (rebuild) {
+						stale = true;
+					} else {
+						staleRoots.addAll(roots);
+						staleUnits.addAll(units);
+					}
+				}
+				throw e;
+			}
+			return current;
+		}
+	}
+
+	/**
+	 * Replaces the entries of the changed roots and units. The entries of a
+	 * unit are looked up by path, only a changed root needs to go through the
+	 * whole index.
+	 */
+	private static void update(NavigableSet<Entry> entries, Map<String, List<Entry>> unitEntries, Set<IPath> roots, Set<IPath> units, IProgressMonitor monitor) throws JavaModelException {
+		List<Entry> added = new ArrayList<>();
+		if (!roots.isEmpty()) {
+			entries.removeIf(entry -> isInRoot(entry.path, roots));
+			unitEntries.keySet().removeIf(path -> isInRoot(path, roots));
+			for (IPath rootPath : roots) {
+				IJavaElement root = findRoot(rootPath);
+				if (root != null && root.exists()) {
+					collect(SearchEngine.createJavaSearchScope(new IJavaElement[] { root }), added, monitor);
+				}
+			}
+		}
+		for (IPath unitPath : units) {
+			String path = unitPath.toString();
+			if (!isInRoot(path, roots)) {
+				List<Entry> previous = unitEntries.remove(path);
+				if (previous != null) {
+					entries.removeAll(previous);
+				}
+				collect(unitPath, added);
+			}
+		}
+		add(added, entries, unitEntries);
+	}
+
+	private static void add(List<Entry> added, NavigableSet<Entry> entries, Map<String, List<Entry>> unitEntries) {
+		entries.addAll(added);
+		for (Entry entry : added) {
+			if (!entry.isBinary()) {
+				unitEntries.computeIfAbsent(entry.path, path -> new ArrayList<>()).add(entry);
+			}
+		}
+	}
+
+	private static boolean isInRoot(String path, Set<IPath> roots) {
+		for (IPath root : roots) {
+			String rootPath = root.toString();
+			if (path.startsWith(rootPath) && path.length() > rootPath.length()) {
+				char separator = path.charAt(rootPath.length());
+				if (separator == IPath.SEPARATOR || separator == IJavaSearchScope.JAR_FILE_ENTRY_SEPARATOR.charAt(0)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static IJavaElement findRoot(IPath rootPath) throws JavaModelException {
+		for (IJavaProject project : JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects()) {
+			IJavaElement root = project.findPackageFragmentRoot(rootPath);
+			if (root != null) {
+				return root;
+			}
+		}
+		return null;
+	}
+
+	private static void collect(IJavaSearchScope scope, List<Entry> result, IProgressMonitor monitor) throws JavaModelException {
+		new SearchEngine().searchAllTypeNames(null, SearchPattern.R_PATTERN_MATCH, null, SearchPattern.R_PATTERN_MATCH, IJavaSearchConstants.TYPE, scope, new TypeNameRequestor() {
+			@Override
+			public void acceptType(int modifiers, char[] packageName, char[] simpleTypeName, char[][] enclosingTypeNames, String path) {
+				if (simpleTypeName != null && simpleTypeName.length > 0) {
+					result.add(new Entry(String.valueOf(simpleTypeName), String.valueOf(packageName), enclosingTypeNames == null ? NO_ENCLOSING_TYPES : enclosingTypeNames, modifiers, path));
+				}
+			}
+		}, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+	}
+
+	private static void collect(IPath unitPath, List<Entry> result) throws JavaModelException {
+		IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(unitPath);
+		ICompilationUnit unit = JavaCore.createCompilationUnitFrom(file);
+		if (unit == null || !file.exists() || !unit.exists()) {
+			return;
+		}
+		String path = unitPath.toString();
+		for (IType type : unit.getAllTypes()) {
+			List<char[]> enclosing = new ArrayList<>();
+			for (IType declaring = type.getDeclaringType(); declaring != null; declaring = declaring.getDeclaringType()) {
+				enclosing.add(0, declaring.getElementName().toCharArray());
+			}
+			result.add(new Entry(type.getElementName(), type.getPackageFragment().getElementName(), enclosing.toArray(new char[enclosing.size()][]), type.getFlags(), path));
+		}
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		synchronized (lock) {
+			if (!stale) {
+				processDelta(event.getDelta());
+			}
+		}
+	}
+
+	// the caller holds lock
+	private void processDelta(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		int flags = delta.getFlags();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				processChildren(delta);
+				break;
+			case IJavaElement.JAVA_PROJECT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED)) != 0) {
+					stale = true;
+				} else {
+					processChildren(delta);
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH)) != 0) {
+					staleRoots.add(element.getPath());
+					if (delta.getKind() == IJavaElementDelta.REMOVED || (flags & IJavaElementDelta.F_REMOVED_FROM_CLASSPATH) != 0) {
+						// the root may still be on the classpath of another project
+						stale = true;
+					}
+				} else {
+					processChildren(delta);
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED) {
+					staleRoots.add(element.getParent().getPath());
+				} else {
+					processChildren(delta);
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				// notified when the unit is saved, reconciling a working copy doesn't change the Java model
+				staleUnits.add(element.getPath());
+				break;
+			case IJavaElement.CLASS_FILE:
+				staleRoots.add(element.getParent().getParent().getPath());
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void processChildren(IJavaElementDelta delta) {
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			processDelta(child);
+		}
+	}
+
+	/**
+	 * Builds the index, or brings it up to date, ahead of the next search.
+	 */
+	public void prepare(IProgressMonitor monitor) throws JavaModelException {
+		getEntries(monitor);
+	}
+
+	/**
+	 * @return whether the index has been built since it was last dropped
+	 */
+	public boolean isBuilt() {
+		synchronized (lock) {
+			return !stale;
+		}
+	}
+
+	/**
+	 * Drops the index, it is rebuilt on next search.
+	 */
+	public void reset() {
+		synchronized (lock) {
+			stale = true;
+			entries = new ConcurrentSkipListSet<>(NAME_ORDER);
+			unitEntries = new HashMap<>();
+		}
+	}
+}
@@ -16,8 +16,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -33,8 +37,11 @@ import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaModelMarker;
 import org.eclipse.jdt.core.IJavaProject;
@@ -59,6 +66,15 @@ import org.eclipse.m2e.core.internal.Messages;
 /**
  * Listens to the resource change events and converts {@link IMarker}s to {@link Diagnostic}s.
  *
+ * Diagnostics which are the ones last published for their URI aren't
+ * published again, so that marker changes leaving the diagnostics of a file
+ * as they were, like the ones of a full build, don't reach the client. The
+ * empty diagnostics of removed resources are always published. When
+ * publication is delayed, the diagnostics changed by a burst of resource
+ * change events are published together once no event changed any for
+ * <code>java.diagnostics.publishDelay</code> ms, or at the latest
+ * <code>java.diagnostics.maxPublishDelay</code> ms after the first one.
+ *
  * @author Gorkem Ercan
  *
  */
@@ -66,9 +82,37 @@ import org.eclipse.m2e.core.internal.Messages;
 public final class WorkspaceDiagnosticsHandler implements IResourceChangeListener, IResourceDeltaVisitor {
 
 	public static final String PROJECT_CONFIGURATION_IS_NOT_UP_TO_DATE_WITH_POM_XML = "Project configuration is not up-to-date with pom.xml, requires an update.";
+	public static final String PUBLISH_WORKSPACE_DIAGNOSTICS_JOBS = "PublishWorkspaceDiagnosticsJobs";
+	private static final long PUBLISH_DELAY = Long.getLong("java.diagnostics.publishDelay", 200L);
+	private static final long MAX_PUBLISH_DELAY = Long.getLong("java.diagnostics.maxPublishDelay", 1000L);
 	private final JavaClientConnection connection;
 	private final ProjectsManager projectsManager;
 	private final boolean isDiagnosticTagSupported;
+	private Job publishJob;
+	// the diagnostics waiting to be published, by client URI
+	private final Map<String, List<Diagnostic>> pending = new LinkedHashMap<>();
+	// guarded by pending, the pending URIs of removed resources, whose empty diagnostics are always published
+	private final Set<String> removed = new HashSet<>();
+	// guarded by pending, the time the oldest pending diagnostics were queued at, 0 when none are
+	private long pendingSince;
+	// guarded by pending, incremented each time diagnostics are queued
+	private long queued;
+	// serializes the publications, so that the diagnostics of a URI are published in the order they were queued
+	private final Object publishLock = new Object();
+	// the diagnostics last reported to a workspace diagnostics request, by client URI,
+	// only for the URIs of the last report and forgotten when their resource is removed
+	private final Map<String, Result> results = new HashMap<>();
+	private long lastResultId;
+
+	private static final class Result {
+		private final List<Diagnostic> diagnostics;
+		private final String id;
+
+		Result(List<Diagnostic> diagnostics, String id) {
+			this.diagnostics = diagnostics;
+			this.id = id;
+		}
+	}
 
 	@Deprecated
 	public WorkspaceDiagnosticsHandler(JavaClientConnection connection, ProjectsManager projectsManager) {
@@ -76,9 +120,37 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 	}
 
 	public WorkspaceDiagnosticsHandler(JavaClientConnection connection, ProjectsManager projectsManager, ClientPreferences prefs) {
+		this(connection, projectsManager, prefs, false);
+	}
+
+	/**
+	 * @param delayPublication
+	 *            whether to publish the diagnostics changed by resource change
+	 *            events from a job, once none changed for the
+	 *            <code>java.diagnostics.publishDelay</code> system property
+	 *            (200 ms by default) or at the latest after
+	 *            <code>java.diagnostics.maxPublishDelay</code> (1000 ms by
+	 *            default), rather than at the end of each event
+	 */
+	public WorkspaceDiagnosticsHandler(JavaClientConnection connection, ProjectsManager projectsManager, ClientPreferences prefs, boolean delayPublication) {
 		this.connection = connection;
 		this.projectsManager = projectsManager;
 		this.isDiagnosticTagSupported = prefs != null ? prefs.isDiagnosticTagSupported() : false;
+		if (delayPublication) {
+			this.publishJob = new Job("Publish workspace diagnostics") {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					flush();
+					return Status.OK_STATUS;
+				}
+
+				@Override
+				public boolean belongsTo(Object family) {
+					return PUBLISH_WORKSPACE_DIAGNOSTICS_JOBS.equals(family);
+				}
+			};
+			this.publishJob.setSystem(true);
+		}
 	}
 
 	public void addResourceChangeListener() {
@@ -87,17 +159,89 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 
 	public void removeResourceChangeListener() {
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		if (publishJob != null) {
+			publishJob.cancel();
+		}
 	}
 
 	@Override
 	public void resourceChanged(IResourceChangeEvent event) {
+		long before;
+		synchronized (pending) {
+			before = queued;
+		}
 		try {
 			IResourceDelta delta = event.getDelta();
 			delta.accept(this);
 		} catch (CoreException e) {
 			JavaLanguageServerPlugin.logException("failed to send diagnostics", e);
 		}
+		if (publishJob == null) {
+			flush();
+			return;
+		}
+		long delay;
+		synchronized (pending) {
+			if (queued == before || pending.isEmpty()) {
+				// events which changed no diagnostics don't postpone the publication
+				return;
+			}
+			long waited = System.currentTimeMillis() - pendingSince;
+			delay = Math.max(0, Math.min(PUBLISH_DELAY, MAX_PUBLISH_DELAY - waited));
+		}
+		// a waiting or sleeping job isn't rescheduled by schedule(long), it's cancelled first
+		publishJob.cancel();
+		publishJob.schedule(delay);
+	}
 
+	/**
+	 * Queues the diagnostics of a URI for publication, replacing the ones
+	 * queued before.
+	 */
+	private void publish(String uri, List<Diagnostic> diagnostics) {
+		publish(uri, diagnostics, false);
+	}
+
+	private void publish(String uri, List<Diagnostic> diagnostics, boolean isRemoved) {
+		String clientUri = ResourceUtils.toClientUri(uri);
+		synchronized (pending) {
+			if (pending.isEmpty()) {
+				pendingSince = System.currentTimeMillis();
+			}
+			pending.put(clientUri, diagnostics);
+			if (isRemoved) {
+				removed.add(clientUri);
+			} else {
+				removed.remove(clientUri);
+			}
+			queued++;
+		}
+	}
+
+	/**
+	 * Publishes the queued diagnostics which aren't the ones last published.
+	 */
+	private void flush() {
+		synchronized (publishLock) {
+			Map<String, List<Diagnostic>> diagnostics;
+			Set<String> removedUris;
+			synchronized (pending) {
+				if (pending.isEmpty()) {
+					return;
+				}
+				diagnostics = new LinkedHashMap<>(pending);
+				removedUris = new HashSet<>(removed);
+				pending.clear();
+				removed.clear();
+				pendingSince = 0;
+			}
+			// the client is notified outside of the pending lock, so that resource change events don't wait for it
+			for (Map.Entry<String, List<Diagnostic>> entry : diagnostics.entrySet()) {
+				if (removedUris.contains(entry.getKey()) || !connection.isPublished(entry.getKey(), entry.getValue())) {
+					connection.publishDiagnostics(new PublishDiagnosticsParams(entry.getKey(), entry.getValue()));
+				}
+			}
+		}
 	}
 
 	/*
@@ -143,7 +287,9 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			IProject project = (IProject) resource;
 			// report problems for other projects
 			IMarker[] markers = project.findMarkers(null, true, IResource.DEPTH_ZERO);
-			publishMarkers(project, markers);
+			Map<String, List<Diagnostic>> diagnostics = new LinkedHashMap<>();
+			collectProjectDiagnostics(project, markers, diagnostics);
+			diagnostics.forEach(this::publish);
 			return true;
 		}
 		// No marker changes continue to visit
@@ -160,7 +306,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			IJavaProject javaProject = cu.getJavaProject();
 			if (javaProject == null || !javaProject.isOnClasspath(cu)) {
 				String uri = JDTUtils.getFileURI(resource);
-				this.connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), Collections.emptyList()));
+				publish(uri, Collections.emptyList());
 				return false;
 			}
 
@@ -177,12 +323,12 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		}
 		if (document != null) {
 			String uri = JDTUtils.getFileURI(resource);
-			this.connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), toDiagnosticsArray(document, markers, isDiagnosticTagSupported)));
+			publish(uri, toDiagnosticsArray(document, markers, isDiagnosticTagSupported));
 		}
 		return false;
 	}
 
-	private void publishMarkers(IProject project, IMarker[] markers) throws CoreException {
+	private void collectProjectDiagnostics(IProject project, IMarker[] markers, Map<String, List<Diagnostic>> result) throws CoreException {
 		Range range = new Range(new Position(0, 0), new Position(0, 0));
 
 		List<IMarker> projectMarkers = new ArrayList<>(markers.length);
@@ -202,23 +348,82 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		}
 		List<Diagnostic> diagnostics = toDiagnosticArray(range, projectMarkers, isDiagnosticTagSupported);
 		String clientUri = ResourceUtils.toClientUri(uri);
-		connection.publishDiagnostics(new PublishDiagnosticsParams(clientUri, diagnostics));
+		result.put(clientUri, diagnostics);
 		if (pom.exists()) {
 			IDocument document = JsonRpcHelpers.toDocument(pom);
 			diagnostics = toDiagnosticsArray(document, pom.findMarkers(null, true, IResource.DEPTH_ZERO), isDiagnosticTagSupported);
 			List<Diagnostic> diagnosicts2 = toDiagnosticArray(range, pomMarkers, isDiagnosticTagSupported);
 			diagnostics.addAll(diagnosicts2);
 			String pomSuffix = clientUri.endsWith("/") ? "pom.xml" : "/pom.xml";
-			connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(clientUri + pomSuffix), diagnostics));
+			result.put(ResourceUtils.toClientUri(clientUri + pomSuffix), diagnostics);
 		}
 	}
 
+	/**
+	 * Publishes the diagnostics of all the workspace problem markers which
+	 * aren't the ones last published.
+	 */
 	public List<IMarker> publishDiagnostics(IProgressMonitor monitor) throws CoreException {
 		List<IMarker> problemMarkers = getProblemMarkers(monitor);
-		publishDiagnostics(problemMarkers);
+		Map<String, List<Diagnostic>> diagnostics = collectDiagnostics(problemMarkers);
+		synchronized (pending) {
+			if (pending.isEmpty()) {
+				pendingSince = System.currentTimeMillis();
+			}
+			pending.putAll(diagnostics);
+			queued++;
+		}
+		flush();
 		return problemMarkers;
 	}
 
+	/**
+	 * Returns the diagnostics of the workspace problem markers, leaving out
+	 * the ones the client already has.
+	 *
+	 * @param params
+	 *            the result ids of the diagnostics the client has
+	 * @return a full report for the URIs whose diagnostics changed, an
+	 *         unchanged report for the others
+	 */
+	public WorkspaceDiagnosticsReport getWorkspaceDiagnostics(WorkspaceDiagnosticsParams params, IProgressMonitor monitor) throws CoreException {
+		Map<String, List<Diagnostic>> diagnostics = collectDiagnostics(getProblemMarkers(monitor));
+		Map<String, String> previousResultIds = new HashMap<>();
+		if (params != null && params.previousResultIds != null) {
+			for (PreviousResultId previous : params.previousResultIds) {
+				previousResultIds.put(previous.uri, previous.value);
+				// the diagnostics of the URI are gone
+				diagnostics.putIfAbsent(previous.uri, Collections.emptyList());
+			}
+		}
+		WorkspaceDiagnosticsReport report = new WorkspaceDiagnosticsReport();
+		synchronized (results) {
+			for (Map.Entry<String, List<Diagnostic>> entry : diagnostics.entrySet()) {
+				String uri = entry.getKey();
+				Result result = results.get(uri);
+				if (result == null || !result.diagnostics.equals(entry.getValue())) {
+					result = new Result(entry.getValue(), Long.toString(++lastResultId));
+					results.put(uri, result);
+				}
+				if (result.id.equals(previousResultIds.get(uri))) {
+					report.items.add(new WorkspaceDocumentDiagnosticReport(WorkspaceDocumentDiagnosticReport.UNCHANGED, uri, result.id, null));
+				} else {
+					report.items.add(new WorkspaceDocumentDiagnosticReport(WorkspaceDocumentDiagnosticReport.FULL, uri, result.id, result.diagnostics));
+				}
+			}
+			// the URIs without problems the client doesn't know about
+			results.keySet().retainAll(diagnostics.keySet());
+		}
+		return report;
+	}
+
+	// for testing
+	boolean hasResult(String uri) {
+		synchronized (results) {
+			return results.containsKey(uri);
+		}
+	}
+
 	private List<IMarker> getProblemMarkers(IProgressMonitor monitor) throws CoreException {
 		IProject[] projects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
 		List<IMarker> markers = new ArrayList<>();
@@ -247,14 +452,15 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		return markers;
 	}
 
-	private void publishDiagnostics(List<IMarker> markers) {
+	private Map<String, List<Diagnostic>> collectDiagnostics(List<IMarker> markers) {
+		Map<String, List<Diagnostic>> result = new LinkedHashMap<>();
 		Map<IResource, List<IMarker>> map = markers.stream().collect(Collectors.groupingBy(IMarker::getResource));
 		for (Map.Entry<IResource, List<IMarker>> entry : map.entrySet()) {
 			IResource resource = entry.getKey();
 			if (resource instanceof IProject) {
 				try {
 					IProject project = (IProject) resource;
-					publishMarkers(project, entry.getValue().toArray(new IMarker[0]));
+					collectProjectDiagnostics(project, entry.getValue().toArray(new IMarker[0]), result);
 				} catch (CoreException e) {
 					JavaLanguageServerPlugin.logException(e.getMessage(), e);
 				}
@@ -281,9 +487,10 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			}
 			if (document != null) {
 				List<Diagnostic> diagnostics = WorkspaceDiagnosticsHandler.toDiagnosticsArray(document, entry.getValue().toArray(new IMarker[0]), isDiagnosticTagSupported);
-				connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), diagnostics));
+				result.put(ResourceUtils.toClientUri(uri), diagnostics);
 			}
 		}
+		return result;
 	}
 
 	@Deprecated
@@ -429,7 +636,10 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			if (addTrailingSlash && !uri.endsWith("/")) {
 				uri = uri + "/";
 			}
-			this.connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), Collections.emptyList()));
+			publish(uri, Collections.emptyList(), true);
+			synchronized (results) {
+				results.remove(ResourceUtils.toClientUri(uri));
+			}
 		}
 	}
 
@@ -441,4 +651,44 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		IFile file = (IFile) resource;
 		return JavaCore.isJavaLikeFileName(file.getName()) || projectsManager.isBuildFile(file);
 	}
+
+	public static class WorkspaceDiagnosticsParams {
+		public List<PreviousResultId> previousResultIds;
+	}
+
+	public static class PreviousResultId {
+		public String uri;
+		public String value;
+
+		public PreviousResultId(String uri, String value) {
+			this.uri = uri;
+			this.value = value;
+		}
+	}
+
+	public static class WorkspaceDiagnosticsReport {
+		public List<WorkspaceDocumentDiagnosticReport> items = new ArrayList<>();
+	}
+
+	/**
+	 * The diagnostics of a document, shaped after the workspace document
+	 * diagnostic reports of the LSP pull diagnostics.
+	 */
+	public static class WorkspaceDocumentDiagnosticReport {
+		public static final String FULL = "full";
+		public static final String UNCHANGED = "unchanged";
+
+		public String kind;
+		public String uri;
+		public String resultId;
+		// null for an unchanged report
+		public List<Diagnostic> items;
+
+		public WorkspaceDocumentDiagnosticReport(String kind, String uri, String resultId, List<Diagnostic> items) {
+			this.kind = kind;
+			this.uri = uri;
+			this.resultId = resultId;
+			this.items = items;
+		}
+	}
 }
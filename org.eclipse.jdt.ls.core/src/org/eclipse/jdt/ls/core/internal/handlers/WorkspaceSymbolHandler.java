@@ -16,17 +16,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.core.search.IJavaSearchConstants;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
 import org.eclipse.jdt.core.search.SearchEngine;
-import org.eclipse.jdt.core.search.SearchPattern;
-import org.eclipse.jdt.core.search.TypeNameMatch;
-import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
@@ -55,58 +57,36 @@ public class WorkspaceSymbolHandler{
 		try {
 			monitor.beginTask("Searching the types...", 100);
 			IJavaSearchScope searchScope = createSearchScope(projectName, sourceOnly);
-			int typeMatchRule = SearchPattern.R_CAMELCASE_MATCH;
-			if (query.contains("*") || query.contains("?")) {
-				typeMatchRule |= SearchPattern.R_PATTERN_MATCH;
-			}
-			new SearchEngine().searchAllTypeNames(null, SearchPattern.R_PATTERN_MATCH, query.trim().toCharArray(), typeMatchRule, IJavaSearchConstants.TYPE, searchScope, new TypeNameMatchRequestor() {
-
-				@Override
-				public void acceptTypeNameMatch(TypeNameMatch match) {
-					try {
-						Location location = null;
-						try {
-							if (!sourceOnly && match.getType().isBinary()) {
-								location = JDTUtils.toLocation(match.getType().getClassFile());
-							} else if (!match.getType().isBinary()) {
-								location = JDTUtils.toLocation(match.getType());
-							}
-						} catch (Exception e) {
-							JavaLanguageServerPlugin.logException("Unable to determine location for " + match.getSimpleTypeName(), e);
-							return;
-						}
-
-						if (location != null && match.getSimpleTypeName() != null && !match.getSimpleTypeName().isEmpty()) {
-							SymbolInformation symbolInformation = new SymbolInformation();
-							symbolInformation.setContainerName(match.getTypeContainerName());
-							symbolInformation.setName(match.getSimpleTypeName());
-							symbolInformation.setKind(mapKind(match));
-							symbolInformation.setLocation(location);
-							symbols.add(symbolInformation);
-							if (maxResults > 0 && symbols.size() >= maxResults) {
-								monitor.setCanceled(true);
-							}
+			List<TypeNameIndex.Entry> matches = TypeNameIndex.getInstance().search(query.trim(), maxResults, searchScope, monitor);
+			IJavaProject[] targetProjects = getTargetProjects(projectName);
+			for (TypeNameIndex.Entry match : matches) {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				// only the returned matches get a location
+				Location location = null;
+				try {
+					if (!match.isBinary()) {
+						location = JDTUtils.toLocation(findSourceType(match));
+					} else if (!sourceOnly) {
+						IType type = findBinaryType(match, targetProjects);
+						if (type != null) {
+							location = JDTUtils.toLocation(type.getClassFile());
 						}
-					} catch (Exception e) {
-						JavaLanguageServerPlugin.logException("Unable to determine location for " + match.getSimpleTypeName(), e);
-						return;
 					}
+				} catch (Exception e) {
+					JavaLanguageServerPlugin.logException("Unable to determine location for " + match.getSimpleName(), e);
+					continue;
 				}
-
-				private SymbolKind mapKind(TypeNameMatch match) {
-					int flags = match.getModifiers();
-					if (Flags.isInterface(flags)) {
-						return SymbolKind.Interface;
-					}
-					if (Flags.isAnnotation(flags)) {
-						return SymbolKind.Property;
-					}
-					if (Flags.isEnum(flags)) {
-						return SymbolKind.Enum;
-					}
-					return SymbolKind.Class;
+				if (location != null) {
+					SymbolInformation symbolInformation = new SymbolInformation();
+					symbolInformation.setContainerName(match.getContainerName());
+					symbolInformation.setName(match.getSimpleName());
+					symbolInformation.setKind(mapKind(match.getModifiers()));
+					symbolInformation.setLocation(location);
+					symbols.add(symbolInformation);
 				}
-			}, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+			}
 		} catch (Exception e) {
 			if (e instanceof OperationCanceledException) {
 				// ignore.
@@ -120,14 +100,53 @@ public class WorkspaceSymbolHandler{
 		return symbols;
 	}
 
-	private static IJavaSearchScope createSearchScope(String projectName, boolean sourceOnly) throws JavaModelException {
-		IJavaProject[] targetProjects;
+	private static SymbolKind mapKind(int flags) {
+		if (Flags.isInterface(flags)) {
+			return SymbolKind.Interface;
+		}
+		if (Flags.isAnnotation(flags)) {
+			return SymbolKind.Property;
+		}
+		if (Flags.isEnum(flags)) {
+			return SymbolKind.Enum;
+		}
+		return SymbolKind.Class;
+	}
+
+	private static IType findSourceType(TypeNameIndex.Entry match) {
+		IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(match.getPath()));
+		ICompilationUnit unit = JavaCore.createCompilationUnitFrom(file);
+		IType type = null;
+		for (char[] enclosing : match.getEnclosingTypeNames()) {
+			type = type == null ? unit.getType(String.valueOf(enclosing)) : type.getType(String.valueOf(enclosing));
+		}
+		return type == null ? unit.getType(match.getSimpleName()) : type.getType(match.getSimpleName());
+	}
+
+	private static IType findBinaryType(TypeNameIndex.Entry match, IJavaProject[] targetProjects) throws JavaModelException {
+		String typeQualifiedName = match.getFullyQualifiedName();
+		if (!match.getPackageName().isEmpty()) {
+			typeQualifiedName = typeQualifiedName.substring(match.getPackageName().length() + 1);
+		}
+		for (IJavaProject project : targetProjects) {
+			IType type = project.findType(match.getPackageName(), typeQualifiedName);
+			if (type != null && type.isBinary()) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	private static IJavaProject[] getTargetProjects(String projectName) {
 		IJavaProject project = ProjectUtils.getJavaProject(projectName);
 		if (project != null) {
-			targetProjects = new IJavaProject[] { project };
-		} else {
-			targetProjects = ProjectUtils.getJavaProjects();
+			return new IJavaProject[] { project };
 		}
+		return ProjectUtils.getJavaProjects();
+	}
+
+	private static IJavaSearchScope createSearchScope(String projectName, boolean sourceOnly) throws JavaModelException {
+		IJavaProject[] targetProjects = getTargetProjects(projectName);
 
 		int scope = IJavaSearchScope.REFERENCED_PROJECTS | IJavaSearchScope.SOURCES;
 		PreferenceManager preferenceManager = JavaLanguageServerPlugin.getPreferencesManager();
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.hover;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Remembers, per project, whether fully qualified type names can be found on
+ * the classpath, so that checking a type again doesn't look it up again.
+ *
+ * The whole index is dropped when a compilation unit, a package fragment root
+ * or a classpath changes, since types can then appear or disappear in the
+ * projects depending on the changed one. The number of names kept per project
+ * can be set with the <code>java.typeExistenceIndex.size</code> system
+ * property.
+ */
+public final class TypeExistenceIndex implements IElementChangedListener {
+
+	private static final int MAX_SIZE = Integer.getInteger("java.typeExistenceIndex.size", 10000);
+
+	private static final TypeExistenceIndex INSTANCE = new TypeExistenceIndex();
+
+	private final Map<IJavaProject, Map<String, Boolean>> projects = new ConcurrentHashMap<>();
+	private volatile boolean listening;
+
+	private TypeExistenceIndex() {
+		// singleton
+	}
+
+	public static TypeExistenceIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @param project
+	 *            the project whose classpath is searched
+	 * @param fullyQualifiedName
+	 *            the type name, using '.' as enclosing type separator
+	 * @return whether the type can be found on the classpath of the project
+	 */
+	public boolean exists(IJavaProject project, String fullyQualifiedName) throws JavaModelException {
+		if (!listening) {
+			synchronized (this) {
+				if (!listening) {
+					JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
+					listening = true;
+				}
+			}
+		}
+		// a lookup racing with a change stores its result in the dropped map
+		Map<String, Boolean> names = projects.computeIfAbsent(project, p -> new ConcurrentHashMap<>());
+		Boolean exists = names.get(fullyQualifiedName);
+		if (exists == null) {
+			exists = project.findType(fullyQualifiedName) != null;
+			if (names.size() >= MAX_SIZE) {
+				names.clear();
+			}
+			names.put(fullyQualifiedName, exists);
+		}
+		return exists;
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (!projects.isEmpty() && changesTypes(event.getDelta())) {
+			projects.clear();
+		}
+	}
+
+	private static boolean changesTypes(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		int flags = delta.getFlags();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_PROJECT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED)) != 0) {
+					return true;
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH)) != 0) {
+					return true;
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED) {
+					return true;
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+			case IJavaElement.CLASS_FILE:
+				return true;
+			default:
+				break;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (changesTypes(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Drops the whole index.
+	 */
+	public void reset() {
+		projects.clear();
+	}
+}
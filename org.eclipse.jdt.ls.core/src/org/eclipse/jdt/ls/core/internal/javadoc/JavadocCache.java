@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.javadoc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.SourceRange;
+import org.eclipse.jdt.ls.core.internal.DocumentAdapter;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+
+import com.google.common.io.CharStreams;
+
+/**
+ * Caches the Javadoc rendered for hover, completion resolve and signature
+ * help.
+ *
+ * The Javadoc of a binary element is cached until its archive or source
+ * attachment changes, the Javadoc of a source element until its compilation
+ * unit changes. Since methods can inherit Javadoc from other types, the Javadoc
+ * of the source methods without their own Javadoc is dropped when any
+ * compilation unit changes, and the Javadoc of all the binary elements when a
+ * classpath changes. The number of cached elements can be set with the
+ * <code>java.javadocCache.size</code> system property.
+ */
+public final class JavadocCache implements IElementChangedListener {
+
+	private static final int MAX_SIZE = Integer.getInteger("java.javadocCache.size", 1000);
+
+	private static final JavadocCache INSTANCE = new JavadocCache();
+
+	// the kinds of elements whose Javadoc a delta invalidates, besides the changed units
+	private static final int SOURCE_CHANGES = 1;
+	private static final int BINARY_CHANGES = 2;
+	private static final String INHERIT_DOC = "{@inheritDoc}";
+
+	private enum Format {
+		MARKDOWN, PLAIN_TEXT
+	}
+
+	@FunctionalInterface
+	private interface ContentReader {
+		Reader read() throws JavaModelException;
+	}
+
+	private static final class CachedJavadoc {
+		private final boolean binary;
+		// the path of the compilation unit of a source element
+		private final IPath unit;
+		// whether the Javadoc may be read from other types
+		private final boolean inherited;
+		private final String stamp;
+		private final String content;
+
+		CachedJavadoc(boolean binary, IPath unit, boolean inherited, String stamp, String content) {
+			this.binary = binary;
+			this.unit = unit;
+			this.inherited = inherited;
+			this.stamp = stamp;
+			this.content = content;
+		}
+	}
+
+	private final Map<String, CachedJavadoc> entries = new LinkedHashMap<String, CachedJavadoc>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedJavadoc> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+	private boolean listening;
+	// incremented on each invalidation, so that Javadoc read meanwhile isn't cached
+	private long generation;
+	private long hits;
+	private long misses;
+
+	private JavadocCache() {
+	}
+
+	public static JavadocCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return the Javadoc of the element in Markdown, or <code>null</code> if
+	 *         it has none
+	 * @see JavadocContentAccess2#getMarkdownContentReader(IJavaElement)
+	 */
+	public String getMarkdownContent(IJavaElement element) {
+		try {
+			return get(element, Format.MARKDOWN, () -> JavadocContentAccess2.getMarkdownContentReader(element));
+		} catch (JavaModelException e) {
+			// not thrown by the Markdown reader
+			return null;
+		}
+	}
+
+	/**
+	 * @return the Javadoc of the member in plain text, or <code>null</code> if
+	 *         it has none
+	 * @see JavadocContentAccess#getPlainTextContentReader(IMember)
+	 */
+	public String getPlainTextContent(IMember member) throws JavaModelException {
+		return get(member, Format.PLAIN_TEXT, () -> JavadocContentAccess.getPlainTextContentReader(member));
+	}
+
+	private String get(IJavaElement element, Format format, ContentReader reader) throws JavaModelException {
+		String key = getKey(element, format);
+		boolean binary = element.isReadOnly();
+		String stamp = binary ? getBinaryStamp(element) : getSourceStamp(element);
+		long readGeneration = 0;
+		if (stamp != null) {
+			synchronized (entries) {
+				readGeneration = generation;
+				CachedJavadoc entry = entries.get(key);
+				if (entry != null && entry.stamp.equals(stamp)) {
+					hits++;
+					return entry.content;
+				}
+				misses++;
+				if (!listening) {
+					JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+					listening = true;
+				}
+			}
+		}
+		String content = toString(reader.read());
+		if (stamp != null) {
+			IPath unit = binary ? null : element.getAncestor(IJavaElement.COMPILATION_UNIT).getPath();
+			boolean inherited = !binary && isInherited(element);
+			synchronized (entries) {
+				if (generation == readGeneration) {
+					entries.put(key, new CachedJavadoc(binary, unit, inherited, stamp, content));
+				}
+			}
+		}
+		return content;
+	}
+
+	/**
+	 * @return whether the Javadoc of the source element may be read from its
+	 *         super types
+	 */
+	private static boolean isInherited(IJavaElement element) throws JavaModelException {
+		if (!(element instanceof IMethod)) {
+			return false;
+		}
+		IMethod method = (IMethod) element;
+		ISourceRange range = method.getJavadocRange();
+		if (!SourceRange.isAvailable(range)) {
+			return true;
+		}
+		IBuffer buffer = method.getOpenable().getBuffer();
+		return buffer == null || buffer.getText(range.getOffset(), range.getLength()).contains(INHERIT_DOC);
+	}
+
+	private static String getKey(IJavaElement element, Format format) {
+		// links to class files are only rendered for clients which can open them
+		PreferenceManager preferenceManager = JavaLanguageServerPlugin.getPreferencesManager();
+		boolean classFileLinks = preferenceManager == null || preferenceManager.isClientSupportsClassFileContent();
+		return element.getHandleIdentifier() + "|" + format + "|" + classFileLinks;
+	}
+
+	/**
+	 * @return the timestamps of the archive and source attachment of the
+	 *         element, or <code>null</code> if they are unknown
+	 */
+	private static String getBinaryStamp(IJavaElement element) throws JavaModelException {
+		IPackageFragmentRoot root = (IPackageFragmentRoot) element.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+		if (root == null) {
+			return null;
+		}
+		IResource resource = root.getResource();
+		File file = resource != null && resource.getLocation() != null ? resource.getLocation().toFile() : root.getPath().toFile();
+		IPath sourcePath = root.getSourceAttachmentPath();
+		File source = sourcePath == null ? null : sourcePath.toFile();
+		return file.lastModified() + ":" + file.length() + ":" + sourcePath + ":" + (source == null ? 0 : source.lastModified());
+	}
+
+	/**
+	 * @return the modification stamp of the compilation unit of the element,
+	 *         or <code>null</code> if it is unknown
+	 */
+	private static String getSourceStamp(IJavaElement element) throws JavaModelException {
+		IJavaElement unit = element.getAncestor(IJavaElement.COMPILATION_UNIT);
+		if (!(unit instanceof ICompilationUnit)) {
+			return null;
+		}
+		ICompilationUnit cu = (ICompilationUnit) unit;
+		if (cu.isWorkingCopy() && cu.hasUnsavedChanges()) {
+			IBuffer buffer = cu.getBuffer();
+			IDocument document = buffer instanceof DocumentAdapter ? ((DocumentAdapter) buffer).getDocument() : null;
+			return document instanceof IDocumentExtension4 ? "w" + ((IDocumentExtension4) document).getModificationStamp() : null;
+		}
+		IResource resource = cu.getResource();
+		return resource == null ? null : Long.toString(resource.getModificationStamp());
+	}
+
+	private static String toString(Reader reader) {
+		if (reader == null) {
+			return null;
+		}
+		try {
+			return CharStreams.toString(reader);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		Set<IPath> units = new HashSet<>();
+		int changes = getChanges(event.getDelta(), units);
+		if (changes == 0 && units.isEmpty()) {
+			return;
+		}
+		synchronized (entries) {
+			generation++;
+			Iterator<CachedJavadoc> iterator = entries.values().iterator();
+			while (iterator.hasNext()) {
+				CachedJavadoc entry = iterator.next();
+				if ((changes & (entry.binary ? BINARY_CHANGES : SOURCE_CHANGES)) != 0 || (!entry.binary && (units.contains(entry.unit) || (entry.inherited && !units.isEmpty())))) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param units
+	 *            the paths of the changed compilation units
+	 * @return the kinds of elements whose Javadoc is entirely invalidated
+	 */
+	private static int getChanges(IJavaElementDelta delta, Set<IPath> units) {
+		IJavaElement element = delta.getElement();
+		int flags = delta.getFlags();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_PROJECT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_CLOSED)) != 0) {
+					return SOURCE_CHANGES | BINARY_CHANGES;
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_SOURCEATTACHED | IJavaElementDelta.F_SOURCEDETACHED | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH)) != 0) {
+					return BINARY_CHANGES;
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				units.add(element.getPath());
+				return 0;
+			case IJavaElement.CLASS_FILE:
+				return BINARY_CHANGES;
+			default:
+				break;
+		}
+		int changes = 0;
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			changes |= getChanges(child, units);
+		}
+		return changes;
+	}
+
+	/**
+	 * @return the number of requests served from the cache
+	 */
+	public long getHitCount() {
+		synchronized (entries) {
+			return hits;
+		}
+	}
+
+	public long getMissCount() {
+		synchronized (entries) {
+			return misses;
+		}
+	}
+
+	/**
+	 * Drops all the cached Javadoc, and stops listening to changes until
+	 * Javadoc is cached again.
+	 */
+	public void reset() {
+		synchronized (entries) {
+			generation++;
+			entries.clear();
+			if (listening) {
+				JavaCore.removeElementChangedListener(this);
+				listening = false;
+			}
+		}
+	}
+}
@@ -34,7 +34,10 @@ import org.eclipse.jdt.ls.core.internal.handlers.MoveHandler.MoveDestinationsRes
 import org.eclipse.jdt.ls.core.internal.handlers.MoveHandler.MoveParams;
 import org.eclipse.jdt.ls.core.internal.handlers.OverrideMethodsHandler.AddOverridableMethodParams;
 import org.eclipse.jdt.ls.core.internal.handlers.OverrideMethodsHandler.OverridableMethodsResponse;
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceDiagnosticsHandler.WorkspaceDiagnosticsParams;
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceDiagnosticsHandler.WorkspaceDiagnosticsReport;
 import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceSymbolHandler.SearchSymbolParams;
+import org.eclipse.lsp4j.CodeAction;
 import org.eclipse.lsp4j.CodeActionParams;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.SymbolInformation;
@@ -125,4 +128,13 @@ public interface JavaProtocolExtensions {
 
 	@JsonRequest
 	CompletableFuture<WorkspaceEdit> willRenameFiles(FileRenameParams params);
+
+	@JsonRequest
+	CompletableFuture<WorkspaceDiagnosticsReport> workspaceDiagnostics(WorkspaceDiagnosticsParams params);
+
+	/**
+	 * Computes the workspace edit of a code action returned without one.
+	 */
+	@JsonRequest
+	CompletableFuture<CodeAction> resolveCodeAction(CodeAction unresolved);
 }
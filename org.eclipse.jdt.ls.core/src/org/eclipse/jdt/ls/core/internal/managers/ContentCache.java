@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.core.JrtPackageFragmentRoot;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * Caches the content provided for class files, in memory and optionally on
+ * disk, so that opening a class file again doesn't decompile it again.
+ *
+ * Entries are keyed by the content provider and its settings, the class file
+ * and the size and modification time of the archive containing the class file,
+ * so they are not used anymore once the archive or the settings change. The
+ * least recently used entries are evicted once the cache exceeds its size,
+ * which can be set in bytes with the <code>java.contentCache.memorySize</code>
+ * and <code>java.contentCache.diskSize</code> system properties.
+ */
+@SuppressWarnings("restriction")
+public class ContentCache {
+
+	private static final long DEFAULT_MEMORY_SIZE = Long.getLong("java.contentCache.memorySize", 32L * 1024 * 1024);
+	private static final long DEFAULT_DISK_SIZE = Long.getLong("java.contentCache.diskSize", 256L * 1024 * 1024);
+
+	private final File directory;
+	private final long maxMemorySize;
+	private final long maxDiskSize;
+
+	private final Map<String, String> memory = new LinkedHashMap<>(16, 0.75f, true);
+	private long memorySize;
+	private long diskSize = -1;
+	private final Object diskLock = new Object();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong diskHits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param directory
+	 *            the directory to store the content in, or <code>null</code>
+	 *            to only keep it in memory
+	 */
+	public ContentCache(File directory) {
+		this(directory, DEFAULT_MEMORY_SIZE, DEFAULT_DISK_SIZE);
+	}
+
+	public ContentCache(File directory, long maxMemorySize, long maxDiskSize) {
+		this.directory = directory;
+		this.maxMemorySize = maxMemorySize;
+		this.maxDiskSize = maxDiskSize;
+	}
+
+	/**
+	 * @param providerId
+	 *            the id of the content provider
+	 * @param providerSettings
+	 *            the settings the content provider is configured with, which
+	 *            change its content
+	 * @param classFile
+	 *            the class file
+	 * @return the key of the content provided for the class file by the given
+	 *         provider, or <code>null</code> if it can't be cached
+	 */
+	public String getKey(String providerId, String providerSettings, IClassFile classFile) {
+		String version = null;
+		try {
+			IPackageFragmentRoot root = (IPackageFragmentRoot) classFile.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+			if (root != null && root.isArchive() && !(root instanceof JrtPackageFragmentRoot)) {
+				IResource resource = root.getResource();
+				File archive = resource != null && resource.getLocation() != null ? resource.getLocation().toFile() : root.getPath().toFile();
+				// hashing the whole archive would delay opening its first class file
+				if (archive.isFile()) {
+					version = archive.length() + "-" + archive.lastModified();
+				}
+			} else {
+				// class folders and the modules of the JDK
+				version = toHex(newDigest().digest(classFile.getBytes()));
+			}
+		} catch (JavaModelException e) {
+			JavaLanguageServerPlugin.logException("Unable to compute the content key of " + classFile.getElementName(), e);
+		}
+		if (version == null) {
+			return null;
+		}
+		String settings = providerSettings == null || providerSettings.isEmpty() ? "" : toHex(newDigest().digest(providerSettings.getBytes(StandardCharsets.UTF_8)));
+		return providerId + "|" + settings + "|" + classFile.getHandleIdentifier() + "|" + version;
+	}
+
+	/**
+	 * @return the cached content, or <code>null</code> if there is none
+	 */
+	public String get(String key) {
+		String content;
+		synchronized (memory) {
+			content = memory.get(key);
+		}
+		if (content != null) {
+			hits.incrementAndGet();
+			return content;
+		}
+		content = readFromDisk(key);
+		if (content != null) {
+			diskHits.incrementAndGet();
+			putInMemory(key, content);
+			return content;
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	public void put(String key, String content) {
+		putInMemory(key, content);
+		writeToDisk(key, content);
+	}
+
+	private void putInMemory(String key, String content) {
+		long size = 2L * content.length();
+		if (size > maxMemorySize) {
+			return;
+		}
+		synchronized (memory) {
+			String previous = memory.put(key, content);
+			if (previous != null) {
+				memorySize -= 2L * previous.length();
+			}
+			memorySize += size;
+			Iterator<String> iterator = memory.values().iterator();
+			while (memorySize > maxMemorySize && iterator.hasNext()) {
+				memorySize -= 2L * iterator.next().length();
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Drops the content kept in memory, the content stored on disk is kept.
+	 */
+	public void clearMemory() {
+		synchronized (memory) {
+			memory.clear();
+			memorySize = 0;
+		}
+	}
+
+	private String readFromDisk(String key) {
+		if (directory == null) {
+			return null;
+		}
+		File file = getFile(key);
+		synchronized (diskLock) {
+			if (!file.isFile()) {
+				return null;
+			}
+			try {
+				String stored = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+				// the file starts with its key, in case of a collision of their digests
+				int separator = stored.indexOf('\n');
+				if (separator < 0 || !key.equals(stored.substring(0, separator))) {
+					return null;
+				}
+				// the modification time orders the files for eviction
+				file.setLastModified(System.currentTimeMillis());
+				return stored.substring(separator + 1);
+			} catch (IOException e) {
+				JavaLanguageServerPlugin.logException("Unable to read cached content", e);
+				return null;
+			}
+		}
+	}
+
+	private void writeToDisk(String key, String content) {
+		if (directory == null) {
+			return;
+		}
+		byte[] bytes = (key + "\n" + content).getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > maxDiskSize) {
+			return;
+		}
+		File file = getFile(key);
+		synchronized (diskLock) {
+			try {
+				long size = getDiskSize();
+				if (file.isFile()) {
+					size -= file.length();
+				}
+				Files.createDirectories(directory.toPath());
+				File tempFile = new File(directory, file.getName() + ".tmp");
+				Files.write(tempFile.toPath(), bytes);
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				diskSize = size + bytes.length;
+				if (diskSize > maxDiskSize) {
+					evict();
+				}
+			} catch (IOException e) {
+				JavaLanguageServerPlugin.logException("Unable to store cached content", e);
+			}
+		}
+	}
+
+	/**
+	 * Deletes the least recently used files, until the cache is back to 90% of
+	 * its size. The caller holds the disk lock.
+	 */
+	private void evict() {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (File file : files) {
+			if (diskSize <= maxDiskSize * 9 / 10) {
+				break;
+			}
+			long length = file.length();
+			if (file.delete()) {
+				diskSize -= length;
+			}
+		}
+	}
+
+	private File getFile(String key) {
+		return new File(directory, toHex(newDigest().digest(key.getBytes(StandardCharsets.UTF_8))));
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static String toHex(byte[] digest) {
+		return String.format("%0" + (digest.length * 2) + "x", new BigInteger(1, digest));
+	}
+
+	/**
+	 * @return the number of bytes stored on disk
+	 */
+	public long getDiskSize() {
+		synchronized (diskLock) {
+			if (diskSize < 0) {
+				diskSize = 0;
+				File[] files = directory == null ? null : directory.listFiles();
+				if (files != null) {
+					for (File file : files) {
+						diskSize += file.length();
+					}
+				}
+			}
+			return diskSize;
+		}
+	}
+
+	/**
+	 * @return the approximate number of bytes kept in memory
+	 */
+	public long getMemorySize() {
+		synchronized (memory) {
+			return memorySize;
+		}
+	}
+
+	/**
+	 * @return the number of requests served from memory or disk
+	 */
+	public long getHitCount() {
+		return hits.get() + diskHits.get();
+	}
+
+	/**
+	 * @return the number of requests served from disk
+	 */
+	public long getDiskHitCount() {
+		return diskHits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the ratio of requests served from the cache
+	 */
+	public double getHitRate() {
+		long hitCount = getHitCount();
+		long requests = hitCount + misses.get();
+		return requests == 0 ? 0 : (double) hitCount / requests;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d hits (%d from disk), %d misses, %.0f%% hit rate, %d bytes in memory, %d bytes on disk", getHitCount(), getDiskHitCount(), getMissCount(), 100 * getHitRate(), getMemorySize(), getDiskSize());
+	}
+}
@@ -12,9 +12,11 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.managers;
 
+import java.io.File;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -27,7 +29,9 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.ls.core.internal.IContentProvider;
 import org.eclipse.jdt.ls.core.internal.IDecompiler;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.handlers.MapFlattener;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 
 public class ContentProviderManager {
@@ -38,15 +42,30 @@ public class ContentProviderManager {
 	private static final String ID = "id";
 	private static final String PRIORITY = "priority";
 	private static final String URI_PATTERN = "uriPattern";
+	private static final String CACHEABLE = "cacheable";
 	private static final int DEFAULT_PRIORITY = 500;
 	private static final Pattern DEFAULT_URI_PATTERN = Pattern.compile("jdt://contents/.*\\.class.*");
+	// the settings of the content providers, e.g. the options of the decompilers
+	private static final String[] PROVIDER_SETTINGS = { "java.decompiler", "java.contentProvider" };
 
 	private final PreferenceManager preferenceManager;
+	private final ContentCache cache;
 
 	private Set<ContentProviderDescriptor> descriptors;
 
 	public ContentProviderManager(PreferenceManager preferenceManager) {
+		this(preferenceManager, null);
+	}
+
+	/**
+	 * @param preferenceManager
+	 * @param cacheLocation
+	 *            the directory to cache the content of class files in, or
+	 *            <code>null</code> to only cache it in memory
+	 */
+	public ContentProviderManager(PreferenceManager preferenceManager, File cacheLocation) {
 		this.preferenceManager = preferenceManager;
+		this.cache = new ContentCache(cacheLocation);
 	}
 
 	/**
@@ -62,7 +81,7 @@ public class ContentProviderManager {
 		if (classFile == null) {
 			return null;
 		}
-		return getContent(classFile, classFile.getHandleIdentifier(), IDecompiler.class, monitor);
+		return getContent(classFile, classFile, IDecompiler.class, monitor);
 	}
 
 	/**
@@ -78,10 +97,46 @@ public class ContentProviderManager {
 		if (uri == null) {
 			return null;
 		}
-		return getContent(uri, uri.toString(), IContentProvider.class, monitor);
+		return getContent(uri, JDTUtils.resolveClassFile(uri), IContentProvider.class, monitor);
 	}
 
-	private String getContent(Object source, String cacheKey, Class<? extends IContentProvider> providerType, IProgressMonitor monitor) {
+	/**
+	 * Get the ranges of the declarations in the text content for a class file.
+	 * They are computed once per content and cached alongside it.
+	 *
+	 * @param classFile
+	 *            the class file to get content from
+	 * @param monitor
+	 * @return the ranges, or <code>null</code> if there is no content
+	 */
+	public SymbolRanges getSymbolRanges(IClassFile classFile, IProgressMonitor monitor) {
+		String content = getSource(classFile, monitor);
+		if (content == null || content.isEmpty() || monitor.isCanceled()) {
+			return null;
+		}
+		String key = SymbolRanges.getKey(content);
+		String stored = cache.get(key);
+		SymbolRanges ranges = stored == null ? null : SymbolRanges.parse(stored);
+		if (ranges == null) {
+			ranges = SymbolRanges.compute(content);
+			cache.put(key, ranges.toString());
+		}
+		return ranges;
+	}
+
+	/**
+	 * @return the cache of the content provided for class files
+	 */
+	public ContentCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * @param classFile
+	 *            the class file the source resolves to, whose content is
+	 *            cached, or <code>null</code>
+	 */
+	private String getContent(Object source, IClassFile classFile, Class<? extends IContentProvider> providerType, IProgressMonitor monitor) {
 		URI uri = source instanceof URI ? (URI) source : null;
 		List<ContentProviderDescriptor> matches = findMatchingProviders(uri);
 		if (monitor.isCanceled()) {
@@ -103,6 +158,13 @@ public class ContentProviderManager {
 			if (previousPriority == match.priority) {
 				requestPreferredProvider(match.priority, matches);
 			}
+			String cacheKey = classFile != null && match.cacheable ? cache.getKey(match.id, getProviderSettings(), classFile) : null;
+			if (cacheKey != null) {
+				String content = cache.get(cacheKey);
+				if (content != null) {
+					return content;
+				}
+			}
 			try {
 				contentProvider.setPreferences(preferenceManager.getPreferences());
 				String content = null;
@@ -114,6 +176,9 @@ public class ContentProviderManager {
 				if (monitor.isCanceled()) {
 					return EMPTY_CONTENT;
 				} else if (content != null) {
+					if (cacheKey != null) {
+						cache.put(cacheKey, content);
+					}
 					return content;
 				}
 			} catch (Exception e) {
@@ -126,6 +191,26 @@ public class ContentProviderManager {
 		return EMPTY_CONTENT;
 	}
 
+	/**
+	 * @return the settings the content providers may read from the
+	 *         preferences, in a stable order
+	 */
+	private String getProviderSettings() {
+		Map<String, Object> configuration = preferenceManager.getPreferences().asMap();
+		if (configuration == null) {
+			return null;
+		}
+		StringBuilder settings = new StringBuilder();
+		for (String key : PROVIDER_SETTINGS) {
+			Object nested = MapFlattener.getValue(configuration, key);
+			if (nested != null) {
+				settings.append(key).append('=').append(nested).append('\n');
+			}
+			configuration.entrySet().stream().filter(e -> e.getKey().startsWith(key + ".")).sorted(Map.Entry.comparingByKey()).forEach(e -> settings.append(e.getKey()).append('=').append(e.getValue()).append('\n'));
+		}
+		return settings.toString();
+	}
+
 	private synchronized Set<ContentProviderDescriptor> getDescriptors(List<String> preferredProviderIds) {
 		if (descriptors == null) {
 			IConfigurationElement[] elements = Platform.getExtensionRegistry().getConfigurationElementsFor(EXTENSION_POINT_ID);
@@ -171,6 +256,7 @@ public class ContentProviderManager {
 		private final int basePriority;
 		public int priority;
 		public final Pattern uriPattern;
+		public final boolean cacheable;
 
 		public ContentProviderDescriptor(IConfigurationElement element) {
 			configurationElement = element;
@@ -179,6 +265,7 @@ public class ContentProviderManager {
 			priority = basePriority;
 			String uriPatternString = configurationElement.getAttribute(URI_PATTERN);
 			uriPattern = uriPatternString != null ? Pattern.compile(uriPatternString) : DEFAULT_URI_PATTERN;
+			cacheable = !"false".equals(configurationElement.getAttribute(CACHEABLE));
 		}
 
 		private int parsePriority() {
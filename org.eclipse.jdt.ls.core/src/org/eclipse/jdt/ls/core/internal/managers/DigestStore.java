@@ -12,18 +12,31 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.managers;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
@@ -36,19 +49,46 @@ import org.eclipse.jdt.ls.core.internal.StatusFactory;
  *         This class handles digests for build files. It serves to prevent
  *         unnecessary updating of maven/gradle, etc. info on workspace
  *         projects.
+ *
+ *         Digests are kept in an append-only log: each changed digest adds a
+ *         record, a record cut short by a crash is dropped on load, and the
+ *         log is compacted once it holds mostly outdated records. Updates made
+ *         between {@link #beginBatch()} and {@link #endBatch()} are written
+ *         with a single append.
  */
 public class DigestStore {
-	private Map<String, String> fileDigests;
-	private File stateFile;
-
 	private static final String SERIALIZATION_FILE_NAME = ".file-digests";
+	private static final int MAGIC = 0x4A444753; // "JDGS"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8;
+	private static final int COMPACTION_THRESHOLD = 64;
+	private static final int BUFFER_SIZE = 8192;
+	private static final long RACY_INTERVAL = 2000;
+
+	private final Map<String, Digest> fileDigests;
+	private final File stateFile;
+	private final List<String> pending = new ArrayList<>();
+	private int batchDepth;
+	private int records;
+	private long bytesWritten;
+
+	private static final class Digest {
+		private final long size;
+		private final long lastModified;
+		private final String value;
+
+		Digest(long size, long lastModified, String value) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.value = value;
+		}
+	}
 
 	public DigestStore(File stateLocation) {
 		this.stateFile = new File(stateLocation, SERIALIZATION_FILE_NAME);
+		this.fileDigests = new HashMap<>();
 		if (stateFile.isFile()) {
-			fileDigests = deserializeFileDigests();
-		} else {
-			fileDigests = new HashMap<>();
+			loadFileDigests();
 		}
 	}
 
@@ -64,44 +104,229 @@ public class DigestStore {
 	 */
 	public boolean updateDigest(Path p) throws CoreException {
 		try {
-			String digest = computeDigest(p);
+			String key = p.toString();
+			BasicFileAttributes attributes = Files.readAttributes(p, BasicFileAttributes.class);
+			long size = attributes.size();
+			long lastModified = attributes.lastModifiedTime().toMillis();
+			if (System.currentTimeMillis() - lastModified < RACY_INTERVAL) {
+				// the file may change again without a different timestamp, so it is always hashed
+				lastModified = 0;
+			}
 			synchronized (fileDigests) {
-				if (!digest.equals(fileDigests.get(p.toString()))) {
-					fileDigests.put(p.toString(), digest);
-					serializeFileDigests();
-					return true;
-				} else {
+				Digest previous = fileDigests.get(key);
+				if (previous != null && previous.size == size && previous.lastModified == lastModified && lastModified != 0) {
 					return false;
 				}
 			}
+			String digest = computeDigest(p);
+			synchronized (fileDigests) {
+				Digest previous = fileDigests.get(key);
+				fileDigests.put(key, new Digest(size, lastModified, digest));
+				boolean changed = previous == null || !digest.equals(previous.value);
+				if (changed || previous.size != size || previous.lastModified != lastModified) {
+					// an unchanged content still records the new timestamp, so the file isn't hashed again
+					pending.add(key);
+					if (batchDepth == 0) {
+						flush();
+					}
+				}
+				return changed;
+			}
 		} catch (NoSuchAlgorithmException | IOException e) {
 			throw new CoreException(StatusFactory.newErrorStatus("Exception updating digest for " + p, e));
 		}
+	}
 
+	/**
+	 * Starts a batch of updates, which are persisted once the matching
+	 * {@link #endBatch()} is called. Batches can be nested.
+	 */
+	public void beginBatch() {
+		synchronized (fileDigests) {
+			batchDepth++;
+		}
 	}
 
-	private void serializeFileDigests() {
-		try (ObjectOutputStream outStream = new ObjectOutputStream(new FileOutputStream(stateFile))) {
-			outStream.writeObject(fileDigests);
+	/**
+	 * Ends a batch of updates started by {@link #beginBatch()}, persisting
+	 * them when it is the outermost batch.
+	 */
+	public void endBatch() {
+		synchronized (fileDigests) {
+			if (batchDepth > 0 && --batchDepth == 0) {
+				flush();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of bytes written to the digest log since this store
+	 *         was created
+	 */
+	public long getBytesWritten() {
+		synchronized (fileDigests) {
+			return bytesWritten;
+		}
+	}
+
+	// the caller holds the fileDigests lock
+	private void flush() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		try {
+			if (records + pending.size() > Math.max(COMPACTION_THRESHOLD, 2 * fileDigests.size())) {
+				compact();
+			} else {
+				append();
+			}
 		} catch (IOException e) {
 			JavaLanguageServerPlugin.logException("Exception occured while serialization of file digests", e);
+		} finally {
+			pending.clear();
+		}
+	}
+
+	private void append() throws IOException {
+		if (!stateFile.isFile() || stateFile.length() < HEADER_SIZE) {
+			compact();
+			return;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			for (String key : pending) {
+				writeRecord(out, key, fileDigests.get(key));
+			}
+		}
+		try (FileChannel channel = FileChannel.open(stateFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		}
+		records += pending.size();
+		bytesWritten += bytes.size();
+	}
+
+	/**
+	 * Rewrites the log with the current digests only, replacing the old log
+	 * atomically.
+	 */
+	private void compact() throws IOException {
+		File tempFile = new File(stateFile.getParentFile(), SERIALIZATION_FILE_NAME + ".tmp");
+		try (FileOutputStream fileOut = new FileOutputStream(tempFile); DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			for (Map.Entry<String, Digest> entry : fileDigests.entrySet()) {
+				writeRecord(out, entry.getKey(), entry.getValue());
+			}
+			out.flush();
+			fileOut.getFD().sync();
 		}
+		bytesWritten += tempFile.length();
+		try {
+			Files.move(tempFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.move(tempFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		records = fileDigests.size();
+	}
+
+	private static void writeRecord(DataOutputStream out, String key, Digest digest) throws IOException {
+		out.writeUTF(key);
+		out.writeLong(digest.size);
+		out.writeLong(digest.lastModified);
+		out.writeUTF(digest.value);
 	}
 
+	private void loadFileDigests() {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(stateFile)))) {
+			in.mark(HEADER_SIZE);
+			if (in.readInt() != MAGIC) {
+				in.reset();
+				loadLegacyFileDigests(in);
+				return;
+			}
+			if (in.readInt() != VERSION) {
+				JavaLanguageServerPlugin.logInfo("Ignoring file digests of unknown version");
+				compact();
+				return;
+			}
+			long validLength = HEADER_SIZE;
+			while (true) {
+				try {
+					String key = in.readUTF();
+					long size = in.readLong();
+					long lastModified = in.readLong();
+					String value = in.readUTF();
+					fileDigests.put(key, new Digest(size, lastModified, value));
+					records++;
+					validLength += recordLength(key, value);
+				} catch (EOFException e) {
+					break;
+				}
+			}
+			if (validLength < stateFile.length()) {
+				// drop a record cut short by a crash, so that the next append starts at a record boundary
+				JavaLanguageServerPlugin.logInfo("Discarding incomplete file digest record");
+				try (FileChannel channel = FileChannel.open(stateFile.toPath(), StandardOpenOption.WRITE)) {
+					channel.truncate(validLength);
+				}
+			}
+		} catch (IOException e) {
+			JavaLanguageServerPlugin.logException("Exception occured while deserialization of file digests", e);
+			fileDigests.clear();
+			records = 0;
+		}
+	}
+
+	private static int recordLength(String key, String value) {
+		return utfLength(key) + 2 * Long.BYTES + utfLength(value);
+	}
+
+	private static int utfLength(String s) {
+		int length = 2;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c >= 0x0001 && c <= 0x007F) {
+				length++;
+			} else if (c > 0x07FF) {
+				length += 3;
+			} else {
+				length += 2;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Reads digests stored by previous versions as a serialized map, and
+	 * converts them to the log format. Their size and timestamp are unknown,
+	 * so these files are hashed once more.
+	 */
 	@SuppressWarnings("unchecked")
-	private Map<String, String> deserializeFileDigests() {
-		try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(stateFile))) {
-			return (Map<String, String>) ois.readObject();
-		} catch (IOException | ClassNotFoundException e) {
+	private void loadLegacyFileDigests(InputStream in) throws IOException {
+		try (ObjectInputStream ois = new ObjectInputStream(in)) {
+			Map<String, String> legacy = (Map<String, String>) ois.readObject();
+			legacy.forEach((key, value) -> fileDigests.put(key, new Digest(-1, 0, value)));
+		} catch (ClassNotFoundException | ClassCastException e) {
 			JavaLanguageServerPlugin.logException("Exception occured while deserialization of file digests", e);
-			return new HashMap<>();
+			fileDigests.clear();
 		}
+		compact();
 	}
 
 	private String computeDigest(Path path) throws IOException, NoSuchAlgorithmException {
-		byte[] fileBytes = Files.readAllBytes(path);
-		byte[] digest = MessageDigest.getInstance("MD5").digest(fileBytes);
-		return Arrays.toString(digest);
+		MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream in = Files.newInputStream(path)) {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				messageDigest.update(buffer, 0, read);
+			}
+		}
+		return Arrays.toString(messageDigest.digest());
 	}
 
 }
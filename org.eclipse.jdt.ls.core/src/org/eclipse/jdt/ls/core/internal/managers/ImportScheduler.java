@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.StatusFactory;
+
+/**
+ * Prepares the import of the modules of a build concurrently on worker
+ * threads, e.g. downloads their dependencies, before the modules are imported
+ * together on the calling thread.
+ *
+ * The import runs in a job holding the workspace rule, so the preparations
+ * must not acquire any scheduling rule nor modify the workspace: they would
+ * wait for the calling job, which waits for them. Progress and timing of the
+ * modules are reported on the monitor given to
+ * {@link #prepare(Collection, ModulePreparation, IProgressMonitor)}, from the
+ * calling thread only.
+ */
+public class ImportScheduler<T> {
+
+	/**
+	 * Heap reserved for each module prepared concurrently.
+	 */
+	private static final long MEMORY_PER_MODULE = 64 * 1024 * 1024;
+
+	/**
+	 * Work which doesn't need any scheduling rule, e.g. reading the build
+	 * model or downloading dependencies.
+	 */
+	@FunctionalInterface
+	public interface ModulePreparation<T, R> {
+		R prepare(T module, IProgressMonitor monitor) throws CoreException;
+	}
+
+	private final Function<T, String> names;
+	private final int parallelism;
+
+	/**
+	 * @param names
+	 *            the names of the modules, for progress reporting
+	 * @param parallelism
+	 *            the maximum number of modules prepared at the same time
+	 */
+	public ImportScheduler(Function<T, String> names, int parallelism) {
+		this.names = names;
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * @return the number of modules which can be prepared at the same time
+	 *         with the available heap, at most the number of processors or the
+	 *         <code>java.import.parallel.threads</code> system property
+	 */
+	public static int getDefaultParallelism() {
+		Runtime runtime = Runtime.getRuntime();
+		long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+		int threads = Integer.getInteger("java.import.parallel.threads", runtime.availableProcessors());
+		return (int) Math.max(1, Math.min(threads, available / MEMORY_PER_MODULE));
+	}
+
+	/**
+	 * Prepares all the modules concurrently and waits for them.
+	 *
+	 * @return the prepared values of the modules, in the order of the given
+	 *         modules
+	 * @throws CoreException
+	 *             the first failure of a module preparation, once all the
+	 *             preparations are done
+	 * @throws OperationCanceledException
+	 *             if the monitor is cancelled
+	 */
+	public <R> Map<T, R> prepare(Collection<T> modules, ModulePreparation<T, R> preparation, IProgressMonitor monitor) throws CoreException, OperationCanceledException {
+		SubMonitor progress = SubMonitor.convert(monitor, modules.size());
+		IProgressMonitor workerMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled() || progress.isCanceled();
+			}
+		};
+		LinkedBlockingQueue<Result<T, R>> results = new LinkedBlockingQueue<>();
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+			Thread thread = new Thread(r, "Prepare module import");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			for (T module : modules) {
+				executor.execute(() -> {
+					long start = System.currentTimeMillis();
+					R prepared = null;
+					Throwable error = null;
+					try {
+						if (!workerMonitor.isCanceled()) {
+							prepared = preparation.prepare(module, workerMonitor);
+						}
+					} catch (Throwable e) {
+						error = e;
+					}
+					results.add(new Result<>(module, prepared, System.currentTimeMillis() - start, error));
+				});
+			}
+			Map<T, Result<T, R>> done = new HashMap<>();
+			Throwable error = null;
+			while (done.size() < modules.size()) {
+				if (progress.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				Result<T, R> result = results.poll(100, TimeUnit.MILLISECONDS);
+				if (result != null) {
+					done.put(result.module, result);
+					String name = names.apply(result.module);
+					if (result.error == null) {
+						JavaLanguageServerPlugin.logInfo("Prepared " + name + " in " + result.time + " ms");
+					} else if (error == null) {
+						error = result.error;
+						if (!(error instanceof OperationCanceledException || error instanceof CoreException)) {
+							error = new CoreException(StatusFactory.newErrorStatus("Failed to prepare " + name, error));
+						}
+					}
+					progress.subTask(name + " (" + result.time + " ms)");
+					progress.worked(1);
+				}
+			}
+			if (error instanceof OperationCanceledException) {
+				throw (OperationCanceledException) error;
+			} else if (error != null) {
+				throw (CoreException) error;
+			}
+			Map<T, R> prepared = new LinkedHashMap<>();
+			for (T module : modules) {
+				prepared.put(module, done.get(module).prepared);
+			}
+			return prepared;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static final class Result<T, R> {
+		private final T module;
+		private final R prepared;
+		private final long time;
+		private final Throwable error;
+
+		Result(T module, R prepared, long time, Throwable error) {
+			this.module = module;
+			this.prepared = prepared;
+			this.time = time;
+			this.error = error;
+		}
+	}
+}
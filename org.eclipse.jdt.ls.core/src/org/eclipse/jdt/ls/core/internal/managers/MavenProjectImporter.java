@@ -18,12 +18,15 @@ import java.nio.file.PathMatcher;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
 import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IProject;
@@ -45,6 +48,7 @@ import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.embedder.IMaven;
 import org.eclipse.m2e.core.embedder.MavenModelManager;
 import org.eclipse.m2e.core.internal.MavenPluginActivator;
 import org.eclipse.m2e.core.internal.preferences.MavenConfigurationImpl;
@@ -139,6 +143,19 @@ public class MavenProjectImporter extends AbstractProjectImporter {
 		MavenConfigurationImpl configurationImpl = (MavenConfigurationImpl)MavenPlugin.getMavenConfiguration();
 		configurationImpl.setDownloadSources(JavaLanguageServerPlugin.getPreferencesManager().getPreferences().isMavenDownloadSources());
 		configurationImpl.setNotCoveredMojoExecutionSeverity(ProblemSeverity.ignore.toString());
+		long start = System.currentTimeMillis();
+		long bytesWritten = digestStore.getBytesWritten();
+		// the digests of all the imported projects are persisted at once
+		digestStore.beginBatch();
+		try {
+			importProjects(monitor);
+		} finally {
+			digestStore.endBatch();
+			JavaLanguageServerPlugin.logInfo("Imported Maven projects in " + (System.currentTimeMillis() - start) + " ms, wrote " + (digestStore.getBytesWritten() - bytesWritten) + " bytes of file digests");
+		}
+	}
+
+	private void importProjects(IProgressMonitor monitor) throws CoreException, OperationCanceledException {
 		SubMonitor subMonitor = SubMonitor.convert(monitor, 105);
 		subMonitor.setTaskName(IMPORTING_MAVEN_PROJECTS);
 		Set<MavenProjectInfo> files = getMavenProjectInfo(subMonitor.split(5));
@@ -179,7 +196,9 @@ public class MavenProjectImporter extends AbstractProjectImporter {
 			}
 		}
 		if (!toImport.isEmpty()) {
-			if (toImport.size() > MAX_PROJECTS_TO_IMPORT && Runtime.getRuntime().maxMemory() <= MAX_MEMORY) {
+			if (isParallelImportEnabled() && toImport.size() > 1) {
+				resolveAndImportProjects(toImport, subMonitor.split(75));
+			} else if (toImport.size() > MAX_PROJECTS_TO_IMPORT && Runtime.getRuntime().maxMemory() <= MAX_MEMORY) {
 				JavaLanguageServerPlugin.logInfo("Projects size:" + toImport.size());
 				Iterator<MavenProjectInfo> iter = toImport.iterator();
 				List<IMavenProjectImportResult> results = new ArrayList<>(MAX_PROJECTS_TO_IMPORT);
@@ -215,6 +234,78 @@ public class MavenProjectImporter extends AbstractProjectImporter {
 		subMonitor.done();
 	}
 
+	/**
+	 * Downloads the dependencies of the modules which aren't modules of the
+	 * reactor concurrently, then imports all the modules at once on the calling
+	 * job's thread, which holds the workspace rule. m2e configures the modules
+	 * sequentially, the imported projects are only usable once all of them are
+	 * imported.
+	 */
+	private void resolveAndImportProjects(Collection<MavenProjectInfo> toImport, IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 2);
+		Set<String> modules = new HashSet<>();
+		for (MavenProjectInfo projectInfo : toImport) {
+			Model model = projectInfo.getModel();
+			if (model != null) {
+				modules.add(getGroupId(model, model.getGroupId()) + ":" + model.getArtifactId());
+			}
+		}
+		JavaLanguageServerPlugin.logInfo("Resolving the dependencies of " + toImport.size() + " Maven projects in parallel");
+		ImportScheduler<MavenProjectInfo> scheduler = new ImportScheduler<>(MavenProjectInfo::getLabel, ImportScheduler.getDefaultParallelism());
+		scheduler.prepare(toImport, (projectInfo, m) -> resolveDependencies(projectInfo, modules, m), subMonitor.split(1));
+		configurationManager.importProjects(toImport, new ProjectImportConfiguration(), subMonitor.split(1));
+	}
+
+	/**
+	 * Downloads the dependencies of a module which aren't modules of the
+	 * reactor to the local repository. Only the Maven resolver is used, it
+	 * doesn't need any scheduling rule.
+	 */
+	private static Void resolveDependencies(MavenProjectInfo projectInfo, Set<String> reactorModules, IProgressMonitor monitor) {
+		Model model = projectInfo.getModel();
+		if (model == null) {
+			return null;
+		}
+		IMaven maven = MavenPlugin.getMaven();
+		for (Dependency dependency : model.getDependencies()) {
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			String groupId = getGroupId(model, dependency.getGroupId());
+			String version = dependency.getVersion();
+			// managed and interpolated versions are only known once the module is imported
+			if (groupId == null || version == null || version.contains("${") || "system".equals(dependency.getScope()) || reactorModules.contains(groupId + ":" + dependency.getArtifactId())) {
+				continue;
+			}
+			try {
+				maven.resolve(groupId, dependency.getArtifactId(), version, dependency.getType(), dependency.getClassifier(), null, monitor);
+			} catch (CoreException e) {
+				// reported by the import of the module
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the group id, the group id of the model or of its parent when it's
+	 *         not set or is an expression, since reactor modules mostly
+	 *         reference each other with <code>${project.groupId}</code>
+	 */
+	private static String getGroupId(Model model, String groupId) {
+		if (groupId != null && !groupId.startsWith("${")) {
+			return groupId;
+		}
+		if (model.getGroupId() != null && !model.getGroupId().startsWith("${")) {
+			return model.getGroupId();
+		}
+		return model.getParent() == null ? null : model.getParent().getGroupId();
+	}
+
+	private boolean isParallelImportEnabled() {
+		PreferenceManager preferencesManager = JavaLanguageServerPlugin.getPreferencesManager();
+		return preferencesManager != null && preferencesManager.getPreferences().isImportParallelEnabled();
+	}
+
 	private long getLastWorkspaceStateModified() {
 		File workspaceStateFile = MavenPluginActivator.getDefault().getMavenProjectManager().getWorkspaceStateFile();
 		return workspaceStateFile.lastModified();
@@ -251,11 +342,16 @@ public class MavenProjectImporter extends AbstractProjectImporter {
 			public IStatus runInWorkspace(IProgressMonitor monitor) throws CoreException {
 				MavenBuildSupport mavenBuildSupport = new MavenBuildSupport();
 				mavenBuildSupport.setShouldCollectProjects(false);
-				for (IProject project : projects) {
-					if (monitor.isCanceled()) {
-						return Status.CANCEL_STATUS;
+				digestStore.beginBatch();
+				try {
+					for (IProject project : projects) {
+						if (monitor.isCanceled()) {
+							return Status.CANCEL_STATUS;
+						}
+						mavenBuildSupport.update(project, false, monitor);
 					}
-					mavenBuildSupport.update(project, false, monitor);
+				} finally {
+					digestStore.endBatch();
 				}
 				return Status.OK_STATUS;
 			}
@@ -0,0 +1,434 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnnotationTypeMemberDeclaration;
+import org.eclipse.jdt.core.dom.ArrayType;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NameQualifiedType;
+import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.QualifiedType;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * The ranges of the types, fields and methods declared in the content provided
+ * for a class file, e.g. decompiled, so that they can be navigated to without
+ * parsing the content again.
+ *
+ * The ranges are computed by parsing the content once, without the method
+ * bodies, and can be stored as text alongside the content in the
+ * {@link ContentCache}, under a key derived from the content.
+ */
+@SuppressWarnings("restriction")
+public final class SymbolRanges {
+
+	private static final String KEY_PREFIX = "ranges|";
+	private static final char TYPE = 'T';
+	private static final char FIELD = 'F';
+	private static final char METHOD = 'M';
+
+	private static final class Declaration {
+		private final String name;
+		// the simple names of the erased parameter types of a method, null for a field
+		private final String[] parameterTypes;
+		private final Range nameRange;
+		private final Range fullRange;
+
+		Declaration(String name, String[] parameterTypes, Range nameRange, Range fullRange) {
+			this.name = name;
+			this.parameterTypes = parameterTypes;
+			this.nameRange = nameRange;
+			this.fullRange = fullRange;
+		}
+	}
+
+	private static final class TypeRanges {
+		private final Declaration declaration;
+		private final List<Declaration> members = new ArrayList<>();
+
+		TypeRanges(Declaration declaration) {
+			this.declaration = declaration;
+		}
+	}
+
+	// the types by their names qualified by their enclosing types, using '$'
+	private final Map<String, TypeRanges> types = new LinkedHashMap<>();
+
+	private SymbolRanges() {
+	}
+
+	/**
+	 * @return the key of the ranges of the content in the {@link ContentCache}
+	 */
+	public static String getKey(String content) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+			return KEY_PREFIX + ContentCache.toHex(messageDigest.digest(content.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Parses the content to compute the ranges of its declarations.
+	 */
+	public static SymbolRanges compute(String content) {
+		ASTParser parser = ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+		Map<String, String> options = JavaCore.getOptions();
+		JavaCore.setComplianceOptions(JavaCore.latestSupportedJavaVersion(), options);
+		parser.setCompilerOptions(options);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setIgnoreMethodBodies(true);
+		parser.setSource(content.toCharArray());
+		CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+		SymbolRanges ranges = new SymbolRanges();
+		unit.accept(ranges.new Collector(unit));
+		return ranges;
+	}
+
+	private final class Collector extends ASTVisitor {
+		private final CompilationUnit unit;
+		private final Deque<TypeRanges> enclosingTypes = new ArrayDeque<>();
+		private final Deque<String> enclosingNames = new ArrayDeque<>();
+
+		Collector(CompilationUnit unit) {
+			this.unit = unit;
+		}
+
+		private boolean visitType(AbstractTypeDeclaration node) {
+			String name = node.getName().getIdentifier();
+			String qualifiedName = enclosingNames.isEmpty() ? name : enclosingNames.peek() + "$" + name;
+			Declaration declaration = new Declaration(name, null, toRange(node.getName()), toRange(node));
+			TypeRanges typeRanges = new TypeRanges(declaration);
+			types.putIfAbsent(qualifiedName, typeRanges);
+			enclosingTypes.push(typeRanges);
+			enclosingNames.push(qualifiedName);
+			return true;
+		}
+
+		private void endVisitType() {
+			enclosingTypes.pop();
+			enclosingNames.pop();
+		}
+
+		private void addMember(String name, String[] parameterTypes, SimpleName nameNode, ASTNode node) {
+			if (!enclosingTypes.isEmpty()) {
+				enclosingTypes.peek().members.add(new Declaration(name, parameterTypes, toRange(nameNode), toRange(node)));
+			}
+		}
+
+		private Range toRange(ASTNode node) {
+			int start = node.getStartPosition();
+			int end = start + node.getLength();
+			return new Range(new Position(unit.getLineNumber(start) - 1, unit.getColumnNumber(start)), new Position(unit.getLineNumber(end) - 1, unit.getColumnNumber(end)));
+		}
+
+		@Override
+		public boolean visit(TypeDeclaration node) {
+			return visitType(node);
+		}
+
+		@Override
+		public void endVisit(TypeDeclaration node) {
+			endVisitType();
+		}
+
+		@Override
+		public boolean visit(EnumDeclaration node) {
+			return visitType(node);
+		}
+
+		@Override
+		public void endVisit(EnumDeclaration node) {
+			endVisitType();
+		}
+
+		@Override
+		public boolean visit(AnnotationTypeDeclaration node) {
+			return visitType(node);
+		}
+
+		@Override
+		public void endVisit(AnnotationTypeDeclaration node) {
+			endVisitType();
+		}
+
+		@Override
+		public boolean visit(FieldDeclaration node) {
+			for (Object fragment : node.fragments()) {
+				SimpleName name = ((VariableDeclarationFragment) fragment).getName();
+				addMember(name.getIdentifier(), null, name, node);
+			}
+			return false;
+		}
+
+		@Override
+		public boolean visit(EnumConstantDeclaration node) {
+			addMember(node.getName().getIdentifier(), null, node.getName(), node);
+			return false;
+		}
+
+		@Override
+		public boolean visit(MethodDeclaration node) {
+			List<?> parameters = node.parameters();
+			String[] parameterTypes = new String[parameters.size()];
+			for (int i = 0; i < parameterTypes.length; i++) {
+				SingleVariableDeclaration parameter = (SingleVariableDeclaration) parameters.get(i);
+				StringBuilder type = new StringBuilder(getSimpleName(parameter.getType()));
+				for (int dimension = parameter.getExtraDimensions() + (parameter.isVarargs() ? 1 : 0); dimension > 0; dimension--) {
+					type.append("[]");
+				}
+				parameterTypes[i] = type.toString();
+			}
+			addMember(node.getName().getIdentifier(), parameterTypes, node.getName(), node);
+			return false;
+		}
+
+		@Override
+		public boolean visit(AnnotationTypeMemberDeclaration node) {
+			addMember(node.getName().getIdentifier(), new String[0], node.getName(), node);
+			return false;
+		}
+
+		@Override
+		public boolean visit(Initializer node) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return the simple name of the erasure of the type, followed by its
+	 *         dimensions
+	 */
+	private static String getSimpleName(Type type) {
+		if (type instanceof ArrayType) {
+			ArrayType arrayType = (ArrayType) type;
+			StringBuilder name = new StringBuilder(getSimpleName(arrayType.getElementType()));
+			for (int i = 0; i < arrayType.getDimensions(); i++) {
+				name.append("[]");
+			}
+			return name.toString();
+		} else if (type instanceof ParameterizedType) {
+			return getSimpleName(((ParameterizedType) type).getType());
+		} else if (type instanceof SimpleType) {
+			return ((SimpleType) type).getName().getFullyQualifiedName().replaceFirst(".*\\.", "");
+		} else if (type instanceof QualifiedType) {
+			return ((QualifiedType) type).getName().getIdentifier();
+		} else if (type instanceof NameQualifiedType) {
+			return ((NameQualifiedType) type).getName().getIdentifier();
+		}
+		return type.toString();
+	}
+
+	/**
+	 * @return the simple name of the erasure of the type signature, followed by
+	 *         its dimensions
+	 */
+	private static String getSimpleName(String signature) {
+		String name = Signature.toString(Signature.getTypeErasure(signature));
+		return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+	}
+
+	/**
+	 * @param member
+	 *            a type, field or method of the class file whose content the
+	 *            ranges were computed from
+	 * @param nameRange
+	 *            whether to return the range of the name of the member, or its
+	 *            whole range
+	 * @return the range of the member, or <code>null</code> if it isn't found
+	 */
+	public Range getRange(IMember member, boolean nameRange) throws JavaModelException {
+		Declaration declaration = null;
+		if (member instanceof IType) {
+			TypeRanges type = findType((IType) member);
+			declaration = type == null ? null : type.declaration;
+		} else if (member instanceof IField || member instanceof IMethod) {
+			TypeRanges type = member.getDeclaringType() == null ? null : findType(member.getDeclaringType());
+			if (type != null) {
+				declaration = member instanceof IField ? findField(type, member.getElementName()) : findMethod(type, (IMethod) member);
+			}
+		}
+		if (declaration == null) {
+			return null;
+		}
+		return nameRange ? declaration.nameRange : declaration.fullRange;
+	}
+
+	private TypeRanges findType(IType type) {
+		if (type.getElementName().isEmpty()) {
+			// anonymous
+			return null;
+		}
+		TypeRanges found = types.get(type.getTypeQualifiedName('$'));
+		if (found == null) {
+			// the content may declare a member type as a top level type
+			for (TypeRanges candidate : types.values()) {
+				if (candidate.declaration.name.equals(type.getElementName())) {
+					if (found != null) {
+						return null;
+					}
+					found = candidate;
+				}
+			}
+		}
+		return found;
+	}
+
+	private static Declaration findField(TypeRanges type, String name) {
+		for (Declaration member : type.members) {
+			if (member.parameterTypes == null && member.name.equals(name)) {
+				return member;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Matches the method by its parameter types, then by its number of
+	 * parameters, then by its name, as long as the match is unique. Type
+	 * variables are erased in class files, not in their content.
+	 */
+	private static Declaration findMethod(TypeRanges type, IMethod method) {
+		String[] signatures = method.getParameterTypes();
+		String[] parameterTypes = new String[signatures.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			parameterTypes[i] = getSimpleName(signatures[i]);
+		}
+		List<Declaration> sameName = new ArrayList<>();
+		List<Declaration> sameArity = new ArrayList<>();
+		for (Declaration member : type.members) {
+			if (member.parameterTypes != null && member.name.equals(method.getElementName())) {
+				if (Arrays.equals(member.parameterTypes, parameterTypes)) {
+					return member;
+				}
+				sameName.add(member);
+				if (member.parameterTypes.length == parameterTypes.length) {
+					sameArity.add(member);
+				}
+			}
+		}
+		if (sameArity.size() == 1) {
+			return sameArity.get(0);
+		}
+		return sameName.size() == 1 ? sameName.get(0) : null;
+	}
+
+	/**
+	 * @return the ranges, stored as text, or <code>null</code> if the text
+	 *         isn't valid
+	 */
+	public static SymbolRanges parse(String stored) {
+		SymbolRanges ranges = new SymbolRanges();
+		TypeRanges type = null;
+		try {
+			for (String line : stored.split("\n")) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				String[] fields = line.split("\t", -1);
+				Range nameRange = parseRange(fields, fields.length - 8);
+				Range fullRange = parseRange(fields, fields.length - 4);
+				switch (fields[0].charAt(0)) {
+					case TYPE:
+						type = new TypeRanges(new Declaration(fields[2], null, nameRange, fullRange));
+						ranges.types.put(fields[1], type);
+						break;
+					case FIELD:
+						type.members.add(new Declaration(fields[1], null, nameRange, fullRange));
+						break;
+					case METHOD:
+						String[] parameterTypes = fields[2].isEmpty() ? new String[0] : fields[2].split(",");
+						type.members.add(new Declaration(fields[1], parameterTypes, nameRange, fullRange));
+						break;
+					default:
+						return null;
+				}
+			}
+		} catch (RuntimeException e) {
+			return null;
+		}
+		return ranges;
+	}
+
+	private static Range parseRange(String[] fields, int index) {
+		return new Range(new Position(Integer.parseInt(fields[index]), Integer.parseInt(fields[index + 1])), new Position(Integer.parseInt(fields[index + 2]), Integer.parseInt(fields[index + 3])));
+	}
+
+	/**
+	 * @return the ranges as text, one declaration per line, the members of a
+	 *         type following the type
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (Map.Entry<String, TypeRanges> entry : types.entrySet()) {
+			Declaration type = entry.getValue().declaration;
+			builder.append(TYPE).append('\t').append(entry.getKey()).append('\t').append(type.name);
+			appendRanges(builder, type);
+			for (Declaration member : entry.getValue().members) {
+				if (member.parameterTypes == null) {
+					builder.append(FIELD).append('\t').append(member.name);
+				} else {
+					builder.append(METHOD).append('\t').append(member.name).append('\t').append(String.join(",", member.parameterTypes));
+				}
+				appendRanges(builder, member);
+			}
+		}
+		return builder.toString();
+	}
+
+	private static void appendRanges(StringBuilder builder, Declaration declaration) {
+		for (Range range : new Range[] { declaration.nameRange, declaration.fullRange }) {
+			builder.append('\t').append(range.getStart().getLine()).append('\t').append(range.getStart().getCharacter());
+			builder.append('\t').append(range.getEnd().getLine()).append('\t').append(range.getEnd().getCharacter());
+		}
+		builder.append('\n');
+	}
+}
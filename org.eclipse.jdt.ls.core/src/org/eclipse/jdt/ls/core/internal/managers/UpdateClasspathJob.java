@@ -14,44 +14,86 @@ package org.eclipse.jdt.ls.core.internal.managers;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+import org.eclipse.jdt.ls.core.internal.StatusFactory;
 import org.eclipse.jdt.ls.core.internal.preferences.Preferences;
 import org.eclipse.jdt.ls.core.internal.preferences.Preferences.ReferencedLibraries;
 
 /**
  * Job updating project classpath to match content of library folders.
+ *
+ * When several projects are queued, their library folders are scanned and
+ * their classpaths updated concurrently, each under the scheduling rule of its
+ * project, by at most <code>java.updateClasspath.threads</code> threads (the
+ * number of processors by default, 1 updating the projects one after the
+ * other). The classpath of a project whose libraries haven't changed since it
+ * was last updated is left as it is, until the project is closed or deleted.
  */
 public class UpdateClasspathJob extends WorkspaceJob {
 
 	private static final long SCHEDULE_DELAY = 1000L;
 
+	private static final int THREADS = Integer.getInteger("java.updateClasspath.threads", Runtime.getRuntime().availableProcessors());
+
 	private final Set<UpdateClasspathRequest> queue = new LinkedHashSet<>();
 
+	// the libraries last put on the classpath of each project
+	private final Map<IJavaProject, AppliedLibraries> appliedLibraries = new ConcurrentHashMap<>();
+
+	// forgets the libraries of the closed and deleted projects
+	private final IResourceChangeListener projectListener = event -> {
+		if (event.getResource() instanceof IProject) {
+			appliedLibraries.remove(JavaCore.create((IProject) event.getResource()));
+		}
+	};
+
+	private final AtomicBoolean listening = new AtomicBoolean();
+
+	private final int threads;
+
 	private static final UpdateClasspathJob instance = new UpdateClasspathJob();
 
 	UpdateClasspathJob() {
+		this(THREADS);
+	}
+
+	UpdateClasspathJob(int threads) {
 		super("Update classpath Job");
+		this.threads = threads;
 	}
 
 	@Override
@@ -61,27 +103,33 @@ public class UpdateClasspathJob extends WorkspaceJob {
 			requests = new ArrayList<>(this.queue);
 			this.queue.clear();
 		}
-		Map<IJavaProject, UpdateClasspathRequest> mergedRequestPerProject = requests.stream().collect(
-			Collectors.groupingBy(UpdateClasspathRequest::getProject,
-				Collectors.reducing(new UpdateClasspathRequest(), (mergedRequest, request) -> {
-					mergedRequest.setProject(request.getProject());
-					mergedRequest.getInclude().addAll(request.getInclude());
-					mergedRequest.getExclude().addAll(request.getExclude());
-					mergedRequest.getSources().putAll(request.getSources());
-					return mergedRequest;
-				})
-			)
-		);
-		for (Map.Entry<IJavaProject, UpdateClasspathRequest> entry : mergedRequestPerProject.entrySet()) {
-			if (monitor.isCanceled()) {
-				return Status.CANCEL_STATUS;
-			}
-			if (entry.getValue() != null) {
-				final IJavaProject project = entry.getKey();
-				final UpdateClasspathRequest request = entry.getValue();
-				doUpdateClasspath(project, request.include, request.exclude, request.sources, monitor);
+		Map<IJavaProject, UpdateClasspathRequest> mergedRequestPerProject = new LinkedHashMap<>();
+		for (UpdateClasspathRequest request : requests) {
+			UpdateClasspathRequest mergedRequest = mergedRequestPerProject.computeIfAbsent(request.getProject(), project -> {
+				UpdateClasspathRequest projectRequest = new UpdateClasspathRequest();
+				projectRequest.setProject(project);
+				return projectRequest;
+			});
+			mergedRequest.getInclude().addAll(request.getInclude());
+			mergedRequest.getExclude().addAll(request.getExclude());
+			mergedRequest.getSources().putAll(request.getSources());
+		}
+		// the library folders referenced by several projects are only scanned once
+		Map<String, List<Path>> scans = new ConcurrentHashMap<>();
+		int poolSize = Math.min(threads, mergedRequestPerProject.size());
+		if (poolSize > 1) {
+			updateConcurrently(mergedRequestPerProject.values(), poolSize, scans, monitor);
+		} else {
+			for (UpdateClasspathRequest request : mergedRequestPerProject.values()) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				doUpdateClasspath(request.getProject(), request.include, request.exclude, request.sources, scans, monitor);
 			}
 		}
+		if (monitor.isCanceled()) {
+			return Status.CANCEL_STATUS;
+		}
 		synchronized (queue) {
 			if (!queue.isEmpty()) {
 				schedule(SCHEDULE_DELAY);
@@ -90,10 +138,60 @@ public class UpdateClasspathJob extends WorkspaceJob {
 		return Status.OK_STATUS;
 	}
 
-	private void doUpdateClasspath(IJavaProject javaProject, Set<String> include, Set<String> exclude, Map<String, String> sources, IProgressMonitor monitor) throws CoreException {
+	/**
+	 * Updates the classpath of the projects from a thread pool, and waits
+	 * until they are all updated.
+	 *
+	 * @throws CoreException
+	 *             the first failure of a project update, once all the projects
+	 *             are updated
+	 */
+	private void updateConcurrently(Collection<UpdateClasspathRequest> requests, int poolSize, Map<String, List<Path>> scans, IProgressMonitor monitor) throws CoreException {
+		IProgressMonitor workerMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled() || monitor.isCanceled();
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(poolSize, r -> {
+			Thread thread = new Thread(r, "Update classpath");
+			thread.setDaemon(true);
+			return thread;
+		});
+		CoreException failure = null;
+		try {
+			List<Future<Void>> updates = new ArrayList<>(requests.size());
+			for (UpdateClasspathRequest request : requests) {
+				updates.add(executor.submit(() -> {
+					doUpdateClasspath(request.getProject(), request.include, request.exclude, request.sources, scans, workerMonitor);
+					return null;
+				}));
+			}
+			for (Future<Void> update : updates) {
+				try {
+					update.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (failure == null && !(cause instanceof OperationCanceledException)) {
+						failure = cause instanceof CoreException ? (CoreException) cause : new CoreException(StatusFactory.newErrorStatus("Failed to update classpath", cause));
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} finally {
+			executor.shutdownNow();
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private void doUpdateClasspath(IJavaProject javaProject, Set<String> include, Set<String> exclude, Map<String, String> sources, Map<String, List<Path>> scans, IProgressMonitor monitor) throws CoreException {
 		JavaLanguageServerPlugin.logInfo(">> Updating classpath for project " + javaProject.getElementName());
 		final IPath realFolder = ProjectUtils.getProjectRealFolder(javaProject.getProject());
-		final Set<Path> binaries = ProjectUtils.collectBinaries(realFolder, include, exclude, monitor);
+		final Set<Path> binaries = ProjectUtils.collectBinaries(realFolder, include, exclude, scans, monitor);
 		final Map<Path, IPath> expandedSources = new HashMap<>();
 		for (final Map.Entry<String, String> entry: sources.entrySet()) { // Expand sources to absolute path
 			final Path realFolderPath = realFolder.toFile().toPath();
@@ -101,7 +199,7 @@ public class UpdateClasspathJob extends WorkspaceJob {
 			final Path source = realFolderPath.resolve(entry.getValue());
 			expandedSources.put(binary, new org.eclipse.core.runtime.Path(source.toString()));
 		}
-		final Map<Path, IPath> libraries = new HashMap<>();
+		final Map<Path, IPath> libraries = new LinkedHashMap<>();
 		for (final Path binary: binaries) {
 			if (expandedSources.containsKey(binary)) {
 				libraries.put(binary, expandedSources.get(binary));
@@ -109,7 +207,23 @@ public class UpdateClasspathJob extends WorkspaceJob {
 				libraries.put(binary, ProjectUtils.detectSources(binary));
 			}
 		}
-		ProjectUtils.updateBinaries(javaProject, libraries, monitor);
+		if (monitor.isCanceled()) {
+			return;
+		}
+		AppliedLibraries applied = appliedLibraries.get(javaProject);
+		if (applied != null && applied.libraries.equals(libraries) && Arrays.equals(applied.classpath, javaProject.getRawClasspath())) {
+			JavaLanguageServerPlugin.logInfo(">> Libraries of project " + javaProject.getElementName() + " are unchanged");
+			return;
+		}
+		if (listening.compareAndSet(false, true)) {
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(projectListener, IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+		}
+		ResourcesPlugin.getWorkspace().run(m -> {
+			ProjectUtils.updateBinaries(javaProject, libraries, m);
+			if (!m.isCanceled()) {
+				appliedLibraries.put(javaProject, new AppliedLibraries(libraries, javaProject.getRawClasspath()));
+			}
+		}, javaProject.getProject(), IWorkspace.AVOID_UPDATE, monitor);
 	}
 
 	public void updateClasspath(IJavaProject project, Set<String> include, Set<String> exclude, Map<String, String> sources) {
@@ -160,6 +274,21 @@ public class UpdateClasspathJob extends WorkspaceJob {
 		}
 	}
 
+	// for testing
+	boolean isApplied(IJavaProject project) {
+		return appliedLibraries.containsKey(project);
+	}
+
+	private static final class AppliedLibraries {
+		private final Map<Path, IPath> libraries;
+		private final IClasspathEntry[] classpath;
+
+		AppliedLibraries(Map<Path, IPath> libraries, IClasspathEntry[] classpath) {
+			this.libraries = libraries;
+			this.classpath = classpath;
+		}
+	}
+
 	static class UpdateClasspathRequest {
 		private IJavaProject project;
 		private Set<String> include;
@@ -233,6 +233,24 @@ public class ClientPreferences {
 		return Boolean.parseBoolean(extendedClientCapabilities.getOrDefault("resolveAdditionalTextEditsSupport", "false").toString());
 	}
 
+	/**
+	 * Returns <code>true</code> if the client accepts completion items without
+	 * text edits, constant values and annotation default values, and gets them
+	 * through <code>completionItem/resolve</code>.
+	 */
+	public boolean isCompletionLazyResolveSupport() {
+		return Boolean.parseBoolean(extendedClientCapabilities.getOrDefault("completionLazyResolveSupport", "false").toString());
+	}
+
+	/**
+	 * Returns <code>true</code> if the client accepts code actions without
+	 * workspace edits, and gets them through <code>java/resolveCodeAction</code>
+	 * or the <code>java.edit.applyCodeAction</code> command.
+	 */
+	public boolean isCodeActionLazyResolveSupport() {
+		return Boolean.parseBoolean(extendedClientCapabilities.getOrDefault("codeActionLazyResolveSupport", "false").toString());
+	}
+
 	public boolean isSupportsCompletionDocumentationMarkdown() {
 		//@formatter:off
 		return v3supported && capabilities.getTextDocument().getCompletion() != null
@@ -109,6 +109,11 @@ public class Preferences {
 	 * Preference key to enable/disable maven importer.
 	 */
 	public static final String IMPORT_MAVEN_ENABLED = "java.import.maven.enabled";
+	/**
+	 * Preference key to enable/disable resolving the dependencies of Maven
+	 * modules in parallel before importing them.
+	 */
+	public static final String IMPORT_PARALLEL_ENABLED = "java.import.parallel.enabled";
 	/**
 	 * Preference key to enable/disable downloading Maven source artifacts.
 	 */
@@ -391,6 +396,7 @@ public class Preferences {
 	private String gradleHome;
 	private String gradleUserHome;
 	private boolean importMavenEnabled;
+	private boolean importParallelEnabled;
 	private boolean mavenDownloadSources;
 	private boolean mavenUpdateSnapshots;
 	private boolean implementationsCodeLensEnabled;
@@ -569,6 +575,7 @@ public class Preferences {
 		gradleHome = null;
 		gradleUserHome = null;
 		importMavenEnabled = true;
+		importParallelEnabled = false;
 		mavenDownloadSources = false;
 		mavenUpdateSnapshots = false;
 		referencesCodeLensEnabled = true;
@@ -644,6 +651,8 @@ public class Preferences {
 		prefs.setGradleUserHome(gradleUserHome);
 		boolean importMavenEnabled = getBoolean(configuration, IMPORT_MAVEN_ENABLED, true);
 		prefs.setImportMavenEnabled(importMavenEnabled);
+		boolean importParallelEnabled = getBoolean(configuration, IMPORT_PARALLEL_ENABLED, false);
+		prefs.setImportParallelEnabled(importParallelEnabled);
 		boolean downloadSources = getBoolean(configuration, MAVEN_DOWNLOAD_SOURCES, false);
 		prefs.setMavenDownloadSources(downloadSources);
 		boolean updateSnapshots = getBoolean(configuration, MAVEN_UPDATE_SNAPSHOTS, false);
@@ -945,6 +954,11 @@ public class Preferences {
 		return this;
 	}
 
+	public Preferences setImportParallelEnabled(boolean enabled) {
+		this.importParallelEnabled = enabled;
+		return this;
+	}
+
 	public Preferences setMavenDownloadSources(boolean enabled) {
 		this.mavenDownloadSources = enabled;
 		return this;
@@ -1162,6 +1176,10 @@ public class Preferences {
 		return importMavenEnabled;
 	}
 
+	public boolean isImportParallelEnabled() {
+		return importParallelEnabled;
+	}
+
 	public boolean isMavenDownloadSources() {
 		return mavenDownloadSources;
 	}
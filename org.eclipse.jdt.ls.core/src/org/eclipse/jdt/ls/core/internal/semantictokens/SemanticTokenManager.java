@@ -17,10 +17,15 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.eclipse.jdt.core.dom.IBinding;
+
 public class SemanticTokenManager {
     private TokenModifiers tokenModifiers;
     private List<TokenType> tokenTypes;
     private SemanticTokensLegend legend;
+    // legend index of each token type, by ordinal
+    private int[] tokenTypeIndices;
+    private ITokenModifier[] modifierOrder;
 
     private SemanticTokenManager() {
         this.tokenModifiers = new TokenModifiers();
@@ -28,6 +33,11 @@ public class SemanticTokenManager {
         List<String> modifiers = tokenModifiers.list().stream().map(mod -> mod.toString()).collect(Collectors.toList());
         List<String> types = tokenTypes.stream().map(TokenType::toString).collect(Collectors.toList());
         this.legend = new SemanticTokensLegend(types, modifiers);
+        this.tokenTypeIndices = new int[TokenType.values().length];
+        for (TokenType tokenType : TokenType.values()) {
+            tokenTypeIndices[tokenType.ordinal()] = tokenTypes.indexOf(tokenType);
+        }
+        this.modifierOrder = tokenModifiers.list().toArray(new ITokenModifier[0]);
     }
 
     private static class SingletonHelper{
@@ -50,4 +60,25 @@ public class SemanticTokenManager {
         return tokenTypes;
     }
 
+    /**
+     * @return the index of the token type in the legend
+     */
+    public int getTokenTypeIndex(TokenType tokenType) {
+        return tokenTypeIndices[tokenType.ordinal()];
+    }
+
+    /**
+     * @return the modifiers applying to the binding, as bits set at their
+     *         index in the legend
+     */
+    public int getEncodedModifiers(IBinding binding) {
+        int encodedModifiers = 0;
+        for (int i = 0; i < modifierOrder.length; i++) {
+            if (modifierOrder[i].applies(binding)) {
+                encodedModifiers |= 1 << i;
+            }
+        }
+        return encodedModifiers;
+    }
+
 }
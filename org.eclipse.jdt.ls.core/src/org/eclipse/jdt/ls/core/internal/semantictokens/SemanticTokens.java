@@ -17,6 +17,8 @@ import java.util.List;
 
 import org.eclipse.lsp4j.util.Preconditions;
 
+import com.google.common.primitives.Ints;
+
 public class SemanticTokens {
 
     /**
@@ -74,7 +76,7 @@ public class SemanticTokens {
      *    [  2,5,3,0,3,  0,5,4,1,0,  3,2,7,2,0 ]
      * ```
      */
-    private final List<Integer> data;
+    private final int[] data;
 
     /**
      * The result id of the tokens (optional).
@@ -88,7 +90,15 @@ public class SemanticTokens {
     }
 
     public SemanticTokens(List<Integer> data, String resultId) {
-        this.data = Preconditions.<List<Integer>>checkNotNull(data, "data");
+        this(Ints.toArray(Preconditions.<List<Integer>>checkNotNull(data, "data")), resultId);
+    }
+
+    public SemanticTokens(int[] data) {
+        this(data, null);
+    }
+
+    public SemanticTokens(int[] data, String resultId) {
+        this.data = Preconditions.<int[]>checkNotNull(data, "data");
         this.resultId = resultId;
     }
 
@@ -97,6 +107,13 @@ public class SemanticTokens {
     }
 
     public List<Integer> getData() {
+        return Ints.asList(data);
+    }
+
+    /**
+     * @return the encoded tokens, not to be modified
+     */
+    public int[] getEncodedData() {
         return data;
     }
 }
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.ls.core.internal.semantictokens;
+
+import org.eclipse.lsp4j.util.Preconditions;
+
+public class SemanticTokensEdit {
+
+    /**
+     * The start offset of the edit in the previous token array.
+     */
+    private final int start;
+
+    /**
+     * The count of elements to remove.
+     */
+    private final int deleteCount;
+
+    /**
+     * The elements to insert.
+     */
+    private final int[] data;
+
+    public SemanticTokensEdit(int start, int deleteCount, int[] data) {
+        this.start = start;
+        this.deleteCount = deleteCount;
+        this.data = Preconditions.<int[]>checkNotNull(data, "data");
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getDeleteCount() {
+        return deleteCount;
+    }
+
+    public int[] getData() {
+        return data;
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.ls.core.internal.semantictokens;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.lsp4j.util.Preconditions;
+
+public class SemanticTokensEdits {
+
+    /**
+     * The result id of the new tokens, to be passed when requesting the next
+     * edits.
+     */
+    private final String resultId;
+
+    /**
+     * The edits to apply to the previous token array, ordered by start offset.
+     */
+    private final List<SemanticTokensEdit> edits;
+
+    public SemanticTokensEdits(List<SemanticTokensEdit> edits, String resultId) {
+        this.edits = Preconditions.<List<SemanticTokensEdit>>checkNotNull(edits, "edits");
+        this.resultId = resultId;
+    }
+
+    public String getResultId() {
+        return resultId;
+    }
+
+    public List<SemanticTokensEdit> getEdits() {
+        return edits;
+    }
+
+    /**
+     * Computes the edits turning the previous token array into the current
+     * one, as a single edit replacing what differs between their common
+     * prefix and suffix.
+     */
+    public static List<SemanticTokensEdit> computeEdits(int[] previous, int[] current) {
+        int max = Math.min(previous.length, current.length);
+        int prefix = 0;
+        while (prefix < max && previous[prefix] == current[prefix]) {
+            prefix++;
+        }
+        if (prefix == previous.length && prefix == current.length) {
+            return Collections.emptyList();
+        }
+        int suffix = 0;
+        while (suffix < max - prefix && previous[previous.length - 1 - suffix] == current[current.length - 1 - suffix]) {
+            suffix++;
+        }
+        int[] data = Arrays.copyOfRange(current, prefix, current.length - suffix);
+        return Collections.singletonList(new SemanticTokensEdit(prefix, previous.length - prefix - suffix, data));
+    }
+}
@@ -13,8 +13,7 @@
 
 package org.eclipse.jdt.ls.core.internal.semantictokens;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
@@ -26,65 +25,60 @@ import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.jdt.core.dom.QualifiedName;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SimpleType;
-import org.eclipse.jdt.ls.core.internal.handlers.JsonRpcHelpers;
 import org.eclipse.jface.text.IDocument;
 
 public class SemanticTokensVisitor extends ASTVisitor {
     private IDocument document;
     private SemanticTokenManager manager;
-    private List<SemanticToken> tokens;
+    // offset, length, token type index and encoded modifiers of each token
+    private int[] tokens;
+    private int tokenCount;
+
+    private static final int TOKEN_SIZE = 4;
+    private static final int INITIAL_CAPACITY = 256;
 
     public final static ITokenModifier[] NO_MODIFIERS = {};
 
     public SemanticTokensVisitor(IDocument document, SemanticTokenManager manager) {
         this.manager = manager;
         this.document = document;
-        this.tokens = new ArrayList<>();
-    }
-
-    private class SemanticToken {
-        private final TokenType tokenType;
-        private final ITokenModifier[] tokenModifiers;
-        private final int offset;
-        private final int length;
-
-        public SemanticToken(int offset, int length, TokenType tokenType, ITokenModifier[] tokenModifiers) {
-            this.offset = offset;
-            this.length = length;
-            this.tokenType = tokenType;
-            this.tokenModifiers = tokenModifiers;
-        }
-
-        public TokenType getTokenType() {
-            return tokenType;
-        }
-
-        public ITokenModifier[] getTokenModifiers() {
-            return tokenModifiers;
-        }
-
-        public int getOffset() {
-            return offset;
-        }
-
-        public int getLength() {
-            return length;
-        }
+        this.tokens = new int[INITIAL_CAPACITY * TOKEN_SIZE];
     }
 
     public SemanticTokens getSemanticTokens() {
-        List<Integer> data = encoded();
-        return new SemanticTokens(data);
+        return new SemanticTokens(encoded());
     }
 
-    private List<Integer> encoded() {
-        List<Integer> data = new ArrayList<>();
+    /**
+     * Encodes the tokens relative to each other, walking the document text
+     * once since the tokens are collected in source order.
+     */
+    private int[] encoded() {
+        String text = document.get();
+        int[] data = new int[tokenCount * 5];
+        int size = 0;
         int currentLine = 0;
         int currentColumn = 0;
-        for (SemanticToken token : this.tokens) {
-            int[] lineAndColumn = JsonRpcHelpers.toLine(this.document, token.getOffset());
-            int line = lineAndColumn[0];
-            int column = lineAndColumn[1];
+        // line and line start of the position reached in the text
+        int line = 0;
+        int lineOffset = 0;
+        int position = 0;
+        for (int i = 0; i < tokenCount * TOKEN_SIZE; i += TOKEN_SIZE) {
+            int offset = tokens[i];
+            if (offset < position) {
+                // out of order token, start over
+                line = 0;
+                lineOffset = 0;
+                position = 0;
+            }
+            for (; position < offset && position < text.length(); position++) {
+                char c = text.charAt(position);
+                if (c == '\n' || (c == '\r' && (position + 1 >= text.length() || text.charAt(position + 1) != '\n'))) {
+                    line++;
+                    lineOffset = position + 1;
+                }
+            }
+            int column = offset - lineOffset;
             int deltaLine = line - currentLine;
             if (deltaLine != 0) {
                 currentLine = line;
@@ -94,41 +88,37 @@ public class SemanticTokensVisitor extends ASTVisitor {
             currentColumn = column;
             // Disallow duplicate/conflict token (if exists)
             if (deltaLine != 0 || deltaColumn != 0) {
-                int tokenTypeIndex = manager.getTokenTypes().indexOf(token.getTokenType());
-                ITokenModifier[] modifiers = token.getTokenModifiers();
-                int encodedModifiers = 0;
-                for (ITokenModifier modifier : modifiers) {
-                    int bit = manager.getTokenModifiers().indexOf(modifier);
-                    if (bit >= 0) {
-                        encodedModifiers = encodedModifiers | (0b00000001 << bit);
-                    }
-                }
-                data.add(deltaLine);
-                data.add(deltaColumn);
-                data.add(token.getLength());
-                data.add(tokenTypeIndex);
-                data.add(encodedModifiers);
+                data[size++] = deltaLine;
+                data[size++] = deltaColumn;
+                data[size++] = tokens[i + 1];
+                data[size++] = tokens[i + 2];
+                data[size++] = tokens[i + 3];
             }
         }
-        return data;
+        return size == data.length ? data : Arrays.copyOf(data, size);
     }
 
     private void addToken(ASTNode node, TokenType tokenType) {
-        addToken(node, tokenType, NO_MODIFIERS);
+        addToken(node, tokenType, 0);
     }
 
-    private void addToken(ASTNode node, TokenType tokenType, ITokenModifier[] modifiers) {
-        int offset = node.getStartPosition();
-        int length = node.getLength();
-        SemanticToken token = new SemanticToken(offset, length, tokenType, modifiers);
-        tokens.add(token);
+    private void addToken(ASTNode node, TokenType tokenType, int encodedModifiers) {
+        if ((tokenCount + 1) * TOKEN_SIZE > tokens.length) {
+            tokens = Arrays.copyOf(tokens, tokens.length * 2);
+        }
+        int i = tokenCount * TOKEN_SIZE;
+        tokens[i] = node.getStartPosition();
+        tokens[i + 1] = node.getLength();
+        tokens[i + 2] = manager.getTokenTypeIndex(tokenType);
+        tokens[i + 3] = encodedModifiers;
+        tokenCount++;
     }
 
     @Override
     public boolean visit(QualifiedName node) {
         IBinding binding = node.resolveBinding();
         if (binding != null && binding.getKind() == IBinding.PACKAGE) {
-            addToken(node, TokenType.NAMESPACE, NO_MODIFIERS);
+            addToken(node, TokenType.NAMESPACE);
             return false;
         }
         return super.visit(node);
@@ -182,13 +172,12 @@ public class SemanticTokensVisitor extends ASTVisitor {
             case VARIABLE:
             case PROPERTY:
             case MEMBER: {
-                ITokenModifier[] modifiers = getModifiers(binding);
-                addToken(node, tokenType, modifiers);
+                addToken(node, tokenType, manager.getEncodedModifiers(binding));
                 break;
             }
             case TYPE:
             case NAMESPACE:
-                addToken(node, tokenType, NO_MODIFIERS);
+                addToken(node, tokenType);
                 break;
             default:
                 break;
@@ -202,17 +191,11 @@ public class SemanticTokensVisitor extends ASTVisitor {
         return super.visit(node);
     }
 
-    private ITokenModifier[] getModifiers(IBinding binding) {
-        return manager.getTokenModifiers().values().stream()
-                      .filter(tm -> tm.applies(binding))
-                      .toArray(size -> new ITokenModifier[size]);
-    }
-
     @Override
     public boolean visit(SimpleType node) {
         ASTNode parent = node.getParent();
         if (parent instanceof ClassInstanceCreation) { // For ClassInstanceCreation "new E()", "E" should be highlighted as 'function' instead of 'type'
-            addToken(node, TokenType.FUNCTION, NO_MODIFIERS);
+            addToken(node, TokenType.FUNCTION);
             return false;
         }
         return super.visit(node);
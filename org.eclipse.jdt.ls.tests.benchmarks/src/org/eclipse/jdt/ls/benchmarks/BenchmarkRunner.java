@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks inside the test runtime, so that they have a workspace
+ * and the language server bundles, and writes their results as JSON for trend
+ * tracking.
+ *
+ * The benchmarks aren't forked, since a forked JVM wouldn't be an OSGi
+ * runtime. They are selected and configured with the following system
+ * properties:
+ * <ul>
+ * <li><code>jdt.ls.benchmarks.include</code>: regular expression matching the
+ * benchmarks to run, all of them by default</li>
+ * <li><code>jdt.ls.benchmarks.size</code>: comma separated numbers of classes
+ * of the generated workspaces</li>
+ * <li><code>jdt.ls.benchmarks.warmupIterations</code> and
+ * <code>jdt.ls.benchmarks.iterations</code>: numbers of iterations of one
+ * second</li>
+ * <li><code>jdt.ls.benchmarks.result</code>: path of the JSON results</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+	@Test
+	public void runBenchmarks() throws Exception {
+		String result = System.getProperty("jdt.ls.benchmarks.result", "target/jmh-result.json");
+		new File(result).getAbsoluteFile().getParentFile().mkdirs();
+		//@formatter:off
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(System.getProperty("jdt.ls.benchmarks.include", ".*"))
+				.forks(0)
+				.threads(1)
+				.warmupIterations(Integer.getInteger("jdt.ls.benchmarks.warmupIterations", 5))
+				.measurementIterations(Integer.getInteger("jdt.ls.benchmarks.iterations", 10))
+				.shouldFailOnError(true)
+				.resultFormat(ResultFormatType.JSON)
+				.result(result);
+		//@formatter:on
+		String size = System.getProperty("jdt.ls.benchmarks.size");
+		if (size != null && !size.trim().isEmpty()) {
+			options.param("size", size.trim().split("\\s*,\\s*"));
+		}
+		Collection<RunResult> results = new Runner(options.build()).run();
+		assertFalse("No benchmark was run", results.isEmpty());
+	}
+
+	@AfterClass
+	public static void cleanUp() throws Exception {
+		BenchmarkWorkspace.disposeCurrent();
+	}
+}
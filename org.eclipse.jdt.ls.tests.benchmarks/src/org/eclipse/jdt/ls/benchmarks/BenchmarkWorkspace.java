@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.JobHelpers;
+import org.eclipse.jdt.ls.core.internal.handlers.DocumentLifeCycleHandler;
+import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
+import org.eclipse.jdt.ls.core.internal.managers.StandardProjectsManager;
+import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
+import org.eclipse.jdt.ls.core.internal.preferences.Preferences;
+import org.eclipse.jdt.ls.core.internal.preferences.StandardPreferenceManager;
+import org.eclipse.lsp4j.ClientCapabilities;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.DocumentSymbolCapabilities;
+import org.eclipse.lsp4j.TextDocumentClientCapabilities;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+
+/**
+ * The workspace the benchmarks run against: the <code>eclipse/hello</code>
+ * fixture project of the tests, with a package of generated classes whose
+ * number is the size of the workspace.
+ *
+ * The <code>generated.Target</code> unit references every generated class,
+ * so it grows with the workspace too. It is opened like a client would, and
+ * is the document most benchmarks send their requests for.
+ *
+ * The workspace is shared by the benchmarks of a run, and only generated
+ * again when a benchmark asks for another size.
+ */
+public final class BenchmarkWorkspace {
+
+	public static final String PROJECT_NAME = "hello";
+	public static final String TARGET = "Target";
+
+	private static BenchmarkWorkspace current;
+
+	private final int size;
+	private final File directory;
+	private final PreferenceManager preferenceManager;
+	private final ProjectsManager projectsManager;
+	private final JavaClientConnection connection;
+	private final DocumentLifeCycleHandler lifeCycleHandler;
+	private final Map<String, Object> extendedClientCapabilities = new HashMap<>();
+	private ICompilationUnit target;
+	private String targetContent;
+
+	/**
+	 * @return the workspace of the given size, generating it if needed
+	 */
+	public static synchronized BenchmarkWorkspace get(int size) throws Exception {
+		if (current != null && current.size != size) {
+			current.dispose();
+			current = null;
+		}
+		if (current == null) {
+			BenchmarkWorkspace workspace = new BenchmarkWorkspace(size);
+			workspace.initialize();
+			current = workspace;
+		}
+		return current;
+	}
+
+	public static synchronized void disposeCurrent() throws Exception {
+		if (current != null) {
+			current.dispose();
+			current = null;
+		}
+	}
+
+	private BenchmarkWorkspace(int size) throws IOException {
+		this.size = size;
+		this.directory = new File(new File("target", "workingProjects"), "size-" + size);
+		this.preferenceManager = new StandardPreferenceManager();
+		this.projectsManager = new StandardProjectsManager(preferenceManager);
+		this.connection = new JavaClientConnection(newClient());
+		this.lifeCycleHandler = new DocumentLifeCycleHandler(connection, preferenceManager, projectsManager, false);
+	}
+
+	private void initialize() throws Exception {
+		IWorkspaceDescription description = ResourcesPlugin.getWorkspace().getDescription();
+		description.setAutoBuilding(true);
+		ResourcesPlugin.getWorkspace().setDescription(description);
+		JavaCore.initializeAfterLoad(new NullProgressMonitor());
+
+		Preferences preferences = new Preferences();
+		preferences.setRootPaths(Collections.singleton(new Path(directory.getAbsolutePath())));
+		StandardPreferenceManager.initialize();
+		preferenceManager.update(preferences);
+		extendedClientCapabilities.put("classFileContentsSupport", Boolean.TRUE);
+		preferenceManager.updateClientPrefences(newClientCapabilities(), new HashMap<>(extendedClientCapabilities));
+		JavaLanguageServerPlugin.setPreferencesManager(preferenceManager);
+
+		File project = new File(directory, PROJECT_NAME);
+		if (project.exists()) {
+			FileUtils.forceDelete(project);
+		}
+		FileUtils.copyDirectory(new File(getFixtures(), "eclipse/" + PROJECT_NAME), project);
+		generate(new File(project, "src/generated"));
+
+		IPath root = Path.fromOSString(project.getAbsolutePath());
+		JavaCore.run(monitor -> projectsManager.initializeProjects(Collections.singleton(root), monitor), null, new NullProgressMonitor());
+		JobHelpers.waitForJobsToComplete();
+
+		target = JDTUtils.resolveCompilationUnit(getUri(TARGET));
+		targetContent = target.getSource();
+		open(target, targetContent);
+	}
+
+	private static File getFixtures() {
+		return new File(System.getProperty("jdt.ls.benchmarks.projects", "../org.eclipse.jdt.ls.tests/projects"));
+	}
+
+	private static JavaLanguageClient newClient() {
+		// the notifications and requests sent to the client are dropped
+		return (JavaLanguageClient) Proxy.newProxyInstance(BenchmarkWorkspace.class.getClassLoader(), new Class[] { JavaLanguageClient.class }, (proxy, method, args) -> null);
+	}
+
+	private static ClientCapabilities newClientCapabilities() {
+		TextDocumentClientCapabilities textDocument = new TextDocumentClientCapabilities();
+		DocumentSymbolCapabilities documentSymbol = new DocumentSymbolCapabilities();
+		documentSymbol.setHierarchicalDocumentSymbolSupport(Boolean.TRUE);
+		textDocument.setDocumentSymbol(documentSymbol);
+		return new ClientCapabilities(null, textDocument, null);
+	}
+
+	/**
+	 * Changes an extended capability of the client, e.g.
+	 * <code>completionLazyResolveSupport</code>.
+	 */
+	public void setExtendedClientCapability(String name, Object value) {
+		extendedClientCapabilities.put(name, value);
+		preferenceManager.updateClientPrefences(newClientCapabilities(), new HashMap<>(extendedClientCapabilities));
+	}
+
+	/**
+	 * Generates the classes, each referencing the previous one, and the
+	 * target unit referencing all of them.
+	 */
+	private void generate(File folder) throws IOException {
+		for (int i = 0; i < size; i++) {
+			StringBuilder buf = new StringBuilder();
+			buf.append("package generated;\n\n");
+			buf.append("import java.util.ArrayList;\n");
+			buf.append("import java.util.List;\n\n");
+			buf.append("/**\n * Generated class ").append(i).append(".\n */\n");
+			buf.append("public class Generated").append(i).append(" {\n\n");
+			buf.append("\tprivate final List<String> names = new ArrayList<>();\n");
+			buf.append("\tprivate int count;\n\n");
+			buf.append("\t/**\n\t * Adds a name.\n\t *\n\t * @param name\n\t *            the name to add\n\t * @return the number of names\n\t */\n");
+			buf.append("\tpublic int add(String name) {\n\t\tnames.add(name);\n\t\treturn ++count;\n\t}\n\n");
+			buf.append("\tpublic List<String> getNames() {\n\t\treturn names;\n\t}\n\n");
+			buf.append("\tpublic Generated").append(i == 0 ? 0 : i - 1).append(" previous() {\n");
+			buf.append("\t\treturn new Generated").append(i == 0 ? 0 : i - 1).append("();\n\t}\n");
+			buf.append("}\n");
+			FileUtils.writeStringToFile(new File(folder, "Generated" + i + ".java"), buf.toString(), StandardCharsets.UTF_8);
+		}
+		StringBuilder buf = new StringBuilder();
+		buf.append("package generated;\n\n");
+		buf.append("/**\n * References the generated classes.\n */\n");
+		buf.append("public class ").append(TARGET).append(" {\n");
+		for (int i = 0; i < size; i++) {
+			buf.append("\n\t// region method").append(i).append("\n");
+			buf.append("\t/**\n\t * @param value\n\t *            a generated value\n\t */\n");
+			buf.append("\tpublic int method").append(i).append("(Generated").append(i).append(" value) {\n");
+			// left unformatted, so that formatting has edits to compute
+			buf.append("\t\tif(value.add(\"").append(i).append("\")>1){\n");
+			buf.append("\t\t\treturn value.getNames().size();\n");
+			buf.append("\t\t}\n");
+			buf.append("\t\treturn value.previous().add(\"previous\");\n");
+			buf.append("\t}\n");
+			buf.append("\t// endregion\n");
+		}
+		buf.append("}\n");
+		FileUtils.writeStringToFile(new File(folder, TARGET + ".java"), buf.toString(), StandardCharsets.UTF_8);
+	}
+
+	private void open(ICompilationUnit unit, String content) {
+		DidOpenTextDocumentParams params = new DidOpenTextDocumentParams();
+		TextDocumentItem textDocument = new TextDocumentItem();
+		textDocument.setLanguageId("java");
+		textDocument.setText(content);
+		textDocument.setUri(JDTUtils.toURI(unit));
+		textDocument.setVersion(1);
+		params.setTextDocument(textDocument);
+		lifeCycleHandler.didOpen(params);
+	}
+
+	private void dispose() throws Exception {
+		if (target != null) {
+			lifeCycleHandler.didClose(new DidCloseTextDocumentParams(new TextDocumentIdentifier(JDTUtils.toURI(target))));
+		}
+		for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+			try {
+				project.delete(true, true, new NullProgressMonitor());
+			} catch (CoreException e) {
+				JavaLanguageServerPlugin.logException(e.getMessage(), e);
+			}
+		}
+		connection.disconnect();
+		JobHelpers.waitForJobsToComplete();
+		FileUtils.deleteQuietly(directory);
+	}
+
+	/**
+	 * @return the uri of the generated class with the given name
+	 */
+	public String getUri(String className) {
+		return new File(directory, PROJECT_NAME + "/src/generated/" + className + ".java").toURI().toString();
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public PreferenceManager getPreferenceManager() {
+		return preferenceManager;
+	}
+
+	public ProjectsManager getProjectsManager() {
+		return projectsManager;
+	}
+
+	public JavaClientConnection getConnection() {
+		return connection;
+	}
+
+	public DocumentLifeCycleHandler getLifeCycleHandler() {
+		return lifeCycleHandler;
+	}
+
+	/**
+	 * @return the opened target unit
+	 */
+	public ICompilationUnit getTarget() {
+		return target;
+	}
+
+	public String getTargetUri() {
+		return JDTUtils.toURI(target);
+	}
+
+	/**
+	 * @return the content of the target unit, as generated
+	 */
+	public String getTargetContent() {
+		return targetContent;
+	}
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.List;
+
+import org.eclipse.jdt.ls.core.internal.handlers.CompletionHandler;
+import org.eclipse.jdt.ls.core.internal.handlers.CompletionResponses;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Completion of the members of a generated class, and of the generated type
+ * names, with or without the items resolved lazily by the client.
+ */
+public class CompletionBenchmark extends WorkspaceBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean lazyResolve;
+
+	private CompletionHandler handler;
+	private CompletionParams memberParams;
+	private CompletionParams typeParams;
+
+	@Override
+	protected void setUp() throws Exception {
+		workspace.setExtendedClientCapability("completionLazyResolveSupport", lazyResolve);
+		handler = new CompletionHandler(workspace.getPreferenceManager());
+		memberParams = new CompletionParams(getTargetDocument(), getPosition("return value.getNames()", "return value.".length()));
+		typeParams = new CompletionParams(getTargetDocument(), getPosition("(Generated0 value)", "(Gen".length()));
+	}
+
+	@Setup(Level.Invocation)
+	public void clearResponses() {
+		// otherwise the previous response is refined rather than computed again
+		CompletionResponses.clear();
+	}
+
+	@Benchmark
+	public Either<List<CompletionItem>, CompletionList> memberCompletion() {
+		return handler.completion(memberParams, monitor);
+	}
+
+	@Benchmark
+	public Either<List<CompletionItem>, CompletionList> typeCompletion() {
+		return handler.completion(typeParams, monitor);
+	}
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.Collections;
+
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Change of the target unit, which is reconciled and has its diagnostics
+ * published right away, since the validation of the benchmark workspace isn't
+ * delayed.
+ */
+public class DiagnosticsBenchmark extends WorkspaceBenchmark {
+
+	private int version = 1;
+	private String editedContent;
+
+	@Override
+	protected void setUp() throws Exception {
+		editedContent = workspace.getTargetContent() + "// edited\n";
+	}
+
+	@Benchmark
+	public void didChange() {
+		// alternate between two contents, so that every change is a real one
+		change(version % 2 == 0 ? workspace.getTargetContent() : editedContent);
+	}
+
+	@TearDown(Level.Trial)
+	public void restore() {
+		change(workspace.getTargetContent());
+	}
+
+	private void change(String content) {
+		version++;
+		VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier(workspace.getTargetUri(), version);
+		DidChangeTextDocumentParams params = new DidChangeTextDocumentParams(textDocument, Collections.singletonList(new TextDocumentContentChangeEvent(content)));
+		workspace.getLifeCycleHandler().didChange(params);
+	}
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.List;
+
+import org.eclipse.jdt.ls.core.internal.handlers.DocumentSymbolHandler;
+import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Document symbols of the target unit, as a hierarchy or a flat list.
+ */
+public class DocumentSymbolBenchmark extends WorkspaceBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean hierarchical;
+
+	private DocumentSymbolHandler handler;
+	private DocumentSymbolParams params;
+
+	@Override
+	protected void setUp() throws Exception {
+		handler = new DocumentSymbolHandler(hierarchical);
+		params = new DocumentSymbolParams(getTargetDocument());
+	}
+
+	@Benchmark
+	public List<Either<SymbolInformation, DocumentSymbol>> documentSymbol() {
+		return handler.documentSymbol(params, monitor);
+	}
+}
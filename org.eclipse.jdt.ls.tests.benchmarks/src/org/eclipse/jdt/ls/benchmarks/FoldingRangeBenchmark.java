@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.List;
+
+import org.eclipse.jdt.ls.core.internal.handlers.FoldingRangeHandler;
+import org.eclipse.lsp4j.FoldingRange;
+import org.eclipse.lsp4j.FoldingRangeRequestParams;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Folding ranges of the target unit.
+ */
+public class FoldingRangeBenchmark extends WorkspaceBenchmark {
+
+	private FoldingRangeHandler handler;
+	private FoldingRangeRequestParams params;
+
+	@Override
+	protected void setUp() throws Exception {
+		handler = new FoldingRangeHandler();
+		params = new FoldingRangeRequestParams(getTargetDocument());
+	}
+
+	@Benchmark
+	public List<FoldingRange> foldingRange() {
+		return handler.foldingRange(params, monitor);
+	}
+}
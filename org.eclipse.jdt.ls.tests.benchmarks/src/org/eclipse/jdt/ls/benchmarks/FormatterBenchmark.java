@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.List;
+
+import org.eclipse.jdt.ls.core.internal.handlers.JDTLanguageServer;
+import org.eclipse.lsp4j.DocumentFormattingParams;
+import org.eclipse.lsp4j.DocumentOnTypeFormattingParams;
+import org.eclipse.lsp4j.DocumentRangeFormattingParams;
+import org.eclipse.lsp4j.FormattingOptions;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextEdit;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Formatting of the whole target unit, of one of its methods, and of one of
+ * its statements when typing its semicolon.
+ */
+public class FormatterBenchmark extends WorkspaceBenchmark {
+
+	private JDTLanguageServer server;
+	private DocumentFormattingParams params;
+	private DocumentRangeFormattingParams rangeParams;
+	private DocumentOnTypeFormattingParams onTypeParams;
+
+	@Override
+	protected void setUp() throws Exception {
+		// the formatter handler is only reachable through the server
+		server = new JDTLanguageServer(workspace.getProjectsManager(), workspace.getPreferenceManager());
+		FormattingOptions options = new FormattingOptions(4, false);
+		params = new DocumentFormattingParams(getTargetDocument(), options);
+		// not the first method, which can only be formatted with the type
+		Range range = new Range(getPosition("\t// region method1\n", 0), getPosition("\t// region method2\n", 0));
+		rangeParams = new DocumentRangeFormattingParams(getTargetDocument(), options, range);
+		String statement = "\t\treturn value.previous().add(\"previous\");";
+		onTypeParams = new DocumentOnTypeFormattingParams(getTargetDocument(), options, getPosition(statement, statement.length()), ";");
+		workspace.getPreferenceManager().getPreferences().setJavaFormatOnTypeEnabled(true);
+	}
+
+	@Benchmark
+	public List<? extends TextEdit> formatting() {
+		return server.formatting(params).join();
+	}
+
+	@Benchmark
+	public List<? extends TextEdit> rangeFormatting() {
+		return server.rangeFormatting(rangeParams).join();
+	}
+
+	@Benchmark
+	public List<? extends TextEdit> onTypeFormatting() {
+		return server.onTypeFormatting(onTypeParams).join();
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import org.eclipse.jdt.ls.core.internal.handlers.HoverHandler;
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Hover of a generated type and of one of its methods.
+ */
+public class HoverBenchmark extends WorkspaceBenchmark {
+
+	private HoverHandler handler;
+	private TextDocumentPositionParams typeParams;
+	private TextDocumentPositionParams methodParams;
+
+	@Override
+	protected void setUp() throws Exception {
+		handler = new HoverHandler(workspace.getPreferenceManager());
+		typeParams = getPositionParams("(Generated0 value)", "(Gen".length());
+		methodParams = getPositionParams("value.add(", "value.a".length());
+	}
+
+	@Benchmark
+	public Hover typeHover() {
+		return handler.hover(typeParams, monitor);
+	}
+
+	@Benchmark
+	public Hover methodHover() {
+		return handler.hover(methodParams, monitor);
+	}
+}
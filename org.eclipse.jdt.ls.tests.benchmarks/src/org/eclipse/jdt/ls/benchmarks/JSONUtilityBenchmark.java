@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.ls.core.internal.JSONUtility;
+import org.eclipse.lsp4j.CodeActionContext;
+import org.eclipse.lsp4j.CodeActionParams;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Conversion of the JSON arguments of requests and commands to model objects,
+ * for code action parameters carrying the given number of diagnostics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JSONUtilityBenchmark {
+
+	@Param({ "10", "1000" })
+	public int diagnostics;
+
+	private JsonElement json;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<Diagnostic> list = new ArrayList<>(diagnostics);
+		for (int i = 0; i < diagnostics; i++) {
+			Range range = new Range(new Position(i, 4), new Position(i, 12));
+			Diagnostic diagnostic = new Diagnostic(range, "The value of the local variable value" + i + " is not used", DiagnosticSeverity.Warning, "Java");
+			list.add(diagnostic);
+		}
+		CodeActionParams params = new CodeActionParams(new TextDocumentIdentifier("file:///workspace/src/generated/Target.java"), new Range(new Position(0, 0), new Position(diagnostics, 0)), new CodeActionContext(list));
+		json = new MessageJsonHandler(Collections.emptyMap()).getGson().toJsonTree(params);
+	}
+
+	@Benchmark
+	public CodeActionParams toModel() {
+		return JSONUtility.toModel(json, CodeActionParams.class);
+	}
+
+	@Benchmark
+	public CodeActionParams toLsp4jModel() {
+		return JSONUtility.toLsp4jModel(json, CodeActionParams.class);
+	}
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.handlers.JsonRpcHelpers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Conversions between offsets and positions, in the document of the opened
+ * target unit and in the buffer of a generated unit which isn't opened.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PositionConversionBenchmark extends WorkspaceBenchmark {
+
+	private static final int CONVERSIONS = 1000;
+
+	private ICompilationUnit target;
+	private ICompilationUnit unopened;
+	private int[] targetOffsets;
+	private int[] unopenedOffsets;
+	private int targetLines;
+
+	@Override
+	protected void setUp() throws Exception {
+		target = workspace.getTarget();
+		unopened = JDTUtils.resolveCompilationUnit(workspace.getUri("Generated0"));
+		targetOffsets = getOffsets(target.getSource().length());
+		unopenedOffsets = getOffsets(unopened.getSource().length());
+		targetLines = target.getSource().split("\n", -1).length;
+	}
+
+	private static int[] getOffsets(int length) {
+		int[] offsets = new int[CONVERSIONS];
+		for (int i = 0; i < offsets.length; i++) {
+			offsets[i] = (int) ((long) length * i / offsets.length);
+		}
+		return offsets;
+	}
+
+	@Benchmark
+	public void toLine(Blackhole blackhole) {
+		for (int offset : targetOffsets) {
+			blackhole.consume(JsonRpcHelpers.toLine(target, offset));
+		}
+	}
+
+	@Benchmark
+	public int[][] toLines() {
+		return JsonRpcHelpers.toLines(target, targetOffsets);
+	}
+
+	@Benchmark
+	public void toOffset(Blackhole blackhole) {
+		for (int i = 0; i < CONVERSIONS; i++) {
+			blackhole.consume(JsonRpcHelpers.toOffset(target, (int) ((long) targetLines * i / CONVERSIONS), 1));
+		}
+	}
+
+	@Benchmark
+	public void unopenedToLine(Blackhole blackhole) {
+		for (int offset : unopenedOffsets) {
+			blackhole.consume(JsonRpcHelpers.toLine(unopened, offset));
+		}
+	}
+}
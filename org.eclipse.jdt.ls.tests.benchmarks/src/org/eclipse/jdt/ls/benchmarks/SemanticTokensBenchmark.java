@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import org.eclipse.jdt.ls.core.internal.commands.SemanticTokensCommand;
+import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Semantic tokens of the target unit.
+ */
+public class SemanticTokensBenchmark extends WorkspaceBenchmark {
+
+	private String uri;
+
+	@Override
+	protected void setUp() throws Exception {
+		uri = workspace.getTargetUri();
+	}
+
+	@Benchmark
+	public SemanticTokens semanticTokens() {
+		return SemanticTokensCommand.provide(uri);
+	}
+}
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ProtocolFamily;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory;
+import org.eclipse.jdt.ls.core.internal.JDTEnvironmentUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Round trip of a message of the given size through the streams of a
+ * transport, to a local client sending it back:
+ * <ul>
+ * <li><code>unbufferedSocket</code>: the plain socket streams the socket
+ * transport used before being buffered</li>
+ * <li><code>socket</code>: the socket streams of
+ * {@link ConnectionStreamFactory}</li>
+ * <li><code>pipe</code>: the pipe streams of {@link ConnectionStreamFactory},
+ * connected to a Unix domain socket (Java 16 or later)</li>
+ * <li><code>stdio</code>: the standard streams of a <code>cat</code> process,
+ * wrapped like <code>System.in</code> and <code>System.out</code> are</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransportBenchmark {
+
+	@Param({ "unbufferedSocket", "socket", "pipe", "stdio" })
+	public String transport;
+
+	@Param({ "256", "65536" })
+	public int messageSize;
+
+	private ServerSocket serverSocket;
+	private ServerSocketChannel serverChannel;
+	private Path pipe;
+	private Process process;
+	private Thread echo;
+	private InputStream in;
+	private OutputStream out;
+	private byte[] header;
+	private byte[] content;
+	private byte[] received;
+
+	@FunctionalInterface
+	private interface Client {
+		void run() throws IOException;
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		switch (transport) {
+			case "unbufferedSocket":
+				serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+				startEcho(this::echoSocket);
+				Socket socket = new Socket(serverSocket.getInetAddress(), serverSocket.getLocalPort());
+				in = socket.getInputStream();
+				out = socket.getOutputStream();
+				break;
+			case "socket":
+				serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+				startEcho(this::echoSocket);
+				connect(JDTEnvironmentUtils.CLIENT_HOST, serverSocket.getInetAddress().getHostAddress(), JDTEnvironmentUtils.CLIENT_PORT, Integer.toString(serverSocket.getLocalPort()));
+				break;
+			case "pipe":
+				pipe = Files.createTempDirectory("jdtls").resolve("benchmark.sock");
+				serverChannel = openUnixDomainServer(pipe);
+				startEcho(this::echoChannel);
+				connect(JDTEnvironmentUtils.CLIENT_PIPE, pipe.toString());
+				break;
+			case "stdio":
+				process = new ProcessBuilder("cat").start();
+				in = process.getInputStream();
+				out = new PrintStream(process.getOutputStream());
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown transport " + transport);
+		}
+		content = new byte[messageSize];
+		Arrays.fill(content, (byte) 'x');
+		header = ("Content-Length: " + messageSize + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+		received = new byte[header.length + messageSize];
+	}
+
+	/**
+	 * Gets the streams of {@link ConnectionStreamFactory} with the given
+	 * environment properties set.
+	 */
+	private void connect(String... properties) throws IOException {
+		for (int i = 0; i < properties.length; i += 2) {
+			System.setProperty(properties[i], properties[i + 1]);
+		}
+		try {
+			ConnectionStreamFactory factory = new ConnectionStreamFactory();
+			in = factory.getInputStream();
+			out = factory.getOutputStream();
+		} finally {
+			for (int i = 0; i < properties.length; i += 2) {
+				System.clearProperty(properties[i]);
+			}
+		}
+	}
+
+	/**
+	 * Listens to a Unix domain socket with the API of Java 16, which isn't
+	 * available to the Java version this bundle is compiled for.
+	 */
+	private static ServerSocketChannel openUnixDomainServer(Path path) throws IOException {
+		try {
+			SocketAddress address = (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", Path.class).invoke(null, path);
+			ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+			ServerSocketChannel channel = (ServerSocketChannel) ServerSocketChannel.class.getMethod("open", ProtocolFamily.class).invoke(null, unix);
+			return channel.bind(address, 1);
+		} catch (ReflectiveOperationException | IllegalArgumentException e) {
+			throw new IOException("Unix domain sockets require Java 16 or later", e);
+		}
+	}
+
+	private void startEcho(Client client) {
+		echo = new Thread(() -> {
+			try {
+				client.run();
+			} catch (IOException e) {
+				// the benchmark is over
+			}
+		}, "Benchmark client");
+		echo.setDaemon(true);
+		echo.start();
+	}
+
+	private void echoSocket() throws IOException {
+		try (Socket socket = serverSocket.accept()) {
+			echo(socket.getInputStream(), socket.getOutputStream());
+		}
+	}
+
+	private void echoChannel() throws IOException {
+		try (SocketChannel channel = serverChannel.accept()) {
+			echo(Channels.newInputStream(channel), Channels.newOutputStream(channel));
+		}
+	}
+
+	private static void echo(InputStream clientIn, OutputStream clientOut) throws IOException {
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = clientIn.read(buffer)) != -1) {
+			clientOut.write(buffer, 0, read);
+			if (clientIn.available() == 0) {
+				clientOut.flush();
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException, InterruptedException {
+		out.close();
+		in.close();
+		if (serverSocket != null) {
+			serverSocket.close();
+		}
+		if (serverChannel != null) {
+			serverChannel.close();
+			Files.deleteIfExists(pipe);
+			Files.deleteIfExists(pipe.getParent());
+		}
+		if (process != null) {
+			process.waitFor(1, TimeUnit.SECONDS);
+			process.destroy();
+		}
+		if (echo != null) {
+			echo.join(1000);
+		}
+	}
+
+	@Benchmark
+	public byte[] roundTrip() throws IOException {
+		// a message is written like lsp4j does, its header then its content
+		out.write(header);
+		out.write(content);
+		out.flush();
+		int length = 0;
+		while (length < received.length) {
+			int read = in.read(received, length, received.length - length);
+			if (read < 0) {
+				throw new IOException("The connection was closed");
+			}
+			length += read;
+		}
+		return received;
+	}
+}
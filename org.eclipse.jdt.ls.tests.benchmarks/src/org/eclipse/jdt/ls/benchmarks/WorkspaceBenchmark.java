@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Base class of the benchmarks sending requests for the target unit of a
+ * {@link BenchmarkWorkspace}, whose size is the <code>size</code> parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public abstract class WorkspaceBenchmark {
+
+	@Param("100")
+	public int size;
+
+	protected BenchmarkWorkspace workspace;
+
+	protected final IProgressMonitor monitor = new NullProgressMonitor();
+
+	@Setup(Level.Trial)
+	public void setUpWorkspace() throws Exception {
+		workspace = BenchmarkWorkspace.get(size);
+		setUp();
+	}
+
+	/**
+	 * Prepares the requests of the benchmark, once the workspace is ready.
+	 */
+	protected void setUp() throws Exception {
+	}
+
+	protected TextDocumentIdentifier getTargetDocument() {
+		return new TextDocumentIdentifier(workspace.getTargetUri());
+	}
+
+	/**
+	 * @return the parameters of a request for the position of the first
+	 *         occurrence of the given snippet in the target unit, plus the
+	 *         given delta
+	 */
+	protected TextDocumentPositionParams getPositionParams(String snippet, int delta) {
+		return new TextDocumentPositionParams(getTargetDocument(), getPosition(snippet, delta));
+	}
+
+	protected Position getPosition(String snippet, int delta) {
+		String content = workspace.getTargetContent();
+		int index = content.indexOf(snippet);
+		if (index < 0) {
+			throw new IllegalArgumentException(snippet + " isn't in the target unit");
+		}
+		int offset = index + delta;
+		int line = 0;
+		int lineStart = 0;
+		for (int i = 0; i < offset; i++) {
+			if (content.charAt(i) == '\n') {
+				line++;
+				lineStart = i + 1;
+			}
+		}
+		return new Position(line, offset - lineStart);
+	}
+}
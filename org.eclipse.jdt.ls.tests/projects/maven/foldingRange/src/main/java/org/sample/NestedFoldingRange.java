@@ -0,0 +1,55 @@
+package org.sample;
+
+import java.util.function.Supplier;
+
+public class NestedFoldingRange {
+
+    private static final String[] NAMES = {
+        "a",
+        "b"
+    };
+
+    private final Supplier<String> supplier = () -> {
+        return NAMES[0];
+    };
+
+    static {
+        System.out.println(NestedFoldingRange.class);
+    }
+
+    @SuppressWarnings({
+        "unused"
+    })
+    void foo() {
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+    }
+
+    enum Kind {
+        FIRST {
+            @Override
+            String label() {
+                return "first";
+            }
+        },
+        SECOND;
+
+        String label() {
+            return name();
+        }
+    }
+
+    interface Callback {
+        void call(
+            String value);
+    }
+
+    @interface Marker {
+        String[] value() default {
+            "marker"
+        };
+    }
+}
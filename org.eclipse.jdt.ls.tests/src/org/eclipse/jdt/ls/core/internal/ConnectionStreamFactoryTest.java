@@ -13,7 +13,14 @@
 package org.eclipse.jdt.ls.core.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Pipe;
+import java.util.Arrays;
 
+import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.ChannelInputStream;
+import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.ChannelOutputStream;
+import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.PipeStreamProvider;
 import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.SocketStreamProvider;
 import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.StdIOStreamProvider;
 import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.StreamProvider;
@@ -37,6 +44,42 @@ public class ConnectionStreamFactoryTest {
 		System.clearProperty("CLIENT_PORT");
 	}
 
+	@Test
+	public void testPipeSelection() {
+		System.setProperty("CLIENT_PIPE", "/tmp/jdtls.sock");
+		System.setProperty("CLIENT_PORT", "10001");
+		checkStreamProvider(PipeStreamProvider.class);
+		System.clearProperty("CLIENT_PORT");
+		System.clearProperty("CLIENT_PIPE");
+	}
+
+	@Test
+	public void testChannelStreams() throws IOException {
+		Pipe pipe = Pipe.open();
+		byte[] large = new byte[100];
+		Arrays.fill(large, (byte) 'x');
+		try (OutputStream out = new ChannelOutputStream(pipe.sink(), 16); InputStream in = new ChannelInputStream(pipe.source(), 16)) {
+			byte[] header = "Content-Length: 101\r\n\r\n".getBytes();
+			out.write(header);
+			Assert.assertEquals(0, in.available());
+			out.write(large);
+			out.write('!');
+			out.flush();
+			byte[] read = new byte[header.length + 101];
+			int length = 0;
+			while (length < read.length) {
+				int count = in.read(read, length, read.length - length);
+				Assert.assertTrue(count > 0 && count <= 16);
+				length += count;
+			}
+			Assert.assertArrayEquals(header, Arrays.copyOf(read, header.length));
+			Assert.assertArrayEquals(large, Arrays.copyOfRange(read, header.length, header.length + 100));
+			Assert.assertEquals('!', read[read.length - 1]);
+			out.close();
+			Assert.assertEquals(-1, in.read());
+		}
+	}
+
 	@Test
 	public void testStdInOut() throws IOException {
 		ConnectionStreamFactory tested = new ConnectionStreamFactory();
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
+import org.eclipse.jdt.ls.core.internal.handlers.TypeNameIndex;
+import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("restriction")
+public class IdleResourcesTest extends AbstractProjectsManagerBasedTest {
+
+	private CoreASTProvider astProvider = CoreASTProvider.getInstance();
+	private IJavaProject javaProject;
+
+	@Before
+	public void setup() throws Exception {
+		importProjects("eclipse/hello");
+		IProject project = WorkspaceHelper.getProject("hello");
+		javaProject = JavaCore.create(project);
+	}
+
+	@After
+	public void tearDown() {
+		astProvider.setActiveJavaElement(null);
+		astProvider.disposeAST();
+	}
+
+	@Test
+	public void testReleaseAndWarmUp() throws Exception {
+		ICompilationUnit unit = javaProject.findType("java.Foo2").getCompilationUnit();
+		astProvider.setActiveJavaElement(unit);
+		assertNotNull(astProvider.getAST(unit, CoreASTProvider.WAIT_YES, monitor));
+		TypeNameIndex.getInstance().search("Foo", 0, SearchEngine.createWorkspaceScope(), monitor);
+		assertTrue(TypeNameIndex.getInstance().isBuilt());
+
+		IdleResources idleResources = new IdleResources();
+		idleResources.release();
+		assertNull(astProvider.getAST(unit, CoreASTProvider.WAIT_NO, monitor));
+		assertFalse(TypeNameIndex.getInstance().isBuilt());
+
+		idleResources.warmUp(monitor);
+		assertNotNull(astProvider.getAST(unit, CoreASTProvider.WAIT_NO, monitor));
+		assertTrue(TypeNameIndex.getInstance().isBuilt());
+	}
+
+	@Test
+	public void testWarmUpAfterActiveElementChanged() throws Exception {
+		ICompilationUnit unit = javaProject.findType("java.Foo2").getCompilationUnit();
+		ICompilationUnit other = javaProject.findType("java.Foo3").getCompilationUnit();
+		astProvider.setActiveJavaElement(unit);
+		assertNotNull(astProvider.getAST(unit, CoreASTProvider.WAIT_YES, monitor));
+		TypeNameIndex.getInstance().reset();
+
+		IdleResources idleResources = new IdleResources();
+		idleResources.release();
+		astProvider.setActiveJavaElement(other);
+		idleResources.warmUp(monitor);
+		// the AST of the element made active meanwhile is created by its own request
+		assertNull(astProvider.getAST(other, CoreASTProvider.WAIT_NO, monitor));
+		// the index wasn't built before the server became idle
+		assertFalse(TypeNameIndex.getInstance().isBuilt());
+	}
+
+	@Test
+	public void testTrimTypeHierarchyCache() throws Exception {
+		IType type = javaProject.findType("java.Foo2");
+		assertNotNull(SuperTypeHierarchyCache.getTypeHierarchy(type));
+		assertTrue(SuperTypeHierarchyCache.hasInCache(type));
+		assertTrue(TypeHierarchyCacheTrimmer.trim());
+		assertFalse(SuperTypeHierarchyCache.hasInCache(type));
+	}
+}
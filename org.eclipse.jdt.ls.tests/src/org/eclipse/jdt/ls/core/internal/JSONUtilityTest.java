@@ -17,11 +17,18 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.SymbolInformation;
 import org.junit.Test;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
 
 /**
  * JSONUtilityTest
@@ -44,6 +51,25 @@ public class JSONUtilityTest {
 		assertSame(position,position2);
 	}
 
+	@Test
+	public void testMapToObject() {
+		Map<?, ?> map = new Gson().fromJson("{\"name\":\"Foo\",\"kind\":5,\"location\":{\"uri\":\"file:///Foo.java\",\"range\":{\"start\":{\"line\":1,\"character\":2},\"end\":{\"line\":1,\"character\":5}}}}", Map.class);
+		SymbolInformation symbol = JSONUtility.toLsp4jModel(map, SymbolInformation.class);
+		assertEquals("Foo", symbol.getName());
+		assertEquals("file:///Foo.java", symbol.getLocation().getUri());
+		assertEquals(new Position(1, 5), symbol.getLocation().getRange().getEnd());
+	}
+
+	@Test
+	public void testGenericType() {
+		Type type = new TypeToken<List<Position>>() {
+		}.getType();
+		List<Position> positions = JSONUtility.toModel("[{\"line\":1,\"character\":2}]", type);
+		assertEquals(Arrays.asList(new Position(1, 2)), positions);
+		positions = JSONUtility.toModel(new Gson().fromJson("[{\"line\":3,\"character\":4}]", List.class), type);
+		assertEquals(Arrays.asList(new Position(3, 4)), positions);
+	}
+
 	@Test(expected=IllegalArgumentException.class)
 	public void testNullClass(){
 		JSONUtility.toModel(new Object(), null);
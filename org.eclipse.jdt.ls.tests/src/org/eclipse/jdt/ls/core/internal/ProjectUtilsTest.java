@@ -15,11 +15,20 @@ package org.eclipse.jdt.ls.core.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
 import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
 import org.junit.Test;
@@ -31,4 +40,25 @@ public class ProjectUtilsTest extends AbstractProjectsManagerBasedTest {
         IPath path = ProjectUtils.getProjectRealFolder(project);
         assertEquals(project.getLocation(), path);
     }
+
+    @Test
+    public void testCollectBinariesReusesScans() throws Exception {
+        java.nio.file.Path projectDir = Files.createTempDirectory("collectBinaries");
+        java.nio.file.Path lib = Files.createDirectories(projectDir.resolve("lib"));
+        Files.createFile(lib.resolve("foo.jar"));
+        Files.createFile(lib.resolve("foo-sources.jar"));
+        IPath projectPath = Path.fromOSString(projectDir.toString());
+        Set<String> include = Collections.singleton("lib/**/*.jar");
+        Map<String, List<java.nio.file.Path>> scans = new HashMap<>();
+        Set<java.nio.file.Path> binaries = ProjectUtils.collectBinaries(projectPath, include, Collections.emptySet(), scans, new NullProgressMonitor());
+        assertEquals(Collections.singleton(lib.resolve("foo.jar")), binaries);
+        assertEquals(1, scans.size());
+
+        Files.createFile(lib.resolve("bar.jar"));
+        binaries = ProjectUtils.collectBinaries(projectPath, include, Collections.emptySet(), scans, new NullProgressMonitor());
+        assertEquals(1, binaries.size());
+        binaries = ProjectUtils.collectBinaries(projectPath, include, Collections.emptySet(), new NullProgressMonitor());
+        assertEquals(2, binaries.size());
+        FileUtils.deleteDirectory(projectDir.toFile());
+    }
 }
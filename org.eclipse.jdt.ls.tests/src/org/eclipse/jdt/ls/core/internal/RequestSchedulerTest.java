@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.ls.core.internal.RequestScheduler.Lane;
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.junit.Test;
+
+public class RequestSchedulerTest {
+
+	private RequestScheduler scheduler = new RequestScheduler();
+
+	@Test
+	public void testLanesDoNotBlockEachOther() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		List<CompletableFuture<Object>> background = new ArrayList<>();
+		for (int i = 0; i < Runtime.getRuntime().availableProcessors() * 2; i++) {
+			background.add(scheduler.submit(Lane.BACKGROUND, null, cc -> await(release)));
+		}
+		assertEquals("hover", scheduler.submit(Lane.INTERACTIVE, null, cc -> "hover").get(10, TimeUnit.SECONDS));
+		release.countDown();
+		for (CompletableFuture<Object> future : background) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		assertTrue(scheduler.getCompletedCount(Lane.BACKGROUND) >= background.size());
+		assertEquals(1, scheduler.getCompletedCount(Lane.INTERACTIVE));
+	}
+
+	@Test
+	public void testSupersede() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CompletableFuture<Boolean> first = scheduler.submit(Lane.INTERACTIVE, "hover:Foo.java", cc -> {
+			started.countDown();
+			while (true) {
+				try {
+					cc.checkCanceled();
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					return false;
+				}
+			}
+		});
+		started.await(10, TimeUnit.SECONDS);
+		CompletableFuture<Boolean> second = scheduler.submit(Lane.INTERACTIVE, "hover:Foo.java", cc -> true);
+		assertTrue(second.get(10, TimeUnit.SECONDS));
+		assertTrue(first.isCancelled());
+		assertEquals(1, scheduler.getSupersededCount(Lane.INTERACTIVE));
+
+		CompletableFuture<Boolean> other = scheduler.submit(Lane.INTERACTIVE, "hover:Bar.java", cc -> true);
+		assertTrue(other.get(10, TimeUnit.SECONDS));
+		assertEquals(1, scheduler.getSupersededCount(Lane.INTERACTIVE));
+	}
+
+	@Test
+	public void testBoundedQueue() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		List<CompletableFuture<Object>> futures = new ArrayList<>();
+		// one running, 16 queued
+		for (int i = 0; i < 17; i++) {
+			futures.add(scheduler.submit(Lane.BULK, null, cc -> await(release)));
+		}
+		CompletableFuture<Object> rejected = scheduler.submit(Lane.BULK, null, cc -> await(release));
+		try {
+			rejected.get();
+			fail("The request should have been rejected");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ResponseErrorException);
+		}
+		assertEquals(1, scheduler.getRejectedCount(Lane.BULK));
+		assertTrue(scheduler.getQueueDepth(Lane.BULK) > 0);
+		release.countDown();
+		for (CompletableFuture<Object> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		assertEquals(0, scheduler.getQueueDepth(Lane.BULK));
+	}
+
+	private static Object await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+}
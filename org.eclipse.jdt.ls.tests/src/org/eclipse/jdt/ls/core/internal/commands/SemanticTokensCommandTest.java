@@ -13,10 +13,12 @@
 
 package org.eclipse.jdt.ls.core.internal.commands;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Hashtable;
@@ -32,12 +34,17 @@ import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.correction.TestOptions;
 import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
 import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokens;
+import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokensEdit;
+import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokensEdits;
 import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokensLegend;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import com.google.common.primitives.Ints;
+
 @RunWith(MockitoJUnitRunner.class)
 public class SemanticTokensCommandTest extends AbstractProjectsManagerBasedTest {
 	private IJavaProject fJProject1;
@@ -132,6 +139,27 @@ public class SemanticTokensCommandTest extends AbstractProjectsManagerBasedTest
 		assertToken(decodedTokens, legend, 6, 19, 4, "variable", Arrays.asList("readonly"));
 	}
 
+	@Test
+	public void testSemanticTokens_lineDelimiters() throws JavaModelException {
+		IPackageFragment pack1 = fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf = new StringBuilder();
+		buf.append("package test1;\r\n");
+		buf.append("\r\n");
+		buf.append("public class E {\r");
+		buf.append("    public static void foo() {\n");
+		buf.append("      String bar1;\r\n");
+		buf.append("      final String bar2 = \"test\";\r\n");
+		buf.append("    }\r\n");
+		buf.append("}\r\n");
+		ICompilationUnit cu = pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+		SemanticTokensLegend legend = SemanticTokensCommand.getLegend();
+		SemanticTokens tokens = SemanticTokensCommand.provide(JDTUtils.toURI(cu));
+		Map<Integer, Map<Integer, int[]>> decodedTokens = decode(tokens);
+		assertToken(decodedTokens, legend, 3, 23, 3, "function", Arrays.asList("public", "static"));
+		assertToken(decodedTokens, legend, 4, 13, 4, "variable", Arrays.asList());
+		assertToken(decodedTokens, legend, 5, 19, 4, "variable", Arrays.asList("readonly"));
+	}
+
 	@Test
 	public void testSemanticTokens_types() throws JavaModelException {
 		IPackageFragment pack1 = fSourceFolder.createPackageFragment("test1", false, null);
@@ -232,6 +260,58 @@ public class SemanticTokensCommandTest extends AbstractProjectsManagerBasedTest
 		assertEquals(cnt, modifierStrings.size());
 	}
 
+	@Test
+	public void testSemanticTokens_edits() throws JavaModelException {
+		IPackageFragment pack1 = fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("\n");
+		buf.append("public class E {\n");
+		buf.append("    public String bar1;\n");
+		buf.append("    private int bar2;\n");
+		buf.append("}\n");
+		ICompilationUnit cu = pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+		String uri = JDTUtils.toURI(cu);
+		SemanticTokens tokens = SemanticTokensCommand.provide(uri);
+		assertNotNull(tokens.getResultId());
+
+		cu = pack1.createCompilationUnit("E.java", buf.toString().replace("bar1", "bar11"), true, null);
+		Either<SemanticTokens, SemanticTokensEdits> result = SemanticTokensCommand.provideEdits(uri, tokens.getResultId());
+		assertTrue(result.isRight());
+		SemanticTokensEdits edits = result.getRight();
+		assertEquals(1, edits.getEdits().size());
+		SemanticTokensEdit edit = edits.getEdits().get(0);
+		assertArrayEquals(new int[] { 5 }, edit.getData());
+		assertEquals(1, edit.getDeleteCount());
+
+		List<Integer> expected = SemanticTokensCommand.provide(uri).getData();
+		List<Integer> edited = new ArrayList<>(tokens.getData());
+		edited.subList(edit.getStart(), edit.getStart() + edit.getDeleteCount()).clear();
+		edited.addAll(edit.getStart(), Ints.asList(edit.getData()));
+		assertEquals(expected, edited);
+
+		result = SemanticTokensCommand.provideEdits(uri, "unknown");
+		assertTrue(result.isLeft());
+		assertEquals(expected, result.getLeft().getData());
+	}
+
+	@Test
+	public void testSemanticTokens_computeEdits() {
+		assertTrue(SemanticTokensEdits.computeEdits(new int[] { 1, 2, 3 }, new int[] { 1, 2, 3 }).isEmpty());
+		SemanticTokensEdit edit = SemanticTokensEdits.computeEdits(new int[] { 1, 2, 3, 4 }, new int[] { 1, 5, 6, 4 }).get(0);
+		assertEquals(1, edit.getStart());
+		assertEquals(2, edit.getDeleteCount());
+		assertArrayEquals(new int[] { 5, 6 }, edit.getData());
+		edit = SemanticTokensEdits.computeEdits(new int[] { 1, 2 }, new int[] { 1, 2, 1, 2 }).get(0);
+		assertEquals(2, edit.getStart());
+		assertEquals(0, edit.getDeleteCount());
+		assertArrayEquals(new int[] { 1, 2 }, edit.getData());
+		edit = SemanticTokensEdits.computeEdits(new int[] { 1, 2, 3 }, new int[0]).get(0);
+		assertEquals(0, edit.getStart());
+		assertEquals(3, edit.getDeleteCount());
+		assertArrayEquals(new int[0], edit.getData());
+	}
+
 	private void assertToken(Map<Integer, Map<Integer, int[]>> decodedTokens, SemanticTokensLegend legend, int line, int column, int length, String tokenTypeString, List<String> modifierStrings) {
 		Map<Integer, int[]> tokensOfTheLine = decodedTokens.get(line);
 		assertNotNull(tokensOfTheLine);
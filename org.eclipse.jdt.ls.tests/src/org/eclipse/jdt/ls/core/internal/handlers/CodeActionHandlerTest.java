@@ -12,8 +12,11 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.handlers;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
 
 import java.net.URI;
 import java.util.ArrayList;
@@ -28,12 +31,15 @@ import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.refactoring.CompilationUnitChange;
+import org.eclipse.jdt.ls.core.internal.ChangeUtil;
 import org.eclipse.jdt.ls.core.internal.CodeActionUtil;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
 import org.eclipse.jdt.ls.core.internal.JavaCodeActionKind;
 import org.eclipse.jdt.ls.core.internal.LanguageServerWorkingCopyOwner;
 import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
+import org.eclipse.jdt.ls.core.internal.corrections.proposals.ChangeCorrectionProposal;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.lsp4j.CodeAction;
 import org.eclipse.lsp4j.CodeActionContext;
@@ -42,11 +48,18 @@ import org.eclipse.lsp4j.CodeActionParams;
 import org.eclipse.lsp4j.Command;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.text.edits.InsertEdit;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -75,6 +88,11 @@ public class CodeActionHandlerTest extends AbstractCompilationUnitBasedTest {
 		server = new JDTLanguageServer(projectsManager, this.preferenceManager);
 	}
 
+	@After
+	public void tearDown() {
+		CodeActionProposals.clear();
+	}
+
 	@Test
 	public void testCodeAction_removeUnusedImport() throws Exception{
 		ICompilationUnit unit = getWorkingCopy(
@@ -100,6 +118,144 @@ public class CodeActionHandlerTest extends AbstractCompilationUnitBasedTest {
 		Assert.assertEquals(CodeActionHandler.COMMAND_ID_APPLY_EDIT, c.getCommand());
 	}
 
+	@Test
+	public void testCodeAction_lazyResolve() throws Exception {
+		when(preferenceManager.getClientPreferences().isCodeActionLazyResolveSupport()).thenReturn(true);
+		ICompilationUnit unit = getWorkingCopy(
+				"src/java/Foo.java",
+				"import java.sql.*; \n" +
+						"public class Foo {\n"+
+						"	void foo() {\n"+
+						"	}\n"+
+				"}\n");
+
+		CodeActionParams params = new CodeActionParams();
+		params.setTextDocument(new TextDocumentIdentifier(JDTUtils.toURI(unit)));
+		final Range range = CodeActionUtil.getRange(unit, "java.sql");
+		params.setRange(range);
+		params.setContext(new CodeActionContext(Arrays.asList(getDiagnostic(Integer.toString(IProblem.UnusedImport), range))));
+		List<Either<Command, CodeAction>> codeActions = getCodeActions(params);
+		Assert.assertNotNull(codeActions);
+		CodeAction codeAction = codeActions.get(0).getRight();
+		assertEquals(CodeActionKind.QuickFix, codeAction.getKind());
+		assertNull(codeAction.getEdit());
+		Command c = codeAction.getCommand();
+		assertEquals(CodeActionHandler.COMMAND_ID_APPLY_CODE_ACTION, c.getCommand());
+		String id = (String) c.getArguments().get(0);
+
+		CodeAction resolved = server.resolveCodeAction(codeAction).join();
+		assertNull(resolved.getCommand());
+		assertTrue(ChangeUtil.hasChanges(resolved.getEdit()));
+		// the resolved change is kept for the document version
+		assertTrue(resolved.getEdit() == CodeActionHandler.resolveWorkspaceEdit(id, new NullProgressMonitor()));
+
+		unit.getBuffer().append("\n");
+		assertNull(CodeActionHandler.resolveWorkspaceEdit(id, new NullProgressMonitor()));
+	}
+
+	@Test
+	public void testCodeAction_lazyResolveSameActions() throws Exception {
+		ICompilationUnit unit = getWorkingCopy(
+				"src/java/Foo.java",
+				"import java.sql.*; \n" +
+						"public class Foo {\n"+
+						"	void foo() {\n"+
+						"	}\n"+
+				"}\n");
+
+		CodeActionParams params = new CodeActionParams();
+		params.setTextDocument(new TextDocumentIdentifier(JDTUtils.toURI(unit)));
+		final Range range = CodeActionUtil.getRange(unit, "java.sql");
+		params.setRange(range);
+		params.setContext(new CodeActionContext(Arrays.asList(getDiagnostic(Integer.toString(IProblem.UnusedImport), range))));
+		List<String> eager = getCodeActions(params).stream().map(CodeActionHandlerTest::getLabel).collect(Collectors.toList());
+		when(preferenceManager.getClientPreferences().isCodeActionLazyResolveSupport()).thenReturn(true);
+		List<String> lazy = getCodeActions(params).stream().map(CodeActionHandlerTest::getLabel).collect(Collectors.toList());
+		assertEquals(eager, lazy);
+	}
+
+	@Test
+	public void testCodeAction_lazyResolveWithoutChange() throws Exception {
+		ICompilationUnit unit = getWorkingCopy(
+				"src/java/Foo.java",
+				"public class Foo {\n"+
+				"}\n");
+		ChangeCorrectionProposal proposal = new ChangeCorrectionProposal("No change", CodeActionKind.QuickFix, new CompositeChange("No change"), 0);
+		String id = CodeActionProposals.store(JDTUtils.toURI(unit), unit, CodeActionProposals.getVersion(unit), proposal);
+		assertNull(CodeActionHandler.resolveWorkspaceEdit(id, new NullProgressMonitor()));
+	}
+
+	@Test
+	public void testCodeAction_lazyResolveBoundedPerDocument() throws Exception {
+		ICompilationUnit unit = getWorkingCopy(
+				"src/java/Foo.java",
+				"public class Foo {\n"+
+				"}\n");
+		ICompilationUnit other = getWorkingCopy(
+				"src/java/Foo2.java",
+				"public class Foo2 {\n"+
+				"}\n");
+		String uri = JDTUtils.toURI(unit);
+		String otherUri = JDTUtils.toURI(other);
+		String otherId = CodeActionProposals.store(otherUri, other, CodeActionProposals.getVersion(other), newProposal(other));
+		long version = CodeActionProposals.getVersion(unit);
+		String firstId = CodeActionProposals.store(uri, unit, version, newProposal(unit));
+		for (int i = 0; i < CodeActionProposals.MAX_SIZE; i++) {
+			CodeActionProposals.store(uri, unit, version, newProposal(unit));
+		}
+		assertEquals(CodeActionProposals.MAX_SIZE, CodeActionProposals.size(uri));
+		assertEquals(1, CodeActionProposals.size(otherUri));
+		// the least recently used proposal of the document is evicted
+		assertNull(CodeActionHandler.resolveWorkspaceEdit(firstId, new NullProgressMonitor()));
+		assertTrue(ChangeUtil.hasChanges(CodeActionHandler.resolveWorkspaceEdit(otherId, new NullProgressMonitor())));
+	}
+
+	@Test
+	public void testCodeAction_lazyResolveEvictedOnChangeAndClose() throws Exception {
+		when(preferenceManager.getClientPreferences().isCodeActionLazyResolveSupport()).thenReturn(true);
+		ICompilationUnit unit = getWorkingCopy(
+				"src/java/Foo.java",
+				"import java.sql.*; \n" +
+						"public class Foo {\n"+
+						"	void foo() {\n"+
+						"	}\n"+
+				"}\n");
+		unit.becomeWorkingCopy(new NullProgressMonitor());
+		try {
+			String uri = JDTUtils.toURI(unit);
+			CodeActionParams params = new CodeActionParams();
+			params.setTextDocument(new TextDocumentIdentifier(uri));
+			final Range range = CodeActionUtil.getRange(unit, "java.sql");
+			params.setRange(range);
+			params.setContext(new CodeActionContext(Arrays.asList(getDiagnostic(Integer.toString(IProblem.UnusedImport), range))));
+			DocumentLifeCycleHandler handler = new DocumentLifeCycleHandler(connection, preferenceManager, projectsManager, false);
+
+			getCodeActions(params);
+			assertTrue(CodeActionProposals.size(uri) > 0);
+			DidChangeTextDocumentParams changeParams = new DidChangeTextDocumentParams();
+			changeParams.setTextDocument(new VersionedTextDocumentIdentifier(uri, 2));
+			TextDocumentContentChangeEvent event = new TextDocumentContentChangeEvent(JDTUtils.toRange(unit, unit.getSource().length(), 0), 0, "\n");
+			changeParams.setContentChanges(Arrays.asList(event));
+			handler.handleChanged(changeParams);
+			assertEquals(0, CodeActionProposals.size(uri));
+
+			getCodeActions(params);
+			assertTrue(CodeActionProposals.size(uri) > 0);
+			handler.handleClosed(new DidCloseTextDocumentParams(new TextDocumentIdentifier(uri)));
+			assertEquals(0, CodeActionProposals.size(uri));
+		} finally {
+			if (unit.isWorkingCopy()) {
+				unit.discardWorkingCopy();
+			}
+		}
+	}
+
+	private static ChangeCorrectionProposal newProposal(ICompilationUnit unit) {
+		CompilationUnitChange change = new CompilationUnitChange("Insert", unit);
+		change.setEdit(new InsertEdit(0, "// comment\n"));
+		return new ChangeCorrectionProposal("Insert", CodeActionKind.QuickFix, change, 0);
+	}
+
 	@Test
 	public void testCodeAction_sourceActionsOnly() throws Exception {
 		//@formatter:off
@@ -388,6 +544,10 @@ public class CodeActionHandlerTest extends AbstractCompilationUnitBasedTest {
 		return server.codeAction(params).join();
 	}
 
+	private static String getLabel(Either<Command, CodeAction> codeAction) {
+		return codeAction.isLeft() ? codeAction.getLeft().getTitle() : codeAction.getRight().getKind() + ": " + codeAction.getRight().getTitle();
+	}
+
 	public static Command getCommand(Either<Command, CodeAction> codeAction) {
 		return codeAction.isLeft() ? codeAction.getLeft() : codeAction.getRight().getCommand();
 	}
@@ -860,6 +860,68 @@ public class CompletionHandlerTest extends AbstractCompilationUnitBasedTest {
 		//Not checking the range end character
 	}
 
+	@Test
+	public void testCompletion_refinePreviousResponse() throws JavaModelException {
+		ICompilationUnit unit = getWorkingCopy(
+				"src/java/Foo.java",
+				"public class Foo {\n"+
+						"private String myTestString;\n"+
+						"	void foo() {\n"+
+						"   this.\n"+
+						"	}\n"+
+				"}\n");
+
+		int[] loc = findCompletionLocation(unit, "this.");
+		CompletionList list = server.completion(JsonMessageHelper.getParams(createCompletionRequest(unit, loc[0], loc[1]))).join().getRight();
+		assertNotNull(list);
+		assertTrue(list.getItems().size() > 1);
+		CompletionItem previousItem = list.getItems().stream().filter(i -> i.getLabel().startsWith("myTestString")).findFirst().get();
+
+		long hits = CompletionResponses.getHitCount();
+		int offset = unit.getSource().indexOf("this.") + "this.".length();
+		unit.getBuffer().replace(offset, 0, "myTe");
+		list = server.completion(JsonMessageHelper.getParams(createCompletionRequest(unit, loc[0], loc[1] + 4))).join().getRight();
+
+		assertEquals(hits + 1, CompletionResponses.getHitCount());
+		assertNotNull(list);
+		assertEquals(1, list.getItems().size());
+		CompletionItem item = list.getItems().get(0);
+		assertEquals("myTestString", item.getInsertText());
+		assertTextEdit(3, 8, 12, "myTestString", item.getTextEdit());
+
+		// the previous response is left as it was
+		@SuppressWarnings("unchecked")
+		Map<String, String> data = (Map<String, String>) previousItem.getData();
+		CompletionResponse previous = CompletionResponses.get(Long.valueOf(data.get(CompletionResolveHandler.DATA_FIELD_REQUEST_ID)));
+		assertNotNull(previous);
+		assertEquals(offset, previous.getProposals().get(Integer.parseInt(data.get(CompletionResolveHandler.DATA_FIELD_PROPOSAL_ID))).getReplaceEnd());
+		assertNotNull(server.resolveCompletionItem(previousItem).join());
+	}
+
+	@Test
+	public void testCompletion_refineOnlyWhenTextIsUnchanged() throws JavaModelException {
+		ICompilationUnit unit = getWorkingCopy(
+				"src/java/Foo.java",
+				"public class Foo {\n"+
+						"private String myTestString;\n"+
+						"	void foo() {\n"+
+						"   this.\n"+
+						"	}\n"+
+				"}\n");
+
+		int[] loc = findCompletionLocation(unit, "this.");
+		server.completion(JsonMessageHelper.getParams(createCompletionRequest(unit, loc[0], loc[1]))).join();
+
+		long hits = CompletionResponses.getHitCount();
+		int offset = unit.getSource().indexOf("this.") + "this.".length();
+		// same length, but the text before the completion changed too
+		unit.getBuffer().replace(offset - "this.".length(), "this.".length(), "that.myTe");
+		CompletionList list = server.completion(JsonMessageHelper.getParams(createCompletionRequest(unit, loc[0], loc[1] + 4))).join().getRight();
+
+		assertEquals(hits, CompletionResponses.getHitCount());
+		assertNotNull(list);
+	}
+
 	@Test
 	public void testCompletion_import_type() throws JavaModelException{
 		ICompilationUnit unit = getWorkingCopy(
@@ -2988,6 +3050,65 @@ public class CompletionHandlerTest extends AbstractCompilationUnitBasedTest {
 		assertEquals(" Test ", documentation);
 	}
 
+	@Test
+	public void testCompletion_lazyResolve() throws JavaModelException {
+		ClientPreferences mockCapabilies = mock(ClientPreferences.class);
+		when(mockCapabilies.isCompletionLazyResolveSupport()).thenReturn(true);
+		when(preferenceManager.getClientPreferences()).thenReturn(mockCapabilies);
+		ICompilationUnit unit = getWorkingCopy("src/org/sample/Test.java",
+		//@formatter:off
+				"package org.sample;\n"
+			+	"public class Test {\n\n"
+			+	"	private int one = IConstantDefault.\n"
+			+	"}\n");
+		//@formatter:on
+		int[] loc = findCompletionLocation(unit, "IConstantDefault.");
+		CompletionList list = server.completion(JsonMessageHelper.getParams(createCompletionRequest(unit, loc[0], loc[1]))).join().getRight();
+		assertNotNull(list);
+		CompletionItem ci = list.getItems().get(0);
+		assertEquals(CompletionItemKind.Constant, ci.getKind());
+		assertEquals("ONE : int", ci.getLabel());
+		assertNull(ci.getTextEdit());
+		assertEquals("ONE", ci.getInsertText());
+
+		CompletionItem resolvedItem = server.resolveCompletionItem(ci).join();
+		assertNotNull(resolvedItem.getTextEdit());
+		assertEquals("ONE", resolvedItem.getTextEdit().getNewText());
+		assertEquals("Value: 1", resolvedItem.getDocumentation().getLeft());
+	}
+
+	@Test
+	public void testCompletion_lazyResolveInsertText() throws JavaModelException {
+		ClientPreferences mockCapabilies = mock(ClientPreferences.class);
+		when(mockCapabilies.isCompletionLazyResolveSupport()).thenReturn(true);
+		when(preferenceManager.getClientPreferences()).thenReturn(mockCapabilies);
+		ICompilationUnit unit = getWorkingCopy("src/org/sample/Test.java",
+		//@formatter:off
+				"package org.sample;\n"
+			+	"public class Test {\n"
+			+	"	void foo(int i) {\n"
+			+	"		this.fo\n"
+			+	"	}\n"
+			+	"	void bar() {\n"
+			+	"		ArrayLis\n"
+			+	"	}\n"
+			+	"}\n");
+		//@formatter:on
+		// inserted as is by clients which don't resolve the item first
+		int[] loc = findCompletionLocation(unit, "this.fo");
+		CompletionList list = server.completion(JsonMessageHelper.getParams(createCompletionRequest(unit, loc[0], loc[1]))).join().getRight();
+		CompletionItem method = list.getItems().stream().filter(i -> i.getLabel().startsWith("foo(")).findFirst().get();
+		assertNull(method.getTextEdit());
+		assertEquals("foo", method.getInsertText());
+
+		loc = findCompletionLocation(unit, "ArrayLis");
+		list = server.completion(JsonMessageHelper.getParams(createCompletionRequest(unit, loc[0], loc[1]))).join().getRight();
+		CompletionItem type = list.getItems().stream().filter(i -> i.getLabel().startsWith("ArrayList - java.util")).findFirst().get();
+		assertNull(type.getTextEdit());
+		assertNull(type.getAdditionalTextEdits());
+		assertEquals("ArrayList", type.getInsertText());
+	}
+
 	private String createCompletionRequest(ICompilationUnit unit, int line, int kar) {
 		return COMPLETION_TEMPLATE.replace("${file}", JDTUtils.toURI(unit))
 				.replace("${line}", String.valueOf(line))
@@ -34,7 +34,9 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
@@ -482,6 +484,214 @@ public class DocumentLifeCycleHandlerTest extends AbstractProjectsManagerBasedTe
 		assertNewASTsCreated(0);
 	}
 
+	@Test
+	public void testLargeFileSyntaxDiagnostics() throws Exception {
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+
+		StringBuilder buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class Large {\n");
+		// unresolved type, not reported
+		buf.append("  Unknown unknown;\n");
+		// syntax error
+		buf.append("  void foo() { int i = ; }\n");
+		for (int i = 0; i < LargeFilePolicy.getMaxLines(); i++) {
+			buf.append("\n");
+		}
+		buf.append("}\n");
+		ICompilationUnit cu = pack1.createCompilationUnit("Large.java", buf.toString(), false, null);
+		assertTrue(LargeFilePolicy.isLargeFile(cu));
+
+		openDocument(cu, cu.getSource(), 1);
+		List<PublishDiagnosticsParams> diagnostics = getClientRequests("publishDiagnostics");
+		assertEquals(1, diagnostics.size());
+		List<Diagnostic> reported = diagnostics.get(0).getDiagnostics();
+		assertEquals(2, reported.size());
+		assertEquals("Large.java is a large file, only syntax errors are reported", reported.get(0).getMessage());
+		assertEquals(3, reported.get(1).getRange().getStart().getLine());
+		diagnostics.clear();
+
+		closeDocument(cu);
+	}
+
+	@Test
+	public void testBodyChangeDoesNotRevalidateDependents() throws Exception {
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+
+		StringBuilder buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class F123 {\n");
+		buf.append("  public static void foo() {}\n");
+		buf.append("}\n");
+		ICompilationUnit cu1 = pack1.createCompilationUnit("F123.java", buf.toString(), false, null);
+
+		buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class F456 {\n");
+		buf.append("  { F123.foo(); }\n");
+		buf.append("}\n");
+		ICompilationUnit cu2 = pack1.createCompilationUnit("F456.java", buf.toString(), false, null);
+
+		buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class F789 {\n");
+		buf.append("}\n");
+		ICompilationUnit cu3 = pack1.createCompilationUnit("F789.java", buf.toString(), false, null);
+
+		openDocument(cu2, cu2.getSource(), 1);
+		assertNewProblemReported(new ExpectedProblemReport(cu2, 0));
+		openDocument(cu3, cu3.getSource(), 1);
+		openDocument(cu1, cu1.getSource(), 1);
+		// an opened unit is handled like a non-local change, the open units which can see it are revalidated
+		assertEquals(0, getLastDiagnostics(cu2).size());
+		assertEquals(0, getLastDiagnostics(cu3).size());
+		assertEquals(0, getLastDiagnostics(cu1).size());
+		getClientRequests("publishDiagnostics").clear();
+
+		buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class F123 {\n");
+		buf.append("  public static void foo() { int i = 0; }\n");
+		buf.append("}\n");
+		changeDocumentFull(cu1, buf.toString(), 2);
+		// body-only change: no dependent is revalidated
+		assertNewProblemReported(new ExpectedProblemReport(cu1, 0));
+
+		buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class F123 {\n");
+		buf.append("  public static void foo() { int i = 0; }\n");
+		buf.append("  private static void baz() {}\n");
+		buf.append("  private static class Nested { public void qux() {} }\n");
+		buf.append("}\n");
+		changeDocumentFull(cu1, buf.toString(), 3);
+		// private members only: no dependent is revalidated
+		assertNewProblemReported(new ExpectedProblemReport(cu1, 0));
+
+		buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class F123 {\n");
+		buf.append("  public static void bar() { int i = 0; }\n");
+		buf.append("}\n");
+		changeDocumentFull(cu1, buf.toString(), 4);
+		// non-local change: F456 is revalidated and now fails
+		assertEquals(1, getLastDiagnostics(cu2).size());
+		assertEquals(0, getLastDiagnostics(cu3).size());
+		assertEquals(0, getLastDiagnostics(cu1).size());
+
+		closeDocument(cu1);
+		closeDocument(cu2);
+		closeDocument(cu3);
+	}
+
+	@Test
+	public void testCancelledValidationRevalidatesDependents() throws Exception {
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+
+		ICompilationUnit cu1 = pack1.createCompilationUnit("F123.java", "package test1;\npublic class F123 {\n  public static void foo() {}\n}\n", false, null);
+		ICompilationUnit cu2 = pack1.createCompilationUnit("F456.java", "package test1;\npublic class F456 {\n  { F123.foo(); }\n}\n", false, null);
+		ICompilationUnit cu3 = pack1.createCompilationUnit("F789.java", "package test1;\npublic class F789 {\n  public static void baz() {}\n}\n", false, null);
+		ICompilationUnit cu4 = pack1.createCompilationUnit("F012.java", "package test1;\npublic class F012 {\n  { F789.baz(); }\n}\n", false, null);
+		for (ICompilationUnit cu : Arrays.asList(cu1, cu2, cu3, cu4)) {
+			openDocument(cu, cu.getSource(), 1);
+		}
+		getClientRequests("publishDiagnostics").clear();
+
+		DocumentLifeCycleHandler handler = new DocumentLifeCycleHandler(javaClient, preferenceManager, projectsManager, true);
+		cu1.getBuffer().setContents(cu1.getSource().replace("foo", "bar"));
+		cu3.getBuffer().setContents(cu3.getSource().replace("baz", "qux"));
+		// queued, but validated below
+		handler.triggerValidation(cu1, 60000);
+		handler.triggerValidation(cu3, 60000);
+		try {
+			// cancelled once the first unit has been reconciled
+			IStatus status = handler.performValidation(new NullProgressMonitor() {
+				@Override
+				public boolean isCanceled() {
+					try {
+						return cu1.isConsistent() || cu3.isConsistent();
+					} catch (JavaModelException e) {
+						return false;
+					}
+				}
+			});
+			assertEquals(Status.CANCEL_STATUS, status);
+			handler.performValidation(new NullProgressMonitor());
+			Job.getJobManager().join(DocumentLifeCycleHandler.PUBLISH_DIAGNOSTICS_JOBS, new NullProgressMonitor());
+		} finally {
+			Job.getJobManager().cancel(DocumentLifeCycleHandler.DOCUMENT_LIFE_CYCLE_JOBS);
+		}
+		// both structural changes reached their dependent
+		assertEquals(1, getLastDiagnostics(cu2).size());
+		assertEquals(1, getLastDiagnostics(cu4).size());
+	}
+
+	@Test
+	public void testCloseEditedDocumentRevalidatesDependents() throws Exception {
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+
+		ICompilationUnit cu1 = pack1.createCompilationUnit("F123.java", "package test1;\npublic class F123 {\n  public static void foo() {}\n}\n", false, null);
+		ICompilationUnit cu2 = pack1.createCompilationUnit("F456.java", "package test1;\npublic class F456 {\n  { F123.foo(); }\n}\n", false, null);
+
+		openDocument(cu2, cu2.getSource(), 1);
+		assertNewProblemReported(new ExpectedProblemReport(cu2, 0));
+		openDocument(cu1, cu1.getSource(), 1);
+		assertNewProblemReported(new ExpectedProblemReport(cu2, 0), new ExpectedProblemReport(cu1, 0));
+
+		changeDocumentFull(cu1, cu1.getSource().replace("foo", "bar"), 2);
+		assertNewProblemReported(new ExpectedProblemReport(cu2, 1), new ExpectedProblemReport(cu1, 0));
+
+		// closing without saving brings foo() back
+		closeDocument(cu1);
+		assertNewProblemReported(new ExpectedProblemReport(cu1, 0), new ExpectedProblemReport(cu2, 0));
+
+		closeDocument(cu2);
+	}
+
+	@Test
+	public void testRemovedMemberRevalidatesIndirectDependents() throws Exception {
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+
+		ICompilationUnit cu1 = pack1.createCompilationUnit("F123.java", "package test1;\npublic class F123 {\n  public void foo() {}\n  public static void bar() {}\n}\n", false, null);
+		ICompilationUnit cu2 = pack1.createCompilationUnit("F456.java", "package test1;\npublic class F456 extends F123 {\n  public F123 get() { return this; }\n}\n", false, null);
+		// refers to the members of F123 without naming it: chained call, inherited member, static import
+		ICompilationUnit cu3 = pack1.createCompilationUnit("F789.java", "package test1;\nimport static test1.F123.*;\npublic class F789 {\n  { new F456().get().foo(); new F456().foo(); bar(); }\n}\n", false, null);
+		for (ICompilationUnit cu : Arrays.asList(cu1, cu2, cu3)) {
+			openDocument(cu, cu.getSource(), 1);
+		}
+		assertEquals(0, getLastDiagnostics(cu3).size());
+		getClientRequests("publishDiagnostics").clear();
+
+		changeDocumentFull(cu1, "package test1;\npublic class F123 {\n}\n", 2);
+		assertEquals(3, getLastDiagnostics(cu3).size());
+
+		closeDocument(cu1);
+		closeDocument(cu2);
+		closeDocument(cu3);
+	}
+
+	private List<Diagnostic> getLastDiagnostics(ICompilationUnit cu) {
+		String uri = JDTUtils.toURI(cu);
+		List<Diagnostic> diagnostics = null;
+		for (PublishDiagnosticsParams params : this.<PublishDiagnosticsParams> getClientRequests("publishDiagnostics")) {
+			if (uri.equals(params.getUri())) {
+				diagnostics = params.getDiagnostics();
+			}
+		}
+		assertNotNull(uri + " wasn't published", diagnostics);
+		return diagnostics;
+	}
+
 	@Test
 	public void testDidOpenStandaloneFile() throws Exception {
 		IJavaProject javaProject = newDefaultProject();
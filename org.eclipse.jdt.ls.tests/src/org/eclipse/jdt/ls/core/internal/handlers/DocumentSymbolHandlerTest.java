@@ -13,11 +13,15 @@
 package org.eclipse.jdt.ls.core.internal.handlers;
 
 import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -27,10 +31,14 @@ import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.ls.core.internal.ClassFileUtil;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
 import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
 import org.eclipse.lsp4j.DocumentSymbol;
@@ -163,6 +171,44 @@ public class DocumentSymbolHandlerTest extends AbstractProjectsManagerBasedTest
 		assertHasHierarchicalSymbol("add(int...) : int", "bar", SymbolKind.Method, symbols);
 	}
 
+	@Test
+	public void testWorkingCopySymbols_hierarchical() throws Exception {
+		IFile file = project.getFile("src/main/java/org/sample/Deprecations.java");
+		//@formatter:off
+		String contents = "package org.sample;\n" +
+				"\n" +
+				"public class Deprecations {\n" +
+				"\t@Deprecated\n" +
+				"\tpublic int foo() {\n" +
+				"\t\treturn 0;\n" +
+				"\t}\n" +
+				"}\n";
+		//@formatter:on
+		file.create(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), true, monitor);
+		ICompilationUnit cu = JavaCore.createCompilationUnitFrom(file);
+		cu.becomeWorkingCopy(monitor);
+		try {
+			DocumentSymbolParams params = new DocumentSymbolParams(new TextDocumentIdentifier(JDTUtils.toURI(cu)));
+			List<DocumentSymbol> symbols = new DocumentSymbolHandler(true).documentSymbol(params, monitor).stream().map(Either::getRight).collect(toList());
+			DocumentSymbol foo = asStream(symbols).filter(s -> "foo()".equals(s.getName())).findFirst().get();
+			assertEquals(" : int", foo.getDetail());
+			assertTrue(foo.getDeprecated());
+			assertEquals(new Range(new Position(4, 12), new Position(4, 15)), foo.getSelectionRange());
+			assertEquals(new Range(new Position(3, 1), new Position(6, 2)), foo.getRange());
+
+			// the symbols are kept until the document is modified
+			List<DocumentSymbol> cached = new DocumentSymbolHandler(true).documentSymbol(params, monitor).stream().map(Either::getRight).collect(toList());
+			assertSame(symbols.get(0), cached.get(0));
+			cu.getBuffer().replace(contents.indexOf("foo"), 3, "bar");
+			cu.reconcile(ICompilationUnit.NO_AST, false, null, monitor);
+			List<DocumentSymbol> modified = new DocumentSymbolHandler(true).documentSymbol(params, monitor).stream().map(Either::getRight).collect(toList());
+			assertNotSame(symbols.get(0), modified.get(0));
+			assertTrue(asStream(modified).anyMatch(s -> "bar()".equals(s.getName())));
+		} finally {
+			cu.discardWorkingCopy();
+		}
+	}
+
 	private static List<? extends DocumentSymbol> internalGetHierarchicalSymbols(IProject project, IProgressMonitor monitor, String className)
 			throws JavaModelException, UnsupportedEncodingException, InterruptedException, ExecutionException {
 		String uri = ClassFileUtil.getURI(project, className);
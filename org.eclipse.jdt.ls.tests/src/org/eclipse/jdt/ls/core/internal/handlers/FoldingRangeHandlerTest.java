@@ -13,12 +13,19 @@
 
 package org.eclipse.jdt.ls.core.internal.handlers;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
@@ -121,6 +128,52 @@ public class FoldingRangeHandlerTest extends AbstractProjectsManagerBasedTest {
 		assertHasFoldingRange(48, 50, null, foldingRanges);
 	}
 
+	@Test
+	public void testNestedFoldingRanges() throws Exception {
+		String className = "org.sample.NestedFoldingRange";
+		List<FoldingRange> foldingRanges = getFoldingRanges(className);
+		assertEquals(11, foldingRanges.size());
+		assertHasFoldingRange(2, 2, FoldingRangeKind.Imports, foldingRanges);
+		assertHasFoldingRange(4, 54, null, foldingRanges);
+
+		// Method with an anonymous class:
+		assertHasFoldingRange(22, 28, null, foldingRanges);
+		assertHasFoldingRange(23, 27, null, foldingRanges);
+		assertHasFoldingRange(25, 26, null, foldingRanges);
+
+		// Enum, the body of its constant isn't folded:
+		assertHasFoldingRange(30, 42, null, foldingRanges);
+		assertHasFoldingRange(39, 41, null, foldingRanges);
+
+		// Interface and annotation:
+		assertHasFoldingRange(44, 47, null, foldingRanges);
+		assertHasFoldingRange(45, 46, null, foldingRanges);
+		assertHasFoldingRange(49, 53, null, foldingRanges);
+		assertHasFoldingRange(50, 52, null, foldingRanges);
+	}
+
+	@Test
+	public void testConcurrentFoldingRanges() throws Exception {
+		List<String> classNames = Arrays.asList("org.sample.SimpleFoldingRange", "org.sample.StatementFoldingRange", "org.sample.RegionFoldingRange", "org.sample.NestedFoldingRange");
+		List<String> expected = new ArrayList<>();
+		for (String className : classNames) {
+			expected.add(toString(getFoldingRanges(className)));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> futures = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				String className = classNames.get(i % classNames.size());
+				futures.add(executor.submit(() -> toString(getFoldingRanges(className))));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				assertEquals(expected.get(i % classNames.size()), futures.get(i).get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	private void testClass(String className) throws CoreException {
 		List<FoldingRange> foldingRanges = getFoldingRanges(className);
 		for (FoldingRange range : foldingRanges) {
@@ -136,6 +189,10 @@ public class FoldingRangeHandlerTest extends AbstractProjectsManagerBasedTest {
 		return new FoldingRangeHandler().foldingRange(params, monitor);
 	}
 
+	private String toString(List<FoldingRange> foldingRanges) {
+		return foldingRanges.stream().sorted(Comparator.comparingInt(FoldingRange::getStartLine).thenComparingInt(FoldingRange::getEndLine)).map(r -> r.getStartLine() + "-" + r.getEndLine() + ":" + r.getKind()).collect(Collectors.joining(","));
+	}
+
 	private boolean isValid(FoldingRange range) {
 		return range != null && range.getStartLine() <= range.getEndLine();
 	}
@@ -14,6 +14,7 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.net.URL;
@@ -329,6 +330,59 @@ public class FormatterHandlerTest extends AbstractCompilationUnitBasedTest {
 		assertEquals(expectedText, newText);
 	}
 
+	@Test
+	public void testRangeFormattingWithinMethod() throws Exception {
+		ICompilationUnit unit = getWorkingCopy("src/org/sample/Baz.java",
+		//@formatter:off
+			"package org.sample;\n\n" +
+			"public class Baz {\n" +
+			"\tvoid foo() {\n" +
+			"\t\tint a=1;\n" +
+			"\t}\n\n" +
+			"\tvoid bar(int b) {\n" +
+			"\t\tint c=b;\n" +
+			"\t\tif(b>1){\n" +
+			"\t\tfoo( );\n" +
+			"\t\t}\n" +
+			"\t\tint d=c+1;\n" +
+			"\t}\n" +
+			"}\n"
+		//@formatter:on
+		);
+
+		String uri = JDTUtils.toURI(unit);
+		TextDocumentIdentifier textDocument = new TextDocumentIdentifier(uri);
+
+		Range range = new Range(new Position(9, 0), new Position(11, 3));// range around the if statement
+		DocumentRangeFormattingParams params = new DocumentRangeFormattingParams(range);
+		params.setTextDocument(textDocument);
+		params.setOptions(new FormattingOptions(4, false));
+
+		List<? extends TextEdit> edits = server.rangeFormatting(params).get();
+		for (TextEdit edit : edits) {
+			assertTrue(edit.getRange().getStart().getLine() >= 9);
+			assertTrue(edit.getRange().getEnd().getLine() <= 11);
+		}
+		//@formatter:off
+		String expectedText =
+			"package org.sample;\n\n" +
+			"public class Baz {\n" +
+			"\tvoid foo() {\n" +
+			"\t\tint a=1;\n" +
+			"\t}\n\n" +
+			"\tvoid bar(int b) {\n" +
+			"\t\tint c=b;\n" +
+			"\t\tif (b > 1) {\n" +
+			"\t\t\tfoo();\n" +
+			"\t\t}\n" +
+			"\t\tint d=c+1;\n" +
+			"\t}\n" +
+			"}\n";
+		//@formatter:on
+		String newText = TextEditUtil.apply(unit, edits);
+		assertEquals(expectedText, newText);
+	}
+
 	@Test
 	public void testDocumentFormattingWithCustomOption() throws Exception {
 		ICompilationUnit unit = getWorkingCopy("src/org/sample/Baz.java",
@@ -470,6 +524,47 @@ public class FormatterHandlerTest extends AbstractCompilationUnitBasedTest {
 		assertEquals(expectedText, newText);
 	}
 
+	@Test // typing ; in a method should format the current line, indented like the previous one
+	public void testFormattingOnTypeSemiColumnWithinMethod() throws Exception {
+		ICompilationUnit unit = getWorkingCopy("src/org/sample/Baz.java",
+		//@formatter:off
+			  "package org.sample;\n"
+			+ "      public class Baz {\n"
+			+ "            void foo() {\n"
+			+ "                  int a=1;\n"
+			+ "                  int b=a+1;\n"//typed ; here
+			+ "            }\n"
+			+ "      }\n"
+		//@formatter:on
+		);
+
+		String uri = JDTUtils.toURI(unit);
+		TextDocumentIdentifier textDocument = new TextDocumentIdentifier(uri);
+		FormattingOptions options = new FormattingOptions(3, true);// ident == 3 spaces
+
+		DocumentOnTypeFormattingParams params = new DocumentOnTypeFormattingParams(new Position(4, 28), ";");
+		params.setTextDocument(textDocument);
+		params.setOptions(options);
+
+		preferenceManager.getPreferences().setJavaFormatOnTypeEnabled(true);
+		List<? extends TextEdit> edits = server.onTypeFormatting(params).get();
+		assertNotNull(edits);
+
+		//@formatter:off
+		String expectedText =
+			  "package org.sample;\n"
+			+ "      public class Baz {\n"
+			+ "            void foo() {\n"
+			+ "                  int a=1;\n"
+			+ "                  int b = a + 1;\n"
+			+ "            }\n"
+			+ "      }\n";
+		//@formatter:on
+
+		String newText = TextEditUtil.apply(unit, edits);
+		assertEquals(expectedText, newText);
+	}
+
 	@Test // typing new_line should format the current line if previous character doesn't close a block
 	public void testFormattingOnTypeNewLine() throws Exception {
 		ICompilationUnit unit = getWorkingCopy("src/org/sample/Baz.java",
@@ -43,6 +43,7 @@ import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
+import org.eclipse.jdt.ls.core.internal.javadoc.JavadocCache;
 import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.jdt.ls.core.internal.preferences.Preferences;
@@ -369,6 +370,59 @@ public class HoverHandlerTest extends AbstractProjectsManagerBasedTest {
 		assertTrue("Unexpected hover ", hover.getContents().getLeft().isEmpty());
 	}
 
+	@Test
+	public void testHoverResolvedTypes() throws Exception {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("import java.util.Vector;\n");
+		buf.append("public class E {\n");
+		buf.append("   Vector v;\n");
+		buf.append("   java.util.ArrayList l;\n");
+		buf.append("   String s;\n");
+		buf.append("}\n");
+		ICompilationUnit cu = pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		assertTrue(getTitleHover(cu, 3, 5).startsWith("java.util.Vector"));
+		assertTrue(getTitleHover(cu, 4, 15).startsWith("java.util.ArrayList"));
+		assertEquals("java.lang.String", getTitleHover(cu, 5, 5));
+	}
+
+	@Test
+	public void testHoverInheritedMemberType() throws Exception {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		pack1.createCompilationUnit("B.java", "package test1;\npublic class B {\n   public static class Inner {}\n}\n", false, null);
+		StringBuilder buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class A extends B {\n");
+		buf.append("   Inner i;\n");
+		buf.append("}\n");
+		ICompilationUnit cu = pack1.createCompilationUnit("A.java", buf.toString(), false, null);
+
+		assertTrue(getTitleHover(cu, 2, 5).startsWith("test1.B.Inner"));
+	}
+
+	@Test
+	public void testHoverMemberTypeOfImportedType() throws Exception {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		pack1.createCompilationUnit("B.java", "package test1;\npublic class B {\n   public static class Inner {}\n}\n", false, null);
+		IPackageFragment pack2 = sourceFolder.createPackageFragment("test2", false, null);
+		StringBuilder buf = new StringBuilder();
+		buf.append("package test2;\n");
+		buf.append("import test1.B;\n");
+		buf.append("public class C {\n");
+		buf.append("   Inner i;\n");
+		buf.append("   B.Inner j;\n");
+		buf.append("}\n");
+		ICompilationUnit cu = pack2.createCompilationUnit("C.java", buf.toString(), false, null);
+
+		// the member type isn't visible by its simple name
+		Hover hover = getHover(cu, 3, 5);
+		assertNotNull(hover);
+		assertTrue("Unexpected hover ", hover.getContents().getLeft().isEmpty());
+		assertTrue(getTitleHover(cu, 4, 7).startsWith("test1.B.Inner"));
+	}
+
 	@Test
 	public void testHoverWithAttachedJavadoc() throws Exception {
 		File commonPrimitivesJdoc = DependencyUtil.getJavadoc("commons-primitives", "commons-primitives", "1.0");
@@ -556,6 +610,47 @@ public class HoverHandlerTest extends AbstractProjectsManagerBasedTest {
 		assertEquals("Unexpected hover ", expectedJavadoc, hover.getContents().getLeft().get(1).getLeft());
 	}
 
+	@Test
+	public void testHoverJavadocCache() throws Exception {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		ICompilationUnit cu = pack1.createCompilationUnit("Cached.java", "package test1;\n/** First text. */\npublic class Cached {}\n", false, null);
+		JavadocCache cache = JavadocCache.getInstance();
+		assertEquals("First text.", getHover(cu, 2, 15).getContents().getLeft().get(1).getLeft());
+		long hits = cache.getHitCount();
+		assertEquals("First text.", getHover(cu, 2, 15).getContents().getLeft().get(1).getLeft());
+		assertEquals(hits + 1, cache.getHitCount());
+
+		cu = pack1.createCompilationUnit("Cached.java", "package test1;\n/** Second text. */\npublic class Cached {}\n", true, null);
+		assertEquals("Second text.", getHover(cu, 2, 15).getContents().getLeft().get(1).getLeft());
+	}
+
+	@Test
+	public void testHoverJavadocCacheEviction() throws Exception {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		pack1.createCompilationUnit("Base.java", "package test1;\npublic class Base {\n\t/** Base text. */\n\tpublic void foo() {}\n}\n", false, null);
+		//@formatter:off
+		ICompilationUnit cu = pack1.createCompilationUnit("Sub.java", "package test1;\n" +
+				"public class Sub extends Base {\n" +
+				"\tpublic void foo() {}\n" +
+				"\t/** Own text. */\n" +
+				"\tpublic void bar() {}\n" +
+				"}\n", false, null);
+		//@formatter:on
+		JavadocCache cache = JavadocCache.getInstance();
+		assertEquals("Own text.", getHover(cu, 4, 14).getContents().getLeft().get(1).getLeft());
+		assertTrue(getHover(cu, 2, 14).getContents().getLeft().get(1).getLeft().contains("Base text."));
+
+		// the Javadoc of the other units is kept
+		pack1.createCompilationUnit("Other.java", "package test1;\npublic class Other {}\n", true, null);
+		long hits = cache.getHitCount();
+		assertEquals("Own text.", getHover(cu, 4, 14).getContents().getLeft().get(1).getLeft());
+		assertEquals(hits + 1, cache.getHitCount());
+
+		// inherited Javadoc is read again
+		pack1.createCompilationUnit("Base.java", "package test1;\npublic class Base {\n\t/** Changed text. */\n\tpublic void foo() {}\n}\n", true, null);
+		assertTrue(getHover(cu, 2, 14).getContents().getLeft().get(1).getLeft().contains("Changed text."));
+	}
+
 	@Test
 	public void testHoverOnPackageWithNewJavadoc() throws Exception {
 		// See org.eclipse.jdt.ls.tests/testresources/java-doc/readme.txt to generate the remote javadoc
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.internal.core.Buffer;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.junit.Test;
+
+public class JsonRpcHelpersTest {
+
+	private static final String CONTENTS = "package foo;\r\n\r\npublic class Foo {\n\tint bar;\r}\n";
+
+	@Test
+	public void testToLineMatchesDocument() {
+		IBuffer buffer = newBuffer(CONTENTS);
+		IDocument document = new Document(CONTENTS);
+		int[] offsets = new int[CONTENTS.length() + 1];
+		for (int offset = 0; offset <= CONTENTS.length(); offset++) {
+			offsets[offset] = offset;
+			assertArrayEquals("offset " + offset, JsonRpcHelpers.toLine(document, offset), JsonRpcHelpers.toLine(buffer, offset));
+		}
+		int[][] lines = JsonRpcHelpers.toLines(buffer, offsets);
+		for (int offset = 0; offset <= CONTENTS.length(); offset++) {
+			assertArrayEquals("offset " + offset, JsonRpcHelpers.toLine(document, offset), lines[offset]);
+		}
+		for (int line = 0; line < document.getNumberOfLines(); line++) {
+			assertEquals("line " + line, JsonRpcHelpers.toOffset(document, line, 1), JsonRpcHelpers.toOffset(buffer, line, 1));
+		}
+	}
+
+	@Test
+	public void testInvalidOffset() {
+		IBuffer buffer = newBuffer(CONTENTS);
+		assertNull(JsonRpcHelpers.toLine(buffer, CONTENTS.length() + 1));
+		assertNull(JsonRpcHelpers.toLines(buffer, 0, -1)[1]);
+		assertEquals(-1, JsonRpcHelpers.toOffset(buffer, 10, 0));
+	}
+
+	@Test
+	public void testBufferChange() {
+		IBuffer buffer = newBuffer(CONTENTS);
+		assertArrayEquals(new int[] { 2, 0 }, JsonRpcHelpers.toLine(buffer, 16));
+		buffer.setContents("\n" + CONTENTS);
+		assertArrayEquals(new int[] { 2, 0 }, JsonRpcHelpers.toLine(buffer, 15));
+		assertArrayEquals(new int[] { 3, 0 }, JsonRpcHelpers.toLine(buffer, 17));
+	}
+
+	private static IBuffer newBuffer(String contents) {
+		IBuffer buffer = new Buffer(null, null, false) {
+		};
+		buffer.setContents(contents);
+		return buffer;
+	}
+}
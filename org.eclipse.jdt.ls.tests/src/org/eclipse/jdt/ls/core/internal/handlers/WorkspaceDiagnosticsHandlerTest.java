@@ -15,6 +15,7 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 import static org.eclipse.jdt.ls.core.internal.WorkspaceHelper.getProject;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
@@ -36,11 +37,20 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.IJavaModelMarker;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceDiagnosticsHandler.PreviousResultId;
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceDiagnosticsHandler.WorkspaceDiagnosticsParams;
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceDiagnosticsHandler.WorkspaceDiagnosticsReport;
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceDiagnosticsHandler.WorkspaceDocumentDiagnosticReport;
 import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
 import org.eclipse.jdt.ls.tests.Unstable;
 import org.eclipse.jface.text.IDocument;
@@ -184,6 +194,109 @@ public class WorkspaceDiagnosticsHandlerTest extends AbstractProjectsManagerBase
 		assertEquals(22, r.getEnd().getCharacter());
 	}
 
+	@Test
+	public void testWorkspaceDiagnostics() throws Exception {
+		importProjects("eclipse/hello");
+		WorkspaceDiagnosticsReport report = handler.getWorkspaceDiagnostics(new WorkspaceDiagnosticsParams(), new NullProgressMonitor());
+		Optional<WorkspaceDocumentDiagnosticReport> taskReport = report.items.stream().filter(p -> p.uri.endsWith("TaskMarkerTest.java")).findFirst();
+		assertTrue("No TaskMarkerTest.java report was found", taskReport.isPresent());
+		assertEquals(WorkspaceDocumentDiagnosticReport.FULL, taskReport.get().kind);
+		assertEquals(3, taskReport.get().items.size());
+
+		WorkspaceDiagnosticsParams params = new WorkspaceDiagnosticsParams();
+		params.previousResultIds = report.items.stream().map(p -> new PreviousResultId(p.uri, p.resultId)).collect(Collectors.toList());
+		report = handler.getWorkspaceDiagnostics(params, new NullProgressMonitor());
+		assertEquals(params.previousResultIds.size(), report.items.size());
+		for (WorkspaceDocumentDiagnosticReport item : report.items) {
+			assertEquals(item.uri, WorkspaceDocumentDiagnosticReport.UNCHANGED, item.kind);
+			assertNull(item.items);
+		}
+	}
+
+	@Test
+	public void testForgetWorkspaceDiagnosticsResults() throws Exception {
+		importProjects("eclipse/hello");
+		IFile file = getProject("hello").getFile("src/test1/TaskMarkerTest.java");
+		String uri = ResourceUtils.toClientUri(JDTUtils.getFileURI(file));
+		WorkspaceDiagnosticsReport report = handler.getWorkspaceDiagnostics(new WorkspaceDiagnosticsParams(), new NullProgressMonitor());
+		assertTrue(report.items.stream().anyMatch(p -> p.uri.equals(uri)));
+		assertTrue(handler.hasResult(uri));
+
+		handler.addResourceChangeListener();
+		try {
+			file.delete(true, new NullProgressMonitor());
+		} finally {
+			handler.removeResourceChangeListener();
+		}
+		assertFalse(handler.hasResult(uri));
+	}
+
+	@Test
+	public void testUnchangedDiagnostics() throws Exception {
+		importProjects("eclipse/hello");
+		IFile file = getProject("hello").getFile("src/test1/TaskMarkerTest.java");
+		JavaClientConnection javaClient = new JavaClientConnection(client);
+		WorkspaceDiagnosticsHandler publisher = new WorkspaceDiagnosticsHandler(javaClient, projectsManager, preferenceManager.getClientPreferences());
+		publisher.addResourceChangeListener();
+		try {
+			publisher.publishDiagnostics(new NullProgressMonitor());
+			assertEquals(1, getPublishedDiagnostics(file).size());
+
+			// markers which aren't reported leave the diagnostics unchanged
+			clientRequests.clear();
+			file.createMarker(IMarker.BOOKMARK);
+			assertEquals(0, getPublishedDiagnostics(file).size());
+
+			createTaskMarker(file, "TODO task 3");
+			List<PublishDiagnosticsParams> diags = getPublishedDiagnostics(file);
+			assertEquals(1, diags.size());
+			assertEquals(4, diags.get(0).getDiagnostics().size());
+
+			clientRequests.clear();
+			publisher.publishDiagnostics(new NullProgressMonitor());
+			assertEquals(0, getPublishedDiagnostics(file).size());
+		} finally {
+			publisher.removeResourceChangeListener();
+			javaClient.disconnect();
+		}
+	}
+
+	@Test
+	public void testDelayedPublication() throws Exception {
+		importProjects("eclipse/hello");
+		IFile file = getProject("hello").getFile("src/test1/TaskMarkerTest.java");
+		JavaClientConnection javaClient = new JavaClientConnection(client);
+		WorkspaceDiagnosticsHandler publisher = new WorkspaceDiagnosticsHandler(javaClient, projectsManager, preferenceManager.getClientPreferences(), true);
+		publisher.addResourceChangeListener();
+		try {
+			clientRequests.clear();
+			createTaskMarker(file, "TODO task 3");
+			createTaskMarker(file, "TODO task 4");
+			createTaskMarker(file, "TODO task 5");
+			Job.getJobManager().join(WorkspaceDiagnosticsHandler.PUBLISH_WORKSPACE_DIAGNOSTICS_JOBS, new NullProgressMonitor());
+			// the diagnostics changed by the 3 events are published once
+			List<PublishDiagnosticsParams> diags = getPublishedDiagnostics(file);
+			assertEquals(1, diags.size());
+			assertEquals(6, diags.get(0).getDiagnostics().size());
+		} finally {
+			publisher.removeResourceChangeListener();
+			javaClient.disconnect();
+		}
+	}
+
+	private void createTaskMarker(IFile file, String message) throws CoreException {
+		// a single resource change event
+		ResourcesPlugin.getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			IMarker marker = file.createMarker(IJavaModelMarker.TASK_MARKER);
+			marker.setAttributes(new String[] { IMarker.MESSAGE, IMarker.LINE_NUMBER, IMarker.CHAR_START, IMarker.CHAR_END }, new Object[] { message, 1, 0, 4 });
+		}, new NullProgressMonitor());
+	}
+
+	private List<PublishDiagnosticsParams> getPublishedDiagnostics(IFile file) {
+		List<Object> requests = clientRequests.getOrDefault("publishDiagnostics", Collections.emptyList());
+		return requests.stream().map(PublishDiagnosticsParams.class::cast).filter(p -> p.getUri().endsWith(file.getName())).collect(Collectors.toList());
+	}
+
 	@Test
 	public void testMavenMarkers() throws Exception {
 		String msg1 = "Some dependency is missing";
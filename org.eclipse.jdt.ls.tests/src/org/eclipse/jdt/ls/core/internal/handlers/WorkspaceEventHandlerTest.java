@@ -15,12 +15,15 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.io.Files;
 
@@ -127,29 +130,38 @@ public class WorkspaceEventHandlerTest extends AbstractProjectsManagerBasedTest
 		waitForBackgroundJobs();
 		assertFalse(module2.exists());
 
-		List<PublishDiagnosticsParams> diags = getClientRequests("publishDiagnostics");
-		assertEquals(9L, diags.size());
-		assertEndsWith(diags.get(0).getUri(), "/module2");
-		assertEndsWith(diags.get(1).getUri(), "/multimodule3");
-		assertEndsWith(diags.get(2).getUri(), "/multimodule3/pom.xml");
-		assertEndsWith(diags.get(3).getUri(), "/module2/pom.xml");
-		assertEquals(0L, diags.get(3).getDiagnostics().size());
-		assertEndsWith(diags.get(4).getUri(), "/module2");
-		assertEquals(0L, diags.get(4).getDiagnostics().size());
-		assertEndsWith(diags.get(5).getUri(), "/App.java");
-		assertEquals(0L, diags.get(5).getDiagnostics().size());
-		assertEndsWith(diags.get(6).getUri(), "/AppTest.java");
-		assertEquals(0L, diags.get(6).getDiagnostics().size());
-		assertEndsWith(diags.get(7).getUri(), "/multimodule3");
-		assertEndsWith(diags.get(8).getUri(), "/multimodule3/pom.xml");
+		// unchanged diagnostics aren't published again, only the last ones published for each URI are checked
+		Map<String, PublishDiagnosticsParams> diags = new HashMap<>();
+		for (PublishDiagnosticsParams diag : this.<PublishDiagnosticsParams>getClientRequests("publishDiagnostics")) {
+			diags.put(stripTrailingSlash(diag.getUri()), diag);
+		}
+		assertEmptyDiagnostics(diags, "/module2");
+		assertEmptyDiagnostics(diags, "/module2/pom.xml");
+		assertEmptyDiagnostics(diags, "/App.java");
+		assertEmptyDiagnostics(diags, "/AppTest.java");
+		// the diagnostics of the remaining parent project are published as well
+		assertPublished(diags, "/multimodule3");
+		assertPublished(diags, "/multimodule3/pom.xml");
+	}
+
+	private void assertEmptyDiagnostics(Map<String, PublishDiagnosticsParams> diags, String suffix) {
+		PublishDiagnosticsParams diag = assertPublished(diags, suffix);
+		assertEquals(diag.getUri(), 0L, diag.getDiagnostics().size());
 	}
 
-	private void assertEndsWith(String target, String suffix) {
-		if (target.endsWith("/")) {
-			target = target.substring(0, target.length() - 1);
+	private PublishDiagnosticsParams assertPublished(Map<String, PublishDiagnosticsParams> diags, String suffix) {
+		PublishDiagnosticsParams diag = null;
+		for (Map.Entry<String, PublishDiagnosticsParams> entry : diags.entrySet()) {
+			if (entry.getKey().endsWith(suffix)) {
+				diag = entry.getValue();
+			}
 		}
+		assertNotNull("No diagnostics were published for " + suffix, diag);
+		return diag;
+	}
 
-		assertTrue(target.endsWith(suffix));
+	private String stripTrailingSlash(String uri) {
+		return uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
 	}
 
 	private void openDocument(ICompilationUnit cu, String content, int version) {
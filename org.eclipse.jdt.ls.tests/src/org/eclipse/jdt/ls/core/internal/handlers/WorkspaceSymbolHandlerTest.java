@@ -19,8 +19,10 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.util.List;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
@@ -166,4 +168,47 @@ public class WorkspaceSymbolHandlerTest extends AbstractProjectsManagerBasedTest
 		boolean hasEmptyName = results.stream().filter(s -> (s.getName() == null || s.getName().isEmpty())).findFirst().isPresent();
 		assertFalse("Found empty name", hasEmptyName);
 	}
+
+	@Test
+	public void testRankedResults() {
+		List<SymbolInformation> results = handler.search("Foo", 3, "hello", true, monitor);
+		assertEquals("Found " + results.size() + " results", 3, results.size());
+		assertEquals("Foo", results.get(0).getName());
+		for (SymbolInformation symbol : results) {
+			assertTrue(symbol.getName().startsWith("Foo"));
+		}
+	}
+
+	@Test
+	public void testIndexUpdate() throws Exception {
+		assertEquals(0, handler.search("Quux", "hello", true, monitor).size());
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject("hello");
+		IFile file = project.getFile("src/java/Quux.java");
+		file.create(new ByteArrayInputStream("package java;\npublic class Quux {}\n".getBytes()), true, monitor);
+		waitForBackgroundJobs();
+		List<SymbolInformation> results = handler.search("Quux", "hello", true, monitor);
+		assertEquals(1, results.size());
+		assertTrue(results.get(0).getLocation().getUri().endsWith("Quux.java"));
+		file.delete(true, monitor);
+		waitForBackgroundJobs();
+		assertEquals(0, handler.search("Quux", "hello", true, monitor).size());
+	}
+
+	@Test
+	public void testIndexUpdateChangedUnit() throws Exception {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject("hello");
+		IFile file = project.getFile("src/java/Quux.java");
+		file.create(new ByteArrayInputStream("package java;\npublic class Quux {}\nclass QuuxHelper {}\n".getBytes()), true, monitor);
+		try {
+			waitForBackgroundJobs();
+			assertEquals(2, handler.search("Quux", "hello", true, monitor).size());
+			file.setContents(new ByteArrayInputStream("package java;\npublic class Quux {}\nclass QuuxOther {}\n".getBytes()), true, false, monitor);
+			waitForBackgroundJobs();
+			assertEquals(2, handler.search("Quux", "hello", true, monitor).size());
+			assertEquals(0, handler.search("QuuxHelper", "hello", true, monitor).size());
+			assertEquals(1, handler.search("QuuxOther", "hello", true, monitor).size());
+		} finally {
+			file.delete(true, monitor);
+		}
+	}
 }
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ContentCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File directory;
+
+	@Before
+	public void setup() throws Exception {
+		directory = folder.newFolder("content-cache");
+	}
+
+	@Test
+	public void testMemoryEviction() {
+		ContentCache cache = new ContentCache(null, 40, 0);
+		cache.put("a", "0123456789");
+		cache.put("b", "0123456789");
+		assertEquals("0123456789", cache.get("a"));
+		// evicts b, the least recently used
+		cache.put("c", "0123456789");
+		assertNull(cache.get("b"));
+		assertEquals("0123456789", cache.get("a"));
+		assertEquals("0123456789", cache.get("c"));
+		assertEquals(40, cache.getMemorySize());
+		assertEquals(3, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testClearMemory() {
+		ContentCache cache = new ContentCache(directory, 1024, 1024);
+		cache.put("key", "class Foo {}");
+		cache.clearMemory();
+		assertEquals(0, cache.getMemorySize());
+		// still stored on disk
+		assertEquals("class Foo {}", cache.get("key"));
+		assertEquals(1, cache.getDiskHitCount());
+	}
+
+	@Test
+	public void testDiskStore() {
+		ContentCache cache = new ContentCache(directory, 1024, 1024);
+		cache.put("key", "class Foo {}");
+		assertTrue(cache.getDiskSize() > 0);
+
+		ContentCache reloaded = new ContentCache(directory, 1024, 1024);
+		assertEquals(cache.getDiskSize(), reloaded.getDiskSize());
+		assertEquals("class Foo {}", reloaded.get("key"));
+		assertEquals(1, reloaded.getDiskHitCount());
+		assertEquals("class Foo {}", reloaded.get("key"));
+		assertEquals(1, reloaded.getDiskHitCount());
+		assertEquals(2, reloaded.getHitCount());
+		assertNull(reloaded.get("other"));
+	}
+
+	@Test
+	public void testDiskEviction() throws Exception {
+		String content = "0123456789012345678901234567890123456789";
+		ContentCache cache = new ContentCache(directory, 0, 100);
+		cache.put("first", content);
+		setAge("first", 60000);
+		cache.put("second", content);
+		setAge("second", 30000);
+		cache.put("third", content);
+		assertTrue(cache.getDiskSize() <= 90);
+		assertNull(cache.get("first"));
+		assertNull(cache.get("second"));
+		assertEquals(content, cache.get("third"));
+	}
+
+	private void setAge(String key, long age) throws Exception {
+		for (File file : directory.listFiles()) {
+			if (new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).startsWith(key + "\n")) {
+				file.setLastModified(System.currentTimeMillis() - age);
+			}
+		}
+	}
+}
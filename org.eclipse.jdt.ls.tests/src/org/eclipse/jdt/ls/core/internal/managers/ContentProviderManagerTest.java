@@ -15,12 +15,14 @@ package org.eclipse.jdt.ls.core.internal.managers;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
 import java.util.Arrays;
+import java.util.Collections;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.jdt.core.IClassFile;
@@ -245,6 +247,33 @@ public class ContentProviderManagerTest extends AbstractProjectsManagerBasedTest
 		assertEquals(FakeContentProvider.returnValue, provider.getContent(sourcelessURI, monitor));
 	}
 
+	@Test
+	public void testCaching() {
+		when(preferences.getPreferredContentProviderIds()).thenReturn(Arrays.asList("disassemblerContentProvider"));
+
+		String result = provider.getContent(sourcelessURI, monitor);
+		assertTrue("disassembler header is missing from " + result, result.startsWith(DisassemblerContentProvider.DISASSEMBLED_HEADER));
+		assertEquals(0, provider.getCache().getHitCount());
+		assertSame(result, provider.getSource(sourcelessClassFile, monitor));
+		assertEquals(1, provider.getCache().getHitCount());
+	}
+
+	@Test
+	public void testCachingWithProviderSettings() {
+		when(preferences.getPreferredContentProviderIds()).thenReturn(Arrays.asList("disassemblerContentProvider"));
+		when(preferences.asMap()).thenReturn(Collections.singletonMap("java.decompiler.option", "a"));
+
+		provider.getContent(sourcelessURI, monitor);
+		provider.getContent(sourcelessURI, monitor);
+		assertEquals(1, provider.getCache().getHitCount());
+
+		// the content provided with other settings isn't cached yet
+		when(preferences.asMap()).thenReturn(Collections.singletonMap("java.decompiler.option", "b"));
+		provider.getContent(sourcelessURI, monitor);
+		assertEquals(1, provider.getCache().getHitCount());
+		assertEquals(2, provider.getCache().getMissCount());
+	}
+
 	private void expectLoggedError(String expected) {
 		assertTrue("expected error " + expected, logListener.getErrors().stream().filter(e -> e.contains(expected)).findAny().isPresent());
 	}
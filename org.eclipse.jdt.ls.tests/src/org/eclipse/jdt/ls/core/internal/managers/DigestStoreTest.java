@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DigestStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File stateLocation;
+
+	@Before
+	public void setup() throws Exception {
+		stateLocation = folder.newFolder("state");
+	}
+
+	@Test
+	public void testUpdateDigest() throws Exception {
+		Path pom = write("pom.xml", "<project/>");
+		DigestStore store = new DigestStore(stateLocation);
+		assertTrue(store.updateDigest(pom));
+		assertFalse(store.updateDigest(pom));
+		write("pom.xml", "<project></project>");
+		assertTrue(store.updateDigest(pom));
+		assertFalse(new DigestStore(stateLocation).updateDigest(pom));
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		DigestStore store = new DigestStore(stateLocation);
+		store.beginBatch();
+		for (int i = 0; i < 10; i++) {
+			assertTrue(store.updateDigest(write("pom" + i + ".xml", "<project>" + i + "</project>")));
+		}
+		assertEquals(0, store.getBytesWritten());
+		store.endBatch();
+		assertTrue(store.getBytesWritten() > 0);
+		DigestStore reloaded = new DigestStore(stateLocation);
+		for (int i = 0; i < 10; i++) {
+			assertFalse(reloaded.updateDigest(folder.getRoot().toPath().resolve("pom" + i + ".xml")));
+		}
+	}
+
+	@Test
+	public void testIncompleteRecord() throws Exception {
+		Path first = write("first.xml", "<project/>");
+		Path second = write("second.xml", "<project/>");
+		DigestStore store = new DigestStore(stateLocation);
+		store.updateDigest(first);
+		File stateFile = new File(stateLocation, ".file-digests");
+		long length = stateFile.length();
+		store.updateDigest(second);
+		try (RandomAccessFile file = new RandomAccessFile(stateFile, "rw")) {
+			file.setLength(length + 5);
+		}
+		store = new DigestStore(stateLocation);
+		assertEquals(length, stateFile.length());
+		assertFalse(store.updateDigest(first));
+		assertTrue(store.updateDigest(second));
+		assertFalse(new DigestStore(stateLocation).updateDigest(second));
+	}
+
+	@Test
+	public void testLegacyDigests() throws Exception {
+		Path pom = write("pom.xml", "<project/>");
+		DigestStore store = new DigestStore(stateLocation);
+		store.updateDigest(pom);
+		folder.newFolder("legacy");
+		File legacyLocation = new File(folder.getRoot(), "legacy");
+		HashMap<String, String> digests = new HashMap<>();
+		digests.put(pom.toString(), "[0]");
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(new File(legacyLocation, ".file-digests")))) {
+			out.writeObject(digests);
+		}
+		store = new DigestStore(legacyLocation);
+		assertTrue(store.updateDigest(pom));
+		assertFalse(new DigestStore(legacyLocation).updateDigest(pom));
+	}
+
+	private Path write(String name, String content) throws Exception {
+		Path path = folder.getRoot().toPath().resolve(name);
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+		return path;
+	}
+}
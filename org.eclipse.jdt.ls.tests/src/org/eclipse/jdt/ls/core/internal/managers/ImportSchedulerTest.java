@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.ls.core.internal.StatusFactory;
+import org.junit.Test;
+
+public class ImportSchedulerTest {
+
+	@Test
+	public void testPrepare() throws Exception {
+		ImportScheduler<String> scheduler = new ImportScheduler<>(Function.identity(), 2);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		Thread caller = Thread.currentThread();
+		Map<String, String> prepared = scheduler.prepare(asList("parent", "core", "util", "app", "other"), (module, monitor) -> {
+			assertNotSame(caller, Thread.currentThread());
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			running.decrementAndGet();
+			return module.toUpperCase();
+		}, new NullProgressMonitor());
+		assertEquals(asList("parent", "core", "util", "app", "other"), new ArrayList<>(prepared.keySet()));
+		assertEquals(asList("PARENT", "CORE", "UTIL", "APP", "OTHER"), new ArrayList<>(prepared.values()));
+		assertTrue(maxRunning.get() <= 2);
+	}
+
+	@Test
+	public void testPreparedConcurrently() throws Exception {
+		ImportScheduler<String> scheduler = new ImportScheduler<>(Function.identity(), 2);
+		CountDownLatch started = new CountDownLatch(2);
+		scheduler.prepare(asList("core", "app"), (module, monitor) -> {
+			started.countDown();
+			try {
+				assertTrue(started.await(10, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		}, new NullProgressMonitor());
+	}
+
+	@Test
+	public void testPreparationFailure() throws Exception {
+		ImportScheduler<String> scheduler = new ImportScheduler<>(Function.identity(), 2);
+		List<String> prepared = new CopyOnWriteArrayList<>();
+		try {
+			scheduler.prepare(asList("core", "app"), (module, monitor) -> {
+				if ("app".equals(module)) {
+					throw new CoreException(StatusFactory.newErrorStatus("app failed"));
+				}
+				prepared.add(module);
+				return null;
+			}, new NullProgressMonitor());
+			fail("Expected a CoreException");
+		} catch (CoreException e) {
+			assertEquals("app failed", e.getStatus().getMessage());
+		}
+		// the other preparations are done
+		assertEquals(asList("core"), prepared);
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		ImportScheduler<String> scheduler = new ImportScheduler<>(Function.identity(), 1);
+		NullProgressMonitor progress = new NullProgressMonitor();
+		List<String> prepared = new CopyOnWriteArrayList<>();
+		try {
+			scheduler.prepare(asList("core", "app"), (module, monitor) -> {
+				prepared.add(module);
+				progress.setCanceled(true);
+				assertTrue(monitor.isCanceled());
+				return null;
+			}, progress);
+			fail("Expected an OperationCanceledException");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		assertEquals(asList("core"), prepared);
+	}
+}
@@ -33,7 +33,13 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.resources.WorkspaceJob;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
@@ -154,6 +160,46 @@ public class MavenProjectImporterTest extends AbstractMavenBasedTest {
 		assertTrue(dotClasspath.exists());
 	}
 
+	@Test
+	public void testImportInParallel() throws Exception {
+		// the sequential import downloads the dependencies first, so that both imports are timed with the same local repository
+		long sequential = importInJob(copyFiles("maven/multimodule3", true));
+		assertIsMavenProject(WorkspaceHelper.getProject("module1"));
+		WorkspaceHelper.deleteAllProjects();
+		preferences.setImportParallelEnabled(true);
+		long parallel = importInJob(copyFiles("maven/multimodule3", true));
+		JavaLanguageServerPlugin.logInfo("Imported multimodule3 in " + sequential + " ms sequentially, " + parallel + " ms in parallel");
+		assertIsMavenProject(WorkspaceHelper.getProject("multimodule3"));
+		IProject module1 = WorkspaceHelper.getProject("module1");
+		assertIsMavenProject(module1);
+		assertIsMavenProject(WorkspaceHelper.getProject("module2"));
+		assertNotNull(JavaCore.create(module1).findType("org.junit.Test"));
+	}
+
+	/**
+	 * Imports the projects by a job holding the workspace rule, like on
+	 * initialization.
+	 *
+	 * @return the duration of the import, in milliseconds
+	 */
+	private long importInJob(File root) throws Exception {
+		WorkspaceJob job = new WorkspaceJob("Import") {
+			@Override
+			public IStatus runInWorkspace(IProgressMonitor monitor) throws CoreException {
+				projectsManager.initializeProjects(Collections.singleton(org.eclipse.core.runtime.Path.fromOSString(root.getAbsolutePath())), monitor);
+				return Status.OK_STATUS;
+			}
+		};
+		job.setRule(ResourcesPlugin.getWorkspace().getRoot());
+		long start = System.currentTimeMillis();
+		job.schedule();
+		assertTrue("The import didn't complete", job.join(120000, monitor));
+		long time = System.currentTimeMillis() - start;
+		assertTrue(job.getResult().isOK());
+		waitForBackgroundJobs();
+		return time;
+	}
+
 	@Test
 	public void testUnchangedProjectShouldNotBeUpdated() throws Exception {
 		attachJobSpy();
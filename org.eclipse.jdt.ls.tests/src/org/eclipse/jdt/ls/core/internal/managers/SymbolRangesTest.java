@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.Test;
+
+public class SymbolRangesTest {
+
+	//@formatter:off
+	private static final String CONTENT =
+			"package foo;\n" +
+			"\n" +
+			"public class Outer<T> {\n" +
+			"  private int count, size;\n" +
+			"\n" +
+			"  public void add(T value) {\n" +
+			"  }\n" +
+			"\n" +
+			"  public void add(java.util.List<String> values, int... indexes) {\n" +
+			"  }\n" +
+			"\n" +
+			"  static class Inner {\n" +
+			"    String name;\n" +
+			"  }\n" +
+			"}\n";
+	//@formatter:on
+
+	@Test
+	public void testRanges() throws Exception {
+		SymbolRanges ranges = SymbolRanges.compute(CONTENT);
+		IType outer = mockType("Outer", "Outer", null);
+		assertEquals(range(2, 13, 2, 18), ranges.getRange(outer, true));
+		assertEquals(range(2, 0, 14, 1), ranges.getRange(outer, false));
+
+		IField size = mock(IField.class);
+		when(size.getElementName()).thenReturn("size");
+		when(size.getDeclaringType()).thenReturn(outer);
+		assertEquals(range(3, 21, 3, 25), ranges.getRange(size, true));
+
+		// the type variable is erased in the class file
+		IMethod add = mockMethod(outer, "add", "Ljava.lang.Object;");
+		assertEquals(range(5, 14, 5, 17), ranges.getRange(add, true));
+		IMethod addAll = mockMethod(outer, "add", "Ljava.util.List;", "[I");
+		assertEquals(range(8, 14, 8, 17), ranges.getRange(addAll, true));
+		assertNull(ranges.getRange(mockMethod(outer, "add", "I", "I", "I"), true));
+
+		IType inner = mockType("Inner", "Outer$Inner", outer);
+		IField name = mock(IField.class);
+		when(name.getElementName()).thenReturn("name");
+		when(name.getDeclaringType()).thenReturn(inner);
+		assertEquals(range(12, 11, 12, 15), ranges.getRange(name, true));
+	}
+
+	@Test
+	public void testStoredRanges() throws Exception {
+		SymbolRanges ranges = SymbolRanges.compute(CONTENT);
+		SymbolRanges stored = SymbolRanges.parse(ranges.toString());
+		assertEquals(ranges.toString(), stored.toString());
+		IType outer = mockType("Outer", "Outer", null);
+		IMethod addAll = mockMethod(outer, "add", "Ljava.util.List;", "[I");
+		assertEquals(ranges.getRange(addAll, false), stored.getRange(addAll, false));
+		assertNull(SymbolRanges.parse("X\tfoo"));
+	}
+
+	@Test
+	public void testKey() {
+		assertEquals(SymbolRanges.getKey(CONTENT), SymbolRanges.getKey(new String(CONTENT)));
+		assertNotEquals(SymbolRanges.getKey(CONTENT), SymbolRanges.getKey(CONTENT + " "));
+	}
+
+	private static IType mockType(String name, String qualifiedName, IType declaringType) {
+		IType type = mock(IType.class);
+		when(type.getElementName()).thenReturn(name);
+		when(type.getTypeQualifiedName('$')).thenReturn(qualifiedName);
+		when(type.getDeclaringType()).thenReturn(declaringType);
+		return type;
+	}
+
+	private static IMethod mockMethod(IType declaringType, String name, String... parameterTypes) {
+		IMethod method = mock(IMethod.class);
+		when(method.getElementName()).thenReturn(name);
+		when(method.getDeclaringType()).thenReturn(declaringType);
+		when(method.getParameterTypes()).thenReturn(parameterTypes);
+		return method;
+	}
+
+	private static Range range(int startLine, int startCharacter, int endLine, int endCharacter) {
+		return new Range(new Position(startLine, startCharacter), new Position(endLine, endCharacter));
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Optional;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.JavaProjectHelper;
+import org.eclipse.jdt.ls.core.internal.managers.UpdateClasspathJob.UpdateClasspathRequest;
+import org.junit.Test;
+
+public class UpdateClasspathJobTest extends AbstractInvisibleProjectBasedTest {
+
+	@Test
+	public void testUpdateConcurrently() throws Exception {
+		IJavaProject project1 = newProjectWithLibs("project1");
+		IJavaProject project2 = newProjectWithLibs("project2");
+		UpdateClasspathJob job = new UpdateClasspathJob(2);
+		job.queue(newRequest(project1));
+		job.queue(newRequest(project2));
+		job.schedule();
+		job.join();
+
+		assertFooLibrary(project1);
+		assertFooLibrary(project2);
+		assertTrue(job.isApplied(project1));
+		assertTrue(job.isApplied(project2));
+	}
+
+	@Test
+	public void testUnchangedLibraries() throws Exception {
+		IJavaProject project = newProjectWithLibs("project1");
+		UpdateClasspathJob job = new UpdateClasspathJob(1);
+		job.queue(newRequest(project));
+		job.schedule();
+		job.join();
+		assertFooLibrary(project);
+		String unchanged = ">> Libraries of project project1 are unchanged";
+		assertFalse(logListener.getInfos().contains(unchanged));
+
+		job.queue(newRequest(project));
+		job.schedule();
+		job.join();
+		assertFooLibrary(project);
+		assertTrue(logListener.getInfos().contains(unchanged));
+	}
+
+	@Test
+	public void testForgetClosedAndDeletedProjects() throws Exception {
+		IJavaProject project1 = newProjectWithLibs("project1");
+		IJavaProject project2 = newProjectWithLibs("project2");
+		UpdateClasspathJob job = new UpdateClasspathJob(2);
+		job.queue(newRequest(project1));
+		job.queue(newRequest(project2));
+		job.schedule();
+		job.join();
+		assertTrue(job.isApplied(project1));
+		assertTrue(job.isApplied(project2));
+
+		project1.getProject().close(new NullProgressMonitor());
+		assertFalse(job.isApplied(project1));
+		project2.getProject().delete(true, true, new NullProgressMonitor());
+		assertFalse(job.isApplied(project2));
+	}
+
+	private IJavaProject newProjectWithLibs(String name) throws Exception {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+		ProjectsManager.createJavaProject(project, new Path(getWorkingProjectDirectory().getAbsolutePath()).append(name), "src", "bin", new NullProgressMonitor());
+		addLibs(project.getLocation().toFile().toPath());
+		return JavaCore.create(project);
+	}
+
+	private UpdateClasspathRequest newRequest(IJavaProject project) {
+		return new UpdateClasspathRequest(project, new HashSet<>(Arrays.asList("lib/**")), new HashSet<>(), new HashMap<>());
+	}
+
+	private void assertFooLibrary(IJavaProject project) throws Exception {
+		IClasspathEntry[] classpath = project.getRawClasspath();
+		Optional<IClasspathEntry> fooEntry = Arrays.stream(classpath).filter(c -> c.getPath().lastSegment().equals("foo.jar")).findFirst();
+		assertTrue("Unexpected classpath:\n" + JavaProjectHelper.toString(classpath), fooEntry.isPresent());
+		assertEquals("foo-sources.jar", fooEntry.get().getSourceAttachmentPath().lastSegment());
+	}
+}